@@ -36,6 +36,7 @@ import ca.uhn.fhir.model.base.composite.BaseNarrativeDt;
 import ca.uhn.fhir.model.base.composite.BaseResourceReferenceDt;
 import ca.uhn.fhir.model.primitive.BoundCodeDt;
 import ca.uhn.fhir.parser.DataFormatException;
+import ca.uhn.fhir.util.CompiledTerserPath;
 import ca.uhn.fhir.util.ReflectionUtil;
 import org.hl7.fhir.instance.model.api.IAnyResource;
 import org.hl7.fhir.instance.model.api.IBase;
@@ -64,11 +65,18 @@ import java.util.Map.Entry;
 import java.util.Set;
 import java.util.TreeMap;
 import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 
 import static org.apache.commons.lang3.StringUtils.isNotBlank;
 
 public abstract class BaseRuntimeElementCompositeDefinition<T extends IBase> extends BaseRuntimeElementDefinition<T> {
 
+	/**
+	 * The maximum number of compiled terser paths retained by {@link #getCompiledTerserPath(String, Function)}
+	 */
+	public static final int MAX_COMPILED_TERSER_PATHS = 1000;
+
 	private static final org.slf4j.Logger ourLog =
 			org.slf4j.LoggerFactory.getLogger(BaseRuntimeElementCompositeDefinition.class);
 	private final FhirContext myContext;
@@ -79,6 +87,8 @@ public abstract class BaseRuntimeElementCompositeDefinition<T extends IBase> ext
 	private Map<String, BaseRuntimeChildDefinition> myNameToChild = new HashMap<>();
 	private List<ScannedField> myScannedFields = new ArrayList<>();
 	private volatile SealingStateEnum mySealed = SealingStateEnum.NOT_SEALED;
+	private final Map<Integer, List<BaseRuntimeChildDefinition>> myEncodePlans = new ConcurrentHashMap<>();
+	private final Map<String, CompiledTerserPath> myCompiledTerserPaths = new ConcurrentHashMap<>();
 
 	@SuppressWarnings("unchecked")
 	public BaseRuntimeElementCompositeDefinition(
@@ -173,6 +183,52 @@ public abstract class BaseRuntimeElementCompositeDefinition<T extends IBase> ext
 		return myChildrenAndExtensions;
 	}
 
+	/**
+	 * Returns the list of children which should be encoded for this element under the given parser
+	 * configuration, computing it using the supplied function the first time a given configuration
+	 * is requested. The configuration key is opaque to this class and is interpreted only by the parser
+	 * which supplies it, so the computed list must depend only on the key and this definition.
+	 * <p>
+	 * This method is intended for use by parser implementations and should not generally be needed
+	 * by user code.
+	 * </p>
+	 *
+	 * @since 7.0.0
+	 */
+	public List<BaseRuntimeChildDefinition> getEncodePlan(
+			int thePlanKey, Function<List<BaseRuntimeChildDefinition>, List<BaseRuntimeChildDefinition>> theCompiler) {
+		List<BaseRuntimeChildDefinition> retVal = myEncodePlans.get(thePlanKey);
+		if (retVal == null) {
+			retVal = Collections.unmodifiableList(theCompiler.apply(getChildrenAndExtension()));
+			myEncodePlans.put(thePlanKey, retVal);
+		}
+		return retVal;
+	}
+
+	/**
+	 * Returns the compiled form of a {@link ca.uhn.fhir.util.FhirTerser} path rooted at this element,
+	 * compiling it using the supplied function the first time the path is requested. At most
+	 * {@link #MAX_COMPILED_TERSER_PATHS} paths are retained for each definition, so that callers
+	 * building paths dynamically can not cause unbounded growth. Paths beyond this limit are compiled
+	 * on every request.
+	 * <p>
+	 * This method is intended for use by {@link ca.uhn.fhir.util.FhirTerser} and should not generally be
+	 * needed by user code.
+	 * </p>
+	 *
+	 * @since 7.0.0
+	 */
+	public CompiledTerserPath getCompiledTerserPath(String thePath, Function<String, CompiledTerserPath> theCompiler) {
+		CompiledTerserPath retVal = myCompiledTerserPaths.get(thePath);
+		if (retVal == null) {
+			retVal = theCompiler.apply(thePath);
+			if (myCompiledTerserPaths.size() < MAX_COMPILED_TERSER_PATHS) {
+				myCompiledTerserPaths.put(thePath, retVal);
+			}
+		}
+		return retVal;
+	}
+
 	/**
 	 * Has this class been sealed
 	 */
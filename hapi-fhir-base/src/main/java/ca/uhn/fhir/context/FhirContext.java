@@ -22,6 +22,7 @@ package ca.uhn.fhir.context;
 import ca.uhn.fhir.context.api.AddProfileTagEnum;
 import ca.uhn.fhir.context.support.DefaultProfileValidationSupport;
 import ca.uhn.fhir.context.support.IValidationSupport;
+import ca.uhn.fhir.fhirpath.FhirPathExpressionCache;
 import ca.uhn.fhir.fhirpath.IFhirPath;
 import ca.uhn.fhir.i18n.HapiLocalizer;
 import ca.uhn.fhir.i18n.Msg;
@@ -31,6 +32,7 @@ import ca.uhn.fhir.model.api.IResource;
 import ca.uhn.fhir.model.api.annotation.ResourceDef;
 import ca.uhn.fhir.model.view.ViewGenerator;
 import ca.uhn.fhir.narrative.INarrativeGenerator;
+import ca.uhn.fhir.parser.CborParser;
 import ca.uhn.fhir.parser.DataFormatException;
 import ca.uhn.fhir.parser.IParser;
 import ca.uhn.fhir.parser.IParserErrorHandler;
@@ -136,7 +138,9 @@ public class FhirContext {
 	private volatile Boolean myFormatJsonSupported;
 	private volatile Boolean myFormatNDJsonSupported;
 	private volatile Boolean myFormatRdfSupported;
+	private volatile Boolean myFormatCborSupported;
 	private IFhirValidatorFactory myFhirValidatorFactory = FhirValidator::new;
+	private final FhirPathExpressionCache myFhirPathExpressionCache = new FhirPathExpressionCache();
 
 	/**
 	 * @deprecated It is recommended that you use one of the static initializer methods instead
@@ -637,6 +641,40 @@ public class FhirContext {
 		return resourceNames;
 	}
 
+	/**
+	 * Scans the model for every resource type known to this context which has not already been
+	 * scanned, so that the cost of scanning is paid up front (e.g. while an application is starting)
+	 * instead of when each resource type is first used. This is useful in combination with
+	 * {@link PerformanceOptionsEnum#DEFERRED_MODEL_SCANNING} or in environments where cold start time
+	 * matters, since it can be called on a background thread as soon as the context is created.
+	 * <p>
+	 * The model classes are loaded and introspected in parallel using the common fork-join pool,
+	 * and are then scanned together in a single pass instead of one resource type at a time.
+	 * </p>
+	 *
+	 * @return Returns a reference to <code>this</code> context
+	 * @since 7.0.0
+	 */
+	public FhirContext warmUp() {
+		validateInitialized();
+
+		Map<String, RuntimeResourceDefinition> nameToResourceDefinition = myNameToResourceDefinition;
+		List<Class<? extends IElement>> typesToScan = new ArrayList<>();
+		for (Entry<String, Class<? extends IBaseResource>> next : myNameToResourceType.entrySet()) {
+			if (!nameToResourceDefinition.containsKey(next.getKey())) {
+				typesToScan.add(next.getValue());
+			}
+		}
+
+		if (!typesToScan.isEmpty()) {
+			long start = System.currentTimeMillis();
+			typesToScan.parallelStream().forEach(ModelScanner::preloadModelClass);
+			scanResourceTypes(typesToScan);
+			ourLog.debug("Warmed up {} resource types in {}ms", typesToScan.size(), System.currentTimeMillis() - start);
+		}
+		return this;
+	}
+
 	@Nonnull
 	private Set<String> buildResourceNames() {
 		Set<String> retVal = new HashSet<>();
@@ -824,6 +862,21 @@ public class FhirContext {
 		return retVal;
 	}
 
+	/**
+	 * @return Returns <code>true</code> if the CBOR serialization format is supported, based on the
+	 * available libraries on the classpath.
+	 *
+	 * @since 7.0.0
+	 */
+	public boolean isFormatCborSupported() {
+		Boolean retVal = myFormatCborSupported;
+		if (retVal == null) {
+			retVal = tryToInitParser(() -> newCborParser());
+			myFormatCborSupported = retVal;
+		}
+		return retVal;
+	}
+
 	public IVersionSpecificBundleFactory newBundleFactory() {
 		return myVersion.newBundleFactory(this);
 	}
@@ -859,6 +912,38 @@ public class FhirContext {
 		return myVersion.createFhirPathExecutor(this);
 	}
 
+	/**
+	 * Returns the cache of parsed FHIRPath expressions which is shared by the {@link IFhirPath} instances
+	 * created by {@link #newFhirPath()} for this context. Expressions passed to
+	 * {@link IFhirPath#evaluate(IBase, String, Class)} or {@link IFhirPath#parse(String)} are parsed only
+	 * once and then reused. An {@link IFhirPath} which has been given its own
+	 * {@link IFhirPath#setEvaluationContext(ca.uhn.fhir.fhirpath.IFhirPathEvaluationContext) evaluation context}
+	 * stops using this cache and keeps a private one instead, since the evaluation context can change the
+	 * way expressions are parsed.
+	 *
+	 * @since 7.0.0
+	 */
+	public FhirPathExpressionCache getFhirPathExpressionCache() {
+		return myFhirPathExpressionCache;
+	}
+
+	/**
+	 * Create and return a new CBOR parser. The CBOR parser uses the same structure as the
+	 * JSON parser, but produces and consumes binary content, so resources can only be encoded to an
+	 * {@link java.io.OutputStream} and parsed from an {@link java.io.InputStream}. This parser
+	 * requires <code>jackson-dataformat-cbor</code> to be on the classpath.
+	 *
+	 * <p>
+	 * Thread safety: <b>Parsers are not guaranteed to be thread safe</b>. Create a new parser instance for every thread
+	 * or every message being parsed/encoded.
+	 * </p>
+	 *
+	 * @since 7.0.0
+	 */
+	public IParser newCborParser() {
+		return new CborParser(this, myParserErrorHandler);
+	}
+
 	/**
 	 * Create and return a new JSON parser.
 	 *
@@ -535,6 +535,33 @@ class ModelScanner {
 		return retVal;
 	}
 
+	/**
+	 * Initializes the given model class, and reads the fields and annotations of it, its superclasses
+	 * and its nested block classes. This does not touch any scanner state, so it is safe to call
+	 * for many classes in parallel ahead of a scan. The JVM caches the loaded classes and their
+	 * reflective metadata, so the subsequent (single threaded) scan of the same classes is cheaper.
+	 */
+	static void preloadModelClass(Class<?> theClass) {
+		try {
+			Class.forName(theClass.getName(), true, theClass.getClassLoader());
+		} catch (ClassNotFoundException e) {
+			// Can't happen, we already have the class
+			return;
+		}
+		for (Class<?> next = theClass; next != null && next != Object.class; next = next.getSuperclass()) {
+			next.getAnnotations();
+			for (Field nextField : next.getDeclaredFields()) {
+				nextField.getAnnotations();
+				nextField.getGenericType();
+			}
+			for (Class<?> nextNested : next.getDeclaredClasses()) {
+				if (nextNested.isAnnotationPresent(Block.class)) {
+					preloadModelClass(nextNested);
+				}
+			}
+		}
+	}
+
 	static Class<? extends Enum<?>> determineEnumTypeForBoundField(Field next) {
 		@SuppressWarnings("unchecked")
 		Class<? extends Enum<?>> enumType =
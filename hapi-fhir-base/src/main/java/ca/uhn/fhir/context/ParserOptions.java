@@ -20,6 +20,7 @@
 package ca.uhn.fhir.context;
 
 import ca.uhn.fhir.parser.IParser;
+import ca.uhn.fhir.util.StringInternTable;
 
 import java.util.Arrays;
 import java.util.Collection;
@@ -27,6 +28,7 @@ import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import javax.annotation.Nullable;
 
 /**
  * This object supplies default configuration to all {@link IParser parser} instances
@@ -42,6 +44,10 @@ public class ParserOptions {
 	private Set<String> myDontStripVersionsFromReferencesAtPaths = Collections.emptySet();
 	private boolean myOverrideResourceIdWithBundleEntryFullUrl = true;
 	private boolean myAutoContainReferenceTargetsWithNoId = true;
+	private boolean myStreamingJsonParsing = false;
+	private boolean myCompileEncodePlans = false;
+	private boolean myStreamingRdfEncoding = false;
+	private StringInternTable myPrimitiveValueInternTable;
 
 	/**
 	 * If set to {@literal true} (which is the default), contained resources may be specified by
@@ -205,4 +211,150 @@ public class ParserOptions {
 		myOverrideResourceIdWithBundleEntryFullUrl = theOverrideResourceIdWithBundleEntryFullUrl;
 		return this;
 	}
+
+	/**
+	 * If set to <code>true</code> (default is <code>false</code>), the JSON parser will read resources
+	 * as a stream of tokens which are fed directly into the resource model, instead of first loading the
+	 * entire document into an intermediate JSON tree. This roughly halves the peak memory required to
+	 * parse very large documents such as search result or <code>$everything</code> Bundles.
+	 * <p>
+	 * This setting only affects parsing from a {@link java.io.Reader}, {@link java.io.InputStream}
+	 * or {@link String} using a JSON parser.
+	 * </p>
+	 *
+	 * @since 7.0.0
+	 */
+	public boolean isStreamingJsonParsing() {
+		return myStreamingJsonParsing;
+	}
+
+	/**
+	 * If set to <code>true</code> (default is <code>false</code>), the JSON parser will read resources
+	 * as a stream of tokens which are fed directly into the resource model, instead of first loading the
+	 * entire document into an intermediate JSON tree. This roughly halves the peak memory required to
+	 * parse very large documents such as search result or <code>$everything</code> Bundles.
+	 * <p>
+	 * This setting only affects parsing from a {@link java.io.Reader}, {@link java.io.InputStream}
+	 * or {@link String} using a JSON parser.
+	 * </p>
+	 *
+	 * @return Returns a reference to <code>this</code> parser so that method calls can be chained together
+	 * @since 7.0.0
+	 */
+	public ParserOptions setStreamingJsonParsing(boolean theStreamingJsonParsing) {
+		myStreamingJsonParsing = theStreamingJsonParsing;
+		return this;
+	}
+
+	/**
+	 * If set to <code>true</code> (default is <code>false</code>), parsers will compile the list of
+	 * children to encode for each element type the first time that type is encoded with a given
+	 * configuration (e.g. summary mode, suppressed narratives, contained resources), and reuse it
+	 * for every subsequent element of that type. Compiled plans are cached on the element definitions
+	 * and are therefore shared by every parser created by the same {@link ca.uhn.fhir.context.FhirContext}.
+	 * <p>
+	 * Compiled plans are not used when {@link IParser#setEncodeElements(Set) encode elements}
+	 * or {@link IParser#setDontEncodeElements(Collection) don't encode elements} are set
+	 * on the parser, since those filters depend on the path of each element being encoded.
+	 * </p>
+	 *
+	 * @since 7.0.0
+	 */
+	public boolean isCompileEncodePlans() {
+		return myCompileEncodePlans;
+	}
+
+	/**
+	 * If set to <code>true</code> (default is <code>false</code>), parsers will compile the list of
+	 * children to encode for each element type the first time that type is encoded with a given
+	 * configuration (e.g. summary mode, suppressed narratives, contained resources), and reuse it
+	 * for every subsequent element of that type. Compiled plans are cached on the element definitions
+	 * and are therefore shared by every parser created by the same {@link ca.uhn.fhir.context.FhirContext}.
+	 * <p>
+	 * Compiled plans are not used when {@link IParser#setEncodeElements(Set) encode elements}
+	 * or {@link IParser#setDontEncodeElements(Collection) don't encode elements} are set
+	 * on the parser, since those filters depend on the path of each element being encoded.
+	 * </p>
+	 *
+	 * @return Returns a reference to <code>this</code> parser so that method calls can be chained together
+	 * @since 7.0.0
+	 */
+	public ParserOptions setCompileEncodePlans(boolean theCompileEncodePlans) {
+		myCompileEncodePlans = theCompileEncodePlans;
+		return this;
+	}
+
+	/**
+	 * If set (default is <code>null</code>), parsers will use the given table to share a single
+	 * <code>String</code> instance between equal values of the primitive types which are typically repeated
+	 * many times within large documents: <code>uri</code>, <code>url</code>, <code>canonical</code>,
+	 * <code>oid</code> and <code>code</code> (e.g. coding systems, codes and profile URLs), as well as
+	 * <code>Reference.reference</code>. This can substantially reduce the memory held by resources parsed
+	 * from large Bundles or bulk data files.
+	 * <p>
+	 * The table is bounded and is shared by every parser created by the contexts using these options.
+	 * </p>
+	 *
+	 * @since 7.0.0
+	 */
+	@Nullable
+	public StringInternTable getPrimitiveValueInternTable() {
+		return myPrimitiveValueInternTable;
+	}
+
+	/**
+	 * If set (default is <code>null</code>), parsers will use the given table to share a single
+	 * <code>String</code> instance between equal values of the primitive types which are typically repeated
+	 * many times within large documents: <code>uri</code>, <code>url</code>, <code>canonical</code>,
+	 * <code>oid</code> and <code>code</code> (e.g. coding systems, codes and profile URLs), as well as
+	 * <code>Reference.reference</code>. This can substantially reduce the memory held by resources parsed
+	 * from large Bundles or bulk data files.
+	 * <p>
+	 * The table is bounded and is shared by every parser created by the contexts using these options.
+	 * </p>
+	 *
+	 * @param thePrimitiveValueInternTable The table to use, or <code>null</code> to disable interning
+	 * @return Returns a reference to <code>this</code> parser so that method calls can be chained together
+	 * @since 7.0.0
+	 */
+	public ParserOptions setPrimitiveValueInternTable(@Nullable StringInternTable thePrimitiveValueInternTable) {
+		myPrimitiveValueInternTable = thePrimitiveValueInternTable;
+		return this;
+	}
+
+	/**
+	 * If set to <code>true</code> (default is <code>false</code>), the RDF parser will write each triple
+	 * to the output as soon as it is produced, instead of first building an in-memory model of the entire
+	 * resource and then pretty-printing it. This keeps memory use flat when encoding very large resources
+	 * such as search result or <code>$everything</code> Bundles.
+	 * <p>
+	 * The streamed output is valid Turtle, but is not as compact as the default output: blank nodes are
+	 * written with labels rather than being nested, and triples for the same subject are only grouped
+	 * together when they are produced together.
+	 * </p>
+	 *
+	 * @since 7.0.0
+	 */
+	public boolean isStreamingRdfEncoding() {
+		return myStreamingRdfEncoding;
+	}
+
+	/**
+	 * If set to <code>true</code> (default is <code>false</code>), the RDF parser will write each triple
+	 * to the output as soon as it is produced, instead of first building an in-memory model of the entire
+	 * resource and then pretty-printing it. This keeps memory use flat when encoding very large resources
+	 * such as search result or <code>$everything</code> Bundles.
+	 * <p>
+	 * The streamed output is valid Turtle, but is not as compact as the default output: blank nodes are
+	 * written with labels rather than being nested, and triples for the same subject are only grouped
+	 * together when they are produced together.
+	 * </p>
+	 *
+	 * @return Returns a reference to <code>this</code> parser so that method calls can be chained together
+	 * @since 7.0.0
+	 */
+	public ParserOptions setStreamingRdfEncoding(boolean theStreamingRdfEncoding) {
+		myStreamingRdfEncoding = theStreamingRdfEncoding;
+		return this;
+	}
 }
@@ -0,0 +1,111 @@
+/*
+ * #%L
+ * HAPI FHIR - Core Library
+ * %%
+ * Copyright (C) 2014 - 2023 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package ca.uhn.fhir.fhirpath;
+
+import org.apache.commons.lang3.Validate;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * A bounded, thread safe cache of parsed FHIRPath expressions. Each {@link ca.uhn.fhir.context.FhirContext}
+ * holds one instance (see {@link ca.uhn.fhir.context.FhirContext#getFhirPathExpressionCache()}) which
+ * is shared by the {@link IFhirPath} instances it creates, so that frequently evaluated expressions
+ * are only parsed once. An {@link IFhirPath} which is given its own
+ * {@link IFhirPath#setEvaluationContext(IFhirPathEvaluationContext) evaluation context} uses a private
+ * instance instead, because custom functions are resolved through the evaluation context while parsing.
+ * <p>
+ * When the cache reaches its maximum size it is cleared, so that applications which evaluate an
+ * unbounded number of distinct expressions can not cause it to grow without limit, and the expressions
+ * which are still in use are quickly re-cached.
+ * </p>
+ *
+ * @since 7.0.0
+ */
+public class FhirPathExpressionCache {
+
+	/**
+	 * Default value for {@link #getMaxSize()}
+	 */
+	public static final int DEFAULT_MAX_SIZE = 1000;
+
+	private final Map<String, IFhirPath.IParsedExpression> myCache = new ConcurrentHashMap<>();
+	private final int myMaxSize;
+
+	/**
+	 * Constructor
+	 */
+	public FhirPathExpressionCache() {
+		this(DEFAULT_MAX_SIZE);
+	}
+
+	/**
+	 * Constructor
+	 *
+	 * @param theMaxSize The maximum number of expressions to hold
+	 */
+	public FhirPathExpressionCache(int theMaxSize) {
+		Validate.isTrue(theMaxSize > 0, "theMaxSize must be greater than 0");
+		myMaxSize = theMaxSize;
+	}
+
+	/**
+	 * Returns the cached parsed form of the given expression, or parses it using the supplied
+	 * function and caches the result. Any exception thrown by the function is propagated to the
+	 * caller and nothing is cached.
+	 *
+	 * @param theExpression The FHIRPath expression
+	 * @param theParser     The function used to parse the expression if it is not already cached
+	 */
+	public IFhirPath.IParsedExpression get(
+			String theExpression, Function<String, IFhirPath.IParsedExpression> theParser) {
+		IFhirPath.IParsedExpression retVal = myCache.get(theExpression);
+		if (retVal == null) {
+			retVal = theParser.apply(theExpression);
+			if (myCache.size() >= myMaxSize) {
+				myCache.clear();
+			}
+			myCache.put(theExpression, retVal);
+		}
+		return retVal;
+	}
+
+	/**
+	 * Returns the number of expressions currently held in the cache
+	 */
+	public int size() {
+		return myCache.size();
+	}
+
+	/**
+	 * Returns the maximum number of expressions held in the cache
+	 */
+	public int getMaxSize() {
+		return myMaxSize;
+	}
+
+	/**
+	 * Removes all expressions from the cache
+	 */
+	public void clear() {
+		myCache.clear();
+	}
+}
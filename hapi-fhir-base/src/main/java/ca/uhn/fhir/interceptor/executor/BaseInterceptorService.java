@@ -63,12 +63,19 @@ import javax.annotation.Nullable;
 public abstract class BaseInterceptorService<POINTCUT extends Enum<POINTCUT> & IPointcut>
 		implements IBaseInterceptorService<POINTCUT>, IBaseInterceptorBroadcaster<POINTCUT> {
 	private static final Logger ourLog = LoggerFactory.getLogger(BaseInterceptorService.class);
+	private static final BaseInvoker[] EMPTY_INVOKER_ARRAY = new BaseInvoker[0];
 	private final List<Object> myInterceptors = new ArrayList<>();
 	private final ListMultimap<POINTCUT, BaseInvoker> myGlobalInvokers = ArrayListMultimap.create();
 	private final ListMultimap<POINTCUT, BaseInvoker> myAnonymousInvokers = ArrayListMultimap.create();
 	private final Object myRegistryMutex = new Object();
 	private final Class<POINTCUT> myPointcutType;
 	private volatile EnumSet<POINTCUT> myRegisteredPointcuts;
+	/**
+	 * Sorted invokers for each pointcut, indexed by {@link Enum#ordinal()}. The arrays are rebuilt
+	 * whenever the registry changes and are never modified afterwards, so they can be read without locking.
+	 */
+	private volatile BaseInvoker[][] myInvokersByPointcut;
+
 	private String myName;
 	private boolean myWarnOnInterceptorWithNoHooks = true;
 
@@ -212,6 +219,15 @@ public abstract class BaseInterceptorService<POINTCUT extends Enum<POINTCUT> & I
 		EnumSet<POINTCUT> registeredPointcuts = EnumSet.noneOf(myPointcutType);
 		registeredPointcuts.addAll(myAnonymousInvokers.keySet());
 		registeredPointcuts.addAll(myGlobalInvokers.keySet());
+
+		BaseInvoker[][] invokersByPointcut = new BaseInvoker[myPointcutType.getEnumConstants().length][];
+		Arrays.fill(invokersByPointcut, EMPTY_INVOKER_ARRAY);
+		for (POINTCUT next : registeredPointcuts) {
+			List<BaseInvoker> invokers = union(myGlobalInvokers.get(next), myAnonymousInvokers.get(next));
+			invokersByPointcut[next.ordinal()] = invokers.toArray(EMPTY_INVOKER_ARRAY);
+		}
+
+		myInvokersByPointcut = invokersByPointcut;
 		myRegisteredPointcuts = registeredPointcuts;
 	}
 
@@ -273,15 +289,18 @@ public abstract class BaseInterceptorService<POINTCUT extends Enum<POINTCUT> & I
 	}
 
 	private Object doCallHooks(POINTCUT thePointcut, HookParams theParams, Object theRetVal) {
-		// use new list for loop to avoid ConcurrentModificationException in case invoker gets added while looping
-		List<BaseInvoker> invokers = new ArrayList<>(getInvokersForPointcut(thePointcut));
+		// The array is replaced rather than modified if an invoker gets added or removed while looping
+		BaseInvoker[] invokers = myInvokersByPointcut[thePointcut.ordinal()];
+		if (invokers.length == 0) {
+			return theRetVal;
+		}
 
 		/*
 		 * Call each hook in order
 		 */
+		Class<?> pointcutReturnType = thePointcut.getReturnType();
 		for (BaseInvoker nextInvoker : invokers) {
 			Object nextOutcome = nextInvoker.invoke(theParams);
-			Class<?> pointcutReturnType = thePointcut.getReturnType();
 			if (pointcutReturnType.equals(boolean.class)) {
 				Boolean nextOutcomeAsBoolean = (Boolean) nextOutcome;
 				if (Boolean.FALSE.equals(nextOutcomeAsBoolean)) {
@@ -308,20 +327,10 @@ public abstract class BaseInterceptorService<POINTCUT extends Enum<POINTCUT> & I
 	}
 
 	/**
-	 * Returns an ordered list of invokers for the given pointcut. Note that
-	 * a new and stable list is returned to.. do whatever you want with it.
+	 * Returns an ordered, unmodifiable list of invokers for the given pointcut
 	 */
 	private List<BaseInvoker> getInvokersForPointcut(POINTCUT thePointcut) {
-		List<BaseInvoker> invokers;
-
-		synchronized (myRegistryMutex) {
-			List<BaseInvoker> globalInvokers = myGlobalInvokers.get(thePointcut);
-			List<BaseInvoker> anonymousInvokers = myAnonymousInvokers.get(thePointcut);
-			List<BaseInvoker> threadLocalInvokers = null;
-			invokers = union(globalInvokers, anonymousInvokers, threadLocalInvokers);
-		}
-
-		return invokers;
+		return Collections.unmodifiableList(Arrays.asList(myInvokersByPointcut[thePointcut.ordinal()]));
 	}
 
 	/**
@@ -28,9 +28,15 @@ import org.apache.commons.lang3.Validate;
 import org.apache.commons.lang3.time.DateUtils;
 import org.apache.commons.lang3.time.FastDateFormat;
 
+import java.time.LocalDateTime;
+import java.time.Month;
+import java.time.Year;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
 import java.util.Calendar;
 import java.util.Date;
 import java.util.GregorianCalendar;
+import java.util.List;
 import java.util.Map;
 import java.util.TimeZone;
 import java.util.concurrent.ConcurrentHashMap;
@@ -42,6 +48,15 @@ public abstract class BaseDateTimeDt extends BasePrimitive<Date> {
 	static final long NANOS_PER_SECOND = 1000000000L;
 
 	private static final Map<String, TimeZone> timezoneCache = new ConcurrentHashMap<>();
+	/**
+	 * {@link GregorianCalendar} switches to the Julian calendar before October 1582, so earlier
+	 * years are always parsed using {@link #parseWithCalendar(String)}
+	 */
+	private static final int FIRST_GREGORIAN_YEAR = 1583;
+	/**
+	 * The largest offset supported by {@link ZoneOffset}
+	 */
+	private static final int MAX_OFFSET_SECONDS = 18 * 3600;
 
 	private static final FastDateFormat ourHumanDateFormat = FastDateFormat.getDateInstance(FastDateFormat.MEDIUM);
 	private static final FastDateFormat ourHumanDateTimeFormat =
@@ -331,6 +346,164 @@ public abstract class BaseDateTimeDt extends BasePrimitive<Date> {
 
 	@Override
 	protected Date parse(String theValue) throws DataFormatException {
+		Date retVal = parseFast(theValue);
+		if (retVal == null) {
+			retVal = parseWithCalendar(theValue);
+		}
+		return retVal;
+	}
+
+	/**
+	 * Parses well formed values without creating a {@link Calendar}. Returns <code>null</code> without modifying
+	 * this object if the value can not be handled here, in which case {@link #parseWithCalendar(String)} must be
+	 * used instead. That includes any invalid values (so that the error messages are unchanged), values with
+	 * surrounding whitespace, years before the Gregorian calendar cutover, and local times which are ambiguous or
+	 * do not exist in the default time zone because of a daylight savings transition.
+	 */
+	private Date parseFast(String theValue) {
+		int length = theValue.length();
+		if (length < 4) {
+			return null;
+		}
+
+		int year = parseDigits(theValue, 0, 4);
+		if (year < FIRST_GREGORIAN_YEAR) {
+			return null;
+		}
+
+		TemporalPrecisionEnum precision = TemporalPrecisionEnum.YEAR;
+		int month = 1;
+		int day = 1;
+		int hour = 0;
+		int minute = 0;
+		int second = 0;
+		int millis = 0;
+		String fractionalSeconds = "";
+		ZoneOffset offset = null;
+		int offsetIndex = -1;
+
+		if (length > 4) {
+			if (length < 7 || theValue.charAt(4) != '-') {
+				return null;
+			}
+			month = parseDigits(theValue, 5, 7);
+			if (month < 1 || month > 12) {
+				return null;
+			}
+			precision = TemporalPrecisionEnum.MONTH;
+
+			if (length > 7) {
+				if (length < 10 || theValue.charAt(7) != '-') {
+					return null;
+				}
+				day = parseDigits(theValue, 8, 10);
+				if (day < 1 || day > Month.of(month).length(Year.isLeap(year))) {
+					return null;
+				}
+				precision = TemporalPrecisionEnum.DAY;
+
+				if (length > 10) {
+					if (length < 16
+							|| theValue.charAt(10) != 'T'
+							|| theValue.charAt(13) != ':') {
+						return null;
+					}
+					hour = parseDigits(theValue, 11, 13);
+					minute = parseDigits(theValue, 14, 16);
+					if (hour < 0 || hour > 23 || minute < 0 || minute > 59) {
+						return null;
+					}
+					precision = TemporalPrecisionEnum.MINUTE;
+
+					int index = 16;
+					if (index < length && theValue.charAt(index) == ':') {
+						if (length < 19) {
+							return null;
+						}
+						second = parseDigits(theValue, 17, 19);
+						if (second < 0 || second > 59) {
+							return null;
+						}
+						precision = TemporalPrecisionEnum.SECOND;
+						index = 19;
+
+						if (index < length && theValue.charAt(index) == '.') {
+							int fractionEnd = 20;
+							while (fractionEnd < length && isDigit(theValue.charAt(fractionEnd))) {
+								fractionEnd++;
+							}
+							if (fractionEnd == 20) {
+								return null;
+							}
+							int millisEnd = Math.min(fractionEnd, 23);
+							millis = parseDigits(theValue, 20, millisEnd);
+							for (int i = millisEnd - 20; i < 3; i++) {
+								millis *= 10;
+							}
+							fractionalSeconds = theValue.substring(20, fractionEnd);
+							precision = TemporalPrecisionEnum.MILLI;
+							index = fractionEnd;
+						}
+					}
+
+					if (index < length) {
+						char offsetChar = theValue.charAt(index);
+						if (offsetChar == 'Z' && index == length - 1) {
+							offset = ZoneOffset.UTC;
+						} else if ((offsetChar == '+' || offsetChar == '-')
+								&& length - index == 6
+								&& theValue.charAt(index + 3) == ':') {
+							int offsetHours = parseDigits(theValue, index + 1, index + 3);
+							int offsetMinutes = parseDigits(theValue, index + 4, index + 6);
+							if (offsetHours < 0 || offsetHours > 23 || offsetMinutes < 0 || offsetMinutes > 59) {
+								return null;
+							}
+							int offsetSeconds = (offsetHours * 3600) + (offsetMinutes * 60);
+							if (offsetSeconds > MAX_OFFSET_SECONDS) {
+								return null;
+							}
+							offset = ZoneOffset.ofTotalSeconds(offsetChar == '-' ? -offsetSeconds : offsetSeconds);
+						} else {
+							return null;
+						}
+						offsetIndex = index;
+					}
+				}
+			}
+		}
+
+		if (precision == TemporalPrecisionEnum.MINUTE && !isPrecisionAllowed(precision)) {
+			return null;
+		}
+
+		LocalDateTime localDateTime = LocalDateTime.of(year, month, day, hour, minute, second);
+		if (offset == null) {
+			List<ZoneOffset> validOffsets = ZoneId.systemDefault().getRules().getValidOffsets(localDateTime);
+			if (validOffsets.size() != 1) {
+				return null;
+			}
+			offset = validOffsets.get(0);
+		}
+		long epochMillis = (localDateTime.toEpochSecond(offset) * 1000L) + millis;
+
+		myFractionalSeconds = fractionalSeconds;
+		if (offsetIndex != -1) {
+			clearTimeZone();
+			if (theValue.charAt(offsetIndex) == 'Z') {
+				myTimeZoneZulu = true;
+			} else {
+				myTimeZone = getTimeZone("GMT" + theValue.substring(offsetIndex));
+			}
+		}
+		myPrecision = precision;
+		return new Date(epochMillis);
+	}
+
+	/**
+	 * Parses the value using a {@link GregorianCalendar}. This handles every value accepted by this
+	 * datatype, but is slower than the fast path used by {@link #parse(String)} for common values.
+	 */
+	protected Date parseWithCalendar(String theValue) throws DataFormatException {
 		Calendar cal = new GregorianCalendar(0, 0, 0);
 		cal.setTimeZone(TimeZone.getDefault());
 		String value = theValue;
@@ -441,6 +614,26 @@ public abstract class BaseDateTimeDt extends BasePrimitive<Date> {
 		return cal.getTime();
 	}
 
+	/**
+	 * Parses an unsigned decimal number from the given range of the string, returning -1 if any
+	 * character in the range is not a digit
+	 */
+	private static int parseDigits(String theValue, int theStart, int theEnd) {
+		int retVal = 0;
+		for (int i = theStart; i < theEnd; i++) {
+			char next = theValue.charAt(i);
+			if (!isDigit(next)) {
+				return -1;
+			}
+			retVal = (retVal * 10) + (next - '0');
+		}
+		return retVal;
+	}
+
+	private static boolean isDigit(char theChar) {
+		return theChar >= '0' && theChar <= '9';
+	}
+
 	private int parseInt(String theValue, String theSubstring, int theLowerBound, int theUpperBound) {
 		int retVal = 0;
 		try {
@@ -25,12 +25,14 @@ import ca.uhn.fhir.fhirpath.IFhirPathEvaluationContext;
 import ca.uhn.fhir.i18n.Msg;
 import ca.uhn.fhir.narrative2.BaseNarrativeGenerator;
 import ca.uhn.fhir.narrative2.INarrativeTemplate;
+import ca.uhn.fhir.narrative2.NarrativeTemplateManifest;
 import ca.uhn.fhir.narrative2.TemplateTypeEnum;
 import ca.uhn.fhir.rest.server.exceptions.InternalErrorException;
 import com.google.common.collect.Sets;
 import org.hl7.fhir.instance.model.api.IBase;
 import org.thymeleaf.IEngineConfiguration;
 import org.thymeleaf.TemplateEngine;
+import org.thymeleaf.TemplateSpec;
 import org.thymeleaf.cache.AlwaysValidCacheEntryValidity;
 import org.thymeleaf.cache.ICacheEntryValidity;
 import org.thymeleaf.context.Context;
@@ -56,6 +58,7 @@ import org.thymeleaf.templateresolver.ITemplateResolver;
 import org.thymeleaf.templateresource.ITemplateResource;
 import org.thymeleaf.templateresource.StringTemplateResource;
 
+import java.util.Collections;
 import java.util.EnumSet;
 import java.util.List;
 import java.util.Map;
@@ -67,8 +70,16 @@ import static org.apache.commons.lang3.StringUtils.isNotBlank;
 public abstract class BaseThymeleafNarrativeGenerator extends BaseNarrativeGenerator {
 
 	public static final String FHIRPATH = "fhirpath";
+
+	/**
+	 * Template variable and template resolution attribute holding the {@link FhirContext} which
+	 * the narrative is being generated for
+	 */
+	private static final String FHIR_CONTEXT = "hapiFhirContext";
+
 	private IMessageResolver myMessageResolver;
 	private IFhirPathEvaluationContext myFhirPathEvaluationContext;
+	private volatile TemplateEngineHolder myTemplateEngine;
 
 	/**
 	 * Constructor
@@ -81,9 +92,25 @@ public abstract class BaseThymeleafNarrativeGenerator extends BaseNarrativeGener
 		myFhirPathEvaluationContext = theFhirPathEvaluationContext;
 	}
 
-	private TemplateEngine getTemplateEngine(FhirContext theFhirContext) {
+	/**
+	 * Returns the template engine for the current manifest. The engine is created the first time
+	 * it is needed and then reused for every resource and every {@link FhirContext}, so that each
+	 * template is only parsed once and then served from the engine's template cache. A new engine
+	 * is created if the manifest is replaced.
+	 */
+	private TemplateEngine getTemplateEngine() {
+		NarrativeTemplateManifest manifest = getManifest();
+		TemplateEngineHolder retVal = myTemplateEngine;
+		if (retVal == null || retVal.myManifest != manifest) {
+			retVal = new TemplateEngineHolder(manifest, newTemplateEngine(manifest));
+			myTemplateEngine = retVal;
+		}
+		return retVal.myTemplateEngine;
+	}
+
+	private TemplateEngine newTemplateEngine(NarrativeTemplateManifest theManifest) {
 		TemplateEngine engine = new TemplateEngine();
-		ITemplateResolver resolver = new NarrativeTemplateResolver(theFhirContext);
+		ITemplateResolver resolver = new NarrativeTemplateResolver(theManifest);
 		engine.setTemplateResolver(resolver);
 		if (myMessageResolver != null) {
 			engine.setMessageResolver(myMessageResolver);
@@ -92,14 +119,14 @@ public abstract class BaseThymeleafNarrativeGenerator extends BaseNarrativeGener
 			@Override
 			public Set<IProcessor> getProcessors(String theDialectPrefix) {
 				Set<IProcessor> retVal = super.getProcessors(theDialectPrefix);
-				retVal.add(new NarrativeTagProcessor(theFhirContext, theDialectPrefix));
-				retVal.add(new NarrativeAttributeProcessor(theDialectPrefix, theFhirContext));
+				retVal.add(new NarrativeTagProcessor(theDialectPrefix));
+				retVal.add(new NarrativeAttributeProcessor(theDialectPrefix));
 				return retVal;
 			}
 		};
 		engine.setDialect(dialect);
 
-		engine.addDialect(new NarrativeGeneratorDialect(theFhirContext));
+		engine.addDialect(new NarrativeGeneratorDialect());
 		return engine;
 	}
 
@@ -111,8 +138,14 @@ public abstract class BaseThymeleafNarrativeGenerator extends BaseNarrativeGener
 		context.setVariable("context", theTargetContext);
 		context.setVariable(
 				"fhirVersion", theFhirContext.getVersion().getVersion().name());
-
-		return getTemplateEngine(theFhirContext).process(theTemplate.getTemplateName(), context);
+		context.setVariable(FHIR_CONTEXT, theFhirContext);
+
+		TemplateSpec templateSpec = new TemplateSpec(
+				theTemplate.getTemplateName(),
+				null,
+				TemplateMode.XML,
+				Collections.singletonMap(FHIR_CONTEXT, theFhirContext));
+		return getTemplateEngine().process(templateSpec, context);
 	}
 
 	@Override
@@ -149,13 +182,32 @@ public abstract class BaseThymeleafNarrativeGenerator extends BaseNarrativeGener
 
 	public void setMessageResolver(IMessageResolver theMessageResolver) {
 		myMessageResolver = theMessageResolver;
+		myTemplateEngine = null;
+	}
+
+	private static FhirContext getFhirContext(IExpressionContext theContext) {
+		return (FhirContext) theContext.getVariable(FHIR_CONTEXT);
 	}
 
+	private static class TemplateEngineHolder {
+		private final NarrativeTemplateManifest myManifest;
+		private final TemplateEngine myTemplateEngine;
+
+		private TemplateEngineHolder(NarrativeTemplateManifest theManifest, TemplateEngine theTemplateEngine) {
+			myManifest = theManifest;
+			myTemplateEngine = theTemplateEngine;
+		}
+	}
+
+	/**
+	 * Resolves templates from the manifest. The {@link FhirContext} is supplied as a template
+	 * resolution attribute, since the engine is shared by all contexts.
+	 */
 	private class NarrativeTemplateResolver extends DefaultTemplateResolver {
-		private final FhirContext myFhirContext;
+		private final NarrativeTemplateManifest myManifest;
 
-		private NarrativeTemplateResolver(FhirContext theFhirContext) {
-			myFhirContext = theFhirContext;
+		private NarrativeTemplateResolver(NarrativeTemplateManifest theManifest) {
+			myManifest = theManifest;
 		}
 
 		@Override
@@ -164,14 +216,15 @@ public abstract class BaseThymeleafNarrativeGenerator extends BaseNarrativeGener
 				String theOwnerTemplate,
 				String theTemplate,
 				Map<String, Object> theTemplateResolutionAttributes) {
+			FhirContext fhirContext = (FhirContext) theTemplateResolutionAttributes.get(FHIR_CONTEXT);
 			if (theOwnerTemplate == null) {
-				return getManifest()
-								.getTemplateByName(myFhirContext, getStyle(), theTemplate)
+				return myManifest
+								.getTemplateByName(fhirContext, getStyle(), theTemplate)
 								.size()
 						> 0;
 			} else {
-				return getManifest()
-								.getTemplateByFragmentName(myFhirContext, getStyle(), theTemplate)
+				return myManifest
+								.getTemplateByFragmentName(fhirContext, getStyle(), theTemplate)
 								.size()
 						> 0;
 			}
@@ -192,13 +245,14 @@ public abstract class BaseThymeleafNarrativeGenerator extends BaseNarrativeGener
 				String theOwnerTemplate,
 				String theTemplate,
 				Map<String, Object> theTemplateResolutionAttributes) {
+			FhirContext fhirContext = (FhirContext) theTemplateResolutionAttributes.get(FHIR_CONTEXT);
 			if (theOwnerTemplate == null) {
-				return getManifest().getTemplateByName(myFhirContext, getStyle(), theTemplate).stream()
+				return myManifest.getTemplateByName(fhirContext, getStyle(), theTemplate).stream()
 						.findFirst()
 						.map(t -> new StringTemplateResource(t.getTemplateText()))
 						.orElseThrow(() -> new IllegalArgumentException("Unknown template: " + theTemplate));
 			} else {
-				return getManifest().getTemplateByFragmentName(myFhirContext, getStyle(), theTemplate).stream()
+				return myManifest.getTemplateByFragmentName(fhirContext, getStyle(), theTemplate).stream()
 						.findFirst()
 						.map(t -> new StringTemplateResource(t.getTemplateText()))
 						.orElseThrow(() -> new IllegalArgumentException("Unknown template: " + theTemplate));
@@ -217,11 +271,8 @@ public abstract class BaseThymeleafNarrativeGenerator extends BaseNarrativeGener
 
 	private class NarrativeTagProcessor extends AbstractElementTagProcessor {
 
-		private final FhirContext myFhirContext;
-
-		NarrativeTagProcessor(FhirContext theFhirContext, String dialectPrefix) {
+		NarrativeTagProcessor(String dialectPrefix) {
 			super(TemplateMode.XML, dialectPrefix, "narrative", true, null, true, 0);
-			myFhirContext = theFhirContext;
 		}
 
 		@Override
@@ -232,7 +283,8 @@ public abstract class BaseThymeleafNarrativeGenerator extends BaseNarrativeGener
 			String name = theTag.getAttributeValue("th:name");
 			String element = theTag.getAttributeValue("th:element");
 
-			String appliedTemplate = applyTemplateWithinTag(myFhirContext, theTemplateContext, name, element);
+			String appliedTemplate =
+					applyTemplateWithinTag(getFhirContext(theTemplateContext), theTemplateContext, name, element);
 			theStructureHandler.replaceWith(appliedTemplate, false);
 		}
 	}
@@ -243,11 +295,8 @@ public abstract class BaseThymeleafNarrativeGenerator extends BaseNarrativeGener
 	 */
 	private class NarrativeAttributeProcessor extends AbstractAttributeTagProcessor {
 
-		private final FhirContext myFhirContext;
-
-		NarrativeAttributeProcessor(String theDialectPrefix, FhirContext theFhirContext) {
+		NarrativeAttributeProcessor(String theDialectPrefix) {
 			super(TemplateMode.XML, theDialectPrefix, null, false, "narrative", true, 0, true);
-			myFhirContext = theFhirContext;
 		}
 
 		@Override
@@ -257,19 +306,13 @@ public abstract class BaseThymeleafNarrativeGenerator extends BaseNarrativeGener
 				AttributeName theAttributeName,
 				String theAttributeValue,
 				IElementTagStructureHandler theStructureHandler) {
-			String text = applyTemplateWithinTag(myFhirContext, theContext, null, theAttributeValue);
+			String text = applyTemplateWithinTag(getFhirContext(theContext), theContext, null, theAttributeValue);
 			theStructureHandler.setBody(text, false);
 		}
 	}
 
 	private class NarrativeGeneratorDialect implements IDialect, IExpressionObjectDialect {
 
-		private final FhirContext myFhirContext;
-
-		public NarrativeGeneratorDialect(FhirContext theFhirContext) {
-			myFhirContext = theFhirContext;
-		}
-
 		@Override
 		public String getName() {
 			return "NarrativeGeneratorDialect";
@@ -277,18 +320,12 @@ public abstract class BaseThymeleafNarrativeGenerator extends BaseNarrativeGener
 
 		@Override
 		public IExpressionObjectFactory getExpressionObjectFactory() {
-			return new NarrativeGeneratorExpressionObjectFactory(myFhirContext);
+			return new NarrativeGeneratorExpressionObjectFactory();
 		}
 	}
 
 	private class NarrativeGeneratorExpressionObjectFactory implements IExpressionObjectFactory {
 
-		private final FhirContext myFhirContext;
-
-		public NarrativeGeneratorExpressionObjectFactory(FhirContext theFhirContext) {
-			myFhirContext = theFhirContext;
-		}
-
 		@Override
 		public Set<String> getAllExpressionObjectNames() {
 			return Sets.newHashSet(FHIRPATH);
@@ -297,7 +334,7 @@ public abstract class BaseThymeleafNarrativeGenerator extends BaseNarrativeGener
 		@Override
 		public Object buildObject(IExpressionContext context, String expressionObjectName) {
 			if (FHIRPATH.equals(expressionObjectName)) {
-				return new NarrativeGeneratorFhirPathExpressionObject(myFhirContext);
+				return new NarrativeGeneratorFhirPathExpressionObject(getFhirContext(context));
 			}
 			return null;
 		}
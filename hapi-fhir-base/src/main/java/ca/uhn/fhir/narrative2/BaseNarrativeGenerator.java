@@ -28,14 +28,21 @@ import ca.uhn.fhir.i18n.Msg;
 import ca.uhn.fhir.narrative.INarrativeGenerator;
 import ca.uhn.fhir.rest.server.exceptions.InternalErrorException;
 import ca.uhn.fhir.util.Logs;
+import ca.uhn.fhir.util.ResourceIdentity;
+import org.apache.commons.lang3.Validate;
 import org.hl7.fhir.instance.model.api.IBase;
 import org.hl7.fhir.instance.model.api.IBaseResource;
+import org.hl7.fhir.instance.model.api.IIdType;
 import org.hl7.fhir.instance.model.api.INarrative;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 import javax.annotation.Nullable;
 
@@ -44,6 +51,51 @@ import static org.apache.commons.lang3.StringUtils.isNotBlank;
 
 public abstract class BaseNarrativeGenerator implements INarrativeGenerator {
 
+	private final Map<NarrativeCacheKey, List<String>> myNarrativeCache = new ConcurrentHashMap<>();
+	private volatile int myNarrativeCacheSize;
+
+	/**
+	 * Returns the maximum number of generated narratives which will be retained for reuse, or
+	 * <code>0</code> (the default) if generated narratives are not retained.
+	 *
+	 * @see #setNarrativeCacheSize(int)
+	 * @since 7.0.0
+	 */
+	public int getNarrativeCacheSize() {
+		return myNarrativeCacheSize;
+	}
+
+	/**
+	 * If set to a value greater than <code>0</code> (default is <code>0</code>), narratives generated
+	 * for resources which have both an ID and a version ID are retained, and are reused the next time
+	 * a narrative is requested for the same version of the same resource. This avoids processing the
+	 * templates again when the same resource versions are rendered repeatedly (e.g. when generating
+	 * documents).
+	 * <p>
+	 * This should only be enabled if resources are never modified without their version ID also
+	 * changing, since a modified resource with an unchanged version ID will be given the narrative
+	 * which was generated for the original contents. When the cache reaches the given size it is
+	 * cleared.
+	 * </p>
+	 *
+	 * @param theNarrativeCacheSize The maximum number of narratives to retain, or <code>0</code> to disable
+	 * @since 7.0.0
+	 */
+	public void setNarrativeCacheSize(int theNarrativeCacheSize) {
+		Validate.isTrue(theNarrativeCacheSize >= 0, "theNarrativeCacheSize must not be negative");
+		myNarrativeCacheSize = theNarrativeCacheSize;
+		myNarrativeCache.clear();
+	}
+
+	/**
+	 * Removes any narratives retained because of {@link #setNarrativeCacheSize(int)}
+	 *
+	 * @since 7.0.0
+	 */
+	public void clearNarrativeCache() {
+		myNarrativeCache.clear();
+	}
+
 	@Override
 	public boolean populateResourceNarrative(FhirContext theFhirContext, IBaseResource theResource) {
 		INarrativeTemplate template = selectTemplate(theFhirContext, theResource);
@@ -80,8 +132,16 @@ public abstract class BaseNarrativeGenerator implements INarrativeGenerator {
 	public String generateResourceNarrative(FhirContext theFhirContext, IBaseResource theResource) {
 		INarrativeTemplate template = selectTemplate(theFhirContext, theResource);
 		if (template != null) {
+			NarrativeCacheKey cacheKey = newNarrativeCacheKey(theFhirContext, template, null, theResource);
+			List<String> cachedNarratives = getCachedNarratives(cacheKey, 1);
+			if (cachedNarratives != null) {
+				return cachedNarratives.get(0);
+			}
+
 			String narrative = applyTemplate(theFhirContext, template, (IBase) theResource);
-			return cleanWhitespace(narrative);
+			narrative = cleanWhitespace(narrative);
+			cacheNarratives(cacheKey, Collections.singletonList(narrative));
+			return narrative;
 		}
 
 		return null;
@@ -104,14 +164,24 @@ public abstract class BaseNarrativeGenerator implements INarrativeGenerator {
 		// Narrative templates define a path within the resource that they apply to. Here, we're
 		// finding anywhere in the resource that gets a narrative
 		List<IBase> targets = findElementsInResourceRequiringNarratives(theFhirContext, theResource, contextPath);
-		for (IBase nextTargetContext : targets) {
+		NarrativeCacheKey cacheKey = newNarrativeCacheKey(theFhirContext, theTemplate, contextPath, theResource);
+		List<String> cachedNarratives = getCachedNarratives(cacheKey, targets.size());
+		List<String> narratives = new ArrayList<>(targets.size());
+		for (int i = 0; i < targets.size(); i++) {
+			IBase nextTargetContext = targets.get(i);
 
 			// Extract [element].text of type Narrative
 			INarrative nextTargetNarrative = getOrCreateNarrativeChildElement(theFhirContext, nextTargetContext);
 
-			// Create the actual narrative text
-			String narrative = applyTemplate(theFhirContext, theTemplate, nextTargetContext);
-			narrative = cleanWhitespace(narrative);
+			// Create the actual narrative text, unless it has already been generated for this resource version
+			String narrative;
+			if (cachedNarratives != null) {
+				narrative = cachedNarratives.get(i);
+			} else {
+				narrative = applyTemplate(theFhirContext, theTemplate, nextTargetContext);
+				narrative = cleanWhitespace(narrative);
+			}
+			narratives.add(narrative);
 
 			if (isNotBlank(narrative)) {
 				try {
@@ -123,9 +193,57 @@ public abstract class BaseNarrativeGenerator implements INarrativeGenerator {
 				}
 			}
 		}
+
+		if (cachedNarratives == null) {
+			cacheNarratives(cacheKey, narratives);
+		}
+		return retVal;
+	}
+
+	/**
+	 * Returns a key for retaining the narratives generated for the given resource, or <code>null</code>
+	 * if narratives are not being retained or the resource has no versioned ID
+	 */
+	@Nullable
+	private NarrativeCacheKey newNarrativeCacheKey(
+			FhirContext theFhirContext,
+			INarrativeTemplate theTemplate,
+			@Nullable String theContextPath,
+			IBaseResource theResource) {
+		if (myNarrativeCacheSize == 0) {
+			return null;
+		}
+		IIdType id = theResource.getIdElement();
+		if (id == null || !id.hasIdPart() || !id.hasVersionIdPart()) {
+			return null;
+		}
+		ResourceIdentity resourceId = ResourceIdentity.of(
+				null, theFhirContext.getResourceType(theResource), id.getIdPart(), id.getVersionIdPart());
+		return new NarrativeCacheKey(theFhirContext, theTemplate.getTemplateName(), theContextPath, resourceId);
+	}
+
+	@Nullable
+	private List<String> getCachedNarratives(@Nullable NarrativeCacheKey theCacheKey, int theTargetCount) {
+		if (theCacheKey == null) {
+			return null;
+		}
+		List<String> retVal = myNarrativeCache.get(theCacheKey);
+		if (retVal != null && retVal.size() != theTargetCount) {
+			return null;
+		}
 		return retVal;
 	}
 
+	private void cacheNarratives(@Nullable NarrativeCacheKey theCacheKey, List<String> theNarratives) {
+		if (theCacheKey == null) {
+			return;
+		}
+		if (myNarrativeCache.size() >= myNarrativeCacheSize) {
+			myNarrativeCache.clear();
+		}
+		myNarrativeCache.put(theCacheKey, Collections.unmodifiableList(theNarratives));
+	}
+
 	private INarrative getOrCreateNarrativeChildElement(FhirContext theFhirContext, IBase nextTargetContext) {
 		BaseRuntimeElementCompositeDefinition<?> targetElementDef = (BaseRuntimeElementCompositeDefinition<?>)
 				theFhirContext.getElementDefinition(nextTargetContext.getClass());
@@ -236,4 +354,42 @@ public abstract class BaseNarrativeGenerator implements INarrativeGenerator {
 	}
 
 	protected abstract NarrativeTemplateManifest getManifest();
+
+	private static class NarrativeCacheKey {
+		private final FhirContext myFhirContext;
+		private final String myTemplateName;
+		private final String myContextPath;
+		private final ResourceIdentity myResourceId;
+		private final int myHashCode;
+
+		private NarrativeCacheKey(
+				FhirContext theFhirContext, String theTemplateName, String theContextPath, ResourceIdentity theResourceId) {
+			myFhirContext = theFhirContext;
+			myTemplateName = theTemplateName;
+			myContextPath = theContextPath;
+			myResourceId = theResourceId;
+			myHashCode = Objects.hash(
+					System.identityHashCode(theFhirContext), theTemplateName, theContextPath, theResourceId);
+		}
+
+		@Override
+		public boolean equals(Object theOther) {
+			if (this == theOther) {
+				return true;
+			}
+			if (!(theOther instanceof NarrativeCacheKey)) {
+				return false;
+			}
+			NarrativeCacheKey other = (NarrativeCacheKey) theOther;
+			return myFhirContext == other.myFhirContext
+					&& myResourceId.equals(other.myResourceId)
+					&& Objects.equals(myTemplateName, other.myTemplateName)
+					&& Objects.equals(myContextPath, other.myContextPath);
+		}
+
+		@Override
+		public int hashCode() {
+			return myHashCode;
+		}
+	}
 }
@@ -38,6 +38,7 @@ public class NarrativeTemplate implements INarrativeTemplate {
 	private TemplateTypeEnum myTemplateType = TemplateTypeEnum.THYMELEAF;
 	private String myContextPath;
 	private String myTemplateName;
+	private volatile String myTemplateText;
 
 	@Override
 	public String toString() {
@@ -74,6 +75,7 @@ public class NarrativeTemplate implements INarrativeTemplate {
 
 	void setTemplateFileName(String theTemplateFileName) {
 		myTemplateFileName = theTemplateFileName;
+		myTemplateText = null;
 	}
 
 	@Override
@@ -122,9 +124,18 @@ public class NarrativeTemplate implements INarrativeTemplate {
 		return this;
 	}
 
+	/**
+	 * Returns the template source. The template file is loaded the first time this
+	 * method is called, and the contents are then retained.
+	 */
 	@Override
 	public String getTemplateText() {
-		return NarrativeTemplateManifest.loadResource(getTemplateFileName());
+		String retVal = myTemplateText;
+		if (retVal == null) {
+			retVal = NarrativeTemplateManifest.loadResource(getTemplateFileName());
+			myTemplateText = retVal;
+		}
+		return retVal;
 	}
 
 	void addAppliesToDatatype(String theDataType) {
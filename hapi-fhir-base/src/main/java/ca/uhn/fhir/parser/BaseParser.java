@@ -63,10 +63,13 @@ import org.hl7.fhir.instance.model.api.IPrimitiveType;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
 import java.io.Reader;
 import java.io.StringReader;
 import java.io.Writer;
 import java.lang.reflect.Modifier;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -100,6 +103,12 @@ public abstract class BaseParser implements IParser {
 	private static final Set<String> notEncodeForContainedResource =
 			new HashSet<>(Arrays.asList("security", "versionId", "lastUpdated"));
 
+	private static final int PLAN_CONTAINED = 1;
+	private static final int PLAN_SUMMARY = 1 << 1;
+	private static final int PLAN_SUPPRESS_NARRATIVES = 1 << 2;
+	private static final int PLAN_CAPABILITY_STATEMENT = 1 << 3;
+	private static final int PLAN_LEAF_EXTENSION = 1 << 4;
+
 	private FhirTerser.ContainedResources myContainedResources;
 	private boolean myEncodeElementsAppliesToChildResourcesOnly;
 	private final FhirContext myContext;
@@ -184,6 +193,11 @@ public abstract class BaseParser implements IParser {
 			EncodeContext theEncodeContext) {
 		BaseRuntimeElementCompositeDefinition<?> elementDef = (BaseRuntimeElementCompositeDefinition<?>)
 				myContext.getElementDefinition(theCompositeElement.getClass());
+		if (myContext.getParserOptions().isCompileEncodePlans()
+				&& myEncodeElements == null
+				&& myDontEncodeElements == null) {
+			return compiledCompositeChildIterator(elementDef, theContainedResource, theParent, theEncodeContext);
+		}
 		return theEncodeContext
 				.getCompositeChildrenCache()
 				.computeIfAbsent(new Key(elementDef, theContainedResource, theParent, theEncodeContext), (k) -> {
@@ -215,6 +229,96 @@ public abstract class BaseParser implements IParser {
 				});
 	}
 
+	/**
+	 * When no element filters are in use, the set of children to encode for a given element
+	 * type depends only on a handful of flags, so we compile it once per definition and
+	 * reuse it for every element of that type
+	 */
+	private List<CompositeChildElement> compiledCompositeChildIterator(
+			BaseRuntimeElementCompositeDefinition<?> theElementDef,
+			boolean theContainedResource,
+			CompositeChildElement theParent,
+			EncodeContext theEncodeContext) {
+		boolean summaryMode = isSummaryMode();
+		boolean suppressNarratives = isSuppressNarratives();
+		boolean capabilityStatement = false;
+		boolean leafElementIsExtension = false;
+		if (summaryMode) {
+			String resourceName = theEncodeContext.getLeafResourceName();
+			capabilityStatement = "Conformance".equals(resourceName) || "CapabilityStatement".equals(resourceName);
+			leafElementIsExtension = capabilityStatement && "extension".equals(theEncodeContext.getLeafElementName());
+		}
+
+		int planKey = (theContainedResource ? PLAN_CONTAINED : 0)
+				| (summaryMode ? PLAN_SUMMARY : 0)
+				| (suppressNarratives ? PLAN_SUPPRESS_NARRATIVES : 0)
+				| (capabilityStatement ? PLAN_CAPABILITY_STATEMENT : 0)
+				| (leafElementIsExtension ? PLAN_LEAF_EXTENSION : 0);
+
+		if (theParent != null
+				&& theParent.myCompiledChildrenDef == theElementDef
+				&& theParent.myCompiledChildrenPlanKey == planKey) {
+			return theParent.myCompiledChildren;
+		}
+
+		List<BaseRuntimeChildDefinition> plan =
+				theElementDef.getEncodePlan(planKey, children -> compileEncodePlan(children, planKey));
+
+		List<CompositeChildElement> retVal = new ArrayList<>(plan.size());
+		for (BaseRuntimeChildDefinition next : plan) {
+			retVal.add(new CompositeChildElement(theParent, next, theEncodeContext));
+		}
+
+		if (theParent != null) {
+			theParent.myCompiledChildrenDef = theElementDef;
+			theParent.myCompiledChildrenPlanKey = planKey;
+			theParent.myCompiledChildren = retVal;
+		}
+		return retVal;
+	}
+
+	/**
+	 * Applies the same rules as {@link #compositeChildIterator(IBase, boolean, CompositeChildElement, EncodeContext)}
+	 * and {@link CompositeChildElement#shouldBeEncoded(boolean)} for the case where no element filters are in use
+	 */
+	private static List<BaseRuntimeChildDefinition> compileEncodePlan(
+			List<BaseRuntimeChildDefinition> theChildren, int thePlanKey) {
+		boolean containedResource = (thePlanKey & PLAN_CONTAINED) != 0;
+		boolean summaryMode = (thePlanKey & PLAN_SUMMARY) != 0;
+		boolean suppressNarratives = (thePlanKey & PLAN_SUPPRESS_NARRATIVES) != 0;
+		boolean capabilityStatement = (thePlanKey & PLAN_CAPABILITY_STATEMENT) != 0;
+		boolean leafElementIsExtension = (thePlanKey & PLAN_LEAF_EXTENSION) != 0;
+
+		List<BaseRuntimeChildDefinition> retVal = new ArrayList<>(theChildren.size());
+		for (BaseRuntimeChildDefinition next : theChildren) {
+			String elementName = next.getElementName();
+			if (elementName.equals("id")) {
+				continue;
+			}
+			if (containedResource && notEncodeForContainedResource.contains(elementName)) {
+				continue;
+			}
+			if (summaryMode && !next.isSummary()) {
+				boolean capabilityStatementExtension =
+						capabilityStatement && ("extension".equals(elementName) || leafElementIsExtension);
+				if (!capabilityStatementExtension) {
+					continue;
+				}
+			}
+			if (next instanceof RuntimeChildNarrativeDefinition) {
+				if (suppressNarratives || summaryMode) {
+					continue;
+				}
+			} else if (next instanceof RuntimeChildContainedResources) {
+				if (containedResource) {
+					continue;
+				}
+			}
+			retVal.add(next);
+		}
+		return retVal;
+	}
+
 	private String determineReferenceText(IBaseReference theRef, CompositeChildElement theCompositeChildElement) {
 		IIdType ref = theRef.getReferenceElement();
 		if (isBlank(ref.getIdPart())) {
@@ -271,6 +375,19 @@ public abstract class BaseParser implements IParser {
 			IBaseResource theResource, Writer theWriter, EncodeContext theEncodeContext)
 			throws IOException, DataFormatException;
 
+	/**
+	 * Encodes a resource as UTF-8 bytes. Parsers which are able to produce bytes directly should override
+	 * this method, the default implementation transcodes the output of
+	 * {@link #doEncodeResourceToWriter(IBaseResource, Writer, EncodeContext)}.
+	 */
+	protected void doEncodeResourceToOutputStream(
+			IBaseResource theResource, OutputStream theOutputStream, EncodeContext theEncodeContext)
+			throws IOException, DataFormatException {
+		Writer writer = new OutputStreamWriter(theOutputStream, StandardCharsets.UTF_8);
+		doEncodeResourceToWriter(theResource, writer, theEncodeContext);
+		writer.flush();
+	}
+
 	protected void doEncodeToWriter(IBase theElement, Writer theWriter, EncodeContext theEncodeContext)
 			throws IOException, DataFormatException {
 		throw new InternalErrorException(Msg.code(2363) + "This parser does not support encoding non-resource values");
@@ -298,6 +415,13 @@ public abstract class BaseParser implements IParser {
 		encodeResourceToWriter(theResource, theWriter, encodeContext);
 	}
 
+	@Override
+	public final void encodeResourceToOutputStream(IBaseResource theResource, OutputStream theOutputStream)
+			throws IOException, DataFormatException {
+		EncodeContext encodeContext = new EncodeContext();
+		encodeResourceToOutputStream(theResource, theOutputStream, encodeContext);
+	}
+
 	@Override
 	public String encodeToString(IBase theElement) throws DataFormatException {
 		Writer stringWriter = new StringBuilderWriter();
@@ -328,6 +452,28 @@ public abstract class BaseParser implements IParser {
 		Validate.notNull(theWriter, "theWriter can not be null");
 		Validate.notNull(theEncodeContext, "theEncodeContext can not be null");
 
+		startEncodingResource(theResource, theEncodeContext);
+
+		doEncodeResourceToWriter(theResource, theWriter, theEncodeContext);
+
+		theEncodeContext.popPath();
+	}
+
+	protected void encodeResourceToOutputStream(
+			IBaseResource theResource, OutputStream theOutputStream, EncodeContext theEncodeContext)
+			throws IOException {
+		Validate.notNull(theResource, "theResource can not be null");
+		Validate.notNull(theOutputStream, "theOutputStream can not be null");
+		Validate.notNull(theEncodeContext, "theEncodeContext can not be null");
+
+		startEncodingResource(theResource, theEncodeContext);
+
+		doEncodeResourceToOutputStream(theResource, theOutputStream, theEncodeContext);
+
+		theEncodeContext.popPath();
+	}
+
+	private void startEncodingResource(IBaseResource theResource, EncodeContext theEncodeContext) {
 		if (myContext.getVersion().getVersion() == FhirVersionEnum.R4B
 				&& theResource.getStructureFhirVersionEnum() == FhirVersionEnum.R5) {
 			// TODO: remove once we've bumped the core lib version
@@ -341,10 +487,6 @@ public abstract class BaseParser implements IParser {
 		String resourceName =
 				myContext.getElementDefinition(theResource.getClass()).getName();
 		theEncodeContext.pushPath(resourceName, true);
-
-		doEncodeResourceToWriter(theResource, theWriter, theEncodeContext);
-
-		theEncodeContext.popPath();
 	}
 
 	protected void encodeToWriter(IBase theElement, Writer theWriter, EncodeContext theEncodeContext)
@@ -601,7 +743,7 @@ public abstract class BaseParser implements IParser {
 		return myOmitResourceId;
 	}
 
-	private boolean isOverrideResourceIdWithBundleEntryFullUrl() {
+	boolean isOverrideResourceIdWithBundleEntryFullUrl() {
 		Boolean overrideResourceIdWithBundleEntryFullUrl = myOverrideResourceIdWithBundleEntryFullUrl;
 		if (overrideResourceIdWithBundleEntryFullUrl != null) {
 			return overrideResourceIdWithBundleEntryFullUrl;
@@ -684,37 +826,7 @@ public abstract class BaseParser implements IParser {
 					if (fullUrl != null) {
 						IBaseResource resource = t.getResource();
 						if (resource != null) {
-							IIdType resourceId = resource.getIdElement();
-							if (isBlank(resourceId.getValue())) {
-								resourceId.setValue(fullUrl);
-							} else {
-								if (fullUrl.startsWith("urn:")
-										&& fullUrl.length()
-												> resourceId.getIdPart().length()
-										&& fullUrl.charAt(fullUrl.length()
-														- resourceId.getIdPart().length()
-														- 1)
-												== ':'
-										&& fullUrl.endsWith(resourceId.getIdPart())) {
-									resourceId.setValue(fullUrl);
-								} else {
-									IIdType fullUrlId = myContext.getVersion().newIdType();
-									fullUrlId.setValue(fullUrl);
-									if (myContext.getVersion().getVersion().isOlderThan(FhirVersionEnum.DSTU3)) {
-										IIdType newId = fullUrlId;
-										if (!newId.hasVersionIdPart() && resourceId.hasVersionIdPart()) {
-											newId = newId.withVersion(resourceId.getVersionIdPart());
-										}
-										resourceId.setValue(newId.getValue());
-									} else if (StringUtils.equals(fullUrlId.getIdPart(), resourceId.getIdPart())) {
-										if (fullUrlId.hasBaseUrl()) {
-											IIdType newResourceId = resourceId.withServerBase(
-													fullUrlId.getBaseUrl(), resourceId.getResourceType());
-											resourceId.setValue(newResourceId.getValue());
-										}
-									}
-								}
-							}
+							applyBundleEntryFullUrl(fullUrl, resource);
 						}
 					}
 				});
@@ -724,6 +836,42 @@ public abstract class BaseParser implements IParser {
 		return retVal;
 	}
 
+	/**
+	 * Updates the ID of a resource found in <code>Bundle.entry.resource</code> so that it
+	 * reflects the value of the corresponding <code>Bundle.entry.fullUrl</code>
+	 */
+	void applyBundleEntryFullUrl(String theFullUrl, IBaseResource theResource) {
+		IIdType resourceId = theResource.getIdElement();
+		if (isBlank(resourceId.getValue())) {
+			resourceId.setValue(theFullUrl);
+		} else {
+			if (theFullUrl.startsWith("urn:")
+					&& theFullUrl.length() > resourceId.getIdPart().length()
+					&& theFullUrl.charAt(
+									theFullUrl.length() - resourceId.getIdPart().length() - 1)
+							== ':'
+					&& theFullUrl.endsWith(resourceId.getIdPart())) {
+				resourceId.setValue(theFullUrl);
+			} else {
+				IIdType fullUrlId = myContext.getVersion().newIdType();
+				fullUrlId.setValue(theFullUrl);
+				if (myContext.getVersion().getVersion().isOlderThan(FhirVersionEnum.DSTU3)) {
+					IIdType newId = fullUrlId;
+					if (!newId.hasVersionIdPart() && resourceId.hasVersionIdPart()) {
+						newId = newId.withVersion(resourceId.getVersionIdPart());
+					}
+					resourceId.setValue(newId.getValue());
+				} else if (StringUtils.equals(fullUrlId.getIdPart(), resourceId.getIdPart())) {
+					if (fullUrlId.hasBaseUrl()) {
+						IIdType newResourceId =
+								resourceId.withServerBase(fullUrlId.getBaseUrl(), resourceId.getResourceType());
+						resourceId.setValue(newResourceId.getValue());
+					}
+				}
+			}
+		}
+	}
+
 	@SuppressWarnings("cast")
 	@Override
 	public <T extends IBaseResource> T parseResource(Class<T> theResourceType, String theMessageString) {
@@ -1046,6 +1194,9 @@ public abstract class BaseParser implements IParser {
 		private final CompositeChildElement myParent;
 		private final RuntimeResourceDefinition myResDef;
 		private final EncodeContext myEncodeContext;
+		private BaseRuntimeElementCompositeDefinition<?> myCompiledChildrenDef;
+		private int myCompiledChildrenPlanKey;
+		private List<CompositeChildElement> myCompiledChildren;
 
 		public CompositeChildElement(
 				CompositeChildElement theParent,
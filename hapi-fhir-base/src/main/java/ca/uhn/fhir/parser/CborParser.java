@@ -0,0 +1,150 @@
+/*
+ * #%L
+ * HAPI FHIR - Core Library
+ * %%
+ * Copyright (C) 2014 - 2023 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package ca.uhn.fhir.parser;
+
+import ca.uhn.fhir.context.FhirContext;
+import ca.uhn.fhir.i18n.Msg;
+import ca.uhn.fhir.parser.json.BaseJsonLikeWriter;
+import ca.uhn.fhir.parser.json.jackson.JacksonStructure;
+import ca.uhn.fhir.parser.json.jackson.JacksonWriter;
+import ca.uhn.fhir.rest.api.EncodingEnum;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.StreamReadConstraints;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import org.hl7.fhir.instance.model.api.IBase;
+import org.hl7.fhir.instance.model.api.IBaseResource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.Writer;
+
+/**
+ * This class is the FHIR CBOR parser/encoder. Users should not interact with this class directly, but should use
+ * {@link FhirContext#newCborParser()} to get an instance.
+ * <p>
+ * Resources are encoded using exactly the same structure as the {@link JsonParser JSON encoding}, but the
+ * structure is written as CBOR (RFC 8949) instead of JSON text. Because the output is binary, resources can only
+ * be encoded to an {@link OutputStream} and parsed from an {@link InputStream}. Methods which work with
+ * {@link Writer writers}, {@link Reader readers} or strings throw a {@link DataFormatException}. Pretty printing
+ * is not applicable and is ignored.
+ * </p>
+ *
+ * @since 7.0.0
+ */
+public class CborParser extends JsonParser {
+
+	private static final CBORMapper CBOR_MAPPER = createCborMapper();
+
+	/**
+	 * Do not use this constructor, the recommended way to obtain a new instance of the CBOR parser is to invoke
+	 * {@link FhirContext#newCborParser()}.
+	 */
+	public CborParser(FhirContext theContext, IParserErrorHandler theParserErrorHandler) {
+		super(theContext, theParserErrorHandler);
+	}
+
+	@Override
+	protected void doEncodeResourceToOutputStream(
+			IBaseResource theResource, OutputStream theOutputStream, EncodeContext theEncodeContext)
+			throws IOException {
+		BaseJsonLikeWriter eventWriter = new JacksonWriter(CBOR_MAPPER.getFactory(), theOutputStream);
+		doEncodeResourceToJsonLikeWriter(theResource, eventWriter, theEncodeContext);
+		eventWriter.close();
+		theOutputStream.flush();
+	}
+
+	@Override
+	protected void doEncodeResourceToWriter(
+			IBaseResource theResource, Writer theWriter, EncodeContext theEncodeContext) {
+		throw new DataFormatException(
+				Msg.code(2451)
+						+ "CBOR is a binary encoding and can not be written to a Writer, use encodeResourceToOutputStream instead");
+	}
+
+	@Override
+	protected void doEncodeToWriter(IBase theElement, Writer theWriter, EncodeContext theEncodeContext) {
+		throw new DataFormatException(Msg.code(2452) + "CBOR is a binary encoding and can not be written to a Writer");
+	}
+
+	@Override
+	public <T extends IBaseResource> T doParseResource(Class<T> theResourceType, Reader theReader) {
+		throw new DataFormatException(
+				Msg.code(2453)
+						+ "CBOR is a binary encoding and can not be parsed from a Reader or String, use an InputStream instead");
+	}
+
+	@Override
+	public IBaseResource parseResource(InputStream theInputStream) throws DataFormatException {
+		return parseResource(null, theInputStream);
+	}
+
+	@Override
+	public <T extends IBaseResource> T parseResource(Class<T> theResourceType, InputStream theInputStream)
+			throws DataFormatException {
+		JsonNode tree;
+		try {
+			tree = CBOR_MAPPER.readTree(theInputStream);
+		} catch (IOException e) {
+			throw new DataFormatException(
+					Msg.code(2454) + "Failed to parse CBOR encoded FHIR content: " + e.getMessage(), e);
+		}
+		if (tree == null || tree.isMissingNode()) {
+			throw new DataFormatException(Msg.code(2455) + "Did not find any content to parse");
+		}
+		if (!tree.isObject()) {
+			throw new DataFormatException(
+					Msg.code(2456) + "Content does not appear to be FHIR CBOR, root element must be a map");
+		}
+
+		JacksonStructure structure = new JacksonStructure();
+		structure.setNativeObject((ObjectNode) tree);
+		return parseResource(theResourceType, structure);
+	}
+
+	@Override
+	public EncodingEnum getEncoding() {
+		return EncodingEnum.CBOR;
+	}
+
+	@Override
+	public IParser setPrettyPrint(boolean thePrettyPrint) {
+		return super.setPrettyPrint(false);
+	}
+
+	private static CBORMapper createCborMapper() {
+		CBORMapper retVal = CBORMapper.builder()
+				.nodeFactory(new JsonNodeFactory(true))
+				.enable(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS)
+				.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+				.disable(com.fasterxml.jackson.core.JsonParser.Feature.AUTO_CLOSE_SOURCE)
+				.build();
+		retVal.getFactory()
+				.setStreamReadConstraints(StreamReadConstraints.builder()
+						.maxStringLength(Integer.MAX_VALUE)
+						.build());
+		return retVal;
+	}
+}
@@ -0,0 +1,249 @@
+/*
+ * #%L
+ * HAPI FHIR - Core Library
+ * %%
+ * Copyright (C) 2014 - 2023 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package ca.uhn.fhir.parser;
+
+import ca.uhn.fhir.context.BaseRuntimeChildDefinition;
+import ca.uhn.fhir.context.BaseRuntimeElementCompositeDefinition;
+import ca.uhn.fhir.context.FhirContext;
+import ca.uhn.fhir.context.RuntimeResourceDefinition;
+import ca.uhn.fhir.rest.api.Constants;
+import ca.uhn.fhir.util.BundleUtil;
+import ca.uhn.fhir.util.FhirTerser;
+import org.hl7.fhir.instance.model.api.IBase;
+import org.hl7.fhir.instance.model.api.IBaseBundle;
+import org.hl7.fhir.instance.model.api.IBaseResource;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A Bundle parsed by {@link JsonParser#parseBundleWithDeferredEntries(Class, java.io.Reader)}, whose
+ * <code>Bundle.entry.resource</code> resources have not necessarily been parsed yet.
+ * <p>
+ * The envelope of each entry (e.g. <code>Bundle.entry.fullUrl</code> and <code>Bundle.entry.request</code>)
+ * is available through {@link #getEntries()} without parsing any entry resources. An entry resource is
+ * parsed the first time {@link Entry#getResource()} is called for it. {@link #toBundle()} parses any
+ * remaining entry resources and returns a regular, fully populated Bundle.
+ * </p>
+ * <p>
+ * This class is thread safe. Each entry resource is only ever parsed once, even if several threads
+ * request it at the same time.
+ * </p>
+ *
+ * @since 7.0.0
+ */
+public final class DeferredEntryBundle<T extends IBaseBundle> {
+
+	private final T myBundle;
+	private final String myBundleType;
+	private final BaseRuntimeChildDefinition myResourceChild;
+	private final List<Entry> myEntries;
+	private boolean myComplete;
+
+	DeferredEntryBundle(JsonParser theParser, T theBundle, Map<IBase, byte[]> theDeferredResources) {
+		FhirContext context = theParser.getContext();
+		EntryResourceParser resourceParser = new EntryResourceParser(theParser);
+		FhirTerser terser = context.newTerser();
+
+		RuntimeResourceDefinition bundleDef = context.getResourceDefinition(theBundle);
+		BaseRuntimeChildDefinition entryChild = bundleDef.getChildByName("entry");
+		BaseRuntimeElementCompositeDefinition<?> entryDef =
+				(BaseRuntimeElementCompositeDefinition<?>) entryChild.getChildByName("entry");
+
+		myBundle = theBundle;
+		myBundleType = BundleUtil.getBundleType(context, theBundle);
+		myResourceChild = entryDef.getChildByName("resource");
+
+		List<IBase> entries = entryChild.getAccessor().getValues(theBundle);
+		List<Entry> retVal = new ArrayList<>(entries.size());
+		for (IBase next : entries) {
+			byte[] json = theDeferredResources.get(next);
+			IBaseResource resource = null;
+			if (json == null) {
+				resource = (IBaseResource) myResourceChild.getAccessor().getFirstValueOrNull(next).orElse(null);
+			}
+			retVal.add(new Entry(
+					next,
+					terser.getSinglePrimitiveValueOrNull(next, "fullUrl"),
+					terser.getSinglePrimitiveValueOrNull(next, "request.method"),
+					terser.getSinglePrimitiveValueOrNull(next, "request.url"),
+					json,
+					resource,
+					resourceParser));
+		}
+		myEntries = Collections.unmodifiableList(retVal);
+	}
+
+	/**
+	 * Returns the value of <code>Bundle.type</code>
+	 */
+	public String getBundleType() {
+		return myBundleType;
+	}
+
+	/**
+	 * Returns the entries of the Bundle, in order
+	 */
+	public List<Entry> getEntries() {
+		return myEntries;
+	}
+
+	/**
+	 * Parses any entry resources which have not been parsed yet, and returns the Bundle with every
+	 * <code>Bundle.entry.resource</code> populated. The same Bundle instance is returned on every call,
+	 * and its entry resources are the same instances as the ones returned by {@link Entry#getResource()}.
+	 */
+	public synchronized T toBundle() {
+		if (!myComplete) {
+			for (Entry next : myEntries) {
+				if (next.myJson != null) {
+					myResourceChild.getMutator().setValue(next.myEntry, next.getResource());
+				}
+			}
+			myComplete = true;
+		}
+		return myBundle;
+	}
+
+	/**
+	 * A single <code>Bundle.entry</code>
+	 */
+	public static final class Entry {
+
+		private final IBase myEntry;
+		private final String myFullUrl;
+		private final String myRequestMethod;
+		private final String myRequestUrl;
+		private final byte[] myJson;
+		private final EntryResourceParser myResourceParser;
+		private volatile IBaseResource myResource;
+
+		private Entry(
+				IBase theEntry,
+				String theFullUrl,
+				String theRequestMethod,
+				String theRequestUrl,
+				byte[] theJson,
+				IBaseResource theResource,
+				EntryResourceParser theResourceParser) {
+			myEntry = theEntry;
+			myFullUrl = theFullUrl;
+			myRequestMethod = theRequestMethod;
+			myRequestUrl = theRequestUrl;
+			myJson = theJson;
+			myResource = theResource;
+			myResourceParser = theResourceParser;
+		}
+
+		/**
+		 * Returns the value of <code>Bundle.entry.fullUrl</code>, or <code>null</code>
+		 */
+		public String getFullUrl() {
+			return myFullUrl;
+		}
+
+		/**
+		 * Returns the value of <code>Bundle.entry.request.method</code>, or <code>null</code>
+		 */
+		public String getRequestMethod() {
+			return myRequestMethod;
+		}
+
+		/**
+		 * Returns the value of <code>Bundle.entry.request.url</code>, or <code>null</code>
+		 */
+		public String getRequestUrl() {
+			return myRequestUrl;
+		}
+
+		/**
+		 * Returns <code>true</code> if this entry has a resource
+		 */
+		public boolean hasResource() {
+			return myJson != null || myResource != null;
+		}
+
+		/**
+		 * Returns the UTF-8 encoded JSON of the entry resource exactly as it was found in the Bundle,
+		 * or <code>null</code> if this entry has no resource. The returned array must not be modified.
+		 */
+		public byte[] getResourceJson() {
+			return myJson;
+		}
+
+		/**
+		 * Returns the entry resource, parsing it first if this is the first time it has been requested.
+		 * If the parser was configured to override resource IDs with the entry <code>fullUrl</code>, this
+		 * is applied to the resource as it would have been had the Bundle been parsed normally.
+		 *
+		 * @return The entry resource, or <code>null</code> if this entry has no resource
+		 */
+		public IBaseResource getResource() {
+			IBaseResource retVal = myResource;
+			if (retVal == null && myJson != null) {
+				synchronized (this) {
+					retVal = myResource;
+					if (retVal == null) {
+						retVal = myResourceParser.parse(myJson, myFullUrl);
+						myResource = retVal;
+					}
+				}
+			}
+			return retVal;
+		}
+	}
+
+	/**
+	 * Holds a copy of the parser settings which affect how entry resources are parsed. A new
+	 * parser is created for every resource, since parsers are not thread safe.
+	 */
+	private static final class EntryResourceParser {
+
+		private final FhirContext myContext;
+		private final IParserErrorHandler myErrorHandler;
+		private final List<Class<? extends IBaseResource>> myPreferTypes;
+		private final boolean myOverrideResourceIdWithBundleEntryFullUrl;
+
+		private EntryResourceParser(JsonParser theParser) {
+			myContext = theParser.getContext();
+			myErrorHandler = theParser.getErrorHandler();
+			List<Class<? extends IBaseResource>> preferTypes = theParser.getPreferTypes();
+			myPreferTypes = preferTypes != null ? Collections.unmodifiableList(new ArrayList<>(preferTypes)) : null;
+			myOverrideResourceIdWithBundleEntryFullUrl = theParser.isOverrideResourceIdWithBundleEntryFullUrl();
+		}
+
+		private IBaseResource parse(byte[] theJson, String theFullUrl) {
+			JsonParser parser = (JsonParser) myContext.newJsonParser();
+			parser.setParserErrorHandler(myErrorHandler);
+			parser.setPreferTypes(myPreferTypes);
+			parser.setOverrideResourceIdWithBundleEntryFullUrl(myOverrideResourceIdWithBundleEntryFullUrl);
+			IBaseResource retVal = parser.parseResource(
+					new InputStreamReader(new ByteArrayInputStream(theJson), Constants.CHARSET_UTF8));
+			if (theFullUrl != null && myOverrideResourceIdWithBundleEntryFullUrl) {
+				parser.applyBundleEntryFullUrl(theFullUrl, retVal);
+			}
+			return retVal;
+		}
+	}
+}
@@ -31,8 +31,11 @@ import org.hl7.fhir.instance.model.api.IIdType;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
 import java.io.Reader;
 import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.Collection;
 import java.util.List;
 import java.util.Set;
@@ -65,6 +68,30 @@ public interface IParser {
 	 */
 	void encodeResourceToWriter(IBaseResource theResource, Writer theWriter) throws IOException, DataFormatException;
 
+	/**
+	 * Encodes a resource using the parser's given encoding format, writing UTF-8 encoded bytes directly
+	 * to the given stream. For large resources this avoids building the encoded form as characters and
+	 * then converting it to bytes in a second pass, as happens when wrapping a stream in a {@link Writer}.
+	 * <p>
+	 * The stream is flushed but not closed.
+	 * </p>
+	 * <p>
+	 * The default implementation encodes to a UTF-8 {@link Writer} wrapping the stream, so parsers which
+	 * do not extend {@link BaseParser} keep working unchanged.
+	 * </p>
+	 *
+	 * @param theResource     The resource to encode. Must not be null.
+	 * @param theOutputStream The stream to write to.
+	 * @throws DataFormatException If any invalid elements within the contents to be encoded prevent successful encoding.
+	 * @since 7.0.0
+	 */
+	default void encodeResourceToOutputStream(IBaseResource theResource, OutputStream theOutputStream)
+			throws IOException, DataFormatException {
+		Writer writer = new OutputStreamWriter(theOutputStream, StandardCharsets.UTF_8);
+		encodeResourceToWriter(theResource, writer);
+		writer.flush();
+	}
+
 	/**
 	 * Encodes any FHIR element to a string.
 	 * If a {@link IBaseResource resource object} is passed in, the resource will be encoded using standard FHIR
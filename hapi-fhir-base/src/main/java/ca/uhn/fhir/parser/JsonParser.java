@@ -59,6 +59,7 @@ import org.apache.commons.lang3.Validate;
 import org.apache.commons.text.WordUtils;
 import org.hl7.fhir.instance.model.api.IBase;
 import org.hl7.fhir.instance.model.api.IBaseBooleanDatatype;
+import org.hl7.fhir.instance.model.api.IBaseBundle;
 import org.hl7.fhir.instance.model.api.IBaseDecimalDatatype;
 import org.hl7.fhir.instance.model.api.IBaseExtension;
 import org.hl7.fhir.instance.model.api.IBaseHasExtensions;
@@ -71,9 +72,13 @@ import org.hl7.fhir.instance.model.api.INarrative;
 import org.hl7.fhir.instance.model.api.IPrimitiveType;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
 import java.io.Reader;
 import java.io.Writer;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Iterator;
@@ -224,6 +229,16 @@ public class JsonParser extends BaseParser implements IJsonLikeParser {
 		eventWriter.close();
 	}
 
+	@Override
+	protected void doEncodeResourceToOutputStream(
+			IBaseResource theResource, OutputStream theOutputStream, EncodeContext theEncodeContext)
+			throws IOException {
+		BaseJsonLikeWriter eventWriter = new JacksonStructure().getJsonLikeWriter(theOutputStream);
+		doEncodeResourceToJsonLikeWriter(theResource, eventWriter, theEncodeContext);
+		eventWriter.close();
+		theOutputStream.flush();
+	}
+
 	@Override
 	protected void doEncodeToWriter(IBase theElement, Writer theWriter, EncodeContext theEncodeContext)
 			throws IOException, DataFormatException {
@@ -236,6 +251,10 @@ public class JsonParser extends BaseParser implements IJsonLikeParser {
 
 	@Override
 	public <T extends IBaseResource> T doParseResource(Class<T> theResourceType, Reader theReader) {
+		if (getContext().getParserOptions().isStreamingJsonParsing()) {
+			return new JsonTokenStreamParser(this, false).parseResource(theResourceType, theReader);
+		}
+
 		JsonLikeStructure jsonStructure = new JacksonStructure();
 		jsonStructure.load(theReader);
 
@@ -244,13 +263,52 @@ public class JsonParser extends BaseParser implements IJsonLikeParser {
 		return retVal;
 	}
 
+	/**
+	 * Parses a Bundle without parsing the resources in its <code>Bundle.entry.resource</code> elements.
+	 * The raw JSON of each entry resource is retained, and is only parsed when it is requested from the
+	 * returned {@link DeferredEntryBundle}. This can reduce the memory and time needed to process large
+	 * Bundles where not every entry resource is needed (e.g. when only the entry envelopes are inspected
+	 * before deciding how to route a request).
+	 * <p>
+	 * Only the entries of the root Bundle are deferred. Resources contained in entry resources, including
+	 * nested Bundles, are parsed normally when their entry resource is parsed.
+	 * </p>
+	 *
+	 * @param theBundleType The Bundle type to parse, e.g. <code>org.hl7.fhir.r4.model.Bundle.class</code>
+	 * @param theReader     The reader to parse the Bundle from
+	 * @since 7.0.0
+	 */
+	public <T extends IBaseBundle> DeferredEntryBundle<T> parseBundleWithDeferredEntries(
+			Class<T> theBundleType, Reader theReader) throws DataFormatException {
+		Validate.notNull(theBundleType, "theBundleType must not be null");
+		Validate.notNull(theReader, "theReader must not be null");
+
+		// Verifies that the structure is for the correct FHIR version
+		getContext().getResourceDefinition(theBundleType);
+
+		JsonTokenStreamParser streamParser = new JsonTokenStreamParser(this, true);
+		T bundle = streamParser.parseResource(theBundleType, theReader);
+		return new DeferredEntryBundle<>(this, bundle, streamParser.getDeferredEntryResources());
+	}
+
+	/**
+	 * Parses a Bundle without parsing the resources in its <code>Bundle.entry.resource</code> elements.
+	 *
+	 * @see #parseBundleWithDeferredEntries(Class, Reader)
+	 * @since 7.0.0
+	 */
+	public <T extends IBaseBundle> DeferredEntryBundle<T> parseBundleWithDeferredEntries(
+			Class<T> theBundleType, InputStream theInputStream) throws DataFormatException {
+		return parseBundleWithDeferredEntries(
+				theBundleType, new InputStreamReader(theInputStream, StandardCharsets.UTF_8));
+	}
+
 	public <T extends IBaseResource> T doParseResource(Class<T> theResourceType, JsonLikeStructure theJsonStructure) {
 		BaseJsonLikeObject object = theJsonStructure.getRootObject();
 
 		BaseJsonLikeValue resourceTypeObj = object.get("resourceType");
 		if (resourceTypeObj == null || !resourceTypeObj.isString() || isBlank(resourceTypeObj.getAsString())) {
-			throw new DataFormatException(
-					Msg.code(1838) + "Invalid JSON content detected, missing required element: 'resourceType'");
+			throw newInvalidResourceTypeException();
 		}
 
 		String resourceType = resourceTypeObj.getAsString();
@@ -1303,7 +1361,7 @@ public class JsonParser extends BaseParser implements IJsonLikeParser {
 		}
 	}
 
-	private void parseChildren(BaseJsonLikeObject theObject, ParserState<?> theState) {
+	void parseChildren(BaseJsonLikeObject theObject, ParserState<?> theState) {
 		int allUnderscoreNames = 0;
 		int handledUnderscoreNames = 0;
 
@@ -1430,8 +1488,7 @@ public class JsonParser extends BaseParser implements IJsonLikeParser {
 			if (theState.isPreResource()) {
 				BaseJsonLikeValue resType = nextObject.get("resourceType");
 				if (resType == null || !resType.isString()) {
-					throw new DataFormatException(Msg.code(1843)
-							+ "Missing required element 'resourceType' from JSON resource object, unable to parse");
+					throw newMissingResourceTypeException();
 				}
 				theState.enteringNewElement(null, resType.getAsString());
 				preResource = true;
@@ -1750,6 +1807,24 @@ public class JsonParser extends BaseParser implements IJsonLikeParser {
 		theWriter.write(theName, theValue);
 	}
 
+	/**
+	 * Thrown when the root object has no valid <code>resourceType</code>. Shared with
+	 * {@link JsonTokenStreamParser} so that both parsing strategies report this the same way.
+	 */
+	static DataFormatException newInvalidResourceTypeException() {
+		return new DataFormatException(
+				Msg.code(1838) + "Invalid JSON content detected, missing required element: 'resourceType'");
+	}
+
+	/**
+	 * Thrown when a nested resource object, such as a contained resource or a
+	 * <code>Bundle.entry.resource</code>, has no <code>resourceType</code>
+	 */
+	static DataFormatException newMissingResourceTypeException() {
+		return new DataFormatException(
+				Msg.code(1843) + "Missing required element 'resourceType' from JSON resource object, unable to parse");
+	}
+
 	private class HeldExtension implements Comparable<HeldExtension> {
 
 		private CompositeChildElement myChildElem;
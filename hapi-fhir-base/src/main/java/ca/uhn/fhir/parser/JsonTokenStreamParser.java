@@ -0,0 +1,376 @@
+/*
+ * #%L
+ * HAPI FHIR - Core Library
+ * %%
+ * Copyright (C) 2014 - 2023 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package ca.uhn.fhir.parser;
+
+import ca.uhn.fhir.parser.json.BaseJsonLikeValue.ValueType;
+import ca.uhn.fhir.parser.json.jackson.JacksonStructure;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.hl7.fhir.instance.model.api.IBase;
+import org.hl7.fhir.instance.model.api.IBaseResource;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.apache.commons.lang3.StringUtils.isBlank;
+
+/**
+ * Pull-based JSON parsing strategy for {@link JsonParser}. Rather than loading the entire document
+ * into a {@link JacksonStructure} tree before walking it, this class reads Jackson tokens and feeds
+ * composite elements (objects, and arrays of objects such as <code>Bundle.entry</code> or
+ * <code>contained</code>) straight into the {@link ParserState} as they are encountered.
+ * <p>
+ * Primitive values, their <code>_name</code> companions, extensions and comments are small and may
+ * appear in any order relative to each other, so for each JSON object these are collected into a
+ * residual tree and handed to the regular tree-based logic in {@link JsonParser} once the object
+ * ends. Fields that appear before <code>resourceType</code> in a resource object are treated the
+ * same way. This keeps the semantics identical to the tree-based parser while only ever holding
+ * a single object's worth of primitives in memory at a time.
+ * </p>
+ * <p>
+ * This class is used when {@link ca.uhn.fhir.context.ParserOptions#isStreamingJsonParsing()} is enabled,
+ * and by {@link JsonParser#parseBundleWithDeferredEntries(Class, Reader)}. In the latter case, the
+ * <code>Bundle.entry.resource</code> objects of the root Bundle are copied out as raw JSON instead of
+ * being parsed, and are available from {@link #getDeferredEntryResources()} once parsing is complete.
+ * </p>
+ */
+final class JsonTokenStreamParser {
+
+	private static final JsonNodeFactory NODE_FACTORY = JsonNodeFactory.withExactBigDecimals(true);
+	private final JsonParser myParser;
+	private final boolean myDeferBundleEntryResources;
+	private final Map<IBase, byte[]> myDeferredEntryResources = new IdentityHashMap<>();
+
+	JsonTokenStreamParser(JsonParser theParser, boolean theDeferBundleEntryResources) {
+		myParser = theParser;
+		myDeferBundleEntryResources = theDeferBundleEntryResources;
+	}
+
+	/**
+	 * Returns the raw JSON of each deferred entry resource, keyed by the <code>Bundle.entry</code>
+	 * element it belongs to
+	 */
+	Map<IBase, byte[]> getDeferredEntryResources() {
+		return myDeferredEntryResources;
+	}
+
+	<T extends IBaseResource> T parseResource(Class<T> theResourceType, Reader theReader) {
+		// Malformed content is reported in the same way as by the tree based parser
+		try (com.fasterxml.jackson.core.JsonParser tokens = JacksonStructure.createTokenParser(theReader)) {
+			tokens.nextToken();
+
+			ParserState<? extends IBaseResource> state = ParserState.getPreResourceInstance(
+					myParser, theResourceType, myParser.getContext(), true, myParser.getErrorHandler());
+			parseResourceObject(tokens, state, true);
+			state.endingElement();
+
+			if (tokens.nextToken() != null) {
+				throw new JsonParseException(tokens, "Unexpected content after the end of the resource");
+			}
+
+			@SuppressWarnings("unchecked")
+			T retVal = (T) state.getObject();
+			return retVal;
+		} catch (IOException e) {
+			throw JacksonStructure.newParseFailureException(e);
+		}
+	}
+
+	/**
+	 * Parses a JSON object representing a resource. The stream must be positioned on the
+	 * opening {@link JsonToken#START_OBJECT} token, and will be positioned on the matching
+	 * {@link JsonToken#END_OBJECT} when this method returns.
+	 */
+	private void parseResourceObject(
+			com.fasterxml.jackson.core.JsonParser theTokens, ParserState<?> theState, boolean theRoot)
+			throws IOException {
+		ObjectNode residual = NODE_FACTORY.objectNode();
+		String resourceType = null;
+		while (theTokens.nextToken() == JsonToken.FIELD_NAME) {
+			String name = theTokens.getCurrentName();
+			JsonToken valueToken = theTokens.nextToken();
+			if ("resourceType".equals(name)) {
+				if (valueToken == JsonToken.VALUE_STRING && !(theRoot && isBlank(theTokens.getText()))) {
+					resourceType = theTokens.getText();
+					break;
+				}
+				throw newResourceTypeException(theRoot);
+			}
+
+			// Until we know what kind of resource this is, we can't hand anything to the parser state
+			residual.set(name, theTokens.readValueAsTree());
+		}
+
+		if (resourceType == null) {
+			throw newResourceTypeException(theRoot);
+		}
+
+		// Only the entries of the root Bundle are deferred
+		ObjectScope scope = ObjectScope.OTHER;
+		if (myDeferBundleEntryResources && theRoot && "Bundle".equals(resourceType)) {
+			scope = ObjectScope.BUNDLE;
+		}
+
+		theState.enteringNewElement(null, resourceType);
+		parseObjectFields(theTokens, theState, residual, scope);
+		theState.endingElement();
+	}
+
+	private static DataFormatException newResourceTypeException(boolean theRoot) {
+		return theRoot ? JsonParser.newInvalidResourceTypeException() : JsonParser.newMissingResourceTypeException();
+	}
+
+	/**
+	 * Parses the remaining fields of a JSON object whose element has already been entered
+	 * in the parser state, up to and including the closing {@link JsonToken#END_OBJECT}.
+	 */
+	private void parseObjectFields(
+			com.fasterxml.jackson.core.JsonParser theTokens,
+			ParserState<?> theState,
+			ObjectNode theResidual,
+			ObjectScope theScope)
+			throws IOException {
+		Set<String> streamedNames = null;
+
+		while (theTokens.nextToken() == JsonToken.FIELD_NAME) {
+			String name = theTokens.getCurrentName();
+			JsonToken valueToken = theTokens.nextToken();
+
+			if ("resourceType".equals(name) && theState.isToplevelResourceElement()) {
+				theTokens.skipChildren();
+				continue;
+			}
+
+			if (isStreamable(name) && (valueToken == JsonToken.START_OBJECT || valueToken == JsonToken.START_ARRAY)) {
+				ObjectScope childScope = ObjectScope.OTHER;
+				if (theScope == ObjectScope.BUNDLE && "entry".equals(name)) {
+					childScope = ObjectScope.BUNDLE_ENTRY;
+				}
+
+				boolean streamed;
+				if (theScope == ObjectScope.BUNDLE_ENTRY
+						&& "resource".equals(name)
+						&& valueToken == JsonToken.START_OBJECT) {
+					deferBundleEntryResource(theTokens, theState);
+					streamed = true;
+				} else if (valueToken == JsonToken.START_OBJECT) {
+					parseObjectChild(theTokens, theState, name, false, childScope);
+					streamed = true;
+				} else {
+					streamed = parseArrayChild(theTokens, theState, name, theResidual, childScope);
+				}
+				if (streamed) {
+					if (streamedNames == null) {
+						streamedNames = new HashSet<>();
+					}
+					streamedNames.add(name);
+				}
+				continue;
+			}
+
+			theResidual.set(name, theTokens.readValueAsTree());
+		}
+
+		if (theResidual.isEmpty()) {
+			return;
+		}
+
+		/*
+		 * A "_name" companion is only meaningful for primitives, so if one shows up next to
+		 * a composite value that was already streamed we drop it rather than letting it be
+		 * treated as a value-less primitive.
+		 */
+		if (streamedNames != null) {
+			List<String> orphanedAlternates = new ArrayList<>();
+			for (Iterator<String> iter = theResidual.fieldNames(); iter.hasNext(); ) {
+				String next = iter.next();
+				if (next.length() > 1 && next.charAt(0) == '_' && streamedNames.contains(next.substring(1))) {
+					orphanedAlternates.add(next);
+				}
+			}
+			theResidual.remove(orphanedAlternates);
+			if (theResidual.isEmpty()) {
+				return;
+			}
+		}
+
+		JacksonStructure residualStructure = new JacksonStructure();
+		residualStructure.setNativeObject(theResidual);
+		myParser.parseChildren(residualStructure.getRootObject(), theState);
+	}
+
+	private void parseObjectChild(
+			com.fasterxml.jackson.core.JsonParser theTokens,
+			ParserState<?> theState,
+			String theName,
+			boolean theInArray,
+			ObjectScope theScope)
+			throws IOException {
+		if (!theInArray && theState.elementIsRepeating(theName)) {
+			myParser.getErrorHandler().incorrectJsonType(null, theName, ValueType.ARRAY, null, ValueType.OBJECT, null);
+		}
+
+		theState.enteringNewElement(null, theName);
+		if (theState.isPreResource()) {
+			parseResourceObject(theTokens, theState, false);
+		} else {
+			parseObjectFields(theTokens, theState, NODE_FACTORY.objectNode(), theScope);
+		}
+		theState.endingElement();
+	}
+
+	/**
+	 * Arrays of objects are streamed one element at a time. Arrays of primitives are read
+	 * into the residual tree instead, since they need to be paired with their
+	 * <code>_name</code> companion array.
+	 *
+	 * @return Returns <code>true</code> if the array was streamed into the parser state
+	 */
+	private boolean parseArrayChild(
+			com.fasterxml.jackson.core.JsonParser theTokens,
+			ParserState<?> theState,
+			String theName,
+			ObjectNode theResidual,
+			ObjectScope theScope)
+			throws IOException {
+		JsonToken next = theTokens.nextToken();
+		if (next == JsonToken.END_ARRAY) {
+			return true;
+		}
+
+		if (next != JsonToken.START_OBJECT) {
+			ArrayNode array = theResidual.putArray(theName);
+			while (next != JsonToken.END_ARRAY) {
+				array.add((JsonNode) theTokens.readValueAsTree());
+				next = theTokens.nextToken();
+			}
+			return false;
+		}
+
+		while (next != JsonToken.END_ARRAY) {
+			if (next == JsonToken.START_OBJECT) {
+				parseObjectChild(theTokens, theState, theName, true, theScope);
+			} else {
+				// Mixed arrays aren't valid FHIR, but let the tree logic report on them consistently
+				ObjectNode item = NODE_FACTORY.objectNode();
+				item.putArray(theName).add((JsonNode) theTokens.readValueAsTree());
+				JacksonStructure itemStructure = new JacksonStructure();
+				itemStructure.setNativeObject(item);
+				myParser.parseChildren(itemStructure.getRootObject(), theState);
+			}
+			next = theTokens.nextToken();
+		}
+		return true;
+	}
+
+	/**
+	 * Copies the raw JSON for a <code>Bundle.entry.resource</code> object instead of parsing it
+	 */
+	private void deferBundleEntryResource(com.fasterxml.jackson.core.JsonParser theTokens, ParserState<?> theState)
+			throws IOException {
+		ByteArrayOutputStream json = new ByteArrayOutputStream();
+		try (JsonGenerator generator = JacksonStructure.createTokenGenerator(json)) {
+			copyCurrentStructure(theTokens, generator);
+		}
+
+		myDeferredEntryResources.put(theState.getCurrentElement(), json.toByteArray());
+	}
+
+	/**
+	 * Copies the structure the stream is positioned on to the generator. Unlike
+	 * {@link JsonGenerator#copyCurrentStructure(com.fasterxml.jackson.core.JsonParser)}, this
+	 * writes numbers using their original text so that decimal precision is preserved.
+	 */
+	private static void copyCurrentStructure(
+			com.fasterxml.jackson.core.JsonParser theTokens, JsonGenerator theGenerator) throws IOException {
+		int depth = 0;
+		do {
+			JsonToken token = theTokens.currentToken();
+			switch (token) {
+				case START_OBJECT:
+					theGenerator.writeStartObject();
+					depth++;
+					break;
+				case END_OBJECT:
+					theGenerator.writeEndObject();
+					depth--;
+					break;
+				case START_ARRAY:
+					theGenerator.writeStartArray();
+					depth++;
+					break;
+				case END_ARRAY:
+					theGenerator.writeEndArray();
+					depth--;
+					break;
+				case FIELD_NAME:
+					theGenerator.writeFieldName(theTokens.getCurrentName());
+					break;
+				case VALUE_STRING:
+					theGenerator.writeString(
+							theTokens.getTextCharacters(), theTokens.getTextOffset(), theTokens.getTextLength());
+					break;
+				case VALUE_NUMBER_INT:
+				case VALUE_NUMBER_FLOAT:
+					theGenerator.writeNumber(theTokens.getText());
+					break;
+				case VALUE_TRUE:
+				case VALUE_FALSE:
+					theGenerator.writeBoolean(token == JsonToken.VALUE_TRUE);
+					break;
+				case VALUE_NULL:
+					theGenerator.writeNull();
+					break;
+				default:
+					theGenerator.copyCurrentEvent(theTokens);
+					break;
+			}
+		} while (depth > 0 && theTokens.nextToken() != null);
+	}
+
+	private static boolean isStreamable(String theName) {
+		return !theName.isEmpty()
+				&& theName.charAt(0) != '_'
+				&& !"extension".equals(theName)
+				&& !"modifierExtension".equals(theName)
+				&& !"fhir_comments".equals(theName);
+	}
+
+	private enum ObjectScope {
+		/** A Bundle resource whose entry resources are being deferred */
+		BUNDLE,
+		/** A <code>Bundle.entry</code> whose resource is being deferred */
+		BUNDLE_ENTRY,
+		OTHER
+	}
+}
@@ -22,8 +22,10 @@ package ca.uhn.fhir.parser;
 import ca.uhn.fhir.context.FhirContext;
 import ca.uhn.fhir.i18n.Msg;
 import ca.uhn.fhir.rest.api.EncodingEnum;
+import ca.uhn.fhir.rest.server.exceptions.InternalErrorException;
 import ca.uhn.fhir.util.BundleBuilder;
 import ca.uhn.fhir.util.BundleUtil;
+import org.apache.commons.lang3.Validate;
 import org.hl7.fhir.instance.model.api.IBaseBundle;
 import org.hl7.fhir.instance.model.api.IBaseResource;
 
@@ -31,18 +33,50 @@ import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.Reader;
 import java.io.Writer;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import static org.apache.commons.lang3.StringUtils.isBlank;
+import static org.apache.commons.lang3.StringUtils.isNotBlank;
 
 /**
  * This class is the FHIR NDJSON parser/encoder. Users should not interact with this class directly, but should use
  * {@link FhirContext#newNDJsonParser()} to get an instance.
+ * <p>
+ * By default, lines are parsed and encoded one at a time on the calling thread. If an
+ * {@link #setExecutor(Executor) executor} is supplied, each line is instead parsed (or each resource
+ * encoded) as an independent task on that executor. At most {@link #setMaxReadAhead(int) max read-ahead}
+ * lines are in flight at any time, so memory use stays bounded regardless of the size of the input.
+ * </p>
  */
 public class NDJsonParser extends BaseParser {
 
+	/**
+	 * Default value for {@link #setMaxReadAhead(int)}
+	 */
+	public static final int DEFAULT_MAX_READ_AHEAD = 256;
+
 	private static final org.slf4j.Logger ourLog = org.slf4j.LoggerFactory.getLogger(NDJsonParser.class);
 
 	private IParser myJsonParser;
 	private FhirContext myFhirContext;
+	private boolean myPrettyPrint;
+	private Executor myExecutor;
+	private int myMaxReadAhead = DEFAULT_MAX_READ_AHEAD;
+	private boolean myPreserveOrder = true;
 
 	/**
 	 * Do not use this constructor, the recommended way to obtain a new instance of the NDJSON parser is to invoke
@@ -54,15 +88,98 @@ public class NDJsonParser extends BaseParser {
 		super(theContext, theParserErrorHandler);
 		myFhirContext = theContext;
 
-		myJsonParser = theContext.newJsonParser();
+		myJsonParser = newJsonParser();
+	}
+
+	@Override
+	public IParser setParserErrorHandler(IParserErrorHandler theErrorHandler) {
+		super.setParserErrorHandler(theErrorHandler);
+		myJsonParser.setParserErrorHandler(theErrorHandler);
+		return this;
 	}
 
 	@Override
 	public IParser setPrettyPrint(boolean thePrettyPrint) {
+		myPrettyPrint = thePrettyPrint;
 		myJsonParser.setPrettyPrint(thePrettyPrint);
 		return this;
 	}
 
+	/**
+	 * Returns the executor used to parse and encode lines in parallel, or <code>null</code>
+	 * (the default) if lines are processed on the calling thread.
+	 *
+	 * @since 7.0.0
+	 */
+	public Executor getExecutor() {
+		return myExecutor;
+	}
+
+	/**
+	 * Sets the executor used to parse and encode lines in parallel. Any executor may be used, e.g.
+	 * {@link java.util.concurrent.ForkJoinPool#commonPool()}, a fixed thread pool, or on newer JVMs
+	 * a virtual thread per task executor. If set to <code>null</code> (the default), lines are
+	 * processed on the calling thread.
+	 * <p>
+	 * The executor is not shut down by this parser.
+	 * </p>
+	 *
+	 * @return Returns a reference to <code>this</code> parser so that method calls can be chained together
+	 * @since 7.0.0
+	 */
+	public NDJsonParser setExecutor(Executor theExecutor) {
+		myExecutor = theExecutor;
+		return this;
+	}
+
+	/**
+	 * Returns the maximum number of lines which may be in flight at once when an
+	 * {@link #setExecutor(Executor) executor} is in use (default is {@link #DEFAULT_MAX_READ_AHEAD})
+	 *
+	 * @since 7.0.0
+	 */
+	public int getMaxReadAhead() {
+		return myMaxReadAhead;
+	}
+
+	/**
+	 * Sets the maximum number of lines which may be in flight at once when an
+	 * {@link #setExecutor(Executor) executor} is in use (default is {@link #DEFAULT_MAX_READ_AHEAD}).
+	 * Once this many lines have been read but not yet delivered, no further lines are read until a
+	 * result is consumed.
+	 *
+	 * @return Returns a reference to <code>this</code> parser so that method calls can be chained together
+	 * @since 7.0.0
+	 */
+	public NDJsonParser setMaxReadAhead(int theMaxReadAhead) {
+		Validate.isTrue(theMaxReadAhead > 0, "theMaxReadAhead must be greater than 0");
+		myMaxReadAhead = theMaxReadAhead;
+		return this;
+	}
+
+	/**
+	 * Should results be delivered in the same order as the input when an {@link #setExecutor(Executor) executor}
+	 * is in use (default is <code>true</code>)
+	 *
+	 * @since 7.0.0
+	 */
+	public boolean isPreserveOrder() {
+		return myPreserveOrder;
+	}
+
+	/**
+	 * Should results be delivered in the same order as the input when an {@link #setExecutor(Executor) executor}
+	 * is in use (default is <code>true</code>). If set to <code>false</code>, each result is delivered as soon as
+	 * it is ready, so one slow line does not hold up the lines behind it.
+	 *
+	 * @return Returns a reference to <code>this</code> parser so that method calls can be chained together
+	 * @since 7.0.0
+	 */
+	public NDJsonParser setPreserveOrder(boolean thePreserveOrder) {
+		myPreserveOrder = thePreserveOrder;
+		return this;
+	}
+
 	@Override
 	public EncodingEnum getEncoding() {
 		return EncodingEnum.NDJSON;
@@ -80,17 +197,45 @@ public class NDJsonParser extends BaseParser {
 		// Ok, convert the bundle to a list of resources.
 		List<IBaseResource> theBundleResources = BundleUtil.toListOfResources(myFhirContext, (IBaseBundle) theResource);
 
-		// Now we write each one in turn.
-		// Use newline only as a line separator, not at the end of the file.
-		boolean isFirstResource = true;
-		for (IBaseResource theBundleEntryResource : theBundleResources) {
-			if (!(isFirstResource)) {
-				theWriter.write("\n");
-			}
-			isFirstResource = false;
+		encodeResources(theBundleResources, theWriter);
+	}
 
-			myJsonParser.encodeResourceToWriter(theBundleEntryResource, theWriter);
+	/**
+	 * Encodes a collection of resources as NDJSON, one resource per line. Unlike
+	 * {@link #encodeResourceToWriter(IBaseResource, Writer)}, the resources do not need to be
+	 * placed in a Bundle first.
+	 *
+	 * @since 7.0.0
+	 */
+	public void encodeResources(Iterable<? extends IBaseResource> theResources, Writer theWriter) throws IOException {
+		if (myExecutor == null) {
+			// Now we write each one in turn.
+			// Use newline only as a line separator, not at the end of the file.
+			boolean isFirstResource = true;
+			for (IBaseResource theBundleEntryResource : theResources) {
+				if (!(isFirstResource)) {
+					theWriter.write("\n");
+				}
+				isFirstResource = false;
+
+				myJsonParser.encodeResourceToWriter(theBundleEntryResource, theWriter);
+			}
+			return;
 		}
+
+		boolean[] isFirstResource = {true};
+		Queue<IParser> idleParsers = new ConcurrentLinkedQueue<>();
+		Iterator<? extends IBaseResource> resources = theResources.iterator();
+		this.<IBaseResource, String>processInParallel(
+				() -> resources.hasNext() ? resources.next() : null,
+				resource -> withJsonParser(idleParsers, parser -> parser.encodeResourceToString(resource)),
+				line -> {
+					if (!(isFirstResource[0])) {
+						theWriter.write("\n");
+					}
+					isFirstResource[0] = false;
+					theWriter.write(line);
+				});
 	}
 
 	@Override
@@ -102,23 +247,159 @@ public class NDJsonParser extends BaseParser {
 					+ theResourceType.getName());
 		}
 
+		// Now we go through line-by-line parsing the JSON and then stuffing it into a bundle.
+		BundleBuilder myBuilder = new BundleBuilder(myFhirContext);
+		myBuilder.setType("collection");
+		parseResources(theReader, myBuilder::addCollectionEntry);
+
+		return (T) myBuilder.getBundle();
+	}
+
+	/**
+	 * Parses NDJSON content, passing each resource to the given consumer as soon as it has been
+	 * parsed instead of collecting them into a Bundle. The consumer is always invoked on the calling
+	 * thread. Blank lines are ignored.
+	 *
+	 * @since 7.0.0
+	 */
+	public void parseResources(Reader theReader, Consumer<IBaseResource> theConsumer) throws DataFormatException {
 		try {
-			// Now we go through line-by-line parsing the JSON and then stuffing it into a bundle.
-			BundleBuilder myBuilder = new BundleBuilder(myFhirContext);
-			myBuilder.setType("collection");
 			BufferedReader myBufferedReader = new BufferedReader(theReader);
-			String jsonString = myBufferedReader.readLine();
-			while (jsonString != null) {
-				// And add it to a collection in a Bundle.
-				// The string must be trimmed, as per the NDJson spec 3.2
-				myBuilder.addCollectionEntry(myJsonParser.parseResource(jsonString.trim()));
-				// Try to read another line.
-				jsonString = myBufferedReader.readLine();
+
+			if (myExecutor == null) {
+				String jsonString = myBufferedReader.readLine();
+				while (jsonString != null) {
+					// The string must be trimmed, as per the NDJson spec 3.2
+					if (isNotBlank(jsonString)) {
+						theConsumer.accept(myJsonParser.parseResource(jsonString.trim()));
+					}
+					// Try to read another line.
+					jsonString = myBufferedReader.readLine();
+				}
+				return;
 			}
 
-			return (T) myBuilder.getBundle();
+			Queue<IParser> idleParsers = new ConcurrentLinkedQueue<>();
+			processInParallel(
+					() -> readNextNonBlankLine(myBufferedReader),
+					line -> withJsonParser(idleParsers, parser -> parser.parseResource(line.trim())),
+					theConsumer::accept);
 		} catch (IOException err) {
 			throw new DataFormatException(Msg.code(1835) + err.getMessage());
 		}
 	}
+
+	private static String readNextNonBlankLine(BufferedReader theReader) throws IOException {
+		String retVal = theReader.readLine();
+		while (retVal != null && isBlank(retVal)) {
+			retVal = theReader.readLine();
+		}
+		return retVal;
+	}
+
+	/**
+	 * Creates the JSON parser used for individual lines, configured exactly like the one used on
+	 * the calling thread. The {@link ca.uhn.fhir.context.ParserOptions} come from the shared {@link FhirContext}.
+	 */
+	private IParser newJsonParser() {
+		IParser retVal = myFhirContext.newJsonParser();
+		retVal.setPrettyPrint(myPrettyPrint);
+		retVal.setParserErrorHandler(getErrorHandler());
+		return retVal;
+	}
+
+	/**
+	 * Runs the given function with a JSON parser which is not in use by any other task. Parsers are not
+	 * thread safe, so each task borrows an idle parser from the given pool (creating one if none are idle)
+	 * and returns it once it is done. The pool only lives for a single parse or encode call, so no more
+	 * parsers are created than there are tasks running at once, and nothing is left behind on the
+	 * executor's threads.
+	 */
+	private <O> O withJsonParser(Queue<IParser> theIdleParsers, Function<IParser, O> theFunction) {
+		IParser parser = theIdleParsers.poll();
+		if (parser == null) {
+			parser = newJsonParser();
+		}
+		try {
+			return theFunction.apply(parser);
+		} finally {
+			theIdleParsers.offer(parser);
+		}
+	}
+
+	/**
+	 * Submits a task for each input to {@link #myExecutor}, keeping at most {@link #myMaxReadAhead}
+	 * tasks in flight, and passes each result to the output on the calling thread. When results do not
+	 * need to be delivered in order, they are taken from a {@link CompletionService} as they complete.
+	 */
+	private <I, O> void processInParallel(
+			ThrowingSupplier<I> theInputs, Function<I, O> theTask, ThrowingConsumer<O> theOutput) throws IOException {
+		CompletionService<O> completionService = myPreserveOrder ? null : new ExecutorCompletionService<>(myExecutor);
+		Set<Future<O>> pending = new LinkedHashSet<>();
+		boolean success = false;
+		try {
+			for (I next = theInputs.get(); next != null; next = theInputs.get()) {
+				I input = next;
+				Callable<O> task = () -> theTask.apply(input);
+				if (completionService != null) {
+					pending.add(completionService.submit(task));
+				} else {
+					FutureTask<O> future = new FutureTask<>(task);
+					pending.add(future);
+					myExecutor.execute(future);
+				}
+				if (pending.size() >= myMaxReadAhead) {
+					theOutput.accept(takeNextResult(pending, completionService));
+				}
+			}
+			while (!pending.isEmpty()) {
+				theOutput.accept(takeNextResult(pending, completionService));
+			}
+			success = true;
+		} finally {
+			if (!success) {
+				pending.forEach(t -> t.cancel(false));
+			}
+		}
+	}
+
+	/**
+	 * Waits for the next result. If no completion service is supplied, this is the oldest pending task
+	 * so that results are delivered in input order, otherwise it is whichever task completes first.
+	 */
+	private static <O> O takeNextResult(Set<Future<O>> thePending, CompletionService<O> theCompletionService) {
+		try {
+			Future<O> next;
+			if (theCompletionService == null) {
+				Iterator<Future<O>> iterator = thePending.iterator();
+				next = iterator.next();
+				iterator.remove();
+			} else {
+				next = theCompletionService.take();
+				thePending.remove(next);
+			}
+			return next.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InternalErrorException(Msg.code(2443) + "Interrupted while waiting for NDJSON processing", e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			throw new InternalErrorException(Msg.code(2444) + e.getCause().getMessage(), e.getCause());
+		}
+	}
+
+	@FunctionalInterface
+	private interface ThrowingConsumer<T> {
+		void accept(T theValue) throws IOException;
+	}
+
+	@FunctionalInterface
+	private interface ThrowingSupplier<T> {
+		/**
+		 * Returns <code>null</code> once there is no more input
+		 */
+		T get() throws IOException;
+	}
 }
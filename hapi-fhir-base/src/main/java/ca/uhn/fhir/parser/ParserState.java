@@ -51,6 +51,7 @@ import ca.uhn.fhir.parser.json.BaseJsonLikeValue.ValueType;
 import ca.uhn.fhir.util.BundleUtil;
 import ca.uhn.fhir.util.FhirTerser;
 import ca.uhn.fhir.util.ReflectionUtil;
+import ca.uhn.fhir.util.StringInternTable;
 import ca.uhn.fhir.util.XmlUtil;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.Validate;
@@ -89,10 +90,17 @@ import static org.apache.commons.lang3.StringUtils.isNotEmpty;
 class ParserState<T> {
 
 	private static final org.slf4j.Logger ourLog = org.slf4j.LoggerFactory.getLogger(ParserState.class);
+
+	/**
+	 * Primitive types whose values are interned if the parser options supply an intern table
+	 */
+	private static final Set<String> INTERNED_PRIMITIVE_TYPES = Set.of("uri", "url", "canonical", "oid", "code");
+
 	private final FhirContext myContext;
 	private final IParserErrorHandler myErrorHandler;
 	private final boolean myJsonMode;
 	private final IParser myParser;
+	private final StringInternTable myInternTable;
 	private List<String> myComments = new ArrayList<String>(2);
 	private T myObject;
 	private IBase myPreviousElement;
@@ -106,6 +114,7 @@ class ParserState<T> {
 		myContext = theContext;
 		myJsonMode = theJsonMode;
 		myErrorHandler = theErrorHandler;
+		myInternTable = theContext.getParserOptions().getPrimitiveValueInternTable();
 	}
 
 	public void attributeValue(String theName, String theValue) throws DataFormatException {
@@ -142,6 +151,10 @@ class ParserState<T> {
 		myState.enteringNewElementExtension(theElem, theUrlAttr, theIsModifier, baseServerUrl);
 	}
 
+	IBase getCurrentElement() {
+		return myState.getCurrentElement();
+	}
+
 	public T getObject() {
 		return myObject;
 	}
@@ -1391,6 +1404,7 @@ class ParserState<T> {
 	private class PrimitiveState extends BaseState {
 		private final String myChildName;
 		private final String myTypeName;
+		private final boolean myIntern;
 		private IPrimitiveType<?> myInstance;
 
 		PrimitiveState(
@@ -1402,6 +1416,8 @@ class ParserState<T> {
 			myInstance = theInstance;
 			myChildName = theChildName;
 			myTypeName = theTypeName;
+			myIntern = myInternTable != null
+					&& (INTERNED_PRIMITIVE_TYPES.contains(theTypeName) || "reference".equals(theChildName));
 		}
 
 		@Override
@@ -1430,6 +1446,10 @@ class ParserState<T> {
 							}
 					}
 
+					if (myIntern) {
+						value = myInternTable.intern(value);
+					}
+
 					try {
 						myInstance.setValueAsString(value);
 					} catch (DataFormatException | IllegalArgumentException e) {
@@ -34,16 +34,18 @@ import ca.uhn.fhir.model.api.IResource;
 import ca.uhn.fhir.narrative.INarrativeGenerator;
 import ca.uhn.fhir.rest.api.EncodingEnum;
 import ca.uhn.fhir.util.rdf.RDFUtil;
+import org.apache.commons.io.output.WriterOutputStream;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.jena.datatypes.xsd.XSDDatatype;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.graph.Triple;
 import org.apache.jena.irix.IRIs;
-import org.apache.jena.rdf.model.Literal;
 import org.apache.jena.rdf.model.Model;
-import org.apache.jena.rdf.model.RDFNode;
-import org.apache.jena.rdf.model.Resource;
-import org.apache.jena.rdf.model.Statement;
-import org.apache.jena.rdf.model.StmtIterator;
 import org.apache.jena.riot.Lang;
+import org.apache.jena.riot.system.StreamRDF;
+import org.apache.jena.riot.system.StreamRDFBase;
+import org.apache.jena.riot.system.StreamRDFLib;
 import org.apache.jena.vocabulary.RDF;
 import org.hl7.fhir.instance.model.api.IAnyResource;
 import org.hl7.fhir.instance.model.api.IBase;
@@ -59,13 +61,20 @@ import org.hl7.fhir.instance.model.api.IIdType;
 import org.hl7.fhir.instance.model.api.INarrative;
 import org.hl7.fhir.instance.model.api.IPrimitiveType;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.io.Reader;
 import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Comparator;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import static ca.uhn.fhir.context.BaseRuntimeElementDefinition.ChildTypeEnum.ID_DATATYPE;
 import static ca.uhn.fhir.context.BaseRuntimeElementDefinition.ChildTypeEnum.PRIMITIVE_DATATYPE;
@@ -106,6 +115,13 @@ public class RDFParser extends BaseParser {
 	public static final String EXTENSION = "extension";
 	public static final String CONTAINED = "contained";
 	public static final String MODIFIER_EXTENSION = "modifierExtension";
+	private static final Node FHIR_VALUE_NODE = NodeFactory.createURI(FHIR_NS + VALUE);
+	private static final Node FHIR_INDEX_NODE = NodeFactory.createURI(FHIR_NS + FHIR_INDEX);
+	private static final Node NODE_ROLE_NODE = NodeFactory.createURI(FHIR_NS + NODE_ROLE);
+	private static final Node TREE_ROOT_NODE = NodeFactory.createURI(FHIR_NS + TREE_ROOT);
+	private static final Node EXTENSION_URL_NODE = NodeFactory.createURI(FHIR_NS + EXTENSION_URL);
+	private static final Node ELEMENT_EXTENSION_NODE = NodeFactory.createURI(FHIR_NS + ELEMENT_EXTENSION);
+	private static final Map<String, String> PREFIXES = createPrefixes();
 	private final Map<Class, String> classToFhirTypeMap = new HashMap<>();
 
 	private final Lang lang;
@@ -121,6 +137,16 @@ public class RDFParser extends BaseParser {
 		this.lang = lang;
 	}
 
+	private static Map<String, String> createPrefixes() {
+		Map<String, String> retVal = new LinkedHashMap<>();
+		retVal.put(RDF_PREFIX, RDF_NS);
+		retVal.put(RDFS_PREFIX, RDFS_NS);
+		retVal.put(XSD_PREFIX, XSD_NS);
+		retVal.put(FHIR_PREFIX, FHIR_NS);
+		retVal.put(SCT_PREFIX, SCT_NS);
+		return Collections.unmodifiableMap(retVal);
+	}
+
 	@Override
 	public EncodingEnum getEncoding() {
 		return EncodingEnum.RDF;
@@ -139,30 +165,66 @@ public class RDFParser extends BaseParser {
 	 */
 	@Override
 	protected void doEncodeResourceToWriter(
-			final IBaseResource resource, final Writer writer, final EncodeContext encodeContext) {
+			final IBaseResource resource, final Writer writer, final EncodeContext encodeContext) throws IOException {
+		if (isStreamingEncoding()) {
+			WriterOutputStream outputStream = new WriterOutputStream(writer, StandardCharsets.UTF_8);
+			encodeResourceToStream(resource, RDFUtil.createStreamingWriter(outputStream, lang), encodeContext);
+			outputStream.flush();
+			return;
+		}
+
 		Model rdfModel = RDFUtil.initializeRDFModel();
 
 		// Establish the namespaces and prefixes needed
-		HashMap<String, String> prefixes = new HashMap<>();
-		prefixes.put(RDF_PREFIX, RDF_NS);
-		prefixes.put(RDFS_PREFIX, RDFS_NS);
-		prefixes.put(XSD_PREFIX, XSD_NS);
-		prefixes.put(FHIR_PREFIX, FHIR_NS);
-		prefixes.put(SCT_PREFIX, SCT_NS);
-
-		for (String key : prefixes.keySet()) {
-			rdfModel.setNsPrefix(key, prefixes.get(key));
+		for (Map.Entry<String, String> prefix : PREFIXES.entrySet()) {
+			rdfModel.setNsPrefix(prefix.getKey(), prefix.getValue());
+		}
+
+		encodeResourceToStream(resource, StreamRDFLib.graph(rdfModel.getGraph()), encodeContext);
+
+		RDFUtil.writeRDFModel(writer, rdfModel, lang);
+	}
+
+	/**
+	 * When streaming, the triples are written straight to the output stream, so there is no need to go
+	 * through a writer
+	 */
+	@Override
+	protected void doEncodeResourceToOutputStream(
+			final IBaseResource resource, final OutputStream outputStream, final EncodeContext encodeContext)
+			throws IOException {
+		if (!isStreamingEncoding()) {
+			super.doEncodeResourceToOutputStream(resource, outputStream, encodeContext);
+			return;
+		}
+		encodeResourceToStream(resource, RDFUtil.createStreamingWriter(outputStream, lang), encodeContext);
+	}
+
+	private boolean isStreamingEncoding() {
+		return getContext().getParserOptions().isStreamingRdfEncoding();
+	}
+
+	/**
+	 * Encodes the top-level resource, passing each triple to the given stream as it is produced
+	 */
+	private void encodeResourceToStream(
+			final IBaseResource resource, final StreamRDF stream, final EncodeContext encodeContext) {
+		stream.start();
+		for (Map.Entry<String, String> prefix : PREFIXES.entrySet()) {
+			stream.prefix(prefix.getKey(), prefix.getValue());
 		}
 
 		IIdType resourceId = processResourceID(resource, encodeContext);
 
-		encodeResourceToRDFStreamWriter(resource, rdfModel, false, resourceId, encodeContext, true, null);
+		encodeResourceToRDFStreamWriter(resource, new TripleSink(stream), false, resourceId, encodeContext, true, null);
 
-		RDFUtil.writeRDFModel(writer, rdfModel, lang);
+		stream.finish();
 	}
 
 	/**
-	 * Parses RDF content to a FHIR resource using Apache Jena
+	 * Parses RDF content to a FHIR resource using Apache Jena. The triples are streamed into a lightweight
+	 * index by subject rather than into a Jena model, and each blank node is released from the index as soon
+	 * as it has been processed.
 	 * @param resourceType Class of FHIR resource being deserialized
 	 * @param reader Reader containing RDF (turtle) content
 	 * @param <T> Type parameter denoting which resource is being parsed
@@ -172,18 +234,19 @@ public class RDFParser extends BaseParser {
 	@Override
 	protected <T extends IBaseResource> T doParseResource(final Class<T> resourceType, final Reader reader)
 			throws DataFormatException {
-		Model model = RDFUtil.readRDFToModel(reader, this.lang);
-		return parseResource(resourceType, model);
+		TripleIndex index = new TripleIndex();
+		RDFUtil.parseRDF(reader, this.lang, index);
+		return parseResource(resourceType, index);
 	}
 
-	private Resource encodeResourceToRDFStreamWriter(
+	private Node encodeResourceToRDFStreamWriter(
 			final IBaseResource resource,
-			final Model rdfModel,
+			final TripleSink sink,
 			final boolean containedResource,
 			final IIdType resourceId,
 			final EncodeContext encodeContext,
 			final boolean rootResource,
-			Resource parentResource) {
+			Node parentResource) {
 
 		RuntimeResourceDefinition resDef = getContext().getResourceDefinition(resource);
 		if (resDef == null) {
@@ -213,41 +276,35 @@ public class RDFParser extends BaseParser {
 
 		if (parentResource == null) {
 			if (!resource.getIdElement().toUnqualified().hasIdPart()) {
-				parentResource = rdfModel.getResource(null);
+				parentResource = NodeFactory.createBlankNode();
 			} else {
 
 				String resourceUri = IRIs.resolve(
 								uriBase, resource.getIdElement().toUnqualified().toString())
 						.toString();
-				parentResource = rdfModel.getResource(resourceUri);
+				parentResource = NodeFactory.createURI(resourceUri);
 			}
-			// If the resource already exists and has statements, return that existing resource.
-			if (parentResource != null
-					&& parentResource.listProperties().toList().size() > 0) {
+			// If the resource has already been encoded, return that existing resource.
+			if (!sink.markResourceEncoded(parentResource)) {
 				return parentResource;
-			} else if (parentResource == null) {
-				return null;
 			}
 		}
 
-		parentResource.addProperty(RDF.type, rdfModel.createProperty(FHIR_NS + resDef.getName()));
+		sink.add(parentResource, RDF.Nodes.type, NodeFactory.createURI(FHIR_NS + resDef.getName()));
 
 		// Only the top-level resource should have the nodeRole set to treeRoot
 		if (rootResource) {
-			parentResource.addProperty(
-					rdfModel.createProperty(FHIR_NS + NODE_ROLE), rdfModel.createProperty(FHIR_NS + TREE_ROOT));
+			sink.add(parentResource, NODE_ROLE_NODE, TREE_ROOT_NODE);
 		}
 
 		if (resourceId != null && resourceId.getIdPart() != null) {
-			parentResource.addProperty(
-					rdfModel.createProperty(FHIR_NS + RESOURCE_ID),
-					createFhirValueBlankNode(rdfModel, resourceId.getIdPart()));
+			sink.add(parentResource, FHIR_NS + RESOURCE_ID, createFhirValueBlankNode(sink, resourceId.getIdPart()));
 		}
 
 		encodeCompositeElementToStreamWriter(
 				resource,
 				resource,
-				rdfModel,
+				sink,
 				parentResource,
 				containedResource,
 				new CompositeChildElement(resDef, encodeContext),
@@ -258,30 +315,28 @@ public class RDFParser extends BaseParser {
 
 	/**
 	 * Utility method to create a blank node with a fhir:value predicate
-	 * @param rdfModel Model to create node within
+	 * @param sink Sink to write the node to
 	 * @param value value object - assumed to be xsd:string
 	 * @return Blank node resource containing fhir:value
 	 */
-	private Resource createFhirValueBlankNode(Model rdfModel, String value) {
-		return createFhirValueBlankNode(rdfModel, value, XSDDatatype.XSDstring, null);
+	private Node createFhirValueBlankNode(TripleSink sink, String value) {
+		return createFhirValueBlankNode(sink, value, XSDDatatype.XSDstring, null);
 	}
 	/**
 	 * Utility method to create a blank node with a fhir:value predicate accepting a specific data type and index
-	 * @param rdfModel Model to create node within
+	 * @param sink Sink to write the node to
 	 * @param value value object
 	 * @param xsdDataType data type for value
 	 * @param cardinalityIndex if a collection, this value is written as a fhir:index predicate
 	 * @return Blank node resource containing fhir:value (and possibly fhir:index)
 	 */
-	private Resource createFhirValueBlankNode(
-			Model rdfModel, String value, XSDDatatype xsdDataType, Integer cardinalityIndex) {
-		Resource fhirValueBlankNodeResource = rdfModel.createResource()
-				.addProperty(rdfModel.createProperty(FHIR_NS + VALUE), rdfModel.createTypedLiteral(value, xsdDataType));
+	private Node createFhirValueBlankNode(
+			TripleSink sink, String value, XSDDatatype xsdDataType, Integer cardinalityIndex) {
+		Node fhirValueBlankNodeResource = NodeFactory.createBlankNode();
+		sink.add(fhirValueBlankNodeResource, FHIR_VALUE_NODE, NodeFactory.createLiteral(value, xsdDataType));
 
 		if (cardinalityIndex != null && cardinalityIndex > -1) {
-			fhirValueBlankNodeResource.addProperty(
-					rdfModel.createProperty(FHIR_NS + FHIR_INDEX),
-					rdfModel.createTypedLiteral(cardinalityIndex, XSDDatatype.XSDinteger));
+			sink.add(fhirValueBlankNodeResource, FHIR_INDEX_NODE, createIndexLiteral(cardinalityIndex));
 		}
 		return fhirValueBlankNodeResource;
 	}
@@ -332,11 +387,11 @@ public class RDFParser extends BaseParser {
 		return basePropertyName;
 	}
 
-	private Model encodeChildElementToStreamWriter(
+	private void encodeChildElementToStreamWriter(
 			final IBaseResource resource,
 			IBase parentElement,
-			Model rdfModel,
-			Resource rdfResource,
+			TripleSink sink,
+			Node rdfResource,
 			final BaseRuntimeChildDefinition childDefinition,
 			final IBase element,
 			final String childName,
@@ -353,7 +408,7 @@ public class RDFParser extends BaseParser {
 
 			if (element == null || element.isEmpty()) {
 				if (!isChildContained(childDef, includedResource)) {
-					return rdfModel;
+					return;
 				}
 			}
 
@@ -369,10 +424,10 @@ public class RDFParser extends BaseParser {
 									constructPredicateName(resource, childDefinition, childName, parentElement);
 							if (element != null) {
 								XSDDatatype dataType = getXSDDataTypeForFhirType(element.fhirType(), encodedValue);
-								rdfResource.addProperty(
-										rdfModel.createProperty(propertyName),
-										this.createFhirValueBlankNode(
-												rdfModel, encodedValue, dataType, cardinalityIndex));
+								sink.add(
+										rdfResource,
+										propertyName,
+										this.createFhirValueBlankNode(sink, encodedValue, dataType, cardinalityIndex));
 							}
 						}
 					}
@@ -387,8 +442,7 @@ public class RDFParser extends BaseParser {
 							String propertyName =
 									constructPredicateName(resource, childDefinition, childName, parentElement);
 							XSDDatatype dataType = getXSDDataTypeForFhirType(pd.fhirType(), value);
-							Resource valueResource =
-									this.createFhirValueBlankNode(rdfModel, value, dataType, cardinalityIndex);
+							Node valueResource = this.createFhirValueBlankNode(sink, value, dataType, cardinalityIndex);
 							if (!hasNoExtensions(pd)) {
 								IBaseHasExtensions hasExtension = (IBaseHasExtensions) pd;
 								if (hasExtension.getExtension() != null
@@ -397,17 +451,13 @@ public class RDFParser extends BaseParser {
 									for (IBaseExtension extension : hasExtension.getExtension()) {
 										RuntimeResourceDefinition resDef =
 												getContext().getResourceDefinition(resource);
-										Resource extensionResource = rdfModel.createResource();
-										extensionResource.addProperty(
-												rdfModel.createProperty(FHIR_NS + FHIR_INDEX),
-												rdfModel.createTypedLiteral(i, XSDDatatype.XSDinteger));
-										valueResource.addProperty(
-												rdfModel.createProperty(FHIR_NS + ELEMENT_EXTENSION),
-												extensionResource);
+										Node extensionResource = NodeFactory.createBlankNode();
+										sink.add(extensionResource, FHIR_INDEX_NODE, createIndexLiteral(i));
+										sink.add(valueResource, FHIR_NS + ELEMENT_EXTENSION, extensionResource);
 										encodeCompositeElementToStreamWriter(
 												resource,
 												extension,
-												rdfModel,
+												sink,
 												extensionResource,
 												false,
 												new CompositeChildElement(resDef, encodeContext),
@@ -416,7 +466,7 @@ public class RDFParser extends BaseParser {
 								}
 							}
 
-							rdfResource.addProperty(rdfModel.createProperty(propertyName), valueResource);
+							sink.add(rdfResource, propertyName, valueResource);
 						}
 					}
 					break;
@@ -438,29 +488,24 @@ public class RDFParser extends BaseParser {
 						}
 					}
 					if (idString != null) {
-						rdfResource.addProperty(
-								rdfModel.createProperty(idPredicate), createFhirValueBlankNode(rdfModel, idString));
+						sink.add(rdfResource, idPredicate, createFhirValueBlankNode(sink, idString));
 					}
-					rdfModel = encodeCompositeElementToStreamWriter(
-							resource, element, rdfModel, rdfResource, includedResource, parent, encodeContext);
+					encodeCompositeElementToStreamWriter(
+							resource, element, sink, rdfResource, includedResource, parent, encodeContext);
 					break;
 				}
 				case CONTAINED_RESOURCE_LIST:
 				case CONTAINED_RESOURCES: {
 					if (element != null) {
 						IIdType resourceId = ((IBaseResource) element).getIdElement();
-						Resource containedResource = rdfModel.createResource();
-						rdfResource.addProperty(
-								rdfModel.createProperty(FHIR_NS + DOMAIN_RESOURCE_CONTAINED), containedResource);
+						Node containedResource = NodeFactory.createBlankNode();
+						sink.add(rdfResource, FHIR_NS + DOMAIN_RESOURCE_CONTAINED, containedResource);
 						if (cardinalityIndex != null) {
-							containedResource.addProperty(
-									rdfModel.createProperty(FHIR_NS + FHIR_INDEX),
-									cardinalityIndex.toString(),
-									XSDDatatype.XSDinteger);
+							sink.add(containedResource, FHIR_INDEX_NODE, createIndexLiteral(cardinalityIndex));
 						}
 						encodeResourceToRDFStreamWriter(
 								(IBaseResource) element,
-								rdfModel,
+								sink,
 								true,
 								super.fixContainedResourceId(resourceId.getValue()),
 								encodeContext,
@@ -477,7 +522,7 @@ public class RDFParser extends BaseParser {
 					}
 					encodeContext.pushPath(resourceName, true);
 					IIdType resourceId = processResourceID(resource, encodeContext);
-					encodeResourceToRDFStreamWriter(resource, rdfModel, false, resourceId, encodeContext, false, null);
+					encodeResourceToRDFStreamWriter(resource, sink, false, resourceId, encodeContext, false, null);
 					encodeContext.popPath();
 					break;
 				}
@@ -488,7 +533,7 @@ public class RDFParser extends BaseParser {
 						String value = xHtmlNode.getValueAsString();
 						String propertyName =
 								constructPredicateName(resource, childDefinition, childName, parentElement);
-						rdfResource.addProperty(rdfModel.createProperty(propertyName), value);
+						sink.add(rdfResource, propertyName, NodeFactory.createLiteral(value));
 					}
 					break;
 				}
@@ -502,8 +547,6 @@ public class RDFParser extends BaseParser {
 		} finally {
 			encodeContext.popPath();
 		}
-
-		return rdfModel;
 	}
 
 	/**
@@ -559,10 +602,10 @@ public class RDFParser extends BaseParser {
 		return resourceId;
 	}
 
-	private Model encodeExtension(
+	private void encodeExtension(
 			final IBaseResource resource,
-			Model rdfModel,
-			Resource rdfResource,
+			TripleSink sink,
+			Node rdfResource,
 			final boolean containedResource,
 			final CompositeChildElement nextChildElem,
 			final BaseRuntimeChildDefinition nextChild,
@@ -573,18 +616,17 @@ public class RDFParser extends BaseParser {
 			Integer cardinalityIndex) {
 		BaseRuntimeDeclaredChildDefinition extDef = (BaseRuntimeDeclaredChildDefinition) nextChild;
 
-		Resource childResource = rdfModel.createResource();
+		Node childResource = NodeFactory.createBlankNode();
 		String extensionPredicateName = constructPredicateName(resource, extDef, extDef.getElementName(), null);
-		rdfResource.addProperty(rdfModel.createProperty(extensionPredicateName), childResource);
+		sink.add(rdfResource, extensionPredicateName, childResource);
 		if (cardinalityIndex != null && cardinalityIndex > -1) {
-			childResource.addProperty(
-					rdfModel.createProperty(FHIR_NS + FHIR_INDEX), cardinalityIndex.toString(), XSDDatatype.XSDinteger);
+			sink.add(childResource, FHIR_INDEX_NODE, createIndexLiteral(cardinalityIndex));
 		}
 
-		rdfModel = encodeChildElementToStreamWriter(
+		encodeChildElementToStreamWriter(
 				resource,
 				null,
-				rdfModel,
+				sink,
 				childResource,
 				nextChild,
 				nextValue,
@@ -594,15 +636,13 @@ public class RDFParser extends BaseParser {
 				nextChildElem,
 				encodeContext,
 				cardinalityIndex);
-
-		return rdfModel;
 	}
 
-	private Model encodeCompositeElementToStreamWriter(
+	private void encodeCompositeElementToStreamWriter(
 			final IBaseResource resource,
 			final IBase element,
-			Model rdfModel,
-			Resource rdfResource,
+			TripleSink sink,
+			Node rdfResource,
 			final boolean containedResource,
 			final CompositeChildElement parent,
 			final EncodeContext encodeContext) {
@@ -630,17 +670,17 @@ public class RDFParser extends BaseParser {
 						RuntimeChildNarrativeDefinition child = (RuntimeChildNarrativeDefinition) nextChild;
 
 						// This is where we populate the parent of the narrative
-						Resource childResource = rdfModel.createResource();
+						Node childResource = NodeFactory.createBlankNode();
 
 						String propertyName = constructPredicateName(resource, child, child.getElementName(), element);
-						rdfResource.addProperty(rdfModel.createProperty(propertyName), childResource);
+						sink.add(rdfResource, propertyName, childResource);
 
 						String childName = nextChild.getChildNameByDatatype(child.getDatatype());
 						BaseRuntimeElementDefinition<?> type = child.getChildByName(childName);
-						rdfModel = encodeChildElementToStreamWriter(
+						encodeChildElementToStreamWriter(
 								resource,
 								element,
-								rdfModel,
+								sink,
 								childResource,
 								nextChild,
 								narrative,
@@ -664,16 +704,16 @@ public class RDFParser extends BaseParser {
 
 				IBaseResource directChildResource = (IBaseResource) values.get(0);
 				// If it is a direct resource, we need to create a new subject for it.
-				Resource childResource = encodeResourceToRDFStreamWriter(
+				Node childResource = encodeResourceToRDFStreamWriter(
 						directChildResource,
-						rdfModel,
+						sink,
 						false,
 						directChildResource.getIdElement(),
 						encodeContext,
 						false,
 						null);
 				String propertyName = constructPredicateName(resource, nextChild, nextChild.getElementName(), element);
-				rdfResource.addProperty(rdfModel.createProperty(propertyName), childResource);
+				sink.add(rdfResource, propertyName, childResource);
 
 				continue;
 			}
@@ -682,10 +722,10 @@ public class RDFParser extends BaseParser {
 				List<? extends IBase> values = nextChild.getAccessor().getValues(element);
 				int i = 0;
 				for (IBase containedResourceEntity : values) {
-					rdfModel = encodeChildElementToStreamWriter(
+					encodeChildElementToStreamWriter(
 							resource,
 							element,
-							rdfModel,
+							sink,
 							rdfResource,
 							nextChild,
 							containedResourceEntity,
@@ -728,9 +768,9 @@ public class RDFParser extends BaseParser {
 					String extensionUrl = getExtensionUrl(nextChild.getExtensionUrl());
 
 					if (extensionUrl != null && !childName.equals(EXTENSION)) {
-						rdfModel = encodeExtension(
+						encodeExtension(
 								resource,
-								rdfModel,
+								sink,
 								rdfResource,
 								containedResource,
 								nextChildElem,
@@ -748,9 +788,9 @@ public class RDFParser extends BaseParser {
 								continue;
 							}
 						}
-						rdfModel = encodeExtension(
+						encodeExtension(
 								resource,
-								rdfModel,
+								sink,
 								rdfResource,
 								containedResource,
 								nextChildElem,
@@ -768,20 +808,17 @@ public class RDFParser extends BaseParser {
 								&& childDef.getChildType() != PRIMITIVE_XHTML_HL7ORG
 								&& childDef.getChildType() != PRIMITIVE_XHTML
 								&& childDef.getChildType() != ID_DATATYPE) {
-							Resource childResource = rdfModel.createResource();
+							Node childResource = NodeFactory.createBlankNode();
 
 							String propertyName = constructPredicateName(resource, nextChild, childName, nextValue);
-							rdfResource.addProperty(rdfModel.createProperty(propertyName), childResource);
+							sink.add(rdfResource, propertyName, childResource);
 							if (cardinalityIndex != null && cardinalityIndex > -1) {
-								childResource.addProperty(
-										rdfModel.createProperty(FHIR_NS + FHIR_INDEX),
-										cardinalityIndex.toString(),
-										XSDDatatype.XSDinteger);
+								sink.add(childResource, FHIR_INDEX_NODE, createIndexLiteral(cardinalityIndex));
 							}
-							rdfModel = encodeChildElementToStreamWriter(
+							encodeChildElementToStreamWriter(
 									resource,
 									element,
-									rdfModel,
+									sink,
 									childResource,
 									nextChild,
 									nextValue,
@@ -792,10 +829,10 @@ public class RDFParser extends BaseParser {
 									encodeContext,
 									cardinalityIndex);
 						} else {
-							rdfModel = encodeChildElementToStreamWriter(
+							encodeChildElementToStreamWriter(
 									resource,
 									element,
-									rdfModel,
+									sink,
 									rdfResource,
 									nextChild,
 									nextValue,
@@ -810,33 +847,26 @@ public class RDFParser extends BaseParser {
 				}
 			}
 		}
-		return rdfModel;
 	}
 
-	private <T extends IBaseResource> T parseResource(Class<T> resourceType, Model rdfModel) {
+	private <T extends IBaseResource> T parseResource(Class<T> resourceType, TripleIndex index) {
 		// jsonMode of true is passed in so that the xhtml parser state behaves as expected
 		// Push PreResourceState
 		ParserState<T> parserState =
 				ParserState.getPreResourceInstance(this, resourceType, getContext(), true, getErrorHandler());
-		return parseRootResource(rdfModel, parserState, resourceType);
+		return parseRootResource(index, parserState, resourceType);
 	}
 
-	private <T> T parseRootResource(Model rdfModel, ParserState<T> parserState, Class<T> resourceType) {
+	private <T> T parseRootResource(TripleIndex index, ParserState<T> parserState, Class<T> resourceType) {
 		logger.trace("Entering parseRootResource with state: {}", parserState);
 
-		StmtIterator rootStatementIterator = rdfModel.listStatements(
-				null, rdfModel.getProperty(FHIR_NS + NODE_ROLE), rdfModel.getProperty(FHIR_NS + TREE_ROOT));
-
-		Resource rootResource;
 		String fhirResourceType, fhirTypeString;
-		while (rootStatementIterator.hasNext()) {
-			Statement rootStatement = rootStatementIterator.next();
-			rootResource = rootStatement.getSubject();
+		for (Node rootResource : index.getRootNodes()) {
 
 			// If a resourceType is not provided via the server framework, discern it based on the rdf:type Arc
 			if (resourceType == null) {
-				Statement resourceTypeStatement = rootResource.getProperty(RDF.type);
-				fhirTypeString = resourceTypeStatement.getObject().toString();
+				Node resourceTypeNode = index.getObject(rootResource, RDF.Nodes.type);
+				fhirTypeString = resourceTypeNode.getURI();
 				if (fhirTypeString.startsWith(FHIR_NS)) {
 					fhirTypeString = fhirTypeString.replace(FHIR_NS, "");
 				}
@@ -847,7 +877,7 @@ public class RDFParser extends BaseParser {
 			RuntimeResourceDefinition definition = getContext().getResourceDefinition(fhirTypeString);
 			fhirResourceType = definition.getName();
 
-			parseResource(parserState, fhirResourceType, rootResource);
+			parseResource(index, parserState, fhirResourceType, rootResource);
 
 			// Pop PreResourceState
 			parserState.endingElement();
@@ -855,35 +885,34 @@ public class RDFParser extends BaseParser {
 		return parserState.getObject();
 	}
 
-	private <T> void parseResource(ParserState<T> parserState, String resourceType, RDFNode rootNode) {
+	private <T> void parseResource(TripleIndex index, ParserState<T> parserState, String resourceType, Node rootNode) {
 		// Push top-level entity
 		parserState.enteringNewElement(FHIR_NS, resourceType);
 
-		if (rootNode instanceof Resource) {
-			Resource rootResource = rootNode.asResource();
-			List<Statement> statements = rootResource.listProperties().toList();
-			statements.sort(new FhirIndexStatementComparator());
-			for (Statement statement : statements) {
+		if (rootNode.isLiteral()) {
+			parserState.attributeValue(VALUE, rootNode.getLiteralLexicalForm());
+		} else {
+			List<Triple> statements = index.getSortedTriples(rootNode);
+			for (Triple statement : statements) {
 				String predicateAttributeName = extractAttributeNameFromPredicate(statement);
 				if (predicateAttributeName != null) {
 					if (predicateAttributeName.equals(MODIFIER_EXTENSION)) {
-						processExtension(parserState, statement.getObject(), true);
+						processExtension(index, parserState, statement.getObject(), true);
 					} else if (predicateAttributeName.equals(EXTENSION)) {
-						processExtension(parserState, statement.getObject(), false);
+						processExtension(index, parserState, statement.getObject(), false);
 					} else {
-						processStatementObject(parserState, predicateAttributeName, statement.getObject());
+						processStatementObject(index, parserState, predicateAttributeName, statement.getObject());
 					}
 				}
 			}
-		} else if (rootNode instanceof Literal) {
-			parserState.attributeValue(VALUE, rootNode.asLiteral().getString());
+			index.release(rootNode);
 		}
 
 		// Pop top-level entity
 		parserState.endingElement();
 	}
 
-	private String extractAttributeNameFromPredicate(Statement statement) {
+	private String extractAttributeNameFromPredicate(Triple statement) {
 		String predicateUri = statement.getPredicate().getURI();
 
 		// If the predicateURI is one we're ignoring, return null
@@ -903,7 +932,7 @@ public class RDFParser extends BaseParser {
 	}
 
 	private <T> void processStatementObject(
-			ParserState<T> parserState, String predicateAttributeName, RDFNode statementObject) {
+			TripleIndex index, ParserState<T> parserState, String predicateAttributeName, Node statementObject) {
 		logger.trace(
 				"Entering processStatementObject with state: {}, for attribute {}",
 				parserState,
@@ -914,59 +943,50 @@ public class RDFParser extends BaseParser {
 		if (statementObject != null) {
 			if (statementObject.isLiteral()) {
 				// If the object is a literal, apply the value directly
-				parserState.attributeValue(VALUE, statementObject.asLiteral().getLexicalForm());
-			} else if (statementObject.isAnon()) {
+				parserState.attributeValue(VALUE, statementObject.getLiteralLexicalForm());
+			} else if (statementObject.isBlank()) {
 				// If the object is a blank node,
-				Resource resourceObject = statementObject.asResource();
-
 				boolean containedResource = false;
 				if (predicateAttributeName.equals(CONTAINED)) {
 					containedResource = true;
 					parserState.enteringNewElement(
-							FHIR_NS,
-							resourceObject
-									.getProperty(resourceObject.getModel().createProperty(RDF.type.getURI()))
-									.getObject()
-									.toString()
-									.replace(FHIR_NS, ""));
+							FHIR_NS, index.getObject(statementObject, RDF.Nodes.type).getURI().replace(FHIR_NS, ""));
 				}
 
-				List<Statement> objectStatements =
-						resourceObject.listProperties().toList();
-				objectStatements.sort(new FhirIndexStatementComparator());
-				for (Statement objectProperty : objectStatements) {
-					if (objectProperty.getPredicate().hasURI(FHIR_NS + VALUE)) {
+				List<Triple> objectStatements = index.getSortedTriples(statementObject);
+				for (Triple objectProperty : objectStatements) {
+					if (objectProperty.getPredicate().equals(FHIR_VALUE_NODE)) {
 						predicateAttributeName = VALUE;
 						parserState.attributeValue(
-								predicateAttributeName,
-								objectProperty.getObject().asLiteral().getLexicalForm());
+								predicateAttributeName, objectProperty.getObject().getLiteralLexicalForm());
 					} else {
 						// Otherwise, process it as a net-new node
 						predicateAttributeName = extractAttributeNameFromPredicate(objectProperty);
 						if (predicateAttributeName != null) {
 							if (predicateAttributeName.equals(EXTENSION)) {
-								processExtension(parserState, objectProperty.getObject(), false);
+								processExtension(index, parserState, objectProperty.getObject(), false);
 							} else if (predicateAttributeName.equals(MODIFIER_EXTENSION)) {
-								processExtension(parserState, objectProperty.getObject(), true);
+								processExtension(index, parserState, objectProperty.getObject(), true);
 							} else {
-								processStatementObject(parserState, predicateAttributeName, objectProperty.getObject());
+								processStatementObject(
+										index, parserState, predicateAttributeName, objectProperty.getObject());
 							}
 						}
 					}
 				}
+				index.release(statementObject);
 
 				if (containedResource) {
 					// Leave the contained resource element we created
 					parserState.endingElement();
 				}
-			} else if (statementObject.isResource()) {
-				Resource innerResource = statementObject.asResource();
-				Statement resourceTypeStatement = innerResource.getProperty(RDF.type);
-				String fhirTypeString = resourceTypeStatement.getObject().toString();
+			} else if (statementObject.isURI()) {
+				Node resourceTypeNode = index.getObject(statementObject, RDF.Nodes.type);
+				String fhirTypeString = resourceTypeNode.getURI();
 				if (fhirTypeString.startsWith(FHIR_NS)) {
 					fhirTypeString = fhirTypeString.replace(FHIR_NS, "");
 				}
-				parseResource(parserState, fhirTypeString, innerResource);
+				parseResource(index, parserState, fhirTypeString, statementObject);
 			}
 		}
 
@@ -974,21 +994,17 @@ public class RDFParser extends BaseParser {
 		parserState.endingElement();
 	}
 
-	private <T> void processExtension(ParserState<T> parserState, RDFNode statementObject, boolean isModifier) {
+	private <T> void processExtension(
+			TripleIndex index, ParserState<T> parserState, Node statementObject, boolean isModifier) {
 		logger.trace("Entering processExtension with state: {}", parserState);
-		Resource resource = statementObject.asResource();
-		Statement urlProperty = resource.getProperty(resource.getModel().createProperty(FHIR_NS + EXTENSION_URL));
-		Resource urlPropertyResource = urlProperty.getObject().asResource();
-		String extensionUrl = urlPropertyResource
-				.getProperty(resource.getModel().createProperty(FHIR_NS + VALUE))
-				.getObject()
-				.asLiteral()
-				.getString();
-
-		List<Statement> extensionStatements = resource.listProperties().toList();
+		Node urlPropertyResource = index.getObject(statementObject, EXTENSION_URL_NODE);
+		String extensionUrl = index.getObject(urlPropertyResource, FHIR_VALUE_NODE).getLiteralLexicalForm();
+		index.release(urlPropertyResource);
+
+		List<Triple> extensionStatements = index.getTriples(statementObject);
 		String extensionValueType = null;
-		RDFNode extensionValueResource = null;
-		for (Statement statement : extensionStatements) {
+		Node extensionValueResource = null;
+		for (Triple statement : extensionStatements) {
 			String propertyUri = statement.getPredicate().getURI();
 			if (propertyUri.contains("Extension.value")) {
 				extensionValueType = propertyUri.replace(FHIR_NS + "Extension.", "");
@@ -997,14 +1013,10 @@ public class RDFParser extends BaseParser {
 						.getChildByName(extensionValueType);
 				if (target.getChildType().equals(ID_DATATYPE)
 						|| target.getChildType().equals(PRIMITIVE_DATATYPE)) {
-					extensionValueResource = statement
-							.getObject()
-							.asResource()
-							.getProperty(resource.getModel().createProperty(FHIR_NS + VALUE))
-							.getObject()
-							.asLiteral();
+					extensionValueResource = index.getObject(statement.getObject(), FHIR_VALUE_NODE);
+					index.release(statement.getObject());
 				} else {
-					extensionValueResource = statement.getObject().asResource();
+					extensionValueResource = statement.getObject();
 				}
 				break;
 			}
@@ -1013,40 +1025,121 @@ public class RDFParser extends BaseParser {
 		parserState.enteringNewElementExtension(null, extensionUrl, isModifier, null);
 		// Some extensions don't have their own values - they then have more extensions inside of them
 		if (extensionValueType != null) {
-			parseResource(parserState, extensionValueType, extensionValueResource);
+			parseResource(index, parserState, extensionValueType, extensionValueResource);
 		}
 
-		for (Statement statement : extensionStatements) {
-			String propertyUri = statement.getPredicate().getURI();
-			if (propertyUri.equals(FHIR_NS + ELEMENT_EXTENSION)) {
-				processExtension(parserState, statement.getObject(), false);
+		for (Triple statement : extensionStatements) {
+			if (statement.getPredicate().equals(ELEMENT_EXTENSION_NODE)) {
+				processExtension(index, parserState, statement.getObject(), false);
 			}
 		}
+		index.release(statementObject);
 
 		parserState.endingElement();
 	}
 
-	static class FhirIndexStatementComparator implements Comparator<Statement> {
+	private static Node createIndexLiteral(int theIndex) {
+		return NodeFactory.createLiteral(Integer.toString(theIndex), XSDDatatype.XSDinteger);
+	}
+
+	/**
+	 * Receives the triples produced while encoding a resource. Triples are passed straight through
+	 * to the underlying stream, which either writes them out or collects them into a model.
+	 */
+	private static class TripleSink {
+
+		private final StreamRDF myStream;
+		private final Set<Node> myEncodedResources = new HashSet<>();
+
+		TripleSink(StreamRDF theStream) {
+			myStream = theStream;
+		}
+
+		void add(Node theSubject, String thePredicateUri, Node theObject) {
+			add(theSubject, NodeFactory.createURI(thePredicateUri), theObject);
+		}
+
+		void add(Node theSubject, Node thePredicate, Node theObject) {
+			myStream.triple(Triple.create(theSubject, thePredicate, theObject));
+		}
+
+		/**
+		 * Records that the given resource is being encoded
+		 *
+		 * @return Returns <code>false</code> if the resource has already been encoded
+		 */
+		boolean markResourceEncoded(Node theResource) {
+			return theResource.isBlank() || myEncodedResources.add(theResource);
+		}
+	}
+
+	/**
+	 * Holds parsed triples indexed by their subject, which is all that is needed to walk the resource
+	 * tree from its root. This is considerably smaller than a Jena model, which indexes every triple
+	 * three ways, and blank nodes are released as soon as they have been processed.
+	 */
+	private static class TripleIndex extends StreamRDFBase {
+
+		private final Map<Node, List<Triple>> myTriplesBySubject = new HashMap<>();
+		private final List<Node> myRootNodes = new ArrayList<>();
 
 		@Override
-		public int compare(Statement arg0, Statement arg1) {
-			int result =
-					arg0.getPredicate().getURI().compareTo(arg1.getPredicate().getURI());
-			if (result == 0) {
-				if (arg0.getObject().isResource() && arg1.getObject().isResource()) {
-					Resource resource0 = arg0.getObject().asResource();
-					Resource resource1 = arg1.getObject().asResource();
+		public void triple(Triple theTriple) {
+			myTriplesBySubject.computeIfAbsent(theTriple.getSubject(), t -> new ArrayList<>(4)).add(theTriple);
+			if (theTriple.getPredicate().equals(NODE_ROLE_NODE) && theTriple.getObject().equals(TREE_ROOT_NODE)) {
+				myRootNodes.add(theTriple.getSubject());
+			}
+		}
+
+		List<Node> getRootNodes() {
+			return myRootNodes;
+		}
+
+		List<Triple> getTriples(Node theSubject) {
+			return myTriplesBySubject.getOrDefault(theSubject, Collections.emptyList());
+		}
+
+		/**
+		 * Returns the triples for the given subject, sorted by predicate and then by <code>fhir:index</code>
+		 */
+		List<Triple> getSortedTriples(Node theSubject) {
+			List<Triple> retVal = new ArrayList<>(getTriples(theSubject));
+			retVal.sort(this::compareByFhirIndex);
+			return retVal;
+		}
+
+		Node getObject(Node theSubject, Node thePredicate) {
+			for (Triple next : getTriples(theSubject)) {
+				if (next.getPredicate().equals(thePredicate)) {
+					return next.getObject();
+				}
+			}
+			return null;
+		}
 
-					result = Integer.compare(getFhirIndex(resource0), getFhirIndex(resource1));
+		/**
+		 * Blank nodes can only be referenced once, so they can be discarded once they have been processed
+		 */
+		void release(Node theSubject) {
+			if (theSubject.isBlank()) {
+				myTriplesBySubject.remove(theSubject);
+			}
+		}
+
+		private int compareByFhirIndex(Triple arg0, Triple arg1) {
+			int result = arg0.getPredicate().getURI().compareTo(arg1.getPredicate().getURI());
+			if (result == 0) {
+				if (!arg0.getObject().isLiteral() && !arg1.getObject().isLiteral()) {
+					result = Integer.compare(getFhirIndex(arg0.getObject()), getFhirIndex(arg1.getObject()));
 				}
 			}
 			return result;
 		}
 
-		private int getFhirIndex(Resource resource) {
-			if (resource.hasProperty(resource.getModel().createProperty(FHIR_NS + FHIR_INDEX))) {
-				return resource.getProperty(resource.getModel().createProperty(FHIR_NS + FHIR_INDEX))
-						.getInt();
+		private int getFhirIndex(Node theNode) {
+			Node index = getObject(theNode, FHIR_INDEX_NODE);
+			if (index != null && index.isLiteral()) {
+				return Integer.parseInt(index.getLiteralLexicalForm());
 			}
 			return -1;
 		}
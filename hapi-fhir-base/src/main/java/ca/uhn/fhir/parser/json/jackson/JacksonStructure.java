@@ -32,6 +32,7 @@ import com.fasterxml.jackson.core.StreamReadConstraints;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 import com.fasterxml.jackson.databind.json.JsonMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.DecimalNode;
@@ -39,6 +40,7 @@ import com.fasterxml.jackson.databind.node.JsonNodeFactory;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.PushbackReader;
 import java.io.Reader;
 import java.io.Writer;
@@ -52,6 +54,8 @@ import java.util.Map;
 public class JacksonStructure implements JsonLikeStructure {
 
 	private static final ObjectMapper OBJECT_MAPPER = createObjectMapper();
+	private static final ObjectReader TOKEN_STREAM_READER =
+			OBJECT_MAPPER.reader().without(DeserializationFeature.FAIL_ON_TRAILING_TOKENS);
 	private JacksonWriter jacksonWriter;
 	private ROOT_TYPE rootType = null;
 	private JsonNode nativeRoot = null;
@@ -80,51 +84,95 @@ public class JacksonStructure implements JsonLikeStructure {
 	@Override
 	public void load(Reader theReader, boolean allowArray) throws DataFormatException {
 		PushbackReader pbr = new PushbackReader(theReader);
-		int nextInt;
 		try {
-			while (true) {
-				nextInt = pbr.read();
-				if (nextInt == -1) {
-					throw new DataFormatException(Msg.code(1857) + "Did not find any content to parse");
-				}
-				if (nextInt == '{') {
-					pbr.unread(nextInt);
-					break;
-				}
-				if (Character.isWhitespace(nextInt)) {
-					continue;
-				}
-				if (allowArray) {
-					if (nextInt == '[') {
-						pbr.unread(nextInt);
-						break;
-					}
-					throw new DataFormatException(Msg.code(1858)
-							+ "Content does not appear to be FHIR JSON, first non-whitespace character was: '"
-							+ (char) nextInt + "' (must be '{' or '[')");
-				}
-				throw new DataFormatException(Msg.code(1859)
-						+ "Content does not appear to be FHIR JSON, first non-whitespace character was: '"
-						+ (char) nextInt + "' (must be '{')");
-			}
-
+			int nextInt = readToContent(pbr, allowArray);
 			if (nextInt == '{') {
 				setNativeObject((ObjectNode) OBJECT_MAPPER.readTree(pbr));
 			} else {
 				setNativeArray((ArrayNode) OBJECT_MAPPER.readTree(pbr));
 			}
 		} catch (Exception e) {
-			if (e.getMessage().startsWith("Unexpected char 39")) {
-				throw new DataFormatException(
-						Msg.code(1860) + "Failed to parse JSON encoded FHIR content: " + e.getMessage() + " - "
-								+ "This may indicate that single quotes are being used as JSON escapes where double quotes are required",
-						e);
+			throw newParseFailureException(e);
+		}
+	}
+
+	/**
+	 * Creates a Jackson token stream over the given reader, using the same parser configuration
+	 * as {@link #load(Reader)}. The content is checked the same way as it is by {@link #load(Reader)},
+	 * so the stream is always positioned before the opening <code>{</code> of a JSON object.
+	 * Values read from the returned parser using {@link JsonParser#readValueAsTree()} are not checked
+	 * for trailing tokens, since the stream will generally be positioned in the middle of a document.
+	 * The caller is responsible for closing the returned parser.
+	 */
+	public static JsonParser createTokenParser(Reader theReader) throws DataFormatException {
+		PushbackReader pbr = new PushbackReader(theReader);
+		try {
+			readToContent(pbr, false);
+			JsonParser retVal = OBJECT_MAPPER.createParser(pbr);
+			retVal.setCodec(TOKEN_STREAM_READER);
+			return retVal;
+		} catch (Exception e) {
+			throw newParseFailureException(e);
+		}
+	}
+
+	/**
+	 * Creates the exception thrown when JSON content can not be read. Both the tree based and the
+	 * streaming JSON parser use this, so that they report the same problem in the same way.
+	 */
+	public static DataFormatException newParseFailureException(Exception theCause) {
+		String message = theCause.getMessage();
+		if (message != null && message.startsWith("Unexpected char 39")) {
+			return new DataFormatException(
+					Msg.code(1860) + "Failed to parse JSON encoded FHIR content: " + message + " - "
+							+ "This may indicate that single quotes are being used as JSON escapes where double quotes are required",
+					theCause);
+		}
+		return new DataFormatException(
+				Msg.code(1861) + "Failed to parse JSON encoded FHIR content: " + message, theCause);
+	}
+
+	/**
+	 * Skips any leading whitespace, leaving the reader positioned on the first character
+	 * of the content, and returns that character
+	 */
+	private static int readToContent(PushbackReader theReader, boolean theAllowArray) throws IOException {
+		while (true) {
+			int nextInt = theReader.read();
+			if (nextInt == -1) {
+				throw new DataFormatException(Msg.code(1857) + "Did not find any content to parse");
+			}
+			if (nextInt == '{') {
+				theReader.unread(nextInt);
+				return nextInt;
+			}
+			if (Character.isWhitespace(nextInt)) {
+				continue;
+			}
+			if (theAllowArray) {
+				if (nextInt == '[') {
+					theReader.unread(nextInt);
+					return nextInt;
+				}
+				throw new DataFormatException(Msg.code(1858)
+						+ "Content does not appear to be FHIR JSON, first non-whitespace character was: '"
+						+ (char) nextInt + "' (must be '{' or '[')");
 			}
-			throw new DataFormatException(
-					Msg.code(1861) + "Failed to parse JSON encoded FHIR content: " + e.getMessage(), e);
+			throw new DataFormatException(Msg.code(1859)
+					+ "Content does not appear to be FHIR JSON, first non-whitespace character was: '"
+					+ (char) nextInt + "' (must be '{')");
 		}
 	}
 
+	/**
+	 * Creates a Jackson generator writing UTF-8 encoded JSON to the given stream, using the same
+	 * configuration as the writers returned by this structure. The caller is responsible for closing
+	 * the returned generator.
+	 */
+	public static JsonGenerator createTokenGenerator(OutputStream theOutputStream) throws IOException {
+		return OBJECT_MAPPER.getFactory().createGenerator(theOutputStream);
+	}
+
 	@Override
 	public BaseJsonLikeWriter getJsonLikeWriter(Writer writer) throws IOException {
 		if (null == jacksonWriter) {
@@ -134,6 +182,19 @@ public class JacksonStructure implements JsonLikeStructure {
 		return jacksonWriter;
 	}
 
+	/**
+	 * Returns a writer which writes UTF-8 encoded bytes directly to the given stream
+	 *
+	 * @since 7.0.0
+	 */
+	public BaseJsonLikeWriter getJsonLikeWriter(OutputStream theOutputStream) throws IOException {
+		if (null == jacksonWriter) {
+			jacksonWriter = new JacksonWriter(OBJECT_MAPPER.getFactory(), theOutputStream);
+		}
+
+		return jacksonWriter;
+	}
+
 	@Override
 	public BaseJsonLikeWriter getJsonLikeWriter() {
 		if (null == jacksonWriter) {
@@ -61,6 +61,13 @@ public class Constants {
 
 	public static final String CT_FHIR_XML = "application/xml+fhir";
 
+	/**
+	 * The MimeType for FHIR resources encoded as CBOR, using the same structure as the JSON encoding
+	 *
+	 * @since 7.0.0
+	 */
+	public static final String CT_FHIR_CBOR = "application/fhir+cbor";
+
 	/**
 	 * The FHIR MimeType for XML encoding in FHIR DSTU3+
 	 */
@@ -84,6 +91,7 @@ public class Constants {
 	public static final String EXTOP_VALIDATE_MODE = "mode";
 	public static final String EXTOP_VALIDATE_PROFILE = "profile";
 	public static final String EXTOP_VALIDATE_RESOURCE = "resource";
+	public static final String FORMAT_CBOR = "cbor";
 	public static final String FORMAT_HTML = "html";
 	public static final String FORMAT_JSON = "json";
 	public static final String FORMAT_NDJSON = "ndjson";
@@ -101,6 +109,14 @@ public class Constants {
 	public static final String FORMATS_HTML_TTL = "html/turtle";
 	public static final String HEADER_ACCEPT = "Accept";
 	public static final String HEADER_ACCEPT_ENCODING = "Accept-Encoding";
+	/**
+	 * Prefers CBOR, but accepts JSON from servers which do not support it
+	 *
+	 * @since 7.0.0
+	 */
+	public static final String HEADER_ACCEPT_VALUE_CBOR_OR_JSON =
+			CT_FHIR_CBOR + ";q=1.0, " + CT_FHIR_JSON_NEW + ";q=0.9, " + CT_FHIR_JSON + ";q=0.8";
+
 	public static final String HEADER_ACCEPT_VALUE_JSON_NON_LEGACY =
 			CT_FHIR_JSON_NEW + ";q=1.0, " + CT_FHIR_JSON + ";q=0.9";
 	public static final String HEADER_ACCEPT_VALUE_XML_NON_LEGACY =
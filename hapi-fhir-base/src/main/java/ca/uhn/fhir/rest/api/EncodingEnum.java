@@ -56,6 +56,23 @@ public enum EncodingEnum {
 		public IParser newParser(FhirContext theContext) {
 			return theContext.newNDJsonParser();
 		}
+	},
+
+	/**
+	 * FHIR JSON structure, encoded as CBOR (RFC 8949)
+	 *
+	 * @since 7.0.0
+	 */
+	CBOR(Constants.CT_FHIR_CBOR, Constants.CT_FHIR_CBOR, Constants.FORMAT_CBOR) {
+		@Override
+		public IParser newParser(FhirContext theContext) {
+			return theContext.newCborParser();
+		}
+
+		@Override
+		public boolean isBinary() {
+			return true;
+		}
 	};
 
 	/**
@@ -78,6 +95,11 @@ public enum EncodingEnum {
 	 */
 	public static final String NDJSON_PLAIN_STRING = "ndjson";
 
+	/**
+	 * "cbor"
+	 */
+	public static final String CBOR_PLAIN_STRING = "cbor";
+
 	private static Map<String, EncodingEnum> ourContentTypeToEncoding;
 	private static Map<String, EncodingEnum> ourContentTypeToEncodingLegacy;
 	private static Map<String, EncodingEnum> ourContentTypeToEncodingStrict;
@@ -111,6 +133,7 @@ public enum EncodingEnum {
 		ourContentTypeToEncoding.put("application/fhir+turtle", RDF);
 		ourContentTypeToEncoding.put("application/x-turtle", RDF);
 		ourContentTypeToEncoding.put("application/ndjson", NDJSON);
+		ourContentTypeToEncoding.put("application/cbor", CBOR);
 		ourContentTypeToEncoding.put("text/json", JSON);
 		ourContentTypeToEncoding.put("text/ndjson", NDJSON);
 		ourContentTypeToEncoding.put("text/xml", XML);
@@ -123,6 +146,7 @@ public enum EncodingEnum {
 		ourContentTypeToEncoding.put(XML_PLAIN_STRING, XML);
 		ourContentTypeToEncoding.put(RDF_PLAIN_STRING, RDF);
 		ourContentTypeToEncoding.put(NDJSON_PLAIN_STRING, NDJSON);
+		ourContentTypeToEncoding.put(CBOR_PLAIN_STRING, CBOR);
 		ourContentTypeToEncoding.put(Constants.FORMAT_TURTLE, RDF);
 
 		ourContentTypeToEncodingLegacy = Collections.unmodifiableMap(ourContentTypeToEncodingLegacy);
@@ -161,6 +185,17 @@ public enum EncodingEnum {
 
 	public abstract IParser newParser(final FhirContext theContext);
 
+	/**
+	 * Returns <code>true</code> if this encoding produces binary content rather than text. Binary
+	 * encodings can only be read from an {@link java.io.InputStream} and written to an
+	 * {@link java.io.OutputStream}, and do not carry a charset in their content type.
+	 *
+	 * @since 7.0.0
+	 */
+	public boolean isBinary() {
+		return false;
+	}
+
 	public static EncodingEnum detectEncoding(final String theBody) {
 		EncodingEnum retVal = detectEncodingNoDefault(theBody);
 		retVal = ObjectUtils.defaultIfNull(retVal, EncodingEnum.XML);
@@ -24,7 +24,10 @@ import ca.uhn.fhir.context.BaseRuntimeElementDefinition;
 import ca.uhn.fhir.context.FhirContext;
 import ca.uhn.fhir.context.FhirVersionEnum;
 import ca.uhn.fhir.context.RuntimeResourceDefinition;
+import ca.uhn.fhir.i18n.Msg;
 import ca.uhn.fhir.model.primitive.IdDt;
+import ca.uhn.fhir.parser.IParser;
+import ca.uhn.fhir.rest.server.exceptions.InternalErrorException;
 import org.apache.commons.lang3.Validate;
 import org.hl7.fhir.instance.model.api.IBase;
 import org.hl7.fhir.instance.model.api.IBaseBackboneElement;
@@ -34,7 +37,15 @@ import org.hl7.fhir.instance.model.api.IBaseResource;
 import org.hl7.fhir.instance.model.api.IIdType;
 import org.hl7.fhir.instance.model.api.IPrimitiveType;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
 import java.util.Objects;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -70,12 +81,22 @@ public class BundleBuilder {
 	private final BaseRuntimeChildDefinition myEntryRequestMethodChild;
 	private final BaseRuntimeElementDefinition<?> myEntryRequestMethodDef;
 	private final BaseRuntimeChildDefinition myEntryRequestIfNoneExistChild;
+	private final Writer myStreamingWriter;
+	private final IParser myStreamingParser;
+	private int myStreamedEntryCount;
+	private boolean myStreamingFinished;
 
 	/**
 	 * Constructor
 	 */
 	public BundleBuilder(FhirContext theContext) {
+		this(theContext, null);
+	}
+
+	private BundleBuilder(FhirContext theContext, Writer theStreamingWriter) {
 		myContext = theContext;
+		myStreamingWriter = theStreamingWriter;
+		myStreamingParser = theStreamingWriter != null ? theContext.newJsonParser() : null;
 
 		myBundleDef = myContext.getResourceDefinition("Bundle");
 		myBundle = (IBaseBundle) myBundleDef.newInstance();
@@ -377,6 +398,9 @@ public class BundleBuilder {
 	 * @return Returns the new entry.
 	 */
 	public IBase addEntry() {
+		if (myStreamingWriter != null) {
+			writeStreamedEntries();
+		}
 		IBase entry = myEntryDef.newInstance();
 		myEntryChild.getMutator().addValue(myBundle, entry);
 		return entry;
@@ -546,6 +570,97 @@ public class BundleBuilder {
 		terser.setElement(myBundle, "Bundle.timestamp", theTimestamp.getValueAsString());
 	}
 
+	/**
+	 * Writes any entries which have not yet been written, followed by the end of the bundle, to the
+	 * writer supplied to {@link #newStreamingBuilder(FhirContext, Writer)} and flushes it. The writer
+	 * is not closed. No more entries may be added once this method has been called.
+	 *
+	 * @throws IllegalStateException If this builder was not created as a streaming builder, or has already been finished
+	 * @since 7.0.0
+	 */
+	public void finish() {
+		if (myStreamingWriter == null) {
+			throw new IllegalStateException(Msg.code(2458) + "This builder is not a streaming builder");
+		}
+		writeStreamedEntries();
+		try {
+			if (myStreamedEntryCount == 0) {
+				myStreamingParser.encodeResourceToWriter(myBundle, myStreamingWriter);
+			} else {
+				myStreamingWriter.write("]}");
+			}
+			myStreamingWriter.flush();
+		} catch (IOException e) {
+			throw new InternalErrorException(Msg.code(2459) + "Failed to write Bundle: " + e.getMessage(), e);
+		}
+		myStreamingFinished = true;
+	}
+
+	/**
+	 * Writes every entry currently in the bundle to the streaming writer, and removes them from the
+	 * bundle. The bundle-level elements are written before the first entry.
+	 */
+	private void writeStreamedEntries() {
+		if (myStreamingFinished) {
+			throw new IllegalStateException(Msg.code(2460) + "This streaming builder has already been finished");
+		}
+
+		List<IBase> entries = new ArrayList<>(myEntryChild.getAccessor().getValues(myBundle));
+		if (entries.isEmpty()) {
+			return;
+		}
+		myEntryChild.getMutator().setValue(myBundle, null);
+
+		try {
+			if (myStreamedEntryCount == 0) {
+				String envelope = myStreamingParser.encodeResourceToString(myBundle);
+				myStreamingWriter.write(envelope, 0, envelope.lastIndexOf('}'));
+				myStreamingWriter.write(",\"entry\":[");
+			}
+			for (IBase next : entries) {
+				if (myStreamedEntryCount++ > 0) {
+					myStreamingWriter.write(',');
+				}
+				myStreamingParser.encodeToWriter(next, myStreamingWriter);
+			}
+		} catch (IOException e) {
+			throw new InternalErrorException(Msg.code(2461) + "Failed to write Bundle entry: " + e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * Creates a builder which writes the bundle to the given writer as JSON while it is being built,
+	 * instead of holding every entry in memory. This is intended for very large generated bundles.
+	 * <p>
+	 * Entries are written to the writer (and removed from {@link #getBundle()}) each time a new entry
+	 * is added, so an entry must not be modified once the next entry has been added. Bundle-level
+	 * elements such as the type, identifier and timestamp are written along with the first entry, so
+	 * they must be set before the second entry is added. Call {@link #finish()} once all entries have
+	 * been added in order to write the remaining entries and the end of the bundle.
+	 * </p>
+	 *
+	 * @param theContext The FHIR context
+	 * @param theWriter  The writer to write the JSON encoded bundle to. This writer will be flushed but not closed.
+	 * @since 7.0.0
+	 */
+	public static BundleBuilder newStreamingBuilder(FhirContext theContext, Writer theWriter) {
+		Validate.notNull(theWriter, "theWriter must not be null");
+		return new BundleBuilder(theContext, theWriter);
+	}
+
+	/**
+	 * Creates a builder which writes the bundle to the given stream as UTF-8 encoded JSON while it is
+	 * being built, instead of holding every entry in memory.
+	 *
+	 * @see #newStreamingBuilder(FhirContext, Writer)
+	 * @since 7.0.0
+	 */
+	public static BundleBuilder newStreamingBuilder(FhirContext theContext, OutputStream theOutputStream) {
+		Validate.notNull(theOutputStream, "theOutputStream must not be null");
+		Writer writer = new BufferedWriter(new OutputStreamWriter(theOutputStream, StandardCharsets.UTF_8));
+		return new BundleBuilder(theContext, writer);
+	}
+
 	public class DeleteBuilder extends BaseOperationBuilder {
 
 		// nothing yet
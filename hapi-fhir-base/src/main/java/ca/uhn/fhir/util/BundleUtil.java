@@ -53,6 +53,7 @@ import java.util.Objects;
 import java.util.Set;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.apache.commons.lang3.StringUtils.isNotBlank;
 import static org.hl7.fhir.instance.model.api.IBaseBundle.LINK_PREV;
@@ -243,6 +244,46 @@ public class BundleUtil {
 		return entryListAccumulator.getList();
 	}
 
+	/**
+	 * Returns a stream of the entries in the given bundle. Unlike {@link #toListOfEntries(FhirContext, IBaseBundle)},
+	 * the {@link BundleEntryParts} for each entry are only created as the stream is consumed, so callers which
+	 * stop early (e.g. using {@link Stream#filter(java.util.function.Predicate) filter} and
+	 * {@link Stream#findFirst() findFirst}) don't pay for the entries they don't look at, and large bundles
+	 * are never copied into an intermediate list.
+	 * <p>
+	 * The stream reads the entries from the bundle as it is consumed, so the bundle must not have entries
+	 * added or removed until the stream has been consumed.
+	 * </p>
+	 *
+	 * @since 7.0.0
+	 */
+	public static Stream<BundleEntryParts> streamEntries(FhirContext theContext, IBaseBundle theBundle) {
+		RuntimeResourceDefinition bundleDef = theContext.getResourceDefinition(theBundle);
+		BaseRuntimeChildDefinition entryChildDef = bundleDef.getChildByName("entry");
+		List<IBase> entries = entryChildDef.getAccessor().getValues(theBundle);
+
+		BaseRuntimeElementCompositeDefinition<?> entryChildContentsDef =
+				(BaseRuntimeElementCompositeDefinition<?>) entryChildDef.getChildByName("entry");
+		BaseRuntimeChildDefinition fullUrlChildDef = entryChildContentsDef.getChildByName("fullUrl");
+		BaseRuntimeChildDefinition resourceChildDef = entryChildContentsDef.getChildByName("resource");
+		BaseRuntimeChildDefinition requestChildDef = entryChildContentsDef.getChildByName("request");
+		BaseRuntimeElementCompositeDefinition<?> requestChildContentsDef =
+				(BaseRuntimeElementCompositeDefinition<?>) requestChildDef.getChildByName("request");
+		BaseRuntimeChildDefinition requestUrlChildDef = requestChildContentsDef.getChildByName("url");
+		BaseRuntimeChildDefinition requestIfNoneExistChildDef = requestChildContentsDef.getChildByName("ifNoneExist");
+		BaseRuntimeChildDefinition methodChildDef = requestChildContentsDef.getChildByName("method");
+
+		return entries.stream()
+				.map(nextEntry -> getBundleEntryParts(
+						fullUrlChildDef,
+						resourceChildDef,
+						requestChildDef,
+						requestUrlChildDef,
+						requestIfNoneExistChildDef,
+						methodChildDef,
+						nextEntry));
+	}
+
 	static int WHITE = 1;
 	static int GRAY = 2;
 	static int BLACK = 3;
@@ -605,11 +646,22 @@ public class BundleUtil {
 		return toListOfResourcesOfType(theContext, theBundle, IBaseResource.class);
 	}
 
+	/**
+	 * Returns a stream of the resources in the given bundle, which visits the entries one at a time as the
+	 * stream is consumed instead of copying the resources into a list first.
+	 *
+	 * @see #streamEntries(FhirContext, IBaseBundle) for notes on modifying the bundle
+	 * @since 7.0.0
+	 */
+	public static Stream<IBaseResource> streamResources(FhirContext theContext, IBaseBundle theBundle) {
+		return streamResourcesOfType(theContext, theBundle, IBaseResource.class);
+	}
+
 	/**
 	 * Extract all of ids of all the resources from a given bundle
 	 */
 	public static List<String> toListOfResourceIds(FhirContext theContext, IBaseBundle theBundle) {
-		return toListOfResourcesOfType(theContext, theBundle, IBaseResource.class).stream()
+		return streamResources(theContext, theBundle)
 				.map(resource -> resource.getIdElement().getIdPart())
 				.collect(Collectors.toList());
 	}
@@ -617,11 +669,23 @@ public class BundleUtil {
 	/**
 	 * Extract all of the resources of a given type from a given bundle
 	 */
-	@SuppressWarnings("unchecked")
 	public static <T extends IBaseResource> List<T> toListOfResourcesOfType(
 			FhirContext theContext, IBaseBundle theBundle, Class<T> theTypeToInclude) {
-		Objects.requireNonNull(theTypeToInclude, "ResourceType must not be null");
 		List<T> retVal = new ArrayList<>();
+		streamResourcesOfType(theContext, theBundle, theTypeToInclude).forEach(retVal::add);
+		return retVal;
+	}
+
+	/**
+	 * Returns a stream of the resources of a given type in the given bundle, which visits the entries one at
+	 * a time as the stream is consumed instead of copying the resources into a list first.
+	 *
+	 * @see #streamEntries(FhirContext, IBaseBundle) for notes on modifying the bundle
+	 * @since 7.0.0
+	 */
+	public static <T extends IBaseResource> Stream<T> streamResourcesOfType(
+			FhirContext theContext, IBaseBundle theBundle, Class<T> theTypeToInclude) {
+		Objects.requireNonNull(theTypeToInclude, "ResourceType must not be null");
 
 		RuntimeResourceDefinition def = theContext.getResourceDefinition(theBundle);
 		BaseRuntimeChildDefinition entryChild = def.getChildByName("entry");
@@ -630,14 +694,10 @@ public class BundleUtil {
 		BaseRuntimeElementCompositeDefinition<?> entryChildElem =
 				(BaseRuntimeElementCompositeDefinition<?>) entryChild.getChildByName("entry");
 		BaseRuntimeChildDefinition resourceChild = entryChildElem.getChildByName("resource");
-		for (IBase nextEntry : entries) {
-			for (IBase next : resourceChild.getAccessor().getValues(nextEntry)) {
-				if (theTypeToInclude.isAssignableFrom(next.getClass())) {
-					retVal.add((T) next);
-				}
-			}
-		}
-		return retVal;
+		return entries.stream()
+				.flatMap(nextEntry -> resourceChild.getAccessor().getValues(nextEntry).stream())
+				.filter(next -> theTypeToInclude.isAssignableFrom(next.getClass()))
+				.map(theTypeToInclude::cast);
 	}
 
 	/**
@@ -0,0 +1,231 @@
+/*
+ * #%L
+ * HAPI FHIR - Core Library
+ * %%
+ * Copyright (C) 2014 - 2023 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package ca.uhn.fhir.util;
+
+import ca.uhn.fhir.context.BaseRuntimeChildDefinition;
+import ca.uhn.fhir.context.BaseRuntimeElementCompositeDefinition;
+import ca.uhn.fhir.context.BaseRuntimeElementDefinition;
+import ca.uhn.fhir.context.FhirContext;
+import ca.uhn.fhir.context.RuntimeChildChoiceDefinition;
+import org.apache.commons.lang3.Validate;
+import org.hl7.fhir.instance.model.api.IBase;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * A {@link FhirTerser} path which has been parsed and resolved against the definition of the element
+ * it starts from, so that it can be evaluated repeatedly without re-parsing the path or looking up
+ * child definitions by name. Instances are obtained using {@link FhirTerser#compile(String, String)}
+ * and are immutable and thread safe.
+ * <p>
+ * Evaluating a compiled path returns the same values as the equivalent
+ * {@link FhirTerser#getValues(IBase, String, Class)} call. Where an element at runtime is not an
+ * instance of the type the path was compiled against (e.g. a choice type, or a custom structure
+ * subclass), the child is looked up by name just as the uncompiled terser would do. Steps which
+ * select extensions by URL (e.g. <code>extension('http://foo')</code>), and any steps following them,
+ * are always evaluated by the uncompiled terser.
+ * </p>
+ *
+ * @since 7.0.0
+ */
+public class CompiledTerserPath {
+
+	private final FhirContext myContext;
+	private final FhirTerser myTerser;
+	private final BaseRuntimeElementCompositeDefinition<?> myRootDefinition;
+	private final String myPath;
+	private final List<String> myParts;
+	private final Step[] mySteps;
+
+	/**
+	 * Constructor - Use {@link FhirTerser#compile(String, String)} to obtain instances
+	 */
+	CompiledTerserPath(
+			FhirContext theContext, BaseRuntimeElementCompositeDefinition<?> theRootDefinition, String thePath) {
+		myContext = theContext;
+		myTerser = new FhirTerser(theContext);
+		myRootDefinition = theRootDefinition;
+		myPath = thePath;
+		myParts = FhirTerser.parsePath(theRootDefinition, thePath);
+		mySteps = new Step[myParts.size()];
+
+		BaseRuntimeElementCompositeDefinition<?> parentDef = theRootDefinition;
+		for (int i = 0; i < mySteps.length; i++) {
+			String name = myParts.get(i);
+			if (name.startsWith("extension('") || name.startsWith("modifierExtension('")) {
+				mySteps[i] = new Step(name, true, null, null, null);
+				parentDef = null;
+				continue;
+			}
+
+			BaseRuntimeChildDefinition childDef = null;
+			if (parentDef != null) {
+				if (i == 0) {
+					// Fail fast on an unknown first element, the uncompiled terser always resolves this
+					childDef = parentDef.getChildByNameOrThrowDataFormatException(name);
+				} else {
+					childDef = parentDef.getChildByName(name);
+				}
+			}
+
+			BaseRuntimeElementCompositeDefinition<?> childElementDef = null;
+			if (childDef != null && childDef.getValidChildNames().contains(name)) {
+				BaseRuntimeElementDefinition<?> def = childDef.getChildByName(name);
+				if (def instanceof BaseRuntimeElementCompositeDefinition) {
+					childElementDef = (BaseRuntimeElementCompositeDefinition<?>) def;
+				}
+			}
+
+			mySteps[i] = new Step(name, false, childDef != null ? parentDef : null, childDef, childElementDef);
+			parentDef = childElementDef;
+		}
+	}
+
+	/**
+	 * Returns the path which was compiled
+	 */
+	public String getPath() {
+		return myPath;
+	}
+
+	/**
+	 * Returns the definition of the element this path was compiled against
+	 */
+	public BaseRuntimeElementCompositeDefinition<?> getRootDefinition() {
+		return myRootDefinition;
+	}
+
+	/**
+	 * Returns all values found at this path
+	 *
+	 * @param theElement The element to start from. Must not be null.
+	 */
+	public List<IBase> getValues(IBase theElement) {
+		return getValues(theElement, IBase.class);
+	}
+
+	/**
+	 * Returns all values found at this path which are instances of <code>theWantedClass</code>
+	 *
+	 * @param theElement     The element to start from. Must not be null.
+	 * @param theWantedClass The desired class to be returned in a list.
+	 * @param <T>            Type declared by <code>theWantedClass</code>
+	 */
+	public <T extends IBase> List<T> getValues(IBase theElement, Class<T> theWantedClass) {
+		Validate.notNull(theElement, "theElement must not be null");
+		if (mySteps.length == 0) {
+			return Collections.emptyList();
+		}
+
+		BaseRuntimeElementCompositeDefinition<?> def = myRootDefinition;
+		if (theElement.getClass() != def.getImplementingClass()) {
+			def = (BaseRuntimeElementCompositeDefinition<?>) myContext.getElementDefinition(theElement.getClass());
+		}
+
+		List<T> retVal = new ArrayList<>();
+		collectValues(0, def, theElement, theWantedClass, retVal);
+		return retVal;
+	}
+
+	/**
+	 * Returns the first value found at this path which is an instance of <code>theWantedClass</code>
+	 *
+	 * @param theElement     The element to start from. Must not be null.
+	 * @param theWantedClass The desired class to be returned.
+	 * @param <T>            Type declared by <code>theWantedClass</code>
+	 */
+	public <T extends IBase> Optional<T> getSingleValue(IBase theElement, Class<T> theWantedClass) {
+		List<T> values = getValues(theElement, theWantedClass);
+		if (values.isEmpty()) {
+			return Optional.empty();
+		}
+		return Optional.of(values.get(0));
+	}
+
+	@SuppressWarnings("unchecked")
+	private <T extends IBase> void collectValues(
+			int theStepIndex,
+			BaseRuntimeElementCompositeDefinition<?> theCurrentDef,
+			IBase theCurrentObj,
+			Class<T> theWantedClass,
+			List<T> theValues) {
+		Step step = mySteps[theStepIndex];
+		if (step.myExtension) {
+			List<String> remaining = myParts.subList(theStepIndex, myParts.size());
+			theValues.addAll(myTerser.getValues(theCurrentDef, theCurrentObj, remaining, theWantedClass, false, false));
+			return;
+		}
+
+		BaseRuntimeChildDefinition childDef = step.myChildDef;
+		if (childDef == null || theCurrentDef != step.myParentDef) {
+			childDef = theCurrentDef.getChildByNameOrThrowDataFormatException(step.myName);
+		}
+		List<? extends IBase> values = childDef.getAccessor().getValues(theCurrentObj);
+
+		if (theStepIndex == mySteps.length - 1) {
+			boolean choice = childDef instanceof RuntimeChildChoiceDefinition && !step.myName.endsWith("[x]");
+			for (IBase next : values) {
+				if (next == null) {
+					continue;
+				}
+				if (choice && !step.myName.equals(childDef.getChildNameByDatatype(next.getClass()))) {
+					continue;
+				}
+				if (theWantedClass == null || theWantedClass.isAssignableFrom(next.getClass())) {
+					theValues.add((T) next);
+				}
+			}
+			return;
+		}
+
+		for (IBase next : values) {
+			BaseRuntimeElementCompositeDefinition<?> nextDef = step.myChildElementDef;
+			if (nextDef == null || next.getClass() != nextDef.getImplementingClass()) {
+				nextDef = (BaseRuntimeElementCompositeDefinition<?>) myContext.getElementDefinition(next.getClass());
+			}
+			collectValues(theStepIndex + 1, nextDef, next, theWantedClass, theValues);
+		}
+	}
+
+	private static class Step {
+
+		private final String myName;
+		private final boolean myExtension;
+		private final BaseRuntimeElementCompositeDefinition<?> myParentDef;
+		private final BaseRuntimeChildDefinition myChildDef;
+		private final BaseRuntimeElementCompositeDefinition<?> myChildElementDef;
+
+		private Step(
+				String theName,
+				boolean theExtension,
+				BaseRuntimeElementCompositeDefinition<?> theParentDef,
+				BaseRuntimeChildDefinition theChildDef,
+				BaseRuntimeElementCompositeDefinition<?> theChildElementDef) {
+			myName = theName;
+			myExtension = theExtension;
+			myParentDef = theParentDef;
+			myChildDef = theChildDef;
+			myChildElementDef = theChildElementDef;
+		}
+	}
+}
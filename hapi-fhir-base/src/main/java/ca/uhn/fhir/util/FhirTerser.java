@@ -92,6 +92,15 @@ public class FhirTerser {
 		myContext = theContext;
 	}
 
+	/**
+	 * Returns the context this terser was created for
+	 *
+	 * @since 7.0.0
+	 */
+	public FhirContext getContext() {
+		return myContext;
+	}
+
 	private List<String> addNameToList(List<String> theCurrentList, BaseRuntimeChildDefinition theChildDefinition) {
 		if (theChildDefinition == null) return null;
 		if (theCurrentList == null || theCurrentList.isEmpty())
@@ -392,9 +401,7 @@ public class FhirTerser {
 
 		BaseRuntimeElementCompositeDefinition<?> currentDef = (BaseRuntimeElementCompositeDefinition<?>) def;
 
-		List<String> parts = parsePath(currentDef, thePath);
-
-		List<T> retVal = getValues(currentDef, theTarget, parts, theWantedType);
+		List<T> retVal = getCompiledPath(currentDef, thePath).getValues(theTarget, theWantedType);
 		if (retVal.isEmpty()) {
 			return null;
 		}
@@ -415,16 +422,8 @@ public class FhirTerser {
 		return Optional.ofNullable(getSingleValueOrNull(theTarget, thePath, theWantedType));
 	}
 
-	private <T extends IBase> List<T> getValues(
-			BaseRuntimeElementCompositeDefinition<?> theCurrentDef,
-			IBase theCurrentObj,
-			List<String> theSubList,
-			Class<T> theWantedClass) {
-		return getValues(theCurrentDef, theCurrentObj, theSubList, theWantedClass, false, false);
-	}
-
 	@SuppressWarnings("unchecked")
-	private <T extends IBase> List<T> getValues(
+	<T extends IBase> List<T> getValues(
 			BaseRuntimeElementCompositeDefinition<?> theCurrentDef,
 			IBase theCurrentObj,
 			List<String> theSubList,
@@ -749,8 +748,7 @@ public class FhirTerser {
 	public <T extends IBase> List<T> getValues(IBase theElement, String thePath, Class<T> theWantedClass) {
 		BaseRuntimeElementCompositeDefinition<?> def =
 				(BaseRuntimeElementCompositeDefinition<?>) myContext.getElementDefinition(theElement.getClass());
-		List<String> parts = parsePath(def, thePath);
-		return getValues(def, theElement, parts, theWantedClass);
+		return getCompiledPath(def, thePath).getValues(theElement, theWantedClass);
 	}
 
 	/**
@@ -768,6 +766,9 @@ public class FhirTerser {
 			IBase theElement, String thePath, Class<T> theWantedClass, boolean theCreate) {
 		BaseRuntimeElementCompositeDefinition<?> def =
 				(BaseRuntimeElementCompositeDefinition<?>) myContext.getElementDefinition(theElement.getClass());
+		if (!theCreate) {
+			return getCompiledPath(def, thePath).getValues(theElement, theWantedClass);
+		}
 		List<String> parts = parsePath(def, thePath);
 		return getValues(def, theElement, parts, theWantedClass, theCreate, false);
 	}
@@ -788,11 +789,39 @@ public class FhirTerser {
 			IBase theElement, String thePath, Class<T> theWantedClass, boolean theCreate, boolean theAddExtension) {
 		BaseRuntimeElementCompositeDefinition<?> def =
 				(BaseRuntimeElementCompositeDefinition<?>) myContext.getElementDefinition(theElement.getClass());
+		if (!theCreate && !theAddExtension) {
+			return getCompiledPath(def, thePath).getValues(theElement, theWantedClass);
+		}
 		List<String> parts = parsePath(def, thePath);
 		return getValues(def, theElement, parts, theWantedClass, theCreate, theAddExtension);
 	}
 
-	private List<String> parsePath(BaseRuntimeElementCompositeDefinition<?> theElementDef, String thePath) {
+	/**
+	 * Compiles a path which can then be evaluated repeatedly against instances of the given resource type,
+	 * without the cost of parsing the path and resolving child definitions on every call. The returned
+	 * object is thread safe, and is cached by the {@link FhirContext} so compiling the same path again
+	 * is cheap.
+	 * <p>
+	 * The string based <code>getValues</code> methods use compiled paths internally whenever they are
+	 * not asked to create elements, so calling this method is only needed to avoid the cache lookup.
+	 * </p>
+	 *
+	 * @param theResourceType The resource type, e.g. <code>"Observation"</code>
+	 * @param thePath         The path, in the same format accepted by {@link #getValues(IBase, String)}
+	 * @since 7.0.0
+	 */
+	public CompiledTerserPath compile(String theResourceType, String thePath) {
+		Validate.notBlank(theResourceType, "theResourceType must not be blank");
+		Validate.notBlank(thePath, "thePath must not be blank");
+		return getCompiledPath(myContext.getResourceDefinition(theResourceType), thePath);
+	}
+
+	private CompiledTerserPath getCompiledPath(BaseRuntimeElementCompositeDefinition<?> theDefinition, String thePath) {
+		return theDefinition.getCompiledTerserPath(
+				thePath, path -> new CompiledTerserPath(myContext, theDefinition, path));
+	}
+
+	static List<String> parsePath(BaseRuntimeElementCompositeDefinition<?> theElementDef, String thePath) {
 		List<String> parts = new ArrayList<>();
 
 		int currentStart = 0;
@@ -872,19 +901,18 @@ public class FhirTerser {
 				defaultString(theTarget.getIdPart()),
 				"theTarget must have a populated ID (theTarget.getIdPart() does not return a value)");
 
-		String wantRef = theTarget.toUnqualifiedVersionless().getValue();
+		ResourceIdentity wantRef = ResourceIdentity.fromId(theTarget);
 
 		RuntimeResourceDefinition sourceDef = myContext.getResourceDefinition(theSource);
 		if (theSource.getIdElement().hasIdPart()) {
-			if (wantRef.equals(
-					sourceDef.getName() + '/' + theSource.getIdElement().getIdPart())) {
+			if (wantRef.equalsUnqualifiedVersionless(sourceDef.getName(), theSource.getIdElement().getIdPart())) {
 				return true;
 			}
 		}
 
 		class CompartmentOwnerVisitor implements ICompartmentOwnerVisitor {
 
-			private final String myWantRef;
+			private final ResourceIdentity myWantRef;
 
 			public boolean isFound() {
 				return myFound;
@@ -892,14 +920,13 @@ public class FhirTerser {
 
 			private boolean myFound;
 
-			public CompartmentOwnerVisitor(String theWantRef) {
+			public CompartmentOwnerVisitor(ResourceIdentity theWantRef) {
 				myWantRef = theWantRef;
 			}
 
 			@Override
 			public boolean consume(IIdType theCompartmentOwner) {
-				if (myWantRef.equals(
-						theCompartmentOwner.toUnqualifiedVersionless().getValue())) {
+				if (myWantRef.equalsUnqualifiedVersionless(theCompartmentOwner)) {
 					myFound = true;
 				}
 				return !myFound;
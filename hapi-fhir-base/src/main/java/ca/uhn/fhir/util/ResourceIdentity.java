@@ -0,0 +1,389 @@
+/*
+ * #%L
+ * HAPI FHIR - Core Library
+ * %%
+ * Copyright (C) 2014 - 2023 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package ca.uhn.fhir.util;
+
+import ca.uhn.fhir.context.FhirContext;
+import ca.uhn.fhir.model.primitive.IdDt;
+import ca.uhn.fhir.rest.api.Constants;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.Validate;
+import org.hl7.fhir.instance.model.api.IIdType;
+
+import java.util.Objects;
+
+/**
+ * A compact, immutable identity for a resource, holding the base URL, resource type, ID and version
+ * parts of a resource ID which have already been parsed.
+ * <p>
+ * Unlike {@link IIdType} implementations, the operations on this class never re-parse the ID, and the
+ * string form is only built when {@link #getValue()} is first called. Instances have a cheap
+ * {@link #equals(Object)} and {@link #hashCode()} based on the individual parts, so they are well
+ * suited for use as map keys and for comparing IDs on hot paths. Use {@link #toIdType(FhirContext)}
+ * to convert an instance back to an {@link IIdType} when one is needed by an API.
+ * </p>
+ * <p>
+ * Local IDs (e.g. <code>#1</code>) and URNs (e.g. <code>urn:uuid:...</code>) are stored as an ID
+ * part with no other parts, consistent with {@link IdDt}.
+ * </p>
+ *
+ * @since 7.0.0
+ */
+public final class ResourceIdentity {
+
+	private static final String HISTORY_SEPARATOR = "/" + Constants.PARAM_HISTORY + "/";
+
+	private final String myBaseUrl;
+	private final String myResourceType;
+	private final String myIdPart;
+	private final String myVersionIdPart;
+	private final int myHashCode;
+	private String myValue;
+
+	private ResourceIdentity(String theBaseUrl, String theResourceType, String theIdPart, String theVersionIdPart) {
+		myBaseUrl = StringUtils.defaultIfBlank(theBaseUrl, null);
+		myResourceType = StringUtils.defaultIfBlank(theResourceType, null);
+		myIdPart = StringUtils.defaultIfBlank(theIdPart, null);
+		myVersionIdPart = StringUtils.defaultIfBlank(theVersionIdPart, null);
+		myHashCode = Objects.hash(myBaseUrl, myResourceType, myIdPart, myVersionIdPart);
+	}
+
+	public String getBaseUrl() {
+		return myBaseUrl;
+	}
+
+	public String getResourceType() {
+		return myResourceType;
+	}
+
+	public String getIdPart() {
+		return myIdPart;
+	}
+
+	public String getVersionIdPart() {
+		return myVersionIdPart;
+	}
+
+	public boolean hasBaseUrl() {
+		return myBaseUrl != null;
+	}
+
+	public boolean hasResourceType() {
+		return myResourceType != null;
+	}
+
+	public boolean hasIdPart() {
+		return myIdPart != null;
+	}
+
+	public boolean hasVersionIdPart() {
+		return myVersionIdPart != null;
+	}
+
+	/**
+	 * Returns <code>true</code> if the ID is a local reference (in other words, it begins with the '#' character)
+	 */
+	public boolean isLocal() {
+		return myIdPart != null && myIdPart.charAt(0) == '#';
+	}
+
+	/**
+	 * Returns <code>true</code> if the ID is a URN (in other words, it begins with <code>urn:</code>)
+	 */
+	public boolean isUrn() {
+		return myIdPart != null && myIdPart.startsWith("urn:");
+	}
+
+	/**
+	 * Returns <code>true</code> if the ID part is numeric, using the same rules as {@link IdDt#isIdPartValidLong()}
+	 */
+	public boolean isIdPartValidLong() {
+		return IdDt.isValidLong(myIdPart);
+	}
+
+	/**
+	 * Returns the ID part as a long value, or <code>null</code> if there is no ID part
+	 *
+	 * @throws NumberFormatException If the ID part is not a valid long
+	 */
+	public Long getIdPartAsLong() {
+		if (myIdPart == null) {
+			return null;
+		}
+		return Long.parseLong(myIdPart);
+	}
+
+	/**
+	 * Returns an identity with no base URL. Returns <code>this</code> if this identity
+	 * has no base URL.
+	 */
+	public ResourceIdentity toUnqualified() {
+		if (myBaseUrl == null) {
+			return this;
+		}
+		return new ResourceIdentity(null, myResourceType, myIdPart, myVersionIdPart);
+	}
+
+	/**
+	 * Returns an identity with no version ID part. Returns <code>this</code> if this identity
+	 * has no version ID part.
+	 */
+	public ResourceIdentity toVersionless() {
+		if (myVersionIdPart == null) {
+			return this;
+		}
+		return new ResourceIdentity(myBaseUrl, myResourceType, myIdPart, null);
+	}
+
+	/**
+	 * Returns an identity with no base URL and no version ID part. Returns <code>this</code> if
+	 * this identity has neither.
+	 */
+	public ResourceIdentity toUnqualifiedVersionless() {
+		if (myBaseUrl == null && myVersionIdPart == null) {
+			return this;
+		}
+		return new ResourceIdentity(null, myResourceType, myIdPart, null);
+	}
+
+	/**
+	 * Returns <code>true</code> if the given identity has the same resource type and ID part as this
+	 * one. Any base URL or version is ignored, so this is the same as comparing the
+	 * {@link #toUnqualifiedVersionless() unqualified versionless} forms without creating them.
+	 */
+	public boolean equalsUnqualifiedVersionless(ResourceIdentity theOther) {
+		return theOther != null
+				&& Objects.equals(myIdPart, theOther.myIdPart)
+				&& Objects.equals(myResourceType, theOther.myResourceType);
+	}
+
+	/**
+	 * Returns <code>true</code> if the given ID has the same resource type and ID part as this
+	 * identity. Any base URL or version is ignored. The parts are read from the ID in place, so
+	 * unlike <code>fromId(theId).toUnqualifiedVersionless()</code> this creates no new objects.
+	 */
+	public boolean equalsUnqualifiedVersionless(IIdType theId) {
+		if (theId == null) {
+			return false;
+		}
+		if (theId.isLocal()) {
+			return myResourceType == null
+					&& Objects.equals(myIdPart, StringUtils.defaultIfBlank(theId.getValue(), null));
+		}
+		String idPart = theId.getIdPart();
+		if (idPart != null && idPart.startsWith("urn:")) {
+			return myResourceType == null && idPart.equals(myIdPart);
+		}
+		return equalsUnqualifiedVersionless(theId.getResourceType(), idPart);
+	}
+
+	/**
+	 * Returns <code>true</code> if this identity has the given resource type and ID part. Any base
+	 * URL or version on this identity is ignored.
+	 */
+	public boolean equalsUnqualifiedVersionless(String theResourceType, String theIdPart) {
+		return Objects.equals(myIdPart, StringUtils.defaultIfBlank(theIdPart, null))
+				&& Objects.equals(myResourceType, StringUtils.defaultIfBlank(theResourceType, null));
+	}
+
+	/**
+	 * Returns an identity with the given version ID part
+	 */
+	public ResourceIdentity withVersion(String theVersionIdPart) {
+		if (Objects.equals(myVersionIdPart, StringUtils.defaultIfBlank(theVersionIdPart, null))) {
+			return this;
+		}
+		return new ResourceIdentity(myBaseUrl, myResourceType, myIdPart, theVersionIdPart);
+	}
+
+	/**
+	 * Returns the string form of this identity, in the same format as {@link IIdType#getValue()}.
+	 * The value is built the first time this method is called and is then retained.
+	 */
+	public String getValue() {
+		String retVal = myValue;
+		if (retVal == null) {
+			retVal = buildValue();
+			myValue = retVal;
+		}
+		return retVal;
+	}
+
+	private String buildValue() {
+		if (myIdPart != null && (isLocal() || isUrn())) {
+			return myIdPart;
+		}
+
+		StringBuilder b = new StringBuilder();
+		if (myBaseUrl != null) {
+			b.append(myBaseUrl);
+			if (myBaseUrl.charAt(myBaseUrl.length() - 1) != '/') {
+				b.append('/');
+			}
+		}
+		if (myResourceType != null) {
+			b.append(myResourceType);
+		}
+		if (b.length() > 0 && myIdPart != null) {
+			b.append('/');
+		}
+		if (myIdPart != null) {
+			b.append(myIdPart);
+		} else if (myVersionIdPart != null) {
+			b.append('/');
+		}
+		if (myVersionIdPart != null) {
+			b.append('/').append(Constants.PARAM_HISTORY).append('/').append(myVersionIdPart);
+		}
+		return b.toString();
+	}
+
+	/**
+	 * Creates a new {@link IIdType} of the type appropriate for the given context, populated
+	 * with the parts of this identity.
+	 */
+	public IIdType toIdType(FhirContext theContext) {
+		IIdType retVal = theContext.getVersion().newIdType();
+		return applyTo(retVal);
+	}
+
+	/**
+	 * Populates the given {@link IIdType} with the parts of this identity, and returns it
+	 */
+	public <T extends IIdType> T applyTo(T theIdType) {
+		if (isLocal() || isUrn()) {
+			theIdType.setValue(myIdPart);
+		} else {
+			theIdType.setParts(myBaseUrl, myResourceType, myIdPart, myVersionIdPart);
+		}
+		return theIdType;
+	}
+
+	@Override
+	public boolean equals(Object theOther) {
+		if (this == theOther) {
+			return true;
+		}
+		if (!(theOther instanceof ResourceIdentity)) {
+			return false;
+		}
+		ResourceIdentity other = (ResourceIdentity) theOther;
+		return myHashCode == other.myHashCode
+				&& Objects.equals(myIdPart, other.myIdPart)
+				&& Objects.equals(myResourceType, other.myResourceType)
+				&& Objects.equals(myVersionIdPart, other.myVersionIdPart)
+				&& Objects.equals(myBaseUrl, other.myBaseUrl);
+	}
+
+	@Override
+	public int hashCode() {
+		return myHashCode;
+	}
+
+	@Override
+	public String toString() {
+		return getValue();
+	}
+
+	/**
+	 * Creates an identity from the given resource type and ID part
+	 */
+	public static ResourceIdentity of(String theResourceType, String theIdPart) {
+		return new ResourceIdentity(null, theResourceType, theIdPart, null);
+	}
+
+	/**
+	 * Creates an identity from the given parts. Any of the parts may be <code>null</code>.
+	 */
+	public static ResourceIdentity of(
+			String theBaseUrl, String theResourceType, String theIdPart, String theVersionIdPart) {
+		return new ResourceIdentity(theBaseUrl, theResourceType, theIdPart, theVersionIdPart);
+	}
+
+	/**
+	 * Creates an identity from the parts of the given ID. The ID is not modified, and
+	 * no new {@link IIdType} instances are created.
+	 */
+	public static ResourceIdentity fromId(IIdType theId) {
+		Validate.notNull(theId, "theId must not be null");
+		if (theId.isLocal()) {
+			return new ResourceIdentity(null, null, theId.getValue(), null);
+		}
+		String idPart = theId.getIdPart();
+		if (idPart != null && idPart.startsWith("urn:")) {
+			return new ResourceIdentity(null, null, idPart, null);
+		}
+		return new ResourceIdentity(theId.getBaseUrl(), theId.getResourceType(), idPart, theId.getVersionIdPart());
+	}
+
+	/**
+	 * Parses the given ID string, using the same rules as {@link IdDt#setValue(String)} but
+	 * without creating an intermediate {@link IIdType}
+	 */
+	public static ResourceIdentity parse(String theValue) {
+		if (StringUtils.isBlank(theValue)) {
+			return new ResourceIdentity(null, null, null, null);
+		}
+		if ((theValue.charAt(0) == '#' && theValue.length() > 1) || theValue.startsWith("urn:")) {
+			return new ResourceIdentity(null, null, theValue, null);
+		}
+
+		String versionIdPart = null;
+		String idPart;
+		int vidIndex = theValue.indexOf(HISTORY_SEPARATOR);
+		int idIndex;
+		if (vidIndex != -1) {
+			versionIdPart = theValue.substring(vidIndex + HISTORY_SEPARATOR.length());
+			idIndex = theValue.lastIndexOf('/', vidIndex - 1);
+			idPart = theValue.substring(idIndex + 1, vidIndex);
+		} else {
+			idIndex = theValue.lastIndexOf('/');
+			idPart = theValue.substring(idIndex + 1);
+		}
+
+		String baseUrl = null;
+		String resourceType = null;
+		if (idIndex > 0) {
+			int typeIndex = theValue.lastIndexOf('/', idIndex - 1);
+			if (typeIndex == -1) {
+				resourceType = theValue.substring(0, idIndex);
+			} else {
+				if (typeIndex > 0 && '/' == theValue.charAt(typeIndex - 1)) {
+					typeIndex = theValue.indexOf('/', typeIndex + 1);
+				}
+				if (typeIndex >= idIndex) {
+					// e.g. http://example.org/foo - 'foo' is the resource type and there is no ID
+					resourceType = idPart;
+					idPart = null;
+				} else {
+					resourceType = theValue.substring(typeIndex + 1, idIndex);
+				}
+				if (typeIndex > 4) {
+					baseUrl = theValue.substring(0, typeIndex);
+				}
+			}
+		}
+
+		ResourceIdentity retVal = new ResourceIdentity(baseUrl, resourceType, idPart, versionIdPart);
+		if (idPart != null) {
+			retVal.myValue = theValue;
+		}
+		return retVal;
+	}
+}
@@ -40,6 +40,7 @@ public class ResourceReferenceInfo {
 	private String myName;
 	private IBaseReference myResource;
 	private FhirContext myContext;
+	private ResourceIdentity myReferenceIdentity;
 
 	public ResourceReferenceInfo(
 			FhirContext theContext,
@@ -78,6 +79,22 @@ public class ResourceReferenceInfo {
 		return myResource;
 	}
 
+	/**
+	 * Returns the parsed identity of the reference. This is created from
+	 * {@link IBaseReference#getReferenceElement()} the first time it is called and then
+	 * reused, so it will not reflect changes made to the reference afterwards.
+	 *
+	 * @since 7.0.0
+	 */
+	public ResourceIdentity getReferenceIdentity() {
+		ResourceIdentity retVal = myReferenceIdentity;
+		if (retVal == null) {
+			retVal = ResourceIdentity.fromId(myResource.getReferenceElement());
+			myReferenceIdentity = retVal;
+		}
+		return retVal;
+	}
+
 	public boolean matchesIncludeSet(Set<Include> theIncludes) {
 		if (theIncludes == null) return false;
 		for (Include include : theIncludes) {
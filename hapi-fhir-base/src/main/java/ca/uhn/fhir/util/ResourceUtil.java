@@ -36,9 +36,8 @@ public class ResourceUtil {
 	 */
 	public static void removeNarrative(FhirContext theContext, IBaseResource theInput) {
 		if (theInput instanceof IBaseBundle) {
-			for (IBaseResource next : BundleUtil.toListOfResources(theContext, (IBaseBundle) theInput)) {
-				removeNarrative(theContext, next);
-			}
+			BundleUtil.streamResources(theContext, (IBaseBundle) theInput)
+					.forEach(next -> removeNarrative(theContext, next));
 		}
 
 		BaseRuntimeElementCompositeDefinition<?> element = theContext.getResourceDefinition(theInput.getClass());
@@ -0,0 +1,114 @@
+/*
+ * #%L
+ * HAPI FHIR - Core Library
+ * %%
+ * Copyright (C) 2014 - 2023 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package ca.uhn.fhir.util;
+
+import org.apache.commons.lang3.Validate;
+
+/**
+ * A fixed size table which allows equal strings to share a single instance, without the unbounded
+ * growth of {@link String#intern()}. Each string hashes to exactly one slot in the table. If the slot
+ * already holds an equal string, that instance is returned. Otherwise the new string replaces whatever
+ * was in the slot, so values which are seen often tend to stay in the table and rarely seen values are
+ * quickly evicted.
+ * <p>
+ * Strings longer than {@link #getMaxLength()} characters are never stored, so the memory held by the
+ * table is bounded by its size multiplied by the maximum length.
+ * </p>
+ * <p>
+ * This class is thread safe. Slots are read and written without locking, which is safe because
+ * strings are immutable. Concurrent callers may occasionally overwrite each other's entries, which
+ * only means that an equal string is not shared.
+ * </p>
+ *
+ * @since 7.0.0
+ */
+public class StringInternTable {
+
+	/**
+	 * Default value for {@link #getMaxLength()}
+	 */
+	public static final int DEFAULT_MAX_LENGTH = 256;
+
+	private final String[] myTable;
+	private final int myMask;
+	private final int myMaxLength;
+
+	/**
+	 * Constructor
+	 *
+	 * @param theSize The number of slots in the table, rounded up to the next power of two
+	 */
+	public StringInternTable(int theSize) {
+		this(theSize, DEFAULT_MAX_LENGTH);
+	}
+
+	/**
+	 * Constructor
+	 *
+	 * @param theSize      The number of slots in the table, rounded up to the next power of two
+	 * @param theMaxLength Strings longer than this number of characters are never stored in the table
+	 */
+	public StringInternTable(int theSize, int theMaxLength) {
+		Validate.isTrue(theSize > 0 && theSize <= (1 << 30), "theSize must be between 1 and 2^30");
+		Validate.isTrue(theMaxLength > 0, "theMaxLength must be greater than 0");
+		int size = Integer.highestOneBit(theSize);
+		if (size < theSize) {
+			size <<= 1;
+		}
+		myTable = new String[size];
+		myMask = size - 1;
+		myMaxLength = theMaxLength;
+	}
+
+	/**
+	 * Returns a string equal to the given value, which is an instance previously passed to this method
+	 * if one is still held by the table
+	 *
+	 * @param theValue The value, may be <code>null</code>
+	 */
+	public String intern(String theValue) {
+		if (theValue == null || theValue.length() > myMaxLength) {
+			return theValue;
+		}
+
+		int hash = theValue.hashCode();
+		int index = (hash ^ (hash >>> 16)) & myMask;
+		String existing = myTable[index];
+		if (existing != null && existing.equals(theValue)) {
+			return existing;
+		}
+		myTable[index] = theValue;
+		return theValue;
+	}
+
+	/**
+	 * Returns the number of slots in the table
+	 */
+	public int getSize() {
+		return myTable.length;
+	}
+
+	/**
+	 * Returns the maximum length of strings which will be stored in the table
+	 */
+	public int getMaxLength() {
+		return myMaxLength;
+	}
+}
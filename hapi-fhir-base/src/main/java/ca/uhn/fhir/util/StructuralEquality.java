@@ -0,0 +1,365 @@
+/*
+ * #%L
+ * HAPI FHIR - Core Library
+ * %%
+ * Copyright (C) 2014 - 2023 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package ca.uhn.fhir.util;
+
+import ca.uhn.fhir.context.BaseRuntimeChildDefinition;
+import ca.uhn.fhir.context.BaseRuntimeElementCompositeDefinition;
+import ca.uhn.fhir.context.BaseRuntimeElementDefinition;
+import ca.uhn.fhir.context.FhirContext;
+import ca.uhn.fhir.model.api.ExtensionDt;
+import ca.uhn.fhir.model.api.ISupportsUndeclaredExtensions;
+import ca.uhn.fhir.model.base.composite.BaseContainedDt;
+import org.apache.commons.lang3.Validate;
+import org.hl7.fhir.instance.model.api.IBase;
+import org.hl7.fhir.instance.model.api.IBaseElement;
+import org.hl7.fhir.instance.model.api.IBaseExtension;
+import org.hl7.fhir.instance.model.api.IBaseHasExtensions;
+import org.hl7.fhir.instance.model.api.IBaseHasModifierExtensions;
+import org.hl7.fhir.instance.model.api.IBaseResource;
+import org.hl7.fhir.instance.model.api.IIdType;
+import org.hl7.fhir.instance.model.api.IPrimitiveType;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Compares and hashes FHIR model elements (resources, datatypes and backbone elements) by their
+ * contents, using the {@link FhirContext} model definitions to walk the element tree in a single
+ * pass. Unlike the <code>equalsDeep</code> methods on the HL7.org structures, no reflection is
+ * used, and unlike comparing encoded resources, no serialization is performed.
+ * <p>
+ * Two elements are considered equal if they are of the same type and all of their populated
+ * children (including extensions, element IDs and contained resources) are equal, in the same order.
+ * Empty elements are treated as absent, consistent with the way that the parsers encode elements.
+ * Elements which are equal according to {@link #equalsDeep(IBase, IBase)} always have the same
+ * {@link #hashDeep(IBase)}.
+ * </p>
+ * <p>
+ * Paths may be supplied which should be ignored. These are dot-separated element names relative to
+ * the element being compared, e.g. <code>id</code> or <code>meta.lastUpdated</code>. Note that the
+ * resource metadata map used by the DSTU2 structures is not compared.
+ * </p>
+ * <p>
+ * Instances are immutable and thread safe.
+ * </p>
+ *
+ * @since 7.0.0
+ */
+public class StructuralEquality {
+
+	private static final String ID = "id";
+
+	private final FhirContext myContext;
+	private final Set<String> myIgnoredPaths;
+	private final Set<String> myIgnoredPathPrefixes;
+
+	/**
+	 * Constructor
+	 *
+	 * @param theContext The FHIR context for the elements being compared
+	 */
+	public StructuralEquality(FhirContext theContext) {
+		this(theContext, Collections.emptySet());
+	}
+
+	/**
+	 * Constructor
+	 *
+	 * @param theContext      The FHIR context for the elements being compared
+	 * @param theIgnoredPaths Dot-separated paths, relative to the elements being compared, which should not be
+	 *                        compared (e.g. <code>meta.lastUpdated</code>)
+	 */
+	public StructuralEquality(FhirContext theContext, Collection<String> theIgnoredPaths) {
+		Validate.notNull(theContext, "theContext must not be null");
+		Validate.notNull(theIgnoredPaths, "theIgnoredPaths must not be null");
+		myContext = theContext;
+
+		Set<String> ignoredPaths = new HashSet<>();
+		Set<String> ignoredPathPrefixes = new HashSet<>();
+		for (String next : theIgnoredPaths) {
+			Validate.notBlank(next, "Ignored paths must not be blank");
+			ignoredPaths.add(next);
+			for (int idx = next.indexOf('.'); idx != -1; idx = next.indexOf('.', idx + 1)) {
+				ignoredPathPrefixes.add(next.substring(0, idx));
+			}
+		}
+		myIgnoredPaths = Collections.unmodifiableSet(ignoredPaths);
+		myIgnoredPathPrefixes = Collections.unmodifiableSet(ignoredPathPrefixes);
+	}
+
+	/**
+	 * Returns <code>true</code> if the two elements have the same type and contents. Either element
+	 * may be <code>null</code>.
+	 */
+	public boolean equalsDeep(IBase theLeft, IBase theRight) {
+		return elementsEqual(theLeft, theRight, getRootPath());
+	}
+
+	/**
+	 * Returns a hash code computed from the type and contents of the given element, which is
+	 * consistent with {@link #equalsDeep(IBase, IBase)}. Returns <code>0</code> for <code>null</code>.
+	 */
+	public int hashDeep(IBase theElement) {
+		if (theElement == null) {
+			return 0;
+		}
+		return elementHash(theElement, getRootPath());
+	}
+
+	/**
+	 * Paths are only tracked while they could still lead to an ignored path, so that
+	 * no strings are built at all when nothing is ignored
+	 */
+	private String getRootPath() {
+		return myIgnoredPaths.isEmpty() ? null : "";
+	}
+
+	/**
+	 * Returns the path for a child of the element at the given path, or <code>null</code> if it can
+	 * not lead to an ignored path
+	 */
+	private String childPath(String thePath, String theChildName) {
+		if (thePath == null) {
+			return null;
+		}
+		String retVal = thePath.isEmpty() ? theChildName : thePath + "." + theChildName;
+		return myIgnoredPathPrefixes.contains(retVal) ? retVal : null;
+	}
+
+	private boolean isIgnored(String thePath, String theChildName) {
+		if (thePath == null) {
+			return false;
+		}
+		return myIgnoredPaths.contains(thePath.isEmpty() ? theChildName : thePath + "." + theChildName);
+	}
+
+	private boolean elementsEqual(IBase theLeft, IBase theRight, String thePath) {
+		if (theLeft == theRight) {
+			return true;
+		}
+		if (theLeft == null || theRight == null) {
+			return false;
+		}
+		if (theLeft.getClass() != theRight.getClass()) {
+			return false;
+		}
+
+		if (theLeft instanceof IBaseExtension) {
+			String leftUrl = ((IBaseExtension<?, ?>) theLeft).getUrl();
+			String rightUrl = ((IBaseExtension<?, ?>) theRight).getUrl();
+			if (!Objects.equals(leftUrl, rightUrl)) {
+				return false;
+			}
+		}
+		if (theLeft instanceof ExtensionDt) {
+			ExtensionDt left = (ExtensionDt) theLeft;
+			ExtensionDt right = (ExtensionDt) theRight;
+			return left.isModifier() == right.isModifier()
+					&& elementsEqual(left.getValue(), right.getValue(), null)
+					&& listsEqual(left.getExtension(), right.getExtension(), null);
+		}
+		if (theLeft instanceof ISupportsUndeclaredExtensions) {
+			ISupportsUndeclaredExtensions left = (ISupportsUndeclaredExtensions) theLeft;
+			ISupportsUndeclaredExtensions right = (ISupportsUndeclaredExtensions) theRight;
+			if (!listsEqual(left.getUndeclaredExtensions(), right.getUndeclaredExtensions(), null)) {
+				return false;
+			}
+			if (!listsEqual(left.getUndeclaredModifierExtensions(), right.getUndeclaredModifierExtensions(), null)) {
+				return false;
+			}
+		}
+
+		if (theLeft instanceof IBaseResource) {
+			if (!isIgnored(thePath, ID) && !Objects.equals(getIdValue(theLeft), getIdValue(theRight))) {
+				return false;
+			}
+		} else if (theLeft instanceof IBaseElement) {
+			if (!Objects.equals(((IBaseElement) theLeft).getId(), ((IBaseElement) theRight).getId())) {
+				return false;
+			}
+		}
+
+		if (theLeft instanceof IPrimitiveType) {
+			String leftValue = ((IPrimitiveType<?>) theLeft).getValueAsString();
+			String rightValue = ((IPrimitiveType<?>) theRight).getValueAsString();
+			if (!Objects.equals(leftValue, rightValue)) {
+				return false;
+			}
+			// Extensions on primitives aren't model children in the HL7.org structures
+			if (theLeft instanceof IBaseHasExtensions) {
+				if (!listsEqual(
+						((IBaseHasExtensions) theLeft).getExtension(),
+						((IBaseHasExtensions) theRight).getExtension(),
+						null)) {
+					return false;
+				}
+			}
+			if (theLeft instanceof IBaseHasModifierExtensions) {
+				return listsEqual(
+						((IBaseHasModifierExtensions) theLeft).getModifierExtension(),
+						((IBaseHasModifierExtensions) theRight).getModifierExtension(),
+						null);
+			}
+			return true;
+		}
+
+		if (theLeft instanceof BaseContainedDt) {
+			return listsEqual(
+					((BaseContainedDt) theLeft).getContainedResources(),
+					((BaseContainedDt) theRight).getContainedResources(),
+					null);
+		}
+
+		BaseRuntimeElementDefinition<?> definition = myContext.getElementDefinition(theLeft.getClass());
+		if (!(definition instanceof BaseRuntimeElementCompositeDefinition)) {
+			return theLeft.equals(theRight);
+		}
+
+		for (BaseRuntimeChildDefinition nextChild :
+				((BaseRuntimeElementCompositeDefinition<?>) definition).getChildrenAndExtension()) {
+			String childName = nextChild.getElementName();
+			if (isIgnored(thePath, childName)) {
+				continue;
+			}
+			List<? extends IBase> leftValues = nextChild.getAccessor().getValues(theLeft);
+			List<? extends IBase> rightValues = nextChild.getAccessor().getValues(theRight);
+			if (!listsEqual(leftValues, rightValues, childPath(thePath, childName))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private boolean listsEqual(List<? extends IBase> theLeft, List<? extends IBase> theRight, String thePath) {
+		int leftSize = theLeft != null ? theLeft.size() : 0;
+		int rightSize = theRight != null ? theRight.size() : 0;
+		int leftIdx = nextPopulatedIndex(theLeft, 0);
+		int rightIdx = nextPopulatedIndex(theRight, 0);
+		while (leftIdx < leftSize && rightIdx < rightSize) {
+			if (!elementsEqual(theLeft.get(leftIdx), theRight.get(rightIdx), thePath)) {
+				return false;
+			}
+			leftIdx = nextPopulatedIndex(theLeft, leftIdx + 1);
+			rightIdx = nextPopulatedIndex(theRight, rightIdx + 1);
+		}
+		return leftIdx >= leftSize && rightIdx >= rightSize;
+	}
+
+	private static int nextPopulatedIndex(List<? extends IBase> theValues, int theStartIndex) {
+		if (theValues == null) {
+			return 0;
+		}
+		int retVal = theStartIndex;
+		while (retVal < theValues.size() && isEmpty(theValues.get(retVal))) {
+			retVal++;
+		}
+		return retVal;
+	}
+
+	private static boolean isEmpty(IBase theValue) {
+		return theValue == null || theValue.isEmpty();
+	}
+
+	private int elementHash(IBase theElement, String thePath) {
+		int retVal = theElement.getClass().getName().hashCode();
+
+		if (theElement instanceof IBaseExtension) {
+			retVal = 31 * retVal + Objects.hashCode(((IBaseExtension<?, ?>) theElement).getUrl());
+		}
+		if (theElement instanceof ExtensionDt) {
+			ExtensionDt extension = (ExtensionDt) theElement;
+			retVal = 31 * retVal + Boolean.hashCode(extension.isModifier());
+			retVal = 31 * retVal + (extension.getValue() != null ? elementHash(extension.getValue(), null) : 0);
+			return 31 * retVal + listHash(extension.getExtension(), null);
+		}
+		if (theElement instanceof ISupportsUndeclaredExtensions) {
+			ISupportsUndeclaredExtensions element = (ISupportsUndeclaredExtensions) theElement;
+			retVal = 31 * retVal + listHash(element.getUndeclaredExtensions(), null);
+			retVal = 31 * retVal + listHash(element.getUndeclaredModifierExtensions(), null);
+		}
+
+		if (theElement instanceof IBaseResource) {
+			if (!isIgnored(thePath, ID)) {
+				retVal = 31 * retVal + Objects.hashCode(getIdValue(theElement));
+			}
+		} else if (theElement instanceof IBaseElement) {
+			retVal = 31 * retVal + Objects.hashCode(((IBaseElement) theElement).getId());
+		}
+
+		if (theElement instanceof IPrimitiveType) {
+			retVal = 31 * retVal + Objects.hashCode(((IPrimitiveType<?>) theElement).getValueAsString());
+			if (theElement instanceof IBaseHasExtensions) {
+				retVal = 31 * retVal + listHash(((IBaseHasExtensions) theElement).getExtension(), null);
+			}
+			if (theElement instanceof IBaseHasModifierExtensions) {
+				retVal = 31 * retVal + listHash(((IBaseHasModifierExtensions) theElement).getModifierExtension(), null);
+			}
+			return retVal;
+		}
+
+		if (theElement instanceof BaseContainedDt) {
+			return 31 * retVal + listHash(((BaseContainedDt) theElement).getContainedResources(), null);
+		}
+
+		BaseRuntimeElementDefinition<?> definition = myContext.getElementDefinition(theElement.getClass());
+		if (!(definition instanceof BaseRuntimeElementCompositeDefinition)) {
+			return 31 * retVal + theElement.hashCode();
+		}
+
+		for (BaseRuntimeChildDefinition nextChild :
+				((BaseRuntimeElementCompositeDefinition<?>) definition).getChildrenAndExtension()) {
+			String childName = nextChild.getElementName();
+			if (isIgnored(thePath, childName)) {
+				continue;
+			}
+			int childHash = listHash(nextChild.getAccessor().getValues(theElement), childPath(thePath, childName));
+			if (childHash != 0) {
+				retVal = 31 * retVal + childName.hashCode();
+				retVal = 31 * retVal + childHash;
+			}
+		}
+		return retVal;
+	}
+
+	/**
+	 * Returns <code>0</code> if the list has no populated values
+	 */
+	private int listHash(List<? extends IBase> theValues, String thePath) {
+		if (theValues == null) {
+			return 0;
+		}
+		int retVal = 0;
+		for (IBase next : theValues) {
+			if (!isEmpty(next)) {
+				retVal = 31 * retVal + elementHash(next, thePath);
+			}
+		}
+		return retVal;
+	}
+
+	private static String getIdValue(IBase theResource) {
+		IIdType id = ((IBaseResource) theResource).getIdElement();
+		return id != null ? id.getValue() : null;
+	}
+}
@@ -26,6 +26,8 @@ import ca.uhn.fhir.context.FhirContext;
 import ca.uhn.fhir.context.RuntimeChildChoiceDefinition;
 import ca.uhn.fhir.context.RuntimeResourceDefinition;
 import ca.uhn.fhir.i18n.Msg;
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.ListMultimap;
 import org.apache.commons.lang3.Validate;
 import org.apache.commons.lang3.tuple.Triple;
 import org.hl7.fhir.instance.model.api.IBase;
@@ -248,11 +250,6 @@ public final class TerserUtil {
 		return theItem1.equals(theItem2);
 	}
 
-	private static boolean contains(IBase theItem, List<IBase> theItems) {
-		final Method method = getMethod(theItem, EQUALS_DEEP);
-		return theItems.stream().anyMatch(i -> equals(i, theItem, method));
-	}
-
 	/**
 	 * Merges all fields on the provided instance. <code>theTo</code> will contain a union of all values from <code>theFrom</code>
 	 * instance and <code>theTo</code> instance.
@@ -653,8 +650,22 @@ public final class TerserUtil {
 			BaseRuntimeChildDefinition childDefinition,
 			List<IBase> theFromFieldValues,
 			List<IBase> theToFieldValues) {
+		if (theFromFieldValues.isEmpty()) {
+			return;
+		}
+
+		// Index the existing values by structural hash so that each incoming value is
+		// only compared against the existing values which could be equal to it
+		StructuralEquality equality = new StructuralEquality(theTerser.getContext());
+		ListMultimap<Integer, IBase> toFieldValuesByHash = ArrayListMultimap.create();
+		for (IBase next : theToFieldValues) {
+			toFieldValuesByHash.put(equality.hashDeep(next), next);
+		}
+
 		for (IBase theFromFieldValue : theFromFieldValues) {
-			if (contains(theFromFieldValue, theToFieldValues)) {
+			int fromFieldValueHash = equality.hashDeep(theFromFieldValue);
+			if (toFieldValuesByHash.get(fromFieldValueHash).stream()
+					.anyMatch(t -> equality.equalsDeep(t, theFromFieldValue))) {
 				continue;
 			}
 
@@ -679,6 +690,7 @@ public final class TerserUtil {
 				childDefinition.getMutator().setValue(theTo, newFieldValue);
 				theToFieldValues = childDefinition.getAccessor().getValues(theTo);
 			}
+			toFieldValuesByHash.put(fromFieldValueHash, newFieldValue);
 		}
 	}
 
@@ -23,6 +23,8 @@ import org.apache.jena.rdf.model.Model;
 import org.apache.jena.rdf.model.ModelFactory;
 import org.apache.jena.riot.Lang;
 import org.apache.jena.riot.RDFDataMgr;
+import org.apache.jena.riot.system.StreamRDF;
+import org.apache.jena.riot.system.StreamRDFWriter;
 
 import java.io.*;
 
@@ -46,4 +48,19 @@ public class RDFUtil {
 		// non-deprecated overload
 		RDFDataMgr.write(writer, rdfModel, lang);
 	}
+
+	/**
+	 * Parses RDF, passing each triple to the given sink as it is read rather than building a model
+	 */
+	public static void parseRDF(final Reader reader, final Lang lang, final StreamRDF sink) {
+		RDFDataMgr.parse(sink, reader, null, lang);
+	}
+
+	/**
+	 * Returns a sink which writes each triple it receives to the output stream as it is received,
+	 * using the streaming serialization for the given language (e.g. Turtle blocks for Turtle)
+	 */
+	public static StreamRDF createStreamingWriter(OutputStream outputStream, Lang lang) {
+		return StreamRDFWriter.getWriterStream(outputStream, lang);
+	}
 }
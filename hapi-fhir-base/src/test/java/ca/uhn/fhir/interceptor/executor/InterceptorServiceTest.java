@@ -20,6 +20,8 @@ import java.util.List;
 import static org.hamcrest.CoreMatchers.containsString;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.hasSize;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNull;
@@ -284,6 +286,34 @@ public class InterceptorServiceTest {
 		assertSame("B", interceptor1.myLastString1);
 	}
 
+	@Test
+	public void testRegisterAndUnregisterDuringInvocation() {
+		InterceptorService svc = new InterceptorService();
+
+		MyTestAnonymousInterceptorTwo lateInterceptor = new MyTestAnonymousInterceptorTwo();
+		svc.registerAnonymousInterceptor(Pointcut.TEST_RB, (thePointcut, theArgs) -> {
+			myInvocations.add("Registering");
+			svc.registerAnonymousInterceptor(Pointcut.TEST_RB, lateInterceptor);
+		});
+
+		// No hooks registered for this pointcut
+		assertNull(svc.callHooksAndReturnObject(Pointcut.TEST_RO, new HookParams("A", "B")));
+
+		// The interceptor registered during the call is only invoked by subsequent calls
+		svc.callHooks(Pointcut.TEST_RB, new HookParams("A", "B"));
+		assertThat(myInvocations, contains("Registering"));
+		assertThat(svc.getInterceptorsWithInvokersForPointcut(Pointcut.TEST_RB), hasSize(2));
+
+		myInvocations.clear();
+		svc.unregisterInterceptor(lateInterceptor);
+		assertThat(svc.getInterceptorsWithInvokersForPointcut(Pointcut.TEST_RB), hasSize(1));
+		svc.unregisterAllAnonymousInterceptors();
+		assertFalse(svc.hasHooks(Pointcut.TEST_RB));
+		assertThat(svc.getInterceptorsWithInvokersForPointcut(Pointcut.TEST_RB), empty());
+		svc.callHooks(Pointcut.TEST_RB, new HookParams("A", "B"));
+		assertThat(myInvocations, empty());
+	}
+
 	@Test
 	public void testInvokeUsingSupplierArg() {
 		InterceptorService svc = new InterceptorService();
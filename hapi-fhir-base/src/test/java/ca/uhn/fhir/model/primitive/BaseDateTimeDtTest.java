@@ -0,0 +1,114 @@
+package ca.uhn.fhir.model.primitive;
+
+import ca.uhn.fhir.parser.DataFormatException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.Date;
+import java.util.TimeZone;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class BaseDateTimeDtTest {
+
+	private TimeZone myDefaultTimeZone;
+
+	@BeforeEach
+	public void before() {
+		myDefaultTimeZone = TimeZone.getDefault();
+		TimeZone.setDefault(TimeZone.getTimeZone("America/Toronto"));
+	}
+
+	@AfterEach
+	public void after() {
+		TimeZone.setDefault(myDefaultTimeZone);
+	}
+
+	/**
+	 * The fast path must produce exactly the same result as the calendar based parser
+	 */
+	@ParameterizedTest
+	@ValueSource(strings = {
+		"2020",
+		"2020-02",
+		"2020-02-29",
+		"2020-07-01",
+		"2020-07-01T10:11:12",
+		"2020-07-01T10:11:12Z",
+		"2020-07-01T10:11:12-05:00",
+		"2020-07-01T10:11:12+14:00",
+		"2020-07-01T10:11:12.1Z",
+		"2020-07-01T10:11:12.12Z",
+		"2020-07-01T10:11:12.123+05:30",
+		"2020-07-01T10:11:12.123456789Z",
+		"2020-07-01T10:11:12.123456",
+		"1960-09-07T00:44:25.012Z",
+		// Falls in the spring forward gap in the default time zone
+		"2020-03-08T02:30:00",
+		// Ambiguous in the default time zone
+		"2020-11-01T01:30:00",
+		// Before the Gregorian cutover
+		"1000-01-01",
+		" 2020-07-01 "
+	})
+	public void testFastPathMatchesCalendar(String theValue) {
+		DateTimeDt fast = new DateTimeDt(theValue);
+		CalendarOnlyDateTimeDt calendar = new CalendarOnlyDateTimeDt(theValue);
+
+		assertEquals(calendar.getValue(), fast.getValue());
+		assertEquals(calendar.getPrecision(), fast.getPrecision());
+		assertEquals(calendar.getTimeZone(), fast.getTimeZone());
+		assertEquals(calendar.isTimeZoneZulu(), fast.isTimeZoneZulu());
+		assertEquals(calendar.getValueAsString(), fast.getValueAsString());
+
+		fast.setValue(fast.getValue());
+		calendar.setValue(calendar.getValue());
+		assertEquals(calendar.getValueAsString(), fast.getValueAsString());
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = {
+		"202",
+		"2020-13",
+		"2020-02-30",
+		"2021-02-29",
+		"2020-07-01T10",
+		"2020-07-01T24:00:00",
+		"2020-07-01T10:60:00",
+		"2020-07-01T10:11:60",
+		"2020-07-01T10:11:12.",
+		"2020-07-01T10:11:12+5:00",
+		"2020-07-01T10:11:12+05:60",
+		"2020-07-01T10:11Z"
+	})
+	public void testInvalidValuesRejected(String theValue) {
+		assertThrows(DataFormatException.class, () -> new DateTimeDt(theValue));
+	}
+
+	@Test
+	public void testReparseClearsTimeZone() {
+		DateTimeDt dt = new DateTimeDt("2020-07-01T10:11:12-05:00");
+		assertEquals(TimeZone.getTimeZone("GMT-05:00"), dt.getTimeZone());
+
+		dt.setValueAsString("2020-07-01T10:11:12");
+		assertEquals(null, dt.getTimeZone());
+		assertEquals("2020-07-01T10:11:12", dt.getValueAsString());
+		assertEquals(new Date(1593612672000L), dt.getValue());
+	}
+
+	private static class CalendarOnlyDateTimeDt extends DateTimeDt {
+
+		CalendarOnlyDateTimeDt(String theValue) {
+			super(theValue);
+		}
+
+		@Override
+		protected Date parse(String theValue) throws DataFormatException {
+			return parseWithCalendar(theValue);
+		}
+	}
+}
@@ -0,0 +1,111 @@
+package ca.uhn.fhir.util;
+
+import ca.uhn.fhir.model.primitive.IdDt;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ResourceIdentityTest {
+
+	@ParameterizedTest
+	@ValueSource(strings = {
+		"Patient/123",
+		"Patient/123/_history/2",
+		"http://example.com/fhir/Patient/123",
+		"http://example.com/fhir/Patient/123/_history/2",
+		"123",
+		"#contained",
+		"urn:uuid:0b6b4a5c-9b4d-4f0a-8d2b-2c5c9a6e1b7f",
+		"http://example.com/Patient"
+	})
+	public void testParseMatchesIdDt(String theValue) {
+		IdDt expected = new IdDt(theValue);
+		ResourceIdentity parsed = ResourceIdentity.parse(theValue);
+
+		assertEquals(ResourceIdentity.fromId(expected), parsed);
+		assertEquals(expected.getBaseUrl(), parsed.getBaseUrl());
+		assertEquals(expected.getResourceType(), parsed.getResourceType());
+		assertEquals(expected.getIdPart(), parsed.getIdPart());
+		assertEquals(expected.getVersionIdPart(), parsed.getVersionIdPart());
+		assertEquals(expected.getValue(), parsed.getValue());
+	}
+
+	@Test
+	public void testToUnqualifiedVersionless() {
+		ResourceIdentity id = ResourceIdentity.parse("http://example.com/fhir/Patient/123/_history/2");
+
+		ResourceIdentity unqualifiedVersionless = id.toUnqualifiedVersionless();
+		assertEquals("Patient/123", unqualifiedVersionless.getValue());
+		assertEquals(ResourceIdentity.of("Patient", "123"), unqualifiedVersionless);
+		assertEquals(ResourceIdentity.of("Patient", "123").hashCode(), unqualifiedVersionless.hashCode());
+		assertSame(unqualifiedVersionless, unqualifiedVersionless.toUnqualifiedVersionless());
+
+		assertEquals("Patient/123/_history/2", id.toUnqualified().getValue());
+		assertEquals("http://example.com/fhir/Patient/123", id.toVersionless().getValue());
+		assertEquals("Patient/123/_history/3", unqualifiedVersionless.withVersion("3").getValue());
+	}
+
+	@Test
+	public void testEquality() {
+		assertEquals(ResourceIdentity.of("Patient", "123"), ResourceIdentity.fromId(new IdDt("Patient/123")));
+		assertNotEquals(ResourceIdentity.of("Patient", "123"), ResourceIdentity.of("Observation", "123"));
+		assertNotEquals(ResourceIdentity.of("Patient", "123"), ResourceIdentity.parse("Patient/123/_history/1"));
+		assertNotEquals(ResourceIdentity.of("Patient", "123"), ResourceIdentity.parse("123"));
+	}
+
+	@Test
+	public void testApplyTo() {
+		IdDt id = ResourceIdentity.parse("http://example.com/fhir/Patient/123/_history/2").applyTo(new IdDt());
+		assertEquals("http://example.com/fhir/Patient/123/_history/2", id.getValue());
+
+		id = ResourceIdentity.parse("urn:uuid:1234").applyTo(new IdDt());
+		assertEquals("urn:uuid:1234", id.getValue());
+	}
+
+	@Test
+	public void testIdPartAsLong() {
+		assertTrue(ResourceIdentity.of("Patient", "123").isIdPartValidLong());
+		assertEquals(123L, ResourceIdentity.of("Patient", "123").getIdPartAsLong());
+		assertFalse(ResourceIdentity.of("Patient", "abc").isIdPartValidLong());
+		assertFalse(ResourceIdentity.of("Patient", null).isIdPartValidLong());
+		assertNull(ResourceIdentity.of("Patient", null).getIdPartAsLong());
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = {
+		"Patient/123",
+		"Patient/123/_history/2",
+		"http://example.com/fhir/Patient/123/_history/2",
+		"Observation/123",
+		"Patient/456",
+		"123",
+		"#contained",
+		"urn:uuid:0b6b4a5c-9b4d-4f0a-8d2b-2c5c9a6e1b7f"
+	})
+	public void testEqualsUnqualifiedVersionlessMatchesCopy(String theValue) {
+		IdDt id = new IdDt(theValue);
+		for (String next : new String[]{"Patient/123", "http://foo/Patient/123/_history/1", "#contained", "urn:uuid:0b6b4a5c-9b4d-4f0a-8d2b-2c5c9a6e1b7f"}) {
+			ResourceIdentity identity = ResourceIdentity.parse(next);
+			boolean expected = identity.toUnqualifiedVersionless().equals(ResourceIdentity.fromId(id).toUnqualifiedVersionless());
+			assertEquals(expected, identity.equalsUnqualifiedVersionless(id), next + " vs " + theValue);
+			assertEquals(expected, identity.equalsUnqualifiedVersionless(ResourceIdentity.fromId(id)), next + " vs " + theValue);
+		}
+	}
+
+	@Test
+	public void testEqualsUnqualifiedVersionlessParts() {
+		ResourceIdentity id = ResourceIdentity.parse("http://example.com/fhir/Patient/123/_history/2");
+		assertTrue(id.equalsUnqualifiedVersionless("Patient", "123"));
+		assertFalse(id.equalsUnqualifiedVersionless("Observation", "123"));
+		assertFalse(id.equalsUnqualifiedVersionless("Patient", "456"));
+		assertFalse(id.equalsUnqualifiedVersionless((IdDt) null));
+	}
+
+}
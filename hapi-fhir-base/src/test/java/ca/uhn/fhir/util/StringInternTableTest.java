@@ -0,0 +1,54 @@
+package ca.uhn.fhir.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class StringInternTableTest {
+
+	@Test
+	public void testIntern() {
+		StringInternTable table = new StringInternTable(16);
+		String first = new String("http://loinc.org");
+		String second = new String("http://loinc.org");
+		assertNotSame(first, second);
+
+		assertSame(first, table.intern(first));
+		assertSame(first, table.intern(second));
+		assertNull(table.intern(null));
+	}
+
+	@Test
+	public void testSizeRoundedUpToPowerOfTwo() {
+		assertEquals(16, new StringInternTable(16).getSize());
+		assertEquals(32, new StringInternTable(17).getSize());
+		assertEquals(1, new StringInternTable(1).getSize());
+		assertThrows(IllegalArgumentException.class, () -> new StringInternTable(0));
+	}
+
+	@Test
+	public void testLongValuesNotStored() {
+		StringInternTable table = new StringInternTable(16, 5);
+		String first = new String("123456");
+		String second = new String("123456");
+
+		assertSame(first, table.intern(first));
+		assertSame(second, table.intern(second));
+	}
+
+	@Test
+	public void testCollidingValueReplacesExisting() {
+		StringInternTable table = new StringInternTable(1);
+		String a = new String("a");
+		String b = new String("b");
+
+		assertSame(a, table.intern(a));
+		assertSame(b, table.intern(b));
+		assertSame(b, table.intern(new String("b")));
+		assertNotSame(a, table.intern(new String("a")));
+	}
+}
@@ -0,0 +1,432 @@
+/*-
+ * #%L
+ * HAPI FHIR - Benchmarks
+ * %%
+ * Copyright (C) 2014 - 2023 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package ca.uhn.fhir.benchmark;
+
+import ca.uhn.fhir.context.FhirContext;
+import ca.uhn.fhir.i18n.Msg;
+import ca.uhn.fhir.rest.api.EncodingEnum;
+import ca.uhn.fhir.rest.server.exceptions.InternalErrorException;
+import org.apache.commons.io.IOUtils;
+import org.hl7.fhir.r4.model.Address;
+import org.hl7.fhir.r4.model.Bundle;
+import org.hl7.fhir.r4.model.CodeType;
+import org.hl7.fhir.r4.model.CodeableConcept;
+import org.hl7.fhir.r4.model.Coding;
+import org.hl7.fhir.r4.model.Condition;
+import org.hl7.fhir.r4.model.ContactPoint;
+import org.hl7.fhir.r4.model.DateTimeType;
+import org.hl7.fhir.r4.model.DateType;
+import org.hl7.fhir.r4.model.Dosage;
+import org.hl7.fhir.r4.model.Encounter;
+import org.hl7.fhir.r4.model.Enumerations;
+import org.hl7.fhir.r4.model.Extension;
+import org.hl7.fhir.r4.model.HumanName;
+import org.hl7.fhir.r4.model.Identifier;
+import org.hl7.fhir.r4.model.MedicationRequest;
+import org.hl7.fhir.r4.model.Narrative;
+import org.hl7.fhir.r4.model.Observation;
+import org.hl7.fhir.r4.model.Patient;
+import org.hl7.fhir.r4.model.Period;
+import org.hl7.fhir.r4.model.Quantity;
+import org.hl7.fhir.r4.model.Reference;
+import org.hl7.fhir.r4.model.Resource;
+import org.hl7.fhir.r4.model.SimpleQuantity;
+import org.hl7.fhir.r4.model.StringType;
+import org.hl7.fhir.r4.model.Timing;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.GregorianCalendar;
+import java.util.Random;
+import java.util.TimeZone;
+
+import static org.apache.commons.lang3.StringUtils.isNotBlank;
+
+/**
+ * Test data shared by the benchmarks in this module.
+ * <p>
+ * By default the benchmarks use a generated R4 <code>searchset</code> Bundle shaped like the output of
+ * <code>Patient/$everything</code>: each patient is followed by encounters, vital sign and laboratory
+ * observations, conditions and medication requests, populated with the coding systems, identifiers,
+ * extensions and narratives typically found in real EHR data. Generation is seeded so that every run uses
+ * identical content.
+ * </p>
+ * <p>
+ * To benchmark against real data instead, set the system property {@value #BUNDLE_FILE_PROPERTY} to the
+ * path of a JSON or XML encoded R4 Bundle, e.g.
+ * <code>java -Dhapi.benchmark.bundle=/path/to/bundle.json -jar benchmarks.jar</code>. JMH passes system
+ * properties through to forked benchmark JVMs.
+ * </p>
+ */
+public class BenchmarkFixtures {
+
+	/**
+	 * System property which may contain the path to a Bundle to use instead of the generated one
+	 */
+	public static final String BUNDLE_FILE_PROPERTY = "hapi.benchmark.bundle";
+
+	private static final FhirContext ourCtx = FhirContext.forR4Cached();
+	private static final String LOINC = "http://loinc.org";
+	private static final String SNOMED = "http://snomed.info/sct";
+	private static final String RXNORM = "http://www.nlm.nih.gov/research/umls/rxnorm";
+	private static final String UCUM = "http://unitsofmeasure.org";
+	private static final String OBSERVATION_CATEGORY = "http://terminology.hl7.org/CodeSystem/observation-category";
+	private static final String US_CORE = "http://hl7.org/fhir/us/core/StructureDefinition/";
+
+	private static final String[][] VITALS = {
+		{"8867-4", "Heart rate", "/min", "60", "40"},
+		{"9279-1", "Respiratory rate", "/min", "12", "8"},
+		{"8310-5", "Body temperature", "Cel", "36", "2"},
+		{"29463-7", "Body weight", "kg", "50", "60"},
+		{"8302-2", "Body height", "cm", "150", "40"},
+		{"59408-5", "Oxygen saturation in Arterial blood by Pulse oximetry", "%", "90", "10"}
+	};
+	private static final String[][] LABS = {
+		{"2339-0", "Glucose [Mass/volume] in Blood", "mg/dL", "70", "80"},
+		{"2093-3", "Cholesterol [Mass/volume] in Serum or Plasma", "mg/dL", "150", "100"},
+		{"718-7", "Hemoglobin [Mass/volume] in Blood", "g/dL", "11", "6"},
+		{"2160-0", "Creatinine [Mass/volume] in Serum or Plasma", "mg/dL", "0", "2"}
+	};
+	private static final String[][] CONDITIONS = {
+		{"44054006", "Diabetes mellitus type 2"},
+		{"38341003", "Hypertensive disorder, systemic arterial"},
+		{"195967001", "Asthma"},
+		{"55822004", "Hyperlipidemia"},
+		{"40055000", "Chronic sinusitis"}
+	};
+	private static final String[][] MEDICATIONS = {
+		{"860975", "24 HR Metformin hydrochloride 500 MG Extended Release Oral Tablet"},
+		{"314076", "Lisinopril 10 MG Oral Tablet"},
+		{"617312", "Atorvastatin 10 MG Oral Tablet"},
+		{"745679", "200 ACTUAT Albuterol 0.09 MG/ACTUAT Metered Dose Inhaler"}
+	};
+	private static final String[] FAMILY_NAMES = {"Smith", "Johnson", "Williams", "Brown", "Jones", "Garcia"};
+	private static final String[] GIVEN_NAMES = {"James", "Mary", "Robert", "Patricia", "John", "Jennifer"};
+
+	private BenchmarkFixtures() {
+		// nothing
+	}
+
+	/**
+	 * Returns the Bundle named by the {@value #BUNDLE_FILE_PROPERTY} system property if one is set,
+	 * or a generated Bundle containing the given number of patients and their associated resources.
+	 */
+	public static Bundle loadOrCreateBundle(int thePatientCount) {
+		String file = System.getProperty(BUNDLE_FILE_PROPERTY);
+		if (isNotBlank(file)) {
+			return loadBundle(Path.of(file));
+		}
+		return createEverythingBundle(thePatientCount);
+	}
+
+	/**
+	 * Returns the Bundle named by the {@value #BUNDLE_FILE_PROPERTY} system property if one is set,
+	 * or a generated Bundle whose JSON encoding is approximately the given number of megabytes.
+	 */
+	public static Bundle loadOrCreateBundleOfSize(int theMegabytes) {
+		return loadOrCreateBundle(getPatientCountForSize(theMegabytes));
+	}
+
+	/**
+	 * Returns the number of patients a generated Bundle needs for its JSON encoding to be
+	 * approximately the given number of megabytes
+	 */
+	public static int getPatientCountForSize(int theMegabytes) {
+		int samplePatientCount = 10;
+		long sampleSize = ourCtx.newJsonParser()
+				.encodeResourceToString(createEverythingBundle(samplePatientCount))
+				.length();
+		long targetSize = theMegabytes * 1024L * 1024L;
+		return (int) Math.max(1, targetSize * samplePatientCount / sampleSize);
+	}
+
+	/**
+	 * Loads a JSON or XML encoded Bundle from the given file
+	 */
+	public static Bundle loadBundle(Path thePath) {
+		try (Reader reader = Files.newBufferedReader(thePath, StandardCharsets.UTF_8)) {
+			String contents = IOUtils.toString(reader);
+			EncodingEnum encoding = EncodingEnum.detectEncoding(contents);
+			return encoding.newParser(ourCtx).parseResource(Bundle.class, contents);
+		} catch (IOException e) {
+			throw new InternalErrorException(Msg.code(2457) + "Failed to load benchmark bundle: " + thePath, e);
+		}
+	}
+
+	/**
+	 * Creates a <code>searchset</code> Bundle containing the given number of patients, each followed
+	 * by their encounters, observations, conditions and medication requests
+	 */
+	public static Bundle createEverythingBundle(int thePatientCount) {
+		Random random = new Random(thePatientCount);
+		Bundle retVal = new Bundle();
+		retVal.setId("benchmark-" + thePatientCount);
+		retVal.getMeta().setLastUpdated(date(2023, 6, 1, random));
+		retVal.setType(Bundle.BundleType.SEARCHSET);
+		retVal.addLink().setRelation("self").setUrl("http://example.com/fhir/Patient/$everything");
+
+		int nextId = 1;
+		for (int patientIdx = 0; patientIdx < thePatientCount; patientIdx++) {
+			Patient patient = createPatient(nextId++, random);
+			addEntry(retVal, patient);
+			Reference subject = new Reference(patient.getIdElement().toUnqualifiedVersionless());
+
+			for (int encounterIdx = 0; encounterIdx < 2; encounterIdx++) {
+				Encounter encounter = createEncounter(nextId++, subject, random);
+				addEntry(retVal, encounter);
+				Reference context = new Reference(encounter.getIdElement().toUnqualifiedVersionless());
+
+				for (String[] next : VITALS) {
+					addEntry(retVal, createObservation(nextId++, subject, context, "vital-signs", next, random));
+				}
+				addEntry(retVal, createBloodPressure(nextId++, subject, context, random));
+				for (String[] next : LABS) {
+					addEntry(retVal, createObservation(nextId++, subject, context, "laboratory", next, random));
+				}
+			}
+
+			for (int i = 0; i < 3; i++) {
+				String[] code = CONDITIONS[random.nextInt(CONDITIONS.length)];
+				addEntry(retVal, createCondition(nextId++, subject, code, random));
+			}
+			for (int i = 0; i < 2; i++) {
+				String[] code = MEDICATIONS[random.nextInt(MEDICATIONS.length)];
+				addEntry(retVal, createMedicationRequest(nextId++, subject, code, random));
+			}
+		}
+
+		retVal.setTotal(retVal.getEntry().size());
+		return retVal;
+	}
+
+	private static void addEntry(Bundle theBundle, Resource theResource) {
+		theBundle
+				.addEntry()
+				.setFullUrl(
+						"http://example.com/fhir/" + theResource.getIdElement().getValue())
+				.setResource(theResource)
+				.getSearch()
+				.setMode(Bundle.SearchEntryMode.MATCH);
+	}
+
+	private static void populateMeta(
+			Resource theResource, String theType, int theId, String theProfile, Random theRandom) {
+		theResource.setId(theType + "/" + theId + "/_history/" + (1 + theRandom.nextInt(3)));
+		theResource.getMeta().setLastUpdated(date(2023, 1 + theRandom.nextInt(12), 1, theRandom));
+		theResource.getMeta().setSource("#" + Integer.toHexString(theRandom.nextInt()));
+		theResource.getMeta().addProfile(US_CORE + theProfile);
+	}
+
+	private static Patient createPatient(int theId, Random theRandom) {
+		Patient retVal = new Patient();
+		populateMeta(retVal, "Patient", theId, "us-core-patient", theRandom);
+		String family = FAMILY_NAMES[theRandom.nextInt(FAMILY_NAMES.length)];
+		String given = GIVEN_NAMES[theRandom.nextInt(GIVEN_NAMES.length)];
+		retVal.getText()
+				.setStatus(Narrative.NarrativeStatus.GENERATED)
+				.setDivAsString("<div xmlns=\"http://www.w3.org/1999/xhtml\">" + given + " " + family + "</div>");
+
+		Extension race = retVal.addExtension().setUrl(US_CORE + "us-core-race");
+		race.addExtension("ombCategory", new Coding("urn:oid:2.16.840.1.113883.6.238", "2106-3", "White"));
+		race.addExtension("text", new StringType("White"));
+		retVal.addExtension(US_CORE + "us-core-birthsex", new CodeType("F"));
+
+		retVal.addIdentifier()
+				.setUse(Identifier.IdentifierUse.USUAL)
+				.setType(new CodeableConcept(
+						new Coding("http://terminology.hl7.org/CodeSystem/v2-0203", "MR", "Medical Record Number")))
+				.setSystem("http://hospital.example.org/mrn")
+				.setValue(Integer.toString(1000000 + theId));
+		retVal.addIdentifier()
+				.setSystem("http://hl7.org/fhir/sid/us-ssn")
+				.setValue("999-" + (10 + theRandom.nextInt(89)) + "-" + (1000 + theRandom.nextInt(8999)));
+		retVal.setActive(true);
+		retVal.addName()
+				.setUse(HumanName.NameUse.OFFICIAL)
+				.setFamily(family)
+				.addGiven(given)
+				.addGiven(GIVEN_NAMES[theRandom.nextInt(GIVEN_NAMES.length)])
+				.addPrefix("Ms.");
+		retVal.addTelecom()
+				.setSystem(ContactPoint.ContactPointSystem.PHONE)
+				.setValue("555-" + (100 + theRandom.nextInt(899)) + "-" + (1000 + theRandom.nextInt(8999)))
+				.setUse(ContactPoint.ContactPointUse.HOME);
+		retVal.addTelecom()
+				.setSystem(ContactPoint.ContactPointSystem.EMAIL)
+				.setValue(given.toLowerCase() + "." + family.toLowerCase() + "@example.com");
+		retVal.setGender(Enumerations.AdministrativeGender.FEMALE);
+		retVal.setBirthDateElement(
+				new DateType(1930 + theRandom.nextInt(80), theRandom.nextInt(12), 1 + theRandom.nextInt(28)));
+		retVal.addAddress()
+				.setUse(Address.AddressUse.HOME)
+				.addLine((1 + theRandom.nextInt(999)) + " Main Street")
+				.setCity("Springfield")
+				.setState("MA")
+				.setPostalCode("0" + (1000 + theRandom.nextInt(8999)))
+				.setCountry("US");
+		retVal.getCommunicationFirstRep()
+				.setLanguage(new CodeableConcept(new Coding("urn:ietf:bcp:47", "en-US", "English (United States)")));
+		return retVal;
+	}
+
+	private static Encounter createEncounter(int theId, Reference theSubject, Random theRandom) {
+		Encounter retVal = new Encounter();
+		populateMeta(retVal, "Encounter", theId, "us-core-encounter", theRandom);
+		retVal.setStatus(Encounter.EncounterStatus.FINISHED);
+		retVal.setClass_(new Coding("http://terminology.hl7.org/CodeSystem/v3-ActCode", "AMB", "ambulatory"));
+		retVal.addType(new CodeableConcept(new Coding(SNOMED, "185349003", "Encounter for check up"))
+				.setText("Encounter for check up"));
+		retVal.setSubject(theSubject.copy());
+		Date start = date(2020 + theRandom.nextInt(3), 1 + theRandom.nextInt(12), 1 + theRandom.nextInt(28), theRandom);
+		retVal.setPeriod(new Period().setStart(start).setEnd(new Date(start.getTime() + 30 * 60 * 1000)));
+		retVal.addParticipant()
+				.setIndividual(new Reference("Practitioner/" + (1 + theRandom.nextInt(20))).setDisplay("Dr. Who"));
+		retVal.setServiceProvider(new Reference("Organization/1").setDisplay("Springfield General Hospital"));
+		return retVal;
+	}
+
+	private static Observation createObservation(
+			int theId,
+			Reference theSubject,
+			Reference theEncounter,
+			String theCategory,
+			String[] theCode,
+			Random theRandom) {
+		Observation retVal = new Observation();
+		populateMeta(
+				retVal,
+				"Observation",
+				theId,
+				"vital-signs".equals(theCategory) ? "us-core-vital-signs" : "us-core-observation-lab",
+				theRandom);
+		retVal.setStatus(Observation.ObservationStatus.FINAL);
+		retVal.addCategory(new CodeableConcept(new Coding(OBSERVATION_CATEGORY, theCategory, null)));
+		retVal.setCode(new CodeableConcept(new Coding(LOINC, theCode[0], theCode[1])).setText(theCode[1]));
+		retVal.setSubject(theSubject.copy());
+		retVal.setEncounter(theEncounter.copy());
+		retVal.setEffective(
+				new DateTimeType(date(2022, 1 + theRandom.nextInt(12), 1 + theRandom.nextInt(28), theRandom)));
+		retVal.setIssued(date(2022, 12, 31, theRandom));
+
+		double low = Double.parseDouble(theCode[3]);
+		double range = Double.parseDouble(theCode[4]);
+		double value = Math.round((low + theRandom.nextDouble() * range) * 10) / 10.0;
+		retVal.setValue(new Quantity()
+				.setValue(value)
+				.setUnit(theCode[2])
+				.setSystem(UCUM)
+				.setCode(theCode[2]));
+		if ("laboratory".equals(theCategory)) {
+			retVal.addReferenceRange()
+					.setLow((SimpleQuantity) new SimpleQuantity()
+							.setValue(low)
+							.setUnit(theCode[2])
+							.setSystem(UCUM)
+							.setCode(theCode[2]))
+					.setHigh((SimpleQuantity) new SimpleQuantity()
+							.setValue(low + range)
+							.setUnit(theCode[2])
+							.setSystem(UCUM)
+							.setCode(theCode[2]));
+			retVal.addInterpretation(new CodeableConcept(
+					new Coding("http://terminology.hl7.org/CodeSystem/v3-ObservationInterpretation", "N", "Normal")));
+		}
+		return retVal;
+	}
+
+	private static Observation createBloodPressure(
+			int theId, Reference theSubject, Reference theEncounter, Random theRandom) {
+		Observation retVal = createObservation(
+				theId,
+				theSubject,
+				theEncounter,
+				"vital-signs",
+				new String[] {"85354-9", "Blood pressure panel", "mm[Hg]", "0", "0"},
+				theRandom);
+		retVal.setValue(null);
+		retVal.addComponent()
+				.setCode(new CodeableConcept(new Coding(LOINC, "8480-6", "Systolic blood pressure")))
+				.setValue(new Quantity()
+						.setValue(100 + theRandom.nextInt(60))
+						.setUnit("mm[Hg]")
+						.setSystem(UCUM)
+						.setCode("mm[Hg]"));
+		retVal.addComponent()
+				.setCode(new CodeableConcept(new Coding(LOINC, "8462-4", "Diastolic blood pressure")))
+				.setValue(new Quantity()
+						.setValue(60 + theRandom.nextInt(40))
+						.setUnit("mm[Hg]")
+						.setSystem(UCUM)
+						.setCode("mm[Hg]"));
+		return retVal;
+	}
+
+	private static Condition createCondition(int theId, Reference theSubject, String[] theCode, Random theRandom) {
+		Condition retVal = new Condition();
+		populateMeta(retVal, "Condition", theId, "us-core-condition", theRandom);
+		retVal.setClinicalStatus(new CodeableConcept(
+				new Coding("http://terminology.hl7.org/CodeSystem/condition-clinical", "active", "Active")));
+		retVal.setVerificationStatus(new CodeableConcept(
+				new Coding("http://terminology.hl7.org/CodeSystem/condition-ver-status", "confirmed", "Confirmed")));
+		retVal.addCategory(new CodeableConcept(new Coding(
+				"http://terminology.hl7.org/CodeSystem/condition-category", "problem-list-item", "Problem List Item")));
+		retVal.setCode(new CodeableConcept(new Coding(SNOMED, theCode[0], theCode[1])).setText(theCode[1]));
+		retVal.setSubject(theSubject.copy());
+		retVal.setOnset(new DateTimeType(date(2000 + theRandom.nextInt(20), 1 + theRandom.nextInt(12), 1, theRandom)));
+		retVal.setRecordedDateElement(new DateTimeType(date(2021, 1 + theRandom.nextInt(12), 1, theRandom)));
+		return retVal;
+	}
+
+	private static MedicationRequest createMedicationRequest(
+			int theId, Reference theSubject, String[] theCode, Random theRandom) {
+		MedicationRequest retVal = new MedicationRequest();
+		populateMeta(retVal, "MedicationRequest", theId, "us-core-medicationrequest", theRandom);
+		retVal.setStatus(MedicationRequest.MedicationRequestStatus.ACTIVE);
+		retVal.setIntent(MedicationRequest.MedicationRequestIntent.ORDER);
+		retVal.setMedication(new CodeableConcept(new Coding(RXNORM, theCode[0], theCode[1])).setText(theCode[1]));
+		retVal.setSubject(theSubject.copy());
+		retVal.setAuthoredOnElement(new DateTimeType(date(2022, 1 + theRandom.nextInt(12), 1, theRandom)));
+		retVal.setRequester(new Reference("Practitioner/" + (1 + theRandom.nextInt(20))));
+		Dosage dosage = retVal.addDosageInstruction();
+		dosage.setSequence(1);
+		dosage.setText("Take 1 tablet by mouth once daily");
+		dosage.getTiming().getRepeat().setFrequency(1).setPeriod(1).setPeriodUnit(Timing.UnitsOfTime.D);
+		dosage.setRoute(new CodeableConcept(new Coding(SNOMED, "26643006", "Oral route")));
+		dosage.addDoseAndRate()
+				.setDose(new Quantity()
+						.setValue(1)
+						.setUnit("tablet")
+						.setSystem(UCUM)
+						.setCode("{tbl}"));
+		return retVal;
+	}
+
+	private static Date date(int theYear, int theMonth, int theDay, Random theRandom) {
+		Calendar cal = new GregorianCalendar(TimeZone.getTimeZone("UTC"));
+		cal.clear();
+		cal.set(theYear, theMonth - 1, theDay, theRandom.nextInt(24), theRandom.nextInt(60), theRandom.nextInt(60));
+		return cal.getTime();
+	}
+}
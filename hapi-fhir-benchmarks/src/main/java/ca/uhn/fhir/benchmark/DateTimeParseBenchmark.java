@@ -0,0 +1,95 @@
+/*-
+ * #%L
+ * HAPI FHIR - Benchmarks
+ * %%
+ * Copyright (C) 2014 - 2023 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package ca.uhn.fhir.benchmark;
+
+import ca.uhn.fhir.model.primitive.BaseDateTimeDt;
+import ca.uhn.fhir.model.primitive.DateTimeDt;
+import ca.uhn.fhir.rest.param.DateParam;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link BaseDateTimeDt} parsing using the fast path with parsing using the
+ * {@link java.util.Calendar} based parser, over a mix of values with different precisions.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DateTimeParseBenchmark {
+
+	private static final String[] VALUES = {
+		"1974-12-25",
+		"2023-05-01T14:30:00Z",
+		"2023-05-01T14:30:00.123-04:00",
+		"2023-05-01T14:30:00+05:30",
+		"2023-05",
+		"2023-05-01T14:30:00.123456Z"
+	};
+
+	@Benchmark
+	public void parseFast(Blackhole theBlackhole) {
+		for (String next : VALUES) {
+			theBlackhole.consume(new DateTimeDt(next).getValue());
+		}
+	}
+
+	@Benchmark
+	public void parseWithCalendar(Blackhole theBlackhole) {
+		for (String next : VALUES) {
+			theBlackhole.consume(new CalendarDateTimeDt(next).getValue());
+		}
+	}
+
+	@Benchmark
+	public void parseDateParam(Blackhole theBlackhole) {
+		for (String next : VALUES) {
+			theBlackhole.consume(new DateParam("ge" + next).getValue());
+		}
+	}
+
+	/**
+	 * Always uses the calendar based parser, for comparison
+	 */
+	private static class CalendarDateTimeDt extends DateTimeDt {
+
+		CalendarDateTimeDt(String theValue) {
+			super(theValue);
+		}
+
+		@Override
+		protected Date parse(String theValue) {
+			return parseWithCalendar(theValue);
+		}
+	}
+}
@@ -0,0 +1,63 @@
+/*-
+ * #%L
+ * HAPI FHIR - Benchmarks
+ * %%
+ * Copyright (C) 2014 - 2023 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package ca.uhn.fhir.benchmark;
+
+import ca.uhn.fhir.context.FhirContext;
+import ca.uhn.fhir.context.FhirVersionEnum;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of creating a new {@link FhirContext}, including scanning the model classes
+ * for every resource type. This is dominated by the {@link ca.uhn.fhir.context.ModelScanner}.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 10)
+@Measurement(iterations = 20)
+@Fork(3)
+public class FhirContextBenchmark {
+
+	@Benchmark
+	public FhirContext createContext() {
+		return new FhirContext(FhirVersionEnum.R4);
+	}
+
+	@Benchmark
+	public FhirContext createContextAndScanAllResourceTypes() {
+		FhirContext retVal = new FhirContext(FhirVersionEnum.R4);
+		for (String next : retVal.getResourceTypes()) {
+			retVal.getResourceDefinition(next);
+		}
+		return retVal;
+	}
+
+	@Benchmark
+	public FhirContext createContextAndWarmUp() {
+		return new FhirContext(FhirVersionEnum.R4).warmUp();
+	}
+}
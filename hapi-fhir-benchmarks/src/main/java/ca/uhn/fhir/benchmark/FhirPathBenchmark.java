@@ -0,0 +1,96 @@
+/*-
+ * #%L
+ * HAPI FHIR - Benchmarks
+ * %%
+ * Copyright (C) 2014 - 2023 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package ca.uhn.fhir.benchmark;
+
+import ca.uhn.fhir.context.FhirContext;
+import ca.uhn.fhir.fhirpath.IFhirPath;
+import org.hl7.fhir.instance.model.api.IBase;
+import org.hl7.fhir.r4.model.Bundle;
+import org.hl7.fhir.r4.model.Observation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link IFhirPath} evaluation against a {@link BenchmarkFixtures patient $everything Bundle}
+ * and the observations it contains. Expressions are passed as strings, so each evaluation includes
+ * the lookup in the {@link FhirContext#getFhirPathExpressionCache() parsed expression cache}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FhirPathBenchmark {
+
+	@Param({"10"})
+	public int myPatientCount;
+
+	private IFhirPath myFhirPath;
+	private Bundle myBundle;
+	private List<Observation> myObservations;
+
+	@Setup
+	public void setup() {
+		FhirContext ctx = FhirContext.forR4Cached();
+		myFhirPath = ctx.newFhirPath();
+		myBundle = BenchmarkFixtures.loadOrCreateBundle(myPatientCount);
+		myObservations = new ArrayList<>();
+		for (Bundle.BundleEntryComponent next : myBundle.getEntry()) {
+			if (next.getResource() instanceof Observation) {
+				myObservations.add((Observation) next.getResource());
+			}
+		}
+	}
+
+	@Benchmark
+	public void evaluateObservationCodeSystem(Blackhole theBlackhole) {
+		for (Observation next : myObservations) {
+			theBlackhole.consume(myFhirPath.evaluate(next, "Observation.code.coding.system", IBase.class));
+		}
+	}
+
+	@Benchmark
+	public void evaluateObservationWhereFilter(Blackhole theBlackhole) {
+		for (Observation next : myObservations) {
+			theBlackhole.consume(myFhirPath.evaluate(
+					next, "Observation.component.where(code.coding.code = '8480-6').value", IBase.class));
+		}
+	}
+
+	@Benchmark
+	public List<IBase> evaluateBundleResolveTypes() {
+		return myFhirPath.evaluate(myBundle, "Bundle.entry.resource.ofType(Condition).code.coding", IBase.class);
+	}
+}
@@ -0,0 +1,106 @@
+/*-
+ * #%L
+ * HAPI FHIR - Benchmarks
+ * %%
+ * Copyright (C) 2014 - 2023 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package ca.uhn.fhir.benchmark;
+
+import ca.uhn.fhir.context.FhirContext;
+import ca.uhn.fhir.util.FhirTerser;
+import org.hl7.fhir.instance.model.api.IBaseReference;
+import org.hl7.fhir.r4.model.Bundle;
+import org.hl7.fhir.r4.model.Observation;
+import org.hl7.fhir.r4.model.Resource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link FhirTerser} path navigation and element traversal over every resource in a
+ * {@link BenchmarkFixtures patient $everything Bundle}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FhirTerserBenchmark {
+
+	@Param({"10"})
+	public int myPatientCount;
+
+	private FhirTerser myTerser;
+	private List<Resource> myResources;
+	private List<Observation> myObservations;
+
+	@Setup
+	public void setup() {
+		FhirContext ctx = FhirContext.forR4Cached();
+		myTerser = ctx.newTerser();
+		Bundle bundle = BenchmarkFixtures.loadOrCreateBundle(myPatientCount);
+		myResources = new ArrayList<>();
+		myObservations = new ArrayList<>();
+		for (Bundle.BundleEntryComponent next : bundle.getEntry()) {
+			myResources.add(next.getResource());
+			if (next.getResource() instanceof Observation) {
+				myObservations.add((Observation) next.getResource());
+			}
+		}
+	}
+
+	@Benchmark
+	public void getValuesCodingSystem(Blackhole theBlackhole) {
+		for (Observation next : myObservations) {
+			theBlackhole.consume(myTerser.getValues(next, "Observation.code.coding.system"));
+		}
+	}
+
+	@Benchmark
+	public void getValuesComponentValue(Blackhole theBlackhole) {
+		for (Observation next : myObservations) {
+			theBlackhole.consume(myTerser.getValues(next, "Observation.component.value"));
+		}
+	}
+
+	@Benchmark
+	public void getValuesMetaProfile(Blackhole theBlackhole) {
+		for (Resource next : myResources) {
+			theBlackhole.consume(myTerser.getValues(next, next.fhirType() + ".meta.profile"));
+		}
+	}
+
+	@Benchmark
+	public void getAllPopulatedChildElementsOfTypeReference(Blackhole theBlackhole) {
+		for (Resource next : myResources) {
+			theBlackhole.consume(myTerser.getAllPopulatedChildElementsOfType(next, IBaseReference.class));
+		}
+	}
+}
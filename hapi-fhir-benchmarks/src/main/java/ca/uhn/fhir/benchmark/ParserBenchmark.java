@@ -0,0 +1,106 @@
+/*-
+ * #%L
+ * HAPI FHIR - Benchmarks
+ * %%
+ * Copyright (C) 2014 - 2023 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package ca.uhn.fhir.benchmark;
+
+import ca.uhn.fhir.context.FhirContext;
+import ca.uhn.fhir.context.FhirVersionEnum;
+import ca.uhn.fhir.parser.IParser;
+import org.hl7.fhir.r4.model.Bundle;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures parsing and encoding of a {@link BenchmarkFixtures patient $everything Bundle}.
+ * <p>
+ * The <code>JSON_STREAMING</code> format uses the JSON parser with
+ * {@link ca.uhn.fhir.context.ParserOptions#setStreamingJsonParsing(boolean) streaming parsing} enabled,
+ * so comparing it with <code>JSON</code> shows the difference between streaming and tree based parsing.
+ * Run with <code>-prof gc</code> to compare the allocation rate of each mode as well as its throughput.
+ * </p>
+ * <p>
+ * The default sizes cover the 10 to 500 MB documents that streaming parsing is intended for, so the
+ * benchmark JVM is given a large heap. Use <code>-p myTargetSizeMb=1</code> for a quick run.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx16g")
+public class ParserBenchmark {
+
+	@Param({"JSON", "JSON_STREAMING", "XML"})
+	public String myFormat;
+
+	/**
+	 * Approximate size of the JSON encoded Bundle. The XML encoding of the same Bundle is larger.
+	 */
+	@Param({"10", "100", "500"})
+	public int myTargetSizeMb;
+
+	private FhirContext myCtx;
+	private Bundle myBundle;
+	private byte[] myEncoded;
+
+	@Setup
+	public void setup() throws IOException {
+		// Use a dedicated context so that parser options set here don't leak into other benchmarks
+		myCtx = new FhirContext(FhirVersionEnum.R4);
+		myCtx.getParserOptions().setStreamingJsonParsing("JSON_STREAMING".equals(myFormat));
+		myBundle = BenchmarkFixtures.loadOrCreateBundleOfSize(myTargetSizeMb);
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		newParser().encodeResourceToOutputStream(myBundle, outputStream);
+		myEncoded = outputStream.toByteArray();
+	}
+
+	@Benchmark
+	public Bundle parseBundle() {
+		return newParser().parseResource(Bundle.class, new ByteArrayInputStream(myEncoded));
+	}
+
+	@Benchmark
+	public byte[] encodeBundle() throws IOException {
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream(myEncoded.length);
+		newParser().encodeResourceToOutputStream(myBundle, outputStream);
+		return outputStream.toByteArray();
+	}
+
+	private IParser newParser() {
+		if ("XML".equals(myFormat)) {
+			return myCtx.newXmlParser();
+		}
+		return myCtx.newJsonParser();
+	}
+}
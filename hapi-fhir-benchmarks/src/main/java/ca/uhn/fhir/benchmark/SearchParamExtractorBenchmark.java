@@ -0,0 +1,104 @@
+/*-
+ * #%L
+ * HAPI FHIR - Benchmarks
+ * %%
+ * Copyright (C) 2014 - 2023 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package ca.uhn.fhir.benchmark;
+
+import ca.uhn.fhir.context.FhirContext;
+import ca.uhn.fhir.jpa.model.config.PartitionSettings;
+import ca.uhn.fhir.jpa.model.entity.StorageSettings;
+import ca.uhn.fhir.jpa.searchparam.extractor.ISearchParamExtractor;
+import ca.uhn.fhir.jpa.searchparam.extractor.SearchParamExtractorR4;
+import ca.uhn.fhir.rest.server.util.FhirContextSearchParamRegistry;
+import org.hl7.fhir.r4.model.Bundle;
+import org.hl7.fhir.r4.model.Resource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures search parameter extraction, as performed by the JPA server whenever a resource
+ * is created or updated, for every resource in a {@link BenchmarkFixtures patient $everything Bundle}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SearchParamExtractorBenchmark {
+
+	@Param({"10"})
+	public int myPatientCount;
+
+	private ISearchParamExtractor myExtractor;
+	private List<Resource> myResources;
+
+	@Setup
+	public void setup() {
+		FhirContext ctx = FhirContext.forR4Cached();
+		myExtractor = new SearchParamExtractorR4(
+				new StorageSettings(), new PartitionSettings(), ctx, new FhirContextSearchParamRegistry(ctx));
+		Bundle bundle = BenchmarkFixtures.loadOrCreateBundle(myPatientCount);
+		myResources = new ArrayList<>();
+		for (Bundle.BundleEntryComponent next : bundle.getEntry()) {
+			myResources.add(next.getResource());
+		}
+	}
+
+	@Benchmark
+	public void extractTokens(Blackhole theBlackhole) {
+		for (Resource next : myResources) {
+			theBlackhole.consume(myExtractor.extractSearchParamTokens(next));
+		}
+	}
+
+	@Benchmark
+	public void extractStrings(Blackhole theBlackhole) {
+		for (Resource next : myResources) {
+			theBlackhole.consume(myExtractor.extractSearchParamStrings(next));
+		}
+	}
+
+	@Benchmark
+	public void extractDates(Blackhole theBlackhole) {
+		for (Resource next : myResources) {
+			theBlackhole.consume(myExtractor.extractSearchParamDates(next));
+		}
+	}
+
+	@Benchmark
+	public void extractResourceLinks(Blackhole theBlackhole) {
+		for (Resource next : myResources) {
+			theBlackhole.consume(myExtractor.extractResourceLinks(next, false));
+		}
+	}
+}
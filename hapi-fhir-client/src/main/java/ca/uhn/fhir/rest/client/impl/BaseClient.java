@@ -142,6 +142,8 @@ public abstract class BaseClient implements IRestfulClient {
 					retVal.put(Constants.PARAM_FORMAT, Collections.singletonList("xml"));
 				} else if (getEncoding() == EncodingEnum.JSON) {
 					retVal.put(Constants.PARAM_FORMAT, Collections.singletonList("json"));
+				} else if (getEncoding() == EncodingEnum.CBOR) {
+					retVal.put(Constants.PARAM_FORMAT, Collections.singletonList(Constants.FORMAT_CBOR));
 				}
 			}
 		}
@@ -284,6 +286,8 @@ public abstract class BaseClient implements IRestfulClient {
 						params.put(Constants.PARAM_FORMAT, Collections.singletonList("xml"));
 					} else if (theEncoding == EncodingEnum.JSON) {
 						params.put(Constants.PARAM_FORMAT, Collections.singletonList("json"));
+					} else if (theEncoding == EncodingEnum.CBOR) {
+						params.put(Constants.PARAM_FORMAT, Collections.singletonList(Constants.FORMAT_CBOR));
 					}
 				}
 			}
@@ -368,11 +372,21 @@ public abstract class BaseClient implements IRestfulClient {
 			Map<String, List<String>> headers = response.getAllHeaders();
 
 			if (response.getStatus() < 200 || response.getStatus() > 299) {
+				EncodingEnum errorEncoding = EncodingEnum.forContentType(mimeType);
 				String body = null;
-				try (Reader reader = response.createReader()) {
-					body = IOUtils.toString(reader);
-				} catch (Exception e) {
-					ourLog.debug("Failed to read input stream", e);
+				byte[] binaryBody = null;
+				if (errorEncoding != null && errorEncoding.isBinary()) {
+					try (InputStream inputStream = response.readEntity()) {
+						binaryBody = IOUtils.toByteArray(inputStream);
+					} catch (Exception e) {
+						ourLog.debug("Failed to read input stream", e);
+					}
+				} else {
+					try (Reader reader = response.createReader()) {
+						body = IOUtils.toString(reader);
+					} catch (Exception e) {
+						ourLog.debug("Failed to read input stream", e);
+					}
 				}
 
 				String message = "HTTP " + response.getStatus() + " " + response.getStatusInfo();
@@ -380,12 +394,15 @@ public abstract class BaseClient implements IRestfulClient {
 				if (Constants.CT_TEXT.equals(mimeType)) {
 					message = message + ": " + body;
 				} else {
-					EncodingEnum enc = EncodingEnum.forContentType(mimeType);
-					if (enc != null) {
-						IParser p = enc.newParser(theContext);
+					if (errorEncoding != null) {
+						IParser p = errorEncoding.newParser(theContext);
 						try {
 							// TODO: handle if something other than OO comes back
-							oo = (IBaseOperationOutcome) p.parseResource(body);
+							if (binaryBody != null) {
+								oo = (IBaseOperationOutcome) p.parseResource(new ByteArrayInputStream(binaryBody));
+							} else {
+								oo = (IBaseOperationOutcome) p.parseResource(body);
+							}
 							String details = OperationOutcomeUtil.getFirstIssueDetails(getFhirContext(), oo);
 							if (isNotBlank(details)) {
 								message = message + ": " + details;
@@ -421,7 +438,15 @@ public abstract class BaseClient implements IRestfulClient {
 				InputStream inputStreamToReturn = inputStream;
 
 				if (ourLog.isTraceEnabled() || myKeepResponses || theLogRequestAndResponse) {
-					if (inputStream != null) {
+					EncodingEnum responseEncoding = EncodingEnum.forContentType(mimeType);
+					if (inputStream != null && responseEncoding != null && responseEncoding.isBinary()) {
+						byte[] responseBytes = IOUtils.toByteArray(inputStream);
+						keepResponseAndLogIt(
+								theLogRequestAndResponse,
+								response,
+								"[" + responseBytes.length + " bytes of " + responseEncoding.name() + " content]");
+						inputStreamToReturn = new ByteArrayInputStream(responseBytes);
+					} else if (inputStream != null) {
 						String responseString = IOUtils.toString(inputStream, Charsets.UTF_8);
 						keepResponseAndLogIt(theLogRequestAndResponse, response, responseString);
 						inputStreamToReturn = new ByteArrayInputStream(responseString.getBytes(Charsets.UTF_8));
@@ -143,8 +143,11 @@ abstract class BaseHttpClientInvocationWithContents extends BaseHttpClientInvoca
 			return httpClient.createParamRequest(getContext(), myParams, encoding);
 		}
 		encoding = ObjectUtils.defaultIfNull(encoding, EncodingEnum.JSON);
-		String contents = encodeContents(thePrettyPrint, encoding);
-		String contentType = getContentType(encoding);
+
+		// Binary encodings are only requested for responses, request bodies are sent as JSON
+		EncodingEnum contentsEncoding = encoding.isBinary() ? EncodingEnum.JSON : encoding;
+		String contents = encodeContents(thePrettyPrint, contentsEncoding);
+		String contentType = getContentType(contentsEncoding);
 		return httpClient.createByteRequest(getContext(), contents, contentType, encoding);
 	}
 
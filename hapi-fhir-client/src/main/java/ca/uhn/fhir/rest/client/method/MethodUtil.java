@@ -112,6 +112,8 @@ public class MethodUtil {
 			} else {
 				theHttpRequest.addHeader(Constants.HEADER_ACCEPT, Constants.HEADER_ACCEPT_VALUE_XML_NON_LEGACY);
 			}
+		} else if (theEncoding == EncodingEnum.CBOR) {
+			theHttpRequest.addHeader(Constants.HEADER_ACCEPT, Constants.HEADER_ACCEPT_VALUE_CBOR_OR_JSON);
 		}
 	}
 
@@ -4,10 +4,12 @@ import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.net.URISyntaxException;
 import java.util.Collections;
 import java.util.Set;
+import java.util.zip.GZIPInputStream;
 
 import javax.ws.rs.core.Response;
 
@@ -125,6 +127,20 @@ public class JaxRsResponseDstu3Test {
 		assertTrue(result.getEntity().toString().contains("15"));
 	}
 	
+	@Test
+	public void testReturnResponseAsCborWithGzip() throws IOException {
+		response.getRequestDetails().addParameter(Constants.PARAM_FORMAT, new String[]{Constants.FORMAT_CBOR});
+		boolean addContentLocationHeader = false;
+		boolean respondGzip = true;
+		Response result = (Response) RestfulServerUtils.streamResponseAsResource(request.getServer(), createPatient(), theSummaryMode, 200, addContentLocationHeader, respondGzip, this.request);
+		assertEquals(200, result.getStatus());
+		assertEquals(Constants.CT_FHIR_CBOR, result.getHeaderString(Constants.HEADER_CONTENT_TYPE));
+		assertEquals(Constants.ENCODING_GZIP, result.getHeaderString(Constants.HEADER_CONTENT_ENCODING));
+		GZIPInputStream body = new GZIPInputStream(new ByteArrayInputStream((byte[]) result.getEntity()));
+		Patient patient = request.getServer().getFhirContext().newCborParser().parseResource(Patient.class, body);
+		assertEquals("15", patient.getIdElement().getIdPart());
+	}
+
 	@Test
 	public void testNoOutcomeXml() throws IOException {
 		response.getRequestDetails().addParameter(Constants.PARAM_FORMAT, new String[]{Constants.CT_XML});
@@ -23,6 +23,7 @@ import ca.uhn.fhir.interceptor.model.RequestPartitionId;
 import ca.uhn.fhir.jpa.api.dao.DaoRegistry;
 import ca.uhn.fhir.jpa.api.dao.IFhirResourceDao;
 import ca.uhn.fhir.jpa.api.svc.IIdHelperService;
+import ca.uhn.fhir.jpa.config.HibernatePropertiesProvider;
 import ca.uhn.fhir.jpa.dao.data.IResourceTableDao;
 import ca.uhn.fhir.jpa.model.dao.JpaPid;
 import ca.uhn.fhir.jpa.model.entity.ResourceTable;
@@ -59,6 +60,9 @@ public class ResourceVersionSvcDaoImpl implements IResourceVersionSvc {
 	@Autowired
 	IResourceTableDao myResourceTableDao;
 
+	@Autowired(required = false)
+	private HibernatePropertiesProvider myDialectProvider;
+
 	@Autowired
 	IIdHelperService<JpaPid> myIdHelperService;
 
@@ -78,7 +82,7 @@ public class ResourceVersionSvcDaoImpl implements IResourceVersionSvc {
 		List<Long> matchingIds = jpaPids.stream().map(JpaPid::getId).collect(Collectors.toList());
 
 		List<ResourceTable> allById = new ArrayList<>();
-		new QueryChunker<Long>().chunk(matchingIds, t -> {
+		new QueryChunker<Long>(myDialectProvider).chunk(matchingIds, t -> {
 			List<ResourceTable> nextBatch = myResourceTableDao.findAllById(t);
 			allById.addAll(nextBatch);
 		});
@@ -54,6 +54,7 @@ import ca.uhn.fhir.jpa.dao.MatchResourceUrlService;
 import ca.uhn.fhir.jpa.dao.ObservationLastNIndexPersistSvc;
 import ca.uhn.fhir.jpa.dao.SearchBuilderFactory;
 import ca.uhn.fhir.jpa.dao.TransactionProcessor;
+import ca.uhn.fhir.jpa.dao.ZstdDictionarySvc;
 import ca.uhn.fhir.jpa.dao.data.IResourceModifiedDao;
 import ca.uhn.fhir.jpa.dao.data.IResourceSearchUrlDao;
 import ca.uhn.fhir.jpa.dao.expunge.ExpungeEverythingService;
@@ -132,10 +133,13 @@ import ca.uhn.fhir.jpa.search.builder.sql.SearchQueryBuilder;
 import ca.uhn.fhir.jpa.search.builder.sql.SearchQueryExecutor;
 import ca.uhn.fhir.jpa.search.builder.sql.SqlObjectFactory;
 import ca.uhn.fhir.jpa.search.builder.tasks.SearchTask;
+import ca.uhn.fhir.jpa.search.cache.CompressedSearchResultCacheSvcImpl;
 import ca.uhn.fhir.jpa.search.cache.DatabaseSearchCacheSvcImpl;
 import ca.uhn.fhir.jpa.search.cache.DatabaseSearchResultCacheSvcImpl;
 import ca.uhn.fhir.jpa.search.cache.ISearchCacheSvc;
 import ca.uhn.fhir.jpa.search.cache.ISearchResultCacheSvc;
+import ca.uhn.fhir.jpa.search.cache.InMemorySearchCacheSvcImpl;
+import ca.uhn.fhir.jpa.search.cache.InMemorySearchResultCacheSvcImpl;
 import ca.uhn.fhir.jpa.search.elastic.IndexNamePrefixLayoutStrategy;
 import ca.uhn.fhir.jpa.search.reindex.IInstanceReindexService;
 import ca.uhn.fhir.jpa.search.reindex.IResourceReindexingSvc;
@@ -315,6 +319,11 @@ public class JpaConfig {
 		return new TransactionProcessor();
 	}
 
+	@Bean
+	public ZstdDictionarySvc zstdDictionarySvc() {
+		return new ZstdDictionarySvc();
+	}
+
 	@Bean(name = "myAttachmentBinaryAccessProvider")
 	@Lazy
 	public BinaryAccessProvider binaryAccessProvider() {
@@ -360,11 +369,21 @@ public class JpaConfig {
 
 	@Bean
 	public ISearchCacheSvc searchCacheSvc() {
+		if (myStorageSettings.getSearchCacheMode() == JpaStorageSettings.SearchCacheModeEnum.IN_MEMORY) {
+			return new InMemorySearchCacheSvcImpl();
+		}
 		return new DatabaseSearchCacheSvcImpl();
 	}
 
 	@Bean
 	public ISearchResultCacheSvc searchResultCacheSvc() {
+		if (myStorageSettings.getSearchCacheMode() == JpaStorageSettings.SearchCacheModeEnum.IN_MEMORY) {
+			return new InMemorySearchResultCacheSvcImpl();
+		}
+		if (myStorageSettings.getSearchResultStorageMode()
+				== JpaStorageSettings.SearchResultStorageModeEnum.COMPRESSED_BLOCKS) {
+			return new CompressedSearchResultCacheSvcImpl();
+		}
 		return new DatabaseSearchResultCacheSvcImpl();
 	}
 
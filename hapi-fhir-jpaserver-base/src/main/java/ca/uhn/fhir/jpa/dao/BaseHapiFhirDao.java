@@ -100,6 +100,7 @@ import ca.uhn.fhir.util.CoverageIgnore;
 import ca.uhn.fhir.util.HapiExtensions;
 import ca.uhn.fhir.util.MetaUtil;
 import ca.uhn.fhir.util.StopWatch;
+import ca.uhn.fhir.util.StructuralEquality;
 import ca.uhn.fhir.util.XmlUtil;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Charsets;
@@ -148,6 +149,7 @@ import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Set;
 import java.util.StringTokenizer;
+import java.util.function.IntFunction;
 import java.util.stream.Collectors;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -190,6 +192,12 @@ public abstract class BaseHapiFhirDao<T extends IBaseResource> extends BaseStora
 	public static final String NS_JPA_PROFILE = "https://github.com/hapifhir/hapi-fhir/ns/jpa/profile";
 	// total attempts to do a tag transaction
 	private static final int TOTAL_TAG_READ_ATTEMPTS = 10;
+	/**
+	 * Elements which are not stored in the resource body, or which always change
+	 * between versions, and are therefore ignored when detecting an unchanged resource
+	 */
+	private static final List<String> NO_CHANGE_DETECTION_IGNORED_PATHS =
+			Collections.unmodifiableList(Arrays.asList("id", "meta.versionId", "meta.lastUpdated", "meta.source"));
 	private static final Logger ourLog = LoggerFactory.getLogger(BaseHapiFhirDao.class);
 	private static boolean ourValidationDisabledForUnitTest;
 	private static boolean ourDisableIncrementOnUpdateForUnitTest = false;
@@ -266,6 +274,9 @@ public abstract class BaseHapiFhirDao<T extends IBaseResource> extends BaseStora
 	@Autowired
 	private PlatformTransactionManager myTransactionManager;
 
+	@Autowired
+	protected ZstdDictionarySvc myZstdDictionarySvc;
+
 	protected final CodingSpy myCodingSpy = new CodingSpy();
 
 	@VisibleForTesting
@@ -641,6 +652,23 @@ public abstract class BaseHapiFhirDao<T extends IBaseResource> extends BaseStora
 			IBaseResource theResource,
 			ResourceTable theEntity,
 			boolean thePerformIndexing) {
+		return populateResourceIntoEntity(
+				theTransactionDetails, theRequest, theResource, theEntity, thePerformIndexing, null);
+	}
+
+	/**
+	 * @param thePreviousResource If supplied, the current version of the resource. If the new resource is
+	 *                            structurally identical to it, the resource is not encoded at all and
+	 *                            no resource body is returned. This must only be supplied if an unchanged
+	 *                            resource will not be stored.
+	 */
+	private EncodedResource populateResourceIntoEntity(
+			TransactionDetails theTransactionDetails,
+			RequestDetails theRequest,
+			IBaseResource theResource,
+			ResourceTable theEntity,
+			boolean thePerformIndexing,
+			@Nullable IBaseResource thePreviousResource) {
 		if (theEntity.getResourceType() == null) {
 			theEntity.setResourceType(toResourceName(theResource));
 		}
@@ -649,6 +677,7 @@ public abstract class BaseHapiFhirDao<T extends IBaseResource> extends BaseStora
 		String resourceText;
 		ResourceEncodingEnum encoding;
 		boolean changed = false;
+		boolean unchangedFromPreviousResource = false;
 
 		if (theEntity.getDeleted() == null) {
 
@@ -666,6 +695,15 @@ public abstract class BaseHapiFhirDao<T extends IBaseResource> extends BaseStora
 					resourceText = address.getProviderId() + ":" + address.getLocation();
 					changed = true;
 
+				} else if (isUnchangedFromPreviousResource(theResource, thePreviousResource, theEntity)) {
+
+					// The contents are the same as the current version, so the stored hash and resource
+					// body are still valid and there is no need to encode the resource
+					encoding = null;
+					resourceBinary = null;
+					resourceText = null;
+					unchangedFromPreviousResource = true;
+
 				} else {
 
 					encoding = myStorageSettings.getResourceEncoding();
@@ -690,7 +728,7 @@ public abstract class BaseHapiFhirDao<T extends IBaseResource> extends BaseStora
 						hashCode = sha256.hashUnencodedChars(encodedResource);
 					} else {
 						resourceText = null;
-						resourceBinary = getResourceBinary(encoding, encodedResource);
+						resourceBinary = getResourceBinary(encoding, encodedResource, resourceType);
 						hashCode = sha256.hashBytes(resourceBinary);
 					}
 
@@ -721,6 +759,14 @@ public abstract class BaseHapiFhirDao<T extends IBaseResource> extends BaseStora
 				changed |= updateTags(theTransactionDetails, theRequest, theResource, theEntity);
 			}
 
+			if (unchangedFromPreviousResource && changed) {
+				// The tags have changed, so a new version will be stored and the resource needs to be encoded
+				EncodedResource retVal = populateResourceIntoEntity(
+						theTransactionDetails, theRequest, theResource, theEntity, thePerformIndexing, null);
+				retVal.setChanged(true);
+				return retVal;
+			}
+
 		} else {
 
 			if (nonNull(theEntity.getHashSha256())) {
@@ -733,7 +779,7 @@ public abstract class BaseHapiFhirDao<T extends IBaseResource> extends BaseStora
 			encoding = ResourceEncodingEnum.DEL;
 		}
 
-		if (thePerformIndexing && !changed) {
+		if (thePerformIndexing && !changed && !unchangedFromPreviousResource) {
 			if (theEntity.getId() == null) {
 				changed = true;
 			} else if (myStorageSettings.isMassIngestionMode()) {
@@ -772,10 +818,11 @@ public abstract class BaseHapiFhirDao<T extends IBaseResource> extends BaseStora
 	 *
 	 * @param encoding        the encoding to used
 	 * @param encodedResource the resource to encode
+	 * @param resourceType    the resource type, used to select a compression dictionary
 	 * @return byte array of the resource
 	 */
 	@Nonnull
-	private byte[] getResourceBinary(ResourceEncodingEnum encoding, String encodedResource) {
+	protected byte[] getResourceBinary(ResourceEncodingEnum encoding, String encodedResource, String resourceType) {
 		byte[] resourceBinary;
 		switch (encoding) {
 			case JSON:
@@ -784,6 +831,15 @@ public abstract class BaseHapiFhirDao<T extends IBaseResource> extends BaseStora
 			case JSONC:
 				resourceBinary = GZipUtil.compress(encodedResource);
 				break;
+			case ZSTD:
+				resourceBinary = ZstdUtil.compress(
+						encodedResource,
+						myZstdDictionarySvc.getCompressionDictionary(resourceType),
+						myStorageSettings.getZstdDictionaryCache());
+				break;
+			case LZ4:
+				resourceBinary = Lz4Util.compress(encodedResource);
+				break;
 			default:
 			case DEL:
 			case ESR:
@@ -793,6 +849,23 @@ public abstract class BaseHapiFhirDao<T extends IBaseResource> extends BaseStora
 		return resourceBinary;
 	}
 
+	/**
+	 * Returns {@literal true} if the given resource has the same contents as the current version of the
+	 * resource, ignoring the elements which are not stored in the resource body
+	 */
+	private boolean isUnchangedFromPreviousResource(
+			IBaseResource theResource, @Nullable IBaseResource thePreviousResource, ResourceTable theEntity) {
+		if (thePreviousResource == null || thePreviousResource == theResource || theEntity.getHashSha256() == null) {
+			return false;
+		}
+		// DSTU2 resources keep tags and other metadata outside of the model, so they can't be compared structurally
+		if (myContext.getVersion().getVersion().isOlderThan(FhirVersionEnum.DSTU3)) {
+			return false;
+		}
+		return new StructuralEquality(myContext, NO_CHANGE_DETECTION_IGNORED_PATHS)
+				.equalsDeep(theResource, thePreviousResource);
+	}
+
 	/**
 	 * helper to format the meta element for serialization of the resource.
 	 *
@@ -1052,6 +1125,34 @@ public abstract class BaseHapiFhirDao<T extends IBaseResource> extends BaseStora
 		}
 	}
 
+	/**
+	 * Returns the current version of the resource as stashed by {@link #updateInternal}, but only if an
+	 * update which doesn't change the resource will be suppressed (in which case the new version doesn't
+	 * need to be encoded if it is structurally identical to the current one)
+	 */
+	@Nullable
+	private IBaseResource removePreviousResource(
+			TransactionDetails theTransactionDetails,
+			ResourceTable theEntity,
+			boolean thePerformIndexing,
+			boolean theForceUpdate,
+			boolean theUpdateVersion) {
+		IdentityHashMap<ResourceTable, IBaseResource> previousResources =
+				theTransactionDetails.getUserData(HapiTransactionService.XACT_USERDATA_KEY_PREVIOUS_RESOURCES);
+		if (previousResources == null) {
+			return null;
+		}
+		IBaseResource retVal = previousResources.remove(theEntity);
+		if (retVal == null
+				|| !thePerformIndexing
+				|| theForceUpdate
+				|| !myStorageSettings.isSuppressUpdatesWithNoChange()
+				|| (theEntity.getVersion() <= 1 && !theUpdateVersion)) {
+			return null;
+		}
+		return retVal;
+	}
+
 	private String getConditionalCreateOrUpdateErrorMsg(CreateOrUpdateByMatch theCreateOrUpdate) {
 		return String.format(
 				"Failed to process conditional %s. " + "The supplied resource did not satisfy the conditional URL.",
@@ -1081,6 +1182,8 @@ public abstract class BaseHapiFhirDao<T extends IBaseResource> extends BaseStora
 		ourLog.debug("Starting entity update");
 
 		ResourceTable entity = (ResourceTable) theEntity;
+		IBaseResource previousResource = removePreviousResource(
+				theTransactionDetails, entity, thePerformIndexing, theForceUpdate, theUpdateVersion);
 
 		/*
 		 * This should be the very first thing..
@@ -1173,7 +1276,8 @@ public abstract class BaseHapiFhirDao<T extends IBaseResource> extends BaseStora
 						thePerformIndexing);
 
 				// Actually persist the ResourceTable and ResourceHistoryTable entities
-				changed = populateResourceIntoEntity(theTransactionDetails, theRequest, theResource, entity, true);
+				changed = populateResourceIntoEntity(
+						theTransactionDetails, theRequest, theResource, entity, true, previousResource);
 
 				if (theForceUpdate) {
 					changed.setChanged(true);
@@ -1437,7 +1541,7 @@ public abstract class BaseHapiFhirDao<T extends IBaseResource> extends BaseStora
 			List<String> excludeElements = new ArrayList<>(8);
 			getExcludedElements(historyEntity.getResourceType(), excludeElements, theResource.getMeta());
 			String encodedResourceString = encodeResource(theResource, encoding, excludeElements, myContext);
-			byte[] resourceBinary = getResourceBinary(encoding, encodedResourceString);
+			byte[] resourceBinary = getResourceBinary(encoding, encodedResourceString, historyEntity.getResourceType());
 			boolean changed = !Arrays.equals(historyEntity.getResource(), resourceBinary);
 
 			historyEntity.setUpdated(theTransactionDetails.getTransactionDate());
@@ -1655,6 +1759,18 @@ public abstract class BaseHapiFhirDao<T extends IBaseResource> extends BaseStora
 
 		entity.setUpdatedByMatchUrl(theMatchUrl);
 
+		// Make the current version available to updateEntity so that it can detect an unchanged resource
+		// without encoding it
+		if (theTransactionDetails != null) {
+			IdentityHashMap<ResourceTable, IBaseResource> previousResources = theTransactionDetails.getOrCreateUserData(
+					HapiTransactionService.XACT_USERDATA_KEY_PREVIOUS_RESOURCES, IdentityHashMap::new);
+			if (theOldResource != null && !theOldResource.isDeleted()) {
+				previousResources.put(entity, theOldResource);
+			} else {
+				previousResources.remove(entity);
+			}
+		}
+
 		// Perform update
 		ResourceTable savedEntity = updateEntity(
 				theRequestDetails,
@@ -1964,7 +2080,52 @@ public abstract class BaseHapiFhirDao<T extends IBaseResource> extends BaseStora
 		return retVal.toString();
 	}
 
+	/**
+	 * @deprecated Use {@link #decodeResource(byte[], ResourceEncodingEnum, JpaStorageSettings)} instead. This
+	 * method can not read resources which were compressed using a Zstandard dictionary.
+	 */
+	@Deprecated
 	public static String decodeResource(byte[] theResourceBytes, ResourceEncodingEnum theResourceEncoding) {
+		return decodeResource(
+				theResourceBytes,
+				theResourceEncoding,
+				t -> {
+					throw new InternalErrorException(Msg.code(2466) + "Resource was compressed using Zstandard "
+							+ "dictionary " + t + ", which requires decodeResource(byte[], ResourceEncodingEnum, "
+							+ "JpaStorageSettings)");
+				},
+				null);
+	}
+
+	/**
+	 * @param theStorageSettings Supplies any compression dictionaries the resource was stored with. May be
+	 *                           {@literal null} if dictionaries are not used.
+	 */
+	public static String decodeResource(
+			byte[] theResourceBytes,
+			ResourceEncodingEnum theResourceEncoding,
+			@Nullable JpaStorageSettings theStorageSettings) {
+		if (theStorageSettings == null) {
+			return decodeResource(theResourceBytes, theResourceEncoding, null, null);
+		}
+		return decodeResource(
+				theResourceBytes,
+				theResourceEncoding,
+				theStorageSettings::getZstdDictionary,
+				theStorageSettings.getZstdDictionaryCache());
+	}
+
+	/**
+	 * @param theZstdDictionaryLookup Supplies any compression dictionary the resource was stored with, by ID.
+	 *                                May be {@literal null} if dictionaries are not used.
+	 * @param theZstdDictionaryCache  Holds digested compression dictionaries between calls, or {@literal null}
+	 * @since 7.0.0
+	 */
+	public static String decodeResource(
+			byte[] theResourceBytes,
+			ResourceEncodingEnum theResourceEncoding,
+			@Nullable IntFunction<byte[]> theZstdDictionaryLookup,
+			@Nullable ZstdUtil.DictionaryCache theZstdDictionaryCache) {
 		String resourceText = null;
 		switch (theResourceEncoding) {
 			case JSON:
@@ -1973,6 +2134,12 @@ public abstract class BaseHapiFhirDao<T extends IBaseResource> extends BaseStora
 			case JSONC:
 				resourceText = GZipUtil.decompress(theResourceBytes);
 				break;
+			case ZSTD:
+				resourceText = ZstdUtil.decompress(theResourceBytes, theZstdDictionaryLookup, theZstdDictionaryCache);
+				break;
+			case LZ4:
+				resourceText = Lz4Util.decompress(theResourceBytes);
+				break;
 			case DEL:
 			case ESR:
 				break;
@@ -139,6 +139,7 @@ import org.springframework.transaction.support.TransactionTemplate;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Date;
 import java.util.HashSet;
@@ -1682,11 +1683,15 @@ public abstract class BaseHapiFhirResourceDao<T extends IBaseResource> extends B
 
 	private void reindexOptimizeStorageHistoryEntity(ResourceTable entity, ResourceHistoryTable historyEntity) {
 		boolean changed = false;
-		if (historyEntity.getEncoding() == ResourceEncodingEnum.JSONC
-				|| historyEntity.getEncoding() == ResourceEncodingEnum.JSON) {
+		ResourceEncodingEnum encoding = historyEntity.getEncoding();
+		if (encoding != ResourceEncodingEnum.ESR && encoding != ResourceEncodingEnum.DEL) {
 			byte[] resourceBytes = historyEntity.getResource();
 			if (resourceBytes != null) {
-				String resourceText = decodeResource(resourceBytes, historyEntity.getEncoding());
+				String resourceText = decodeResource(
+						resourceBytes,
+						encoding,
+						myZstdDictionarySvc::getDictionary,
+						myStorageSettings.getZstdDictionaryCache());
 				if (myStorageSettings.getInlineResourceTextBelowSize() > 0
 						&& resourceText.length() < myStorageSettings.getInlineResourceTextBelowSize()) {
 					ourLog.debug(
@@ -1697,6 +1702,8 @@ public abstract class BaseHapiFhirResourceDao<T extends IBaseResource> extends B
 					historyEntity.setResource(null);
 					historyEntity.setEncoding(ResourceEncodingEnum.JSON);
 					changed = true;
+				} else {
+					changed = reindexOptimizeStorageReEncode(historyEntity, resourceText);
 				}
 			}
 		}
@@ -1712,6 +1719,37 @@ public abstract class BaseHapiFhirResourceDao<T extends IBaseResource> extends B
 		}
 	}
 
+	/**
+	 * Rewrites the stored bytes of a history entity using the configured resource encoding, if it
+	 * was stored using a different one. Zstandard compressed entities are also rewritten if the
+	 * dictionary for the resource type has changed since they were stored.
+	 */
+	private boolean reindexOptimizeStorageReEncode(ResourceHistoryTable theHistoryEntity, String theResourceText) {
+		ResourceEncodingEnum encoding = theHistoryEntity.getEncoding();
+		ResourceEncodingEnum targetEncoding = myStorageSettings.getResourceEncoding();
+		if (targetEncoding == ResourceEncodingEnum.ESR || targetEncoding == ResourceEncodingEnum.DEL) {
+			return false;
+		}
+		if (targetEncoding == encoding && targetEncoding != ResourceEncodingEnum.ZSTD) {
+			return false;
+		}
+
+		byte[] resourceBinary = getResourceBinary(targetEncoding, theResourceText, theHistoryEntity.getResourceType());
+		if (targetEncoding == encoding && Arrays.equals(resourceBinary, theHistoryEntity.getResource())) {
+			return false;
+		}
+
+		ourLog.debug(
+				"Re-encoding resource {} version {} from {} to {}",
+				theHistoryEntity.getResourceId(),
+				theHistoryEntity.getVersion(),
+				encoding,
+				targetEncoding);
+		theHistoryEntity.setResource(resourceBinary);
+		theHistoryEntity.setEncoding(targetEncoding);
+		return true;
+	}
+
 	private BaseHasResource readEntity(
 			IIdType theId,
 			boolean theCheckForForcedId,
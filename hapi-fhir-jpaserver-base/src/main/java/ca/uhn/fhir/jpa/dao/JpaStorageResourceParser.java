@@ -90,6 +90,9 @@ public class JpaStorageResourceParser implements IJpaStorageResourceParser {
 	@Autowired
 	private IResourceHistoryTableDao myResourceHistoryTableDao;
 
+	@Autowired
+	private ZstdDictionarySvc myZstdDictionarySvc;
+
 	@Autowired
 	private PartitionSettings myPartitionSettings;
 
@@ -534,13 +537,17 @@ public class JpaStorageResourceParser implements IJpaStorageResourceParser {
 		return FhirContext.forCached(theVersion);
 	}
 
-	private static String decodedResourceText(
+	private String decodedResourceText(
 			byte[] resourceBytes, String resourceText, ResourceEncodingEnum resourceEncoding) {
 		String decodedResourceText;
 		if (resourceText != null) {
 			decodedResourceText = resourceText;
 		} else {
-			decodedResourceText = decodeResource(resourceBytes, resourceEncoding);
+			decodedResourceText = decodeResource(
+					resourceBytes,
+					resourceEncoding,
+					myZstdDictionarySvc::getDictionary,
+					myStorageSettings.getZstdDictionaryCache());
 		}
 		return decodedResourceText;
 	}
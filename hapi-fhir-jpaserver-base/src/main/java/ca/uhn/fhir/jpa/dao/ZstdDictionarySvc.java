@@ -0,0 +1,124 @@
+/*
+ * #%L
+ * HAPI FHIR JPA Server
+ * %%
+ * Copyright (C) 2014 - 2023 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package ca.uhn.fhir.jpa.dao;
+
+import ca.uhn.fhir.i18n.Msg;
+import ca.uhn.fhir.jpa.api.config.JpaStorageSettings;
+import ca.uhn.fhir.jpa.dao.data.IZstdDictionaryDao;
+import ca.uhn.fhir.jpa.dao.tx.IHapiTransactionService;
+import ca.uhn.fhir.jpa.entity.ZstdDictionaryEntity;
+import ca.uhn.fhir.rest.server.exceptions.InternalErrorException;
+import ca.uhn.fhir.rest.server.exceptions.ResourceVersionConflictException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.annotation.Propagation;
+
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.annotation.Nullable;
+
+/**
+ * Keeps the Zstandard dictionaries used to compress resource bodies in the database. A
+ * dictionary registered in {@link JpaStorageSettings#addZstdDictionary(String, byte[])} is stored
+ * the first time it is used to compress a resource, and dictionaries which are not registered
+ * are loaded from the database when a resource compressed with them is read.
+ *
+ * @since 7.0.0
+ */
+public class ZstdDictionarySvc {
+	private static final Logger ourLog = LoggerFactory.getLogger(ZstdDictionarySvc.class);
+
+	private final Set<Integer> myStoredDictionaryIds = ConcurrentHashMap.newKeySet();
+
+	@Autowired
+	private JpaStorageSettings myStorageSettings;
+
+	@Autowired
+	private IZstdDictionaryDao myZstdDictionaryDao;
+
+	@Autowired
+	private IHapiTransactionService myTransactionService;
+
+	/**
+	 * Returns the dictionary to compress resources of the given type with, or {@literal null} if
+	 * none is registered. The dictionary is stored in the database before it is returned.
+	 */
+	@Nullable
+	public byte[] getCompressionDictionary(String theResourceType) {
+		byte[] retVal = myStorageSettings.getZstdCompressionDictionary(theResourceType);
+		if (retVal != null) {
+			int dictionaryId = ZstdUtil.getDictionaryId(retVal);
+			if (!myStoredDictionaryIds.contains(dictionaryId)) {
+				try {
+					storeDictionary(dictionaryId, theResourceType, retVal);
+				} catch (ResourceVersionConflictException e) {
+					// Another thread or server stored the same dictionary ID concurrently
+					ourLog.debug("Conflict storing Zstandard dictionary {}, will retry", dictionaryId, e);
+					storeDictionary(dictionaryId, theResourceType, retVal);
+				}
+				myStoredDictionaryIds.add(dictionaryId);
+			}
+		}
+		return retVal;
+	}
+
+	/**
+	 * Returns the dictionary with the given ID, checking the registered dictionaries first
+	 * and then the database, or {@literal null} if it is not found in either
+	 */
+	@Nullable
+	public byte[] getDictionary(int theDictionaryId) {
+		byte[] retVal = myStorageSettings.getZstdDictionary(theDictionaryId);
+		if (retVal == null) {
+			retVal = myTransactionService
+					.withSystemRequest()
+					.execute(() -> myZstdDictionaryDao
+							.findById(theDictionaryId)
+							.map(ZstdDictionaryEntity::getDictionary)
+							.orElse(null));
+		}
+		return retVal;
+	}
+
+	private void storeDictionary(int theDictionaryId, String theResourceType, byte[] theDictionary) {
+		myTransactionService
+				.withSystemRequest()
+				.withPropagation(Propagation.REQUIRES_NEW)
+				.execute(() -> {
+					Optional<ZstdDictionaryEntity> existing = myZstdDictionaryDao.findById(theDictionaryId);
+					if (existing.isPresent()) {
+						if (!Arrays.equals(existing.get().getDictionary(), theDictionary)) {
+							throw new InternalErrorException(Msg.code(2467)
+									+ "A different Zstandard dictionary with ID " + theDictionaryId
+									+ " is already stored in the database");
+						}
+						return null;
+					}
+
+					ourLog.info(
+							"Storing Zstandard dictionary {} for resource type {}", theDictionaryId, theResourceType);
+					myZstdDictionaryDao.save(new ZstdDictionaryEntity(theDictionaryId, theResourceType, theDictionary));
+					return null;
+				});
+	}
+}
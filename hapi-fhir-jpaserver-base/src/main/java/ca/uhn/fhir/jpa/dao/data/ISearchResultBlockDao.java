@@ -0,0 +1,48 @@
+/*
+ * #%L
+ * HAPI FHIR JPA Server
+ * %%
+ * Copyright (C) 2014 - 2023 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package ca.uhn.fhir.jpa.dao.data;
+
+import ca.uhn.fhir.jpa.entity.SearchResultBlock;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface ISearchResultBlockDao extends JpaRepository<SearchResultBlock, Long>, IHapiFhirJpaRepository {
+
+	@Query(
+			value = "SELECT b FROM SearchResultBlock b WHERE b.mySearchPid = :search AND b.myBlockStart < :to "
+					+ "AND b.myBlockStart + b.myPidCount > :from ORDER BY b.myBlockStart ASC")
+	List<SearchResultBlock> findOverlappingRange(
+			@Param("search") Long theSearchPid, @Param("from") int theFrom, @Param("to") int theTo);
+
+	@Query(value = "SELECT b FROM SearchResultBlock b WHERE b.mySearchPid = :search ORDER BY b.myBlockStart ASC")
+	List<SearchResultBlock> findAllForSearch(@Param("search") Long theSearchPid);
+
+	@Query(value = "SELECT b FROM SearchResultBlock b WHERE b.mySearchPid = :search AND b.myBlockStart = :start")
+	Optional<SearchResultBlock> findBlock(@Param("search") Long theSearchPid, @Param("start") int theBlockStart);
+
+	@Modifying
+	@Query(value = "DELETE FROM SearchResultBlock b WHERE b.mySearchPid = :search")
+	void deleteForSearch(@Param("search") Long theSearchPid);
+}
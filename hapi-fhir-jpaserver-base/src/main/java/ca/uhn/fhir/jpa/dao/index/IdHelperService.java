@@ -25,6 +25,7 @@ import ca.uhn.fhir.interceptor.model.RequestPartitionId;
 import ca.uhn.fhir.jpa.api.config.JpaStorageSettings;
 import ca.uhn.fhir.jpa.api.model.PersistentIdToForcedIdMap;
 import ca.uhn.fhir.jpa.api.svc.IIdHelperService;
+import ca.uhn.fhir.jpa.config.HibernatePropertiesProvider;
 import ca.uhn.fhir.jpa.dao.data.IResourceTableDao;
 import ca.uhn.fhir.jpa.model.config.PartitionSettings;
 import ca.uhn.fhir.jpa.model.cross.IResourceLookup;
@@ -39,6 +40,7 @@ import ca.uhn.fhir.rest.api.server.storage.BaseResourcePersistentId;
 import ca.uhn.fhir.rest.server.exceptions.InvalidRequestException;
 import ca.uhn.fhir.rest.server.exceptions.PreconditionFailedException;
 import ca.uhn.fhir.rest.server.exceptions.ResourceNotFoundException;
+import ca.uhn.fhir.util.ResourceIdentity;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ListMultimap;
 import com.google.common.collect.MultimapBuilder;
@@ -119,6 +121,9 @@ public class IdHelperService implements IIdHelperService<JpaPid> {
 	@Autowired
 	private PartitionSettings myPartitionSettings;
 
+	@Autowired(required = false)
+	private HibernatePropertiesProvider myDialectProvider;
+
 	private boolean myDontCheckActiveTransactionForUnitTest;
 
 	@VisibleForTesting
@@ -451,8 +456,7 @@ public class IdHelperService implements IIdHelperService<JpaPid> {
 	}
 
 	private void populateAssociatedResourceId(String nextResourceType, String forcedId, JpaPid jpaPid) {
-		IIdType resourceId = myFhirCtx.getVersion().newIdType();
-		resourceId.setValue(nextResourceType + "/" + forcedId);
+		IIdType resourceId = ResourceIdentity.of(nextResourceType, forcedId).toIdType(myFhirCtx);
 		jpaPid.setAssociatedResourceId(resourceId);
 	}
 
@@ -657,7 +661,7 @@ public class IdHelperService implements IIdHelperService<JpaPid> {
 		List<Long> remainingPids =
 				thePids.stream().filter(t -> !retVal.containsKey(t)).collect(Collectors.toList());
 
-		new QueryChunker<Long>().chunk(remainingPids, t -> {
+		new QueryChunker<Long>(myDialectProvider).chunk(remainingPids, t -> {
 			List<ResourceTable> resourceEntities = myResourceTableDao.findAllById(t);
 
 			for (ResourceTable nextResourceEntity : resourceEntities) {
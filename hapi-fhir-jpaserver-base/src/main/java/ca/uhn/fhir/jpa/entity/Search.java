@@ -276,6 +276,16 @@ public class Search implements ICachedSearchDetails, Serializable {
 		return myId;
 	}
 
+	/**
+	 * Search PIDs are normally assigned by the database. This is used by
+	 * search caches which do not store searches in the database.
+	 *
+	 * @since 7.0.0
+	 */
+	public void setId(Long theId) {
+		myId = theId;
+	}
+
 	public Collection<SearchInclude> getIncludes() {
 		if (myIncludes == null) {
 			myIncludes = new ArrayList<>();
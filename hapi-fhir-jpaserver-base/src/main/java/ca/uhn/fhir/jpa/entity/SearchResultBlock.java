@@ -0,0 +1,120 @@
+/*
+ * #%L
+ * HAPI FHIR JPA Server
+ * %%
+ * Copyright (C) 2014 - 2023 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package ca.uhn.fhir.jpa.entity;
+
+import org.apache.commons.lang3.Validate;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+import java.io.Serializable;
+import javax.persistence.*;
+
+/**
+ * Stores a contiguous block of search result PIDs in a single row. The PIDs are
+ * encoded using {@link ca.uhn.fhir.jpa.search.cache.SearchResultBlockCodec}.
+ *
+ * @since 7.0.0
+ */
+@Entity
+@Table(
+		name = "HFJ_SEARCH_RESULT_BLOCK",
+		uniqueConstraints = {
+			@UniqueConstraint(
+					name = "IDX_SEARCHRESBLK_START",
+					columnNames = {"SEARCH_PID", "BLOCK_START"})
+		})
+public class SearchResultBlock implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	@GeneratedValue(strategy = GenerationType.AUTO, generator = "SEQ_SEARCH_RES_BLK")
+	@SequenceGenerator(name = "SEQ_SEARCH_RES_BLK", sequenceName = "SEQ_SEARCH_RES_BLK")
+	@Id
+	@Column(name = "PID")
+	private Long myId;
+
+	@Column(name = "SEARCH_PID", insertable = true, updatable = false, nullable = false)
+	private Long mySearchPid;
+
+	/**
+	 * The search order of the first PID in this block
+	 */
+	@Column(name = "BLOCK_START", insertable = true, updatable = false, nullable = false)
+	private int myBlockStart;
+
+	@Column(name = "PID_COUNT", nullable = false)
+	private int myPidCount;
+
+	@Lob
+	@Column(name = "PID_DATA", nullable = false)
+	private byte[] myPidData;
+
+	/**
+	 * Constructor
+	 */
+	public SearchResultBlock() {
+		// nothing
+	}
+
+	/**
+	 * Constructor
+	 */
+	public SearchResultBlock(Search theSearch, int theBlockStart) {
+		Validate.notNull(theSearch.getId());
+		mySearchPid = theSearch.getId();
+		myBlockStart = theBlockStart;
+	}
+
+	@Override
+	public String toString() {
+		return new ToStringBuilder(this)
+				.append("search", mySearchPid)
+				.append("blockStart", myBlockStart)
+				.append("pidCount", myPidCount)
+				.toString();
+	}
+
+	public Long getId() {
+		return myId;
+	}
+
+	public Long getSearchPid() {
+		return mySearchPid;
+	}
+
+	public int getBlockStart() {
+		return myBlockStart;
+	}
+
+	public int getPidCount() {
+		return myPidCount;
+	}
+
+	public void setPidCount(int thePidCount) {
+		myPidCount = thePidCount;
+	}
+
+	public byte[] getPidData() {
+		return myPidData;
+	}
+
+	public void setPidData(byte[] thePidData) {
+		myPidData = thePidData;
+	}
+}
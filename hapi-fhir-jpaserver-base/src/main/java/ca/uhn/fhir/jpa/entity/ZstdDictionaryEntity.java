@@ -0,0 +1,111 @@
+/*
+ * #%L
+ * HAPI FHIR JPA Server
+ * %%
+ * Copyright (C) 2014 - 2023 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package ca.uhn.fhir.jpa.entity;
+
+import ca.uhn.fhir.jpa.model.entity.ResourceTable;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+
+import java.io.Serializable;
+import java.util.Date;
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Lob;
+import javax.persistence.Table;
+import javax.persistence.Temporal;
+import javax.persistence.TemporalType;
+
+/**
+ * Stores a Zstandard dictionary which has been used to compress resource bodies, so that
+ * those bodies can still be decompressed after the dictionary is no longer registered in
+ * {@link ca.uhn.fhir.jpa.api.config.JpaStorageSettings}.
+ *
+ * @since 7.0.0
+ */
+@Entity
+@Table(name = "HFJ_ZSTD_DICTIONARY")
+public class ZstdDictionaryEntity implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * The ID embedded in the dictionary itself, which is also written into every frame compressed with it
+	 */
+	@Id
+	@Column(name = "DICT_ID", nullable = false, updatable = false)
+	private Integer myId;
+
+	/**
+	 * The resource type the dictionary was first used to compress
+	 */
+	@Column(name = "RES_TYPE", length = ResourceTable.RESTYPE_LEN, nullable = false, updatable = false)
+	private String myResourceType;
+
+	@Lob
+	@Column(name = "DICT_DATA", nullable = false, updatable = false)
+	private byte[] myDictionary;
+
+	@Temporal(TemporalType.TIMESTAMP)
+	@Column(name = "CREATED", nullable = false, updatable = false)
+	private Date myCreated;
+
+	/**
+	 * Constructor
+	 */
+	public ZstdDictionaryEntity() {
+		// nothing
+	}
+
+	/**
+	 * Constructor
+	 */
+	public ZstdDictionaryEntity(int theId, String theResourceType, byte[] theDictionary) {
+		myId = theId;
+		myResourceType = theResourceType;
+		myDictionary = theDictionary;
+		myCreated = new Date();
+	}
+
+	@Override
+	public String toString() {
+		return new ToStringBuilder(this)
+				.append("id", myId)
+				.append("resourceType", myResourceType)
+				.append("size", myDictionary != null ? myDictionary.length : null)
+				.append("created", myCreated)
+				.toString();
+	}
+
+	public Integer getId() {
+		return myId;
+	}
+
+	public String getResourceType() {
+		return myResourceType;
+	}
+
+	public byte[] getDictionary() {
+		return myDictionary;
+	}
+
+	public Date getCreated() {
+		return myCreated;
+	}
+}
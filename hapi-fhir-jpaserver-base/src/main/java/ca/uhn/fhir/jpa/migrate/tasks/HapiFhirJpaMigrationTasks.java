@@ -124,6 +124,28 @@ public class HapiFhirJpaMigrationTasks extends BaseMigrationTasks<VersionEnum> {
 				.online(true)
 				.includeColumns("RES_ID")
 				.withColumns("FHIR_ID", "RES_TYPE");
+
+		// Compressed search result blocks
+		version.addIdGenerator("20231101.1", "SEQ_SEARCH_RES_BLK");
+		Builder.BuilderAddTableByColumns searchResultBlock =
+				version.addTableByColumns("20231101.2", "HFJ_SEARCH_RESULT_BLOCK", "PID");
+		searchResultBlock.addColumn("PID").nonNullable().type(ColumnTypeEnum.LONG);
+		searchResultBlock.addColumn("SEARCH_PID").nonNullable().type(ColumnTypeEnum.LONG);
+		searchResultBlock.addColumn("BLOCK_START").nonNullable().type(ColumnTypeEnum.INT);
+		searchResultBlock.addColumn("PID_COUNT").nonNullable().type(ColumnTypeEnum.INT);
+		searchResultBlock.addColumn("PID_DATA").nonNullable().type(ColumnTypeEnum.BLOB);
+		searchResultBlock
+				.addIndex("20231101.3", "IDX_SEARCHRESBLK_START")
+				.unique(true)
+				.withColumns("SEARCH_PID", "BLOCK_START");
+
+		// Zstandard compression dictionaries
+		Builder.BuilderAddTableByColumns zstdDictionary =
+				version.addTableByColumns("20231201.1", "HFJ_ZSTD_DICTIONARY", "DICT_ID");
+		zstdDictionary.addColumn("DICT_ID").nonNullable().type(ColumnTypeEnum.INT);
+		zstdDictionary.addColumn("RES_TYPE").nonNullable().type(ColumnTypeEnum.STRING, 40);
+		zstdDictionary.addColumn("DICT_DATA").nonNullable().type(ColumnTypeEnum.BLOB);
+		zstdDictionary.addColumn("CREATED").nonNullable().type(ColumnTypeEnum.DATE_TIMESTAMP);
 	}
 
 	protected void init680() {
@@ -256,9 +256,11 @@ public class PersistedJpaBundleProvider implements IBundleProvider {
 		RequestPartitionId requestPartitionId = getRequestPartitionId();
 		final List<JpaPid> pidsSubList =
 				mySearchCoordinatorSvc.getResources(myUuid, theFromIndex, theToIndex, myRequest, requestPartitionId);
+		// Read-only, like synchronous searches, so that includes may be loaded in parallel
 		List<IBaseResource> resources = myTxService
 				.withRequest(myRequest)
 				.withRequestPartitionId(requestPartitionId)
+				.readOnly()
 				.execute(() -> {
 					return toResourceList(sb, pidsSubList, theResponsePageBuilder);
 				});
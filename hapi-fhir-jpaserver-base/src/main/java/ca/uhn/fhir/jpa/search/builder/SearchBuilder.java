@@ -99,6 +99,7 @@ import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.Validate;
 import org.apache.commons.lang3.math.NumberUtils;
 import org.apache.commons.lang3.tuple.Pair;
+import org.hibernate.dialect.Dialect;
 import org.hl7.fhir.instance.model.api.IAnyResource;
 import org.hl7.fhir.instance.model.api.IBaseResource;
 import org.slf4j.Logger;
@@ -118,6 +119,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -150,6 +153,7 @@ public class SearchBuilder implements ISearchBuilder<JpaPid> {
 	public static final int MAXIMUM_PAGE_SIZE = SearchConstants.MAX_PAGE_SIZE;
 
 	public static final int MAXIMUM_PAGE_SIZE_FOR_TESTING = 50;
+
 	public static final String RESOURCE_ID_ALIAS = "resource_id";
 	public static final String RESOURCE_VERSION_ALIAS = "resource_version";
 	private static final Logger ourLog = LoggerFactory.getLogger(SearchBuilder.class);
@@ -194,6 +198,9 @@ public class SearchBuilder implements ISearchBuilder<JpaPid> {
 	@Autowired(required = false)
 	private IElasticsearchSvc myIElasticsearchSvc;
 
+	@Autowired(required = false)
+	private SearchIncludeLoaderSvc mySearchIncludeLoaderSvc;
+
 	@Autowired
 	private IJpaStorageResourceParser myJpaStorageResourceParser;
 
@@ -1201,7 +1208,7 @@ public class SearchBuilder implements ISearchBuilder<JpaPid> {
 		}
 
 		// We only chunk because some jdbc drivers can't handle long param lists.
-		new QueryChunker<JpaPid>()
+		new QueryChunker<JpaPid>(myDialectProvider)
 				.chunk(
 						thePids,
 						t -> doLoadPids(
@@ -1301,10 +1308,9 @@ public class SearchBuilder implements ISearchBuilder<JpaPid> {
 		String searchPidFieldName = reverseMode ? MY_TARGET_RESOURCE_PID : MY_SOURCE_RESOURCE_PID;
 		String findPidFieldName = reverseMode ? MY_SOURCE_RESOURCE_PID : MY_TARGET_RESOURCE_PID;
 		String findResourceTypeFieldName = reverseMode ? MY_SOURCE_RESOURCE_TYPE : MY_TARGET_RESOURCE_TYPE;
-		String findVersionFieldName = null;
-		if (!reverseMode && myStorageSettings.isRespectVersionsForSearchIncludes()) {
-			findVersionFieldName = MY_TARGET_RESOURCE_VERSION;
-		}
+		String findVersionFieldName = !reverseMode && myStorageSettings.isRespectVersionsForSearchIncludes()
+				? MY_TARGET_RESOURCE_VERSION
+				: null;
 
 		List<JpaPid> nextRoundMatches = new ArrayList<>(matches);
 		HashSet<JpaPid> allAdded = new HashSet<>();
@@ -1319,6 +1325,13 @@ public class SearchBuilder implements ISearchBuilder<JpaPid> {
 			roundCounts++;
 
 			HashSet<JpaPid> pidsToInclude = new HashSet<>();
+			List<Collection<JpaPid>> partitions = partition(nextRoundMatches, getMaximumIncludeBatchSize());
+
+			/*
+			 * Each include (and each path of each include) is loaded by an independent
+			 * query, so we collect them here and then run them all together below
+			 */
+			List<Function<EntityManager, Set<JpaPid>>> includeLoaders = new ArrayList<>();
 
 			for (Iterator<Include> iter = includes.iterator(); iter.hasNext(); ) {
 				Include nextInclude = iter.next();
@@ -1389,40 +1402,44 @@ public class SearchBuilder implements ISearchBuilder<JpaPid> {
 					}
 
 					String sql = sqlBuilder.toString();
-					List<Collection<JpaPid>> partitions = partition(nextRoundMatches, getMaximumPageSize());
+					String finalWantResourceType = wantResourceType;
 					for (Collection<JpaPid> nextPartition : partitions) {
-						TypedQuery<?> q = entityManager.createQuery(sql, Object[].class);
-						q.setParameter("target_pids", JpaPid.toLongList(nextPartition));
-						if (wantResourceType != null) {
-							q.setParameter("want_resource_type", wantResourceType);
-						}
-						if (maxCount != null) {
-							q.setMaxResults(maxCount);
-						}
-						if (hasDesiredResourceTypes) {
-							q.setParameter("desired_target_resource_types", desiredResourceTypes);
-						}
-						List<?> results = q.getResultList();
-						for (Object nextRow : results) {
-							if (nextRow == null) {
-								// This can happen if there are outgoing references which are canonical or point to
-								// other servers
-								continue;
+						includeLoaders.add(em -> {
+							Set<JpaPid> loaded = new HashSet<>();
+							TypedQuery<?> q = em.createQuery(sql, Object[].class);
+							q.setParameter("target_pids", toIncludeBatchPidList(nextPartition));
+							if (finalWantResourceType != null) {
+								q.setParameter("want_resource_type", finalWantResourceType);
 							}
-
-							Long version = null;
-							Long resourceLink = (Long) ((Object[]) nextRow)[0];
-							String resourceType = (String) ((Object[]) nextRow)[1];
-							if (findVersionFieldName != null) {
-								version = (Long) ((Object[]) nextRow)[2];
+							if (maxCount != null) {
+								q.setMaxResults(maxCount);
+							}
+							if (hasDesiredResourceTypes) {
+								q.setParameter("desired_target_resource_types", desiredResourceTypes);
 							}
+							List<?> results = q.getResultList();
+							for (Object nextRow : results) {
+								if (nextRow == null) {
+									// This can happen if there are outgoing references which are canonical or point
+									// to other servers
+									continue;
+								}
 
-							if (resourceLink != null) {
-								JpaPid pid =
-										JpaPid.fromIdAndVersionAndResourceType(resourceLink, version, resourceType);
-								pidsToInclude.add(pid);
+								Long version = null;
+								Long resourceLink = (Long) ((Object[]) nextRow)[0];
+								String resourceType = (String) ((Object[]) nextRow)[1];
+								if (findVersionFieldName != null) {
+									version = (Long) ((Object[]) nextRow)[2];
+								}
+
+								if (resourceLink != null) {
+									JpaPid pid = JpaPid.fromIdAndVersionAndResourceType(
+											resourceLink, version, resourceType);
+									loaded.add(pid);
+								}
 							}
-						}
+							return loaded;
+						});
 					}
 				} else {
 					List<String> paths;
@@ -1503,35 +1520,43 @@ public class SearchBuilder implements ISearchBuilder<JpaPid> {
 
 						String sql = localReferenceQuery + " UNION " + canonicalQuery.getLeft();
 
-						List<Collection<JpaPid>> partitions = partition(nextRoundMatches, getMaximumPageSize());
 						for (Collection<JpaPid> nextPartition : partitions) {
-							Query q = entityManager.createNativeQuery(sql, Tuple.class);
-							q.setParameter("target_pids", JpaPid.toLongList(nextPartition));
-							localReferenceQueryParams.forEach(q::setParameter);
-							canonicalQuery.getRight().forEach(q::setParameter);
-
-							if (maxCount != null) {
-								q.setMaxResults(maxCount);
-							}
-							@SuppressWarnings("unchecked")
-							List<Tuple> results = q.getResultList();
-							for (Tuple result : results) {
-								if (result != null) {
-									Long resourceId =
-											NumberUtils.createLong(String.valueOf(result.get(RESOURCE_ID_ALIAS)));
-									Long resourceVersion = null;
-									if (findVersionFieldName != null && result.get(RESOURCE_VERSION_ALIAS) != null) {
-										resourceVersion = NumberUtils.createLong(
-												String.valueOf(result.get(RESOURCE_VERSION_ALIAS)));
+							includeLoaders.add(em -> {
+								Set<JpaPid> loaded = new HashSet<>();
+								Query q = em.createNativeQuery(sql, Tuple.class);
+								q.setParameter("target_pids", toIncludeBatchPidList(nextPartition));
+								localReferenceQueryParams.forEach(q::setParameter);
+								canonicalQuery.getRight().forEach(q::setParameter);
+
+								if (maxCount != null) {
+									q.setMaxResults(maxCount);
+								}
+								@SuppressWarnings("unchecked")
+								List<Tuple> results = q.getResultList();
+								for (Tuple result : results) {
+									if (result != null) {
+										Long resourceId =
+												NumberUtils.createLong(String.valueOf(result.get(RESOURCE_ID_ALIAS)));
+										Long resourceVersion = null;
+										if (findVersionFieldName != null
+												&& result.get(RESOURCE_VERSION_ALIAS) != null) {
+											resourceVersion = NumberUtils.createLong(
+													String.valueOf(result.get(RESOURCE_VERSION_ALIAS)));
+										}
+										loaded.add(JpaPid.fromIdAndVersion(resourceId, resourceVersion));
 									}
-									pidsToInclude.add(JpaPid.fromIdAndVersion(resourceId, resourceVersion));
 								}
-							}
+								return loaded;
+							});
 						}
 					}
 				}
 			}
 
+			for (Set<JpaPid> next : executeIncludeLoaders(includeLoaders, entityManager, request)) {
+				pidsToInclude.addAll(next);
+			}
+
 			nextRoundMatches.clear();
 			for (JpaPid next : pidsToInclude) {
 				if (!original.contains(next) && !allAdded.contains(next)) {
@@ -1592,6 +1617,71 @@ public class SearchBuilder implements ISearchBuilder<JpaPid> {
 		return allAdded;
 	}
 
+	/**
+	 * Runs the include queries collected for a single round of include loading. If a
+	 * {@link SearchIncludeLoaderSvc} is available and parallel loading is allowed, the
+	 * queries run concurrently, each in its own read-only transaction using the shared
+	 * entity manager. Otherwise they run one after another on the calling thread using
+	 * the supplied entity manager.
+	 */
+	private List<Set<JpaPid>> executeIncludeLoaders(
+			List<Function<EntityManager, Set<JpaPid>>> theLoaders,
+			EntityManager theEntityManager,
+			RequestDetails theRequest) {
+		// Captured SQL is only visible on the calling thread, so don't go parallel if anyone is listening for it
+		boolean parallel = theLoaders.size() > 1
+				&& mySearchIncludeLoaderSvc != null
+				&& mySearchIncludeLoaderSvc.isParallelAllowed()
+				&& !CompositeInterceptorBroadcaster.hasHooks(
+						Pointcut.JPA_PERFTRACE_RAW_SQL, myInterceptorBroadcaster, theRequest);
+
+		if (!parallel) {
+			List<Set<JpaPid>> retVal = new ArrayList<>(theLoaders.size());
+			for (Function<EntityManager, Set<JpaPid>> next : theLoaders) {
+				retVal.add(next.apply(theEntityManager));
+			}
+			return retVal;
+		}
+
+		List<Supplier<Set<JpaPid>>> tasks = new ArrayList<>(theLoaders.size());
+		for (Function<EntityManager, Set<JpaPid>> next : theLoaders) {
+			tasks.add(() -> next.apply(myEntityManager));
+		}
+		return mySearchIncludeLoaderSvc.executeAll(tasks, theRequest, myRequestPartitionId);
+	}
+
+	/**
+	 * Returns the maximum number of PIDs to bind into a single include query. Databases
+	 * we know to accept large bind lists get batches of up to
+	 * {@link QueryChunker#MAXIMUM_INCLUDE_BATCH_SIZE} (the native include
+	 * query binds the list twice, so this stays well under the PostgreSQL limit of
+	 * 32767 bind parameters), meaning that most include rounds need only one query per
+	 * include instead of one per page of {@link #getMaximumPageSize()} PIDs.
+	 */
+	private int getMaximumIncludeBatchSize() {
+		Dialect dialect = myDialectProvider != null ? myDialectProvider.getDialect() : null;
+		return QueryChunker.getMaximumInClauseSize(dialect);
+	}
+
+	/**
+	 * Batches larger than {@link #getMaximumPageSize()} are padded up to the next multiple of
+	 * that size by repeating the last PID. This doesn't change the results of the IN clause
+	 * but keeps the number of distinct query shapes (and therefore Hibernate query plan cache
+	 * entries) small.
+	 */
+	private static List<Long> toIncludeBatchPidList(Collection<JpaPid> thePids) {
+		List<Long> retVal = JpaPid.toLongList(thePids);
+		int pageSize = getMaximumPageSize();
+		if (retVal.size() > pageSize) {
+			int preferredSize = ((retVal.size() + pageSize - 1) / pageSize) * pageSize;
+			Long last = retVal.get(retVal.size() - 1);
+			while (retVal.size() < preferredSize) {
+				retVal.add(last);
+			}
+		}
+		return retVal;
+	}
+
 	/**
 	 * Given a
 	 * @param request
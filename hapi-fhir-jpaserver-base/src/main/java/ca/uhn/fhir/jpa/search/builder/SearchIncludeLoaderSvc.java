@@ -0,0 +1,190 @@
+/*
+ * #%L
+ * HAPI FHIR JPA Server
+ * %%
+ * Copyright (C) 2014 - 2023 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package ca.uhn.fhir.jpa.search.builder;
+
+import ca.uhn.fhir.i18n.Msg;
+import ca.uhn.fhir.interceptor.model.RequestPartitionId;
+import ca.uhn.fhir.jpa.api.config.JpaStorageSettings;
+import ca.uhn.fhir.jpa.dao.tx.IHapiTransactionService;
+import ca.uhn.fhir.rest.api.server.RequestDetails;
+import ca.uhn.fhir.rest.server.exceptions.InternalErrorException;
+import ca.uhn.fhir.util.ThreadPoolUtil;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.function.Supplier;
+import javax.annotation.Nullable;
+import javax.annotation.PreDestroy;
+
+/**
+ * Runs the independent queries of a single _include/_revinclude round concurrently on
+ * a bounded thread pool, with each query in its own read-only transaction. The pool
+ * size is controlled by {@link JpaStorageSettings#getIncludeLoadThreadCount()}; when
+ * it is 1 (the default) the queries are run in order on the calling thread.
+ * <p>
+ * Pool threads can't see uncommitted changes made by the calling thread's transaction,
+ * so the queries are also run on the calling thread whenever it is inside a read-write
+ * transaction. This is the case, for example, for a search performed as part of a FHIR
+ * transaction Bundle which may have created the resources being included.
+ * </p>
+ * <p>
+ * Each pool thread needs its own database connection while the calling thread keeps
+ * holding the connection of the search transaction. Submitting to the pool therefore
+ * never blocks: a query that can't be handed to an idle pool thread straight away is
+ * run on the calling thread in its existing transaction. A single search therefore
+ * uses at most {@link JpaStorageSettings#getIncludeLoadThreadCount()} extra connections,
+ * and since the pool is shared, so do all concurrent searches together. The connection
+ * pool still needs to be larger than the number of concurrent searches plus the pool
+ * size, or pool threads will wait for a connection until the connection timeout.
+ * </p>
+ *
+ * @since 7.0.0
+ */
+public class SearchIncludeLoaderSvc {
+
+	@Autowired
+	private JpaStorageSettings myStorageSettings;
+
+	@Autowired
+	private IHapiTransactionService myTransactionService;
+
+	private ThreadPoolTaskExecutor myExecutor;
+
+	/**
+	 * Constructor
+	 */
+	public SearchIncludeLoaderSvc() {
+		super();
+	}
+
+	/**
+	 * Constructor
+	 */
+	public SearchIncludeLoaderSvc(
+			JpaStorageSettings theStorageSettings, IHapiTransactionService theTransactionService) {
+		myStorageSettings = theStorageSettings;
+		myTransactionService = theTransactionService;
+	}
+
+	public boolean isParallelEnabled() {
+		return myStorageSettings.getIncludeLoadThreadCount() > 1;
+	}
+
+	/**
+	 * Returns <code>true</code> if parallel loading is enabled and the calling thread is not
+	 * inside a read-write transaction, whose uncommitted changes would not be visible to the
+	 * queries run on the pool
+	 */
+	public boolean isParallelAllowed() {
+		return isParallelEnabled() && !isInReadWriteTransaction();
+	}
+
+	private static boolean isInReadWriteTransaction() {
+		return TransactionSynchronizationManager.isActualTransactionActive()
+				&& !TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+	}
+
+	/**
+	 * Executes the given tasks and returns their results in the same order. If more than
+	 * one task is supplied and parallel loading is {@link #isParallelAllowed() allowed}, each task is run on the
+	 * include loader pool inside a new read-only transaction, so the tasks must not rely on
+	 * any state bound to the calling thread's transaction. Tasks which can't be handed to an
+	 * idle pool thread are run on the calling thread instead.
+	 */
+	public <T> List<T> executeAll(
+			List<Supplier<T>> theTasks,
+			@Nullable RequestDetails theRequestDetails,
+			@Nullable RequestPartitionId theRequestPartitionId) {
+		List<T> retVal = new ArrayList<>(theTasks.size());
+		if (theTasks.size() < 2 || !isParallelAllowed()) {
+			for (Supplier<T> next : theTasks) {
+				retVal.add(next.get());
+			}
+			return retVal;
+		}
+
+		ThreadPoolTaskExecutor executor = getExecutor();
+		List<Future<T>> futures = new ArrayList<>(theTasks.size());
+		for (Supplier<T> next : theTasks) {
+			try {
+				futures.add(CompletableFuture.supplyAsync(
+						() -> myTransactionService
+								.withRequest(theRequestDetails)
+								.withRequestPartitionId(theRequestPartitionId)
+								.readOnly()
+								.execute(next::get),
+						executor));
+			} catch (RejectedExecutionException e) {
+				// All pool threads are busy, so don't block waiting for one (it may be waiting
+				// for a connection held by us) and just run the task here
+				futures.add(CompletableFuture.completedFuture(next.get()));
+			}
+		}
+
+		for (Future<T> next : futures) {
+			retVal.add(getResult(next));
+		}
+		return retVal;
+	}
+
+	private synchronized ThreadPoolTaskExecutor getExecutor() {
+		if (myExecutor == null) {
+			int threadCount = myStorageSettings.getIncludeLoadThreadCount();
+			myExecutor = ThreadPoolUtil.newThreadPool(threadCount, threadCount, "include-loader-");
+			myExecutor.getThreadPoolExecutor().setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+		}
+		return myExecutor;
+	}
+
+	@PreDestroy
+	public synchronized void stop() {
+		if (myExecutor != null) {
+			myExecutor.shutdown();
+			myExecutor = null;
+		}
+	}
+
+	private static <T> T getResult(Future<T> theFuture) {
+		try {
+			return theFuture.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InternalErrorException(Msg.code(2464) + e.getMessage(), e);
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof CompletionException && cause.getCause() != null) {
+				cause = cause.getCause();
+			}
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			throw new InternalErrorException(Msg.code(2465) + cause.getMessage(), cause);
+		}
+	}
+}
@@ -492,23 +492,9 @@ public class SearchQueryBuilder {
 		getOrCreateFirstPredicateBuilder();
 
 		mySelect.validate();
-		String sql = mySelect.toString();
 
 		List<Object> bindVariables = new ArrayList<>();
-		while (true) {
-
-			int idx = sql.indexOf(myBindVariableSubstitutionBase);
-			if (idx == -1) {
-				break;
-			}
-
-			int endIdx = sql.indexOf("'", idx + myBindVariableSubstitutionBase.length());
-			String substitutionIndexString = sql.substring(idx + myBindVariableSubstitutionBase.length(), endIdx);
-			int substitutionIndex = Integer.parseInt(substitutionIndexString);
-			bindVariables.add(myBindVariableValues.get(substitutionIndex));
-
-			sql = sql.substring(0, idx - 1) + "?" + sql.substring(endIdx + 1);
-		}
+		String sql = substituteBindVariables(mySelect.toString(), bindVariables);
 
 		Integer maxResultsToFetch = theMaxResultsToFetch;
 		Integer offset = theOffset;
@@ -580,6 +566,33 @@ public class SearchQueryBuilder {
 		return new GeneratedSql(myMatchNothing, sql, bindVariables);
 	}
 
+	/**
+	 * Replaces each of the bind variable placeholders (see {@link #generatePlaceholder(Object)})
+	 * in the given SQL with a <code>?</code>, adding the corresponding values to
+	 * <code>theBindVariablesToPopulate</code> in the order they appear.
+	 */
+	private String substituteBindVariables(String theSql, List<Object> theBindVariablesToPopulate) {
+		StringBuilder retVal = new StringBuilder(theSql.length());
+		int baseLength = myBindVariableSubstitutionBase.length();
+		int start = 0;
+		while (true) {
+			int idx = theSql.indexOf(myBindVariableSubstitutionBase, start);
+			if (idx == -1) {
+				break;
+			}
+
+			int endIdx = theSql.indexOf("'", idx + baseLength);
+			int substitutionIndex = Integer.parseInt(theSql.substring(idx + baseLength, endIdx));
+			theBindVariablesToPopulate.add(myBindVariableValues.get(substitutionIndex));
+
+			// The placeholder is a quoted string literal, so drop the opening and closing quotes too
+			retVal.append(theSql, start, idx - 1).append('?');
+			start = endIdx + 1;
+		}
+		retVal.append(theSql, start, theSql.length());
+		return retVal.toString();
+	}
+
 	private int bindCountParameter(
 			List<Object> bindVariables,
 			Integer maxResultsToFetch,
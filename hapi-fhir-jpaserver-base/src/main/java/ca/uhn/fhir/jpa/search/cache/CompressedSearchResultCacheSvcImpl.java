@@ -0,0 +1,221 @@
+/*
+ * #%L
+ * HAPI FHIR JPA Server
+ * %%
+ * Copyright (C) 2014 - 2023 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package ca.uhn.fhir.jpa.search.cache;
+
+import ca.uhn.fhir.interceptor.model.RequestPartitionId;
+import ca.uhn.fhir.jpa.dao.data.ISearchResultBlockDao;
+import ca.uhn.fhir.jpa.dao.tx.IHapiTransactionService;
+import ca.uhn.fhir.jpa.entity.Search;
+import ca.uhn.fhir.jpa.entity.SearchResultBlock;
+import ca.uhn.fhir.jpa.model.dao.JpaPid;
+import ca.uhn.fhir.rest.api.server.RequestDetails;
+import com.google.common.annotations.VisibleForTesting;
+import org.apache.commons.lang3.Validate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Search result cache which stores the result PIDs for a search in blocks of up to
+ * {@link #DEFAULT_BLOCK_SIZE} PIDs, with one {@link SearchResultBlock} row per block,
+ * instead of one {@link ca.uhn.fhir.jpa.entity.SearchResult} row per PID. PIDs within a
+ * block are encoded using {@link SearchResultBlockCodec}.
+ * <p>
+ * Searches which were already stored using one row per result (e.g. because they were
+ * created before this implementation was enabled) continue to be read and written using
+ * that storage.
+ * </p>
+ *
+ * @since 7.0.0
+ */
+public class CompressedSearchResultCacheSvcImpl extends DatabaseSearchResultCacheSvcImpl {
+	public static final int DEFAULT_BLOCK_SIZE = 500;
+	private static final Logger ourLog = LoggerFactory.getLogger(CompressedSearchResultCacheSvcImpl.class);
+
+	@Autowired
+	private ISearchResultBlockDao mySearchResultBlockDao;
+
+	@Autowired
+	private IHapiTransactionService myTransactionService;
+
+	private int myBlockSize = DEFAULT_BLOCK_SIZE;
+
+	@VisibleForTesting
+	public void setBlockSizeForUnitTest(int theBlockSize) {
+		Validate.isTrue(theBlockSize > 0);
+		myBlockSize = theBlockSize;
+	}
+
+	@Override
+	public List<JpaPid> fetchResultPids(
+			Search theSearch,
+			int theFrom,
+			int theTo,
+			RequestDetails theRequestDetails,
+			RequestPartitionId theRequestPartitionId) {
+		if (theTo <= theFrom) {
+			return Collections.emptyList();
+		}
+
+		List<JpaPid> retVal = myTransactionService
+				.withRequest(theRequestDetails)
+				.withRequestPartitionId(theRequestPartitionId)
+				.execute(() -> {
+					List<SearchResultBlock> blocks =
+							mySearchResultBlockDao.findOverlappingRange(theSearch.getId(), theFrom, theTo);
+					if (blocks.isEmpty()) {
+						return null;
+					}
+
+					List<Long> pids = new ArrayList<>(theTo - theFrom);
+					for (SearchResultBlock next : blocks) {
+						int start = next.getBlockStart();
+						pids.addAll(SearchResultBlockCodec.decode(
+								next.getPidData(), Math.max(0, theFrom - start), theTo - start));
+					}
+
+					ourLog.debug(
+							"fetchResultPids for range {}-{} returned {} pids from {} blocks",
+							theFrom,
+							theTo,
+							pids.size(),
+							blocks.size());
+					return JpaPid.fromLongList(pids);
+				});
+
+		if (retVal == null) {
+			return super.fetchResultPids(theSearch, theFrom, theTo, theRequestDetails, theRequestPartitionId);
+		}
+		return retVal;
+	}
+
+	@Override
+	public List<JpaPid> fetchAllResultPids(
+			Search theSearch, RequestDetails theRequestDetails, RequestPartitionId theRequestPartitionId) {
+		List<JpaPid> retVal = myTransactionService
+				.withRequest(theRequestDetails)
+				.withRequestPartitionId(theRequestPartitionId)
+				.execute(() -> {
+					List<SearchResultBlock> blocks = mySearchResultBlockDao.findAllForSearch(theSearch.getId());
+					if (blocks.isEmpty()) {
+						return null;
+					}
+
+					List<Long> pids = new ArrayList<>();
+					for (SearchResultBlock next : blocks) {
+						pids.addAll(SearchResultBlockCodec.decode(next.getPidData()));
+					}
+					ourLog.trace("fetchAllResultPids returned {} pids from {} blocks", pids.size(), blocks.size());
+					return JpaPid.fromLongList(pids);
+				});
+
+		if (retVal == null) {
+			return super.fetchAllResultPids(theSearch, theRequestDetails, theRequestPartitionId);
+		}
+		return retVal;
+	}
+
+	@Override
+	public void storeResults(
+			Search theSearch,
+			List<JpaPid> thePreviouslyStoredResourcePids,
+			List<JpaPid> theNewResourcePids,
+			RequestDetails theRequestDetails,
+			RequestPartitionId theRequestPartitionId) {
+		if (theNewResourcePids.isEmpty()) {
+			return;
+		}
+
+		boolean stored = myTransactionService
+				.withRequest(theRequestDetails)
+				.withRequestPartitionId(theRequestPartitionId)
+				.execute(() -> {
+					int previousCount = thePreviouslyStoredResourcePids.size();
+
+					/*
+					 * If the last stored block isn't full, it gets rewritten with the new
+					 * PIDs appended to it
+					 */
+					SearchResultBlock block = null;
+					List<Long> blockPids = new ArrayList<>(myBlockSize);
+					if (previousCount > 0) {
+						List<SearchResultBlock> tail = mySearchResultBlockDao.findOverlappingRange(
+								theSearch.getId(), previousCount - 1, previousCount);
+						if (tail.isEmpty()) {
+							// The existing results were stored one row per result
+							return false;
+						}
+
+						SearchResultBlock last = tail.get(tail.size() - 1);
+						if (last.getPidCount() < myBlockSize
+								&& last.getBlockStart() + last.getPidCount() == previousCount) {
+							block = last;
+							blockPids.addAll(SearchResultBlockCodec.decode(last.getPidData()));
+						}
+					}
+
+					ourLog.debug(
+							"Storing {} results with {} previous for search",
+							theNewResourcePids.size(),
+							previousCount);
+
+					List<SearchResultBlock> blocksToSave = new ArrayList<>();
+					int nextStart = previousCount;
+					for (JpaPid nextPid : theNewResourcePids) {
+						if (block == null) {
+							block = new SearchResultBlock(theSearch, nextStart);
+						}
+						blockPids.add(nextPid.getId());
+						nextStart++;
+						if (blockPids.size() >= myBlockSize) {
+							blocksToSave.add(populateBlock(block, blockPids));
+							block = null;
+							blockPids.clear();
+						}
+					}
+					if (block != null) {
+						blocksToSave.add(populateBlock(block, blockPids));
+					}
+
+					mySearchResultBlockDao.saveAll(blocksToSave);
+					return true;
+				});
+
+		if (!stored) {
+			super.storeResults(
+					theSearch,
+					thePreviouslyStoredResourcePids,
+					theNewResourcePids,
+					theRequestDetails,
+					theRequestPartitionId);
+		}
+	}
+
+	private static SearchResultBlock populateBlock(SearchResultBlock theBlock, List<Long> thePids) {
+		theBlock.setPidCount(thePids.size());
+		theBlock.setPidData(SearchResultBlockCodec.encode(thePids));
+		ourLog.trace("Saving block starting at {} with {} PIDs", theBlock.getBlockStart(), thePids.size());
+		return theBlock;
+	}
+}
@@ -0,0 +1,406 @@
+/*
+ * #%L
+ * HAPI FHIR JPA Server
+ * %%
+ * Copyright (C) 2014 - 2023 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package ca.uhn.fhir.jpa.search.cache;
+
+import ca.uhn.fhir.interceptor.model.RequestPartitionId;
+import ca.uhn.fhir.jpa.api.config.JpaStorageSettings;
+import ca.uhn.fhir.jpa.entity.Search;
+import ca.uhn.fhir.jpa.model.dao.JpaPid;
+import ca.uhn.fhir.jpa.model.search.SearchStatusEnum;
+import com.google.common.annotations.VisibleForTesting;
+import org.apache.commons.lang3.SerializationUtils;
+import org.apache.commons.lang3.Validate;
+import org.apache.commons.lang3.tuple.Pair;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.Nullable;
+
+import static ca.uhn.fhir.jpa.search.cache.DatabaseSearchCacheSvcImpl.SEARCH_CLEANUP_JOB_INTERVAL_MILLIS;
+
+/**
+ * Search cache which holds searches, and their results (see {@link InMemorySearchResultCacheSvcImpl}),
+ * in memory on the local node instead of in the database.
+ * <p>
+ * Searches are stored in serialized form, so callers always receive their own copy of a search, the
+ * same as they would when loading it from the database. Result PIDs are stored in blocks encoded using
+ * {@link SearchResultBlockCodec}. Searches are evicted by age when
+ * {@link #pollForStaleSearchesAndDeleteThem(RequestPartitionId)} is called, using the same rules as the
+ * database cache, and by size whenever {@link JpaStorageSettings#getInMemorySearchCacheMaximumBytes()}
+ * is exceeded, in which case the least recently used searches are evicted first.
+ * </p>
+ *
+ * @since 7.0.0
+ */
+public class InMemorySearchCacheSvcImpl implements ISearchCacheSvc {
+	private static final Logger ourLog = LoggerFactory.getLogger(InMemorySearchCacheSvcImpl.class);
+	private static final int RESULT_BLOCK_SIZE = CompressedSearchResultCacheSvcImpl.DEFAULT_BLOCK_SIZE;
+
+	/**
+	 * Rough per-search overhead (maps, entry objects, etc.) used when estimating the cache size
+	 */
+	private static final int ENTRY_OVERHEAD_BYTES = 256;
+
+	private final Map<String, CachedSearch> myUuidToSearch = new ConcurrentHashMap<>();
+	private final AtomicLong myNextSearchPid = new AtomicLong();
+	private final AtomicLong myEstimatedBytes = new AtomicLong();
+	private final Object myEvictionLock = new Object();
+	private long myCutoffSlack = SEARCH_CLEANUP_JOB_INTERVAL_MILLIS;
+	private Long myNowForUnitTest;
+
+	@Autowired
+	private JpaStorageSettings myStorageSettings;
+
+	@VisibleForTesting
+	void setStorageSettingsForUnitTest(JpaStorageSettings theStorageSettings) {
+		myStorageSettings = theStorageSettings;
+	}
+
+	@VisibleForTesting
+	public void setCutoffSlackForUnitTest(long theCutoffSlack) {
+		myCutoffSlack = theCutoffSlack;
+	}
+
+	@VisibleForTesting
+	void setNowForUnitTest(Long theNowForUnitTest) {
+		myNowForUnitTest = theNowForUnitTest;
+	}
+
+	@VisibleForTesting
+	long getEstimatedBytes() {
+		return myEstimatedBytes.get();
+	}
+
+	@Override
+	public Search save(Search theSearch, RequestPartitionId theRequestPartitionId) {
+		Validate.notBlank(theSearch.getUuid());
+		CachedSearch entry = myUuidToSearch.computeIfAbsent(theSearch.getUuid(), t -> new CachedSearch());
+		Search retVal = entry.setSearch(theSearch);
+		evictIfNeeded(entry);
+		return retVal;
+	}
+
+	@Override
+	public Optional<Search> fetchByUuid(String theUuid, RequestPartitionId theRequestPartitionId) {
+		Validate.notBlank(theUuid);
+		CachedSearch entry = myUuidToSearch.get(theUuid);
+		if (entry == null) {
+			return Optional.empty();
+		}
+		return Optional.ofNullable(entry.getSearch());
+	}
+
+	@Override
+	public Optional<Search> tryToMarkSearchAsInProgress(Search theSearch, RequestPartitionId theRequestPartitionId) {
+		ourLog.trace(
+				"Going to try to change search status from {} to {}", theSearch.getStatus(), SearchStatusEnum.LOADING);
+
+		CachedSearch entry = myUuidToSearch.computeIfAbsent(theSearch.getUuid(), t -> new CachedSearch());
+		Optional<Search> retVal = entry.tryToMarkAsLoading(theSearch);
+		evictIfNeeded(entry);
+		return retVal;
+	}
+
+	@Override
+	public Optional<Search> findCandidatesForReuse(
+			String theResourceType,
+			String theQueryString,
+			Instant theCreatedAfter,
+			RequestPartitionId theRequestPartitionId) {
+		String queryString = Search.createSearchQueryStringForStorage(theQueryString, theRequestPartitionId);
+
+		CachedSearch candidate = null;
+		for (CachedSearch next : myUuidToSearch.values()) {
+			if (next.isReusableFor(theResourceType, queryString, theCreatedAfter)
+					&& (candidate == null || next.myCreated.after(candidate.myCreated))) {
+				candidate = next;
+			}
+		}
+
+		if (candidate == null) {
+			return Optional.empty();
+		}
+		return Optional.ofNullable(candidate.getSearch());
+	}
+
+	@Override
+	public void pollForStaleSearchesAndDeleteThem(RequestPartitionId theRequestPartitionId) {
+		if (!myStorageSettings.isExpireSearchResults()) {
+			return;
+		}
+
+		long cutoffMillis = myStorageSettings.getExpireSearchResultsAfterMillis();
+		if (myStorageSettings.getReuseCachedSearchResultsForMillis() != null) {
+			cutoffMillis = cutoffMillis + myStorageSettings.getReuseCachedSearchResultsForMillis();
+		}
+		long now = now();
+		Date cutoff = new Date((now - cutoffMillis) - myCutoffSlack);
+		Date nowDate = new Date(now);
+
+		ourLog.debug("Searching for searches which are before {}", cutoff);
+
+		int count = 0;
+		for (Map.Entry<String, CachedSearch> next : myUuidToSearch.entrySet()) {
+			if (next.getValue().isStale(cutoff, nowDate)) {
+				remove(next.getKey(), next.getValue());
+				count++;
+			}
+		}
+
+		if (count > 0) {
+			ourLog.debug("Deleted {} searches, {} remaining", count, myUuidToSearch.size());
+		}
+	}
+
+	/**
+	 * @return The PIDs, or <code>null</code> if the search is no longer in the cache
+	 */
+	@Nullable
+	List<JpaPid> fetchResultPids(String theUuid, int theFrom, int theTo) {
+		CachedSearch entry = myUuidToSearch.get(theUuid);
+		if (entry == null) {
+			return null;
+		}
+		return JpaPid.fromLongList(entry.getResultPids(theFrom, theTo));
+	}
+
+	/**
+	 * @return The PIDs, or <code>null</code> if the search is no longer in the cache
+	 */
+	@Nullable
+	List<JpaPid> fetchAllResultPids(String theUuid) {
+		return fetchResultPids(theUuid, 0, Integer.MAX_VALUE);
+	}
+
+	void storeResults(String theUuid, int thePreviouslyStoredCount, List<JpaPid> theNewResourcePids) {
+		CachedSearch entry = myUuidToSearch.get(theUuid);
+		if (entry == null) {
+			ourLog.debug("Search {} is no longer cached, discarding {} results", theUuid, theNewResourcePids.size());
+			return;
+		}
+		entry.addResultPids(thePreviouslyStoredCount, theNewResourcePids);
+		evictIfNeeded(entry);
+	}
+
+	private void remove(String theUuid, CachedSearch theEntry) {
+		if (myUuidToSearch.remove(theUuid, theEntry)) {
+			theEntry.markRemoved();
+		}
+	}
+
+	/**
+	 * Evicts the least recently used searches until the cache is within its size limit. The
+	 * search which was just written is never evicted here, so that a single search which is
+	 * larger than the limit can still complete.
+	 */
+	private void evictIfNeeded(CachedSearch theCurrent) {
+		long maximumBytes = myStorageSettings.getInMemorySearchCacheMaximumBytes();
+		if (myEstimatedBytes.get() <= maximumBytes) {
+			return;
+		}
+
+		synchronized (myEvictionLock) {
+			// Snapshot the access times since they keep changing while we sort
+			List<Pair<Long, Map.Entry<String, CachedSearch>>> candidates = new ArrayList<>();
+			for (Map.Entry<String, CachedSearch> next : myUuidToSearch.entrySet()) {
+				candidates.add(Pair.of(next.getValue().myLastAccessed, next));
+			}
+			candidates.sort(Comparator.comparing(Pair::getLeft));
+
+			int count = 0;
+			for (Pair<Long, Map.Entry<String, CachedSearch>> next : candidates) {
+				if (myEstimatedBytes.get() <= maximumBytes) {
+					break;
+				}
+				CachedSearch entry = next.getRight().getValue();
+				if (entry != theCurrent) {
+					remove(next.getRight().getKey(), entry);
+					count++;
+				}
+			}
+			ourLog.debug("Evicted {} searches, cache size is now approximately {} bytes", count, myEstimatedBytes);
+		}
+	}
+
+	private long now() {
+		if (myNowForUnitTest != null) {
+			return myNowForUnitTest;
+		}
+		return System.currentTimeMillis();
+	}
+
+	/**
+	 * A single cached search and its results. The fields used for matching and expiry are
+	 * copied out of the search when it is saved so that they can be checked without
+	 * deserializing it.
+	 */
+	private class CachedSearch {
+
+		private final List<byte[]> myResultBlocks = new ArrayList<>();
+		private final List<Long> myResultTail = new ArrayList<>();
+		private volatile long myLastAccessed;
+		private byte[] mySerializedSearch;
+		private String myResourceType;
+		private String mySearchQueryString;
+		private SearchStatusEnum myStatus;
+		private Date myCreated;
+		private Date myExpiryOrNull;
+		private boolean myDeleted;
+		private int myResultCount;
+		private long mySize = ENTRY_OVERHEAD_BYTES;
+		private boolean myRemoved;
+
+		CachedSearch() {
+			myEstimatedBytes.addAndGet(mySize);
+			touch();
+		}
+
+		/**
+		 * @return A copy of the search as it was stored
+		 */
+		synchronized Search setSearch(Search theSearch) {
+			if (theSearch.getId() == null) {
+				theSearch.setId(myNextSearchPid.incrementAndGet());
+			}
+
+			byte[] serialized = SerializationUtils.serialize(theSearch);
+			int previousLength = mySerializedSearch != null ? mySerializedSearch.length : 0;
+			mySerializedSearch = serialized;
+			myResourceType = theSearch.getResourceType();
+			mySearchQueryString = theSearch.getSearchQueryString();
+			myStatus = theSearch.getStatus();
+			myCreated = theSearch.getCreated();
+			myExpiryOrNull = theSearch.getExpiryOrNull();
+			myDeleted = Boolean.TRUE.equals(theSearch.getDeleted());
+			adjustSize(serialized.length - previousLength);
+			touch();
+			return SerializationUtils.deserialize(serialized);
+		}
+
+		/**
+		 * Only one caller may move a search from {@link SearchStatusEnum#PASSCMPLET} to
+		 * {@link SearchStatusEnum#LOADING}, the same as the optimistic lock on the database row
+		 */
+		synchronized Optional<Search> tryToMarkAsLoading(Search theSearch) {
+			Search search = mySerializedSearch != null ? SerializationUtils.deserialize(mySerializedSearch) : theSearch;
+			if (search.getStatus() != SearchStatusEnum.PASSCMPLET) {
+				ourLog.warn(
+						"Failed to activate search: Can't change to LOADING because state is {}", search.getStatus());
+				return Optional.empty();
+			}
+			search.setStatus(SearchStatusEnum.LOADING);
+			return Optional.of(setSearch(search));
+		}
+
+		@Nullable
+		synchronized Search getSearch() {
+			touch();
+			if (mySerializedSearch == null) {
+				return null;
+			}
+			return SerializationUtils.deserialize(mySerializedSearch);
+		}
+
+		synchronized boolean isReusableFor(String theResourceType, String theQueryString, Instant theCreatedAfter) {
+			return mySerializedSearch != null
+					&& !myDeleted
+					&& myStatus != SearchStatusEnum.FAILED
+					&& theResourceType.equals(myResourceType)
+					&& theQueryString.equals(mySearchQueryString)
+					&& myCreated != null
+					&& myCreated.toInstant().isAfter(theCreatedAfter);
+		}
+
+		synchronized boolean isStale(Date theCutoff, Date theNow) {
+			long created = myCreated != null ? myCreated.getTime() : myLastAccessed;
+			return created < theCutoff.getTime() && (myExpiryOrNull == null || myExpiryOrNull.before(theNow));
+		}
+
+		synchronized List<Long> getResultPids(int theFrom, int theTo) {
+			touch();
+			int to = Math.min(theTo, myResultCount);
+			List<Long> retVal = new ArrayList<>(Math.max(0, to - theFrom));
+			for (int blockStart = theFrom - (theFrom % RESULT_BLOCK_SIZE);
+					blockStart < to;
+					blockStart += RESULT_BLOCK_SIZE) {
+				int blockIndex = blockStart / RESULT_BLOCK_SIZE;
+				int fromInBlock = Math.max(0, theFrom - blockStart);
+				int toInBlock = to - blockStart;
+				if (blockIndex < myResultBlocks.size()) {
+					byte[] block = myResultBlocks.get(blockIndex);
+					retVal.addAll(SearchResultBlockCodec.decode(block, fromInBlock, toInBlock));
+				} else {
+					retVal.addAll(myResultTail.subList(fromInBlock, Math.min(toInBlock, myResultTail.size())));
+				}
+			}
+			return retVal;
+		}
+
+		synchronized void addResultPids(int thePreviouslyStoredCount, List<JpaPid> theNewResourcePids) {
+			if (thePreviouslyStoredCount != myResultCount) {
+				ourLog.warn(
+						"Expected {} previously stored results but found {}, appending to the end",
+						thePreviouslyStoredCount,
+						myResultCount);
+			}
+
+			long bytesDelta = 0;
+			for (JpaPid next : theNewResourcePids) {
+				myResultTail.add(next.getId());
+				myResultCount++;
+				bytesDelta += Long.BYTES;
+				if (myResultTail.size() == RESULT_BLOCK_SIZE) {
+					byte[] block = SearchResultBlockCodec.encode(myResultTail);
+					myResultBlocks.add(block);
+					bytesDelta += block.length - ((long) Long.BYTES * RESULT_BLOCK_SIZE);
+					myResultTail.clear();
+				}
+			}
+			adjustSize(bytesDelta);
+			touch();
+		}
+
+		synchronized void markRemoved() {
+			myEstimatedBytes.addAndGet(-mySize);
+			myRemoved = true;
+		}
+
+		private void adjustSize(long theDelta) {
+			mySize += theDelta;
+			if (!myRemoved) {
+				myEstimatedBytes.addAndGet(theDelta);
+			}
+		}
+
+		private void touch() {
+			myLastAccessed = now();
+		}
+	}
+}
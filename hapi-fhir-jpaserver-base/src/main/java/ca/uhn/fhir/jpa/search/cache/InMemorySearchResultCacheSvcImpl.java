@@ -0,0 +1,96 @@
+/*
+ * #%L
+ * HAPI FHIR JPA Server
+ * %%
+ * Copyright (C) 2014 - 2023 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package ca.uhn.fhir.jpa.search.cache;
+
+import ca.uhn.fhir.i18n.Msg;
+import ca.uhn.fhir.interceptor.model.RequestPartitionId;
+import ca.uhn.fhir.jpa.entity.Search;
+import ca.uhn.fhir.jpa.model.dao.JpaPid;
+import ca.uhn.fhir.rest.api.server.RequestDetails;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.List;
+import javax.annotation.PostConstruct;
+
+/**
+ * Search result cache which holds result PIDs in memory alongside the searches cached
+ * by {@link InMemorySearchCacheSvcImpl}, so that a search and its results are always
+ * evicted together. This can only be used together with that search cache.
+ *
+ * @since 7.0.0
+ */
+public class InMemorySearchResultCacheSvcImpl implements ISearchResultCacheSvc {
+
+	@Autowired
+	private ISearchCacheSvc mySearchCacheSvc;
+
+	private InMemorySearchCacheSvcImpl myInMemorySearchCacheSvc;
+
+	/**
+	 * Constructor for Spring
+	 */
+	public InMemorySearchResultCacheSvcImpl() {
+		super();
+	}
+
+	/**
+	 * Constructor
+	 */
+	public InMemorySearchResultCacheSvcImpl(InMemorySearchCacheSvcImpl theSearchCacheSvc) {
+		mySearchCacheSvc = theSearchCacheSvc;
+		start();
+	}
+
+	@PostConstruct
+	public void start() {
+		if (!(mySearchCacheSvc instanceof InMemorySearchCacheSvcImpl)) {
+			throw new IllegalStateException(
+					Msg.code(2463) + "The in-memory search result cache requires the in-memory search cache");
+		}
+		myInMemorySearchCacheSvc = (InMemorySearchCacheSvcImpl) mySearchCacheSvc;
+	}
+
+	@Override
+	public void storeResults(
+			Search theSearch,
+			List<JpaPid> thePreviouslyStoredResourcePids,
+			List<JpaPid> theNewResourcePids,
+			RequestDetails theRequestDetails,
+			RequestPartitionId theRequestPartitionId) {
+		myInMemorySearchCacheSvc.storeResults(
+				theSearch.getUuid(), thePreviouslyStoredResourcePids.size(), theNewResourcePids);
+	}
+
+	@Override
+	public List<JpaPid> fetchResultPids(
+			Search theSearch,
+			int theFrom,
+			int theTo,
+			RequestDetails theRequestDetails,
+			RequestPartitionId theRequestPartitionId) {
+		return myInMemorySearchCacheSvc.fetchResultPids(theSearch.getUuid(), theFrom, theTo);
+	}
+
+	@Override
+	public List<JpaPid> fetchAllResultPids(
+			Search theSearch, RequestDetails theRequestDetails, RequestPartitionId theRequestPartitionId) {
+		return myInMemorySearchCacheSvc.fetchAllResultPids(theSearch.getUuid());
+	}
+}
@@ -0,0 +1,101 @@
+/*
+ * #%L
+ * HAPI FHIR JPA Server
+ * %%
+ * Copyright (C) 2014 - 2023 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package ca.uhn.fhir.jpa.search.cache;
+
+import ca.uhn.fhir.i18n.Msg;
+import ca.uhn.fhir.rest.server.exceptions.InternalErrorException;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Encodes a list of resource PIDs into a compact byte array. Each PID is stored as the
+ * difference from the previous PID, zigzag encoded so that negative deltas stay small, and
+ * then written as an unsigned variable length integer (7 bits per byte). Search results
+ * which are sorted by PID or which come from a narrow PID range typically need one or two
+ * bytes per PID instead of eight.
+ *
+ * @since 7.0.0
+ */
+public final class SearchResultBlockCodec {
+
+	/**
+	 * Non instantiable
+	 */
+	private SearchResultBlockCodec() {
+		// nothing
+	}
+
+	public static byte[] encode(List<Long> thePids) {
+		ByteArrayOutputStream out = new ByteArrayOutputStream(thePids.size() * 2);
+		long previous = 0;
+		for (Long next : thePids) {
+			long delta = next - previous;
+			previous = next;
+			long zigzag = (delta << 1) ^ (delta >> 63);
+			while ((zigzag & ~0x7FL) != 0) {
+				out.write((int) ((zigzag & 0x7F) | 0x80));
+				zigzag >>>= 7;
+			}
+			out.write((int) zigzag);
+		}
+		return out.toByteArray();
+	}
+
+	public static List<Long> decode(byte[] theData) {
+		return decode(theData, 0, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Decodes a subset of the PIDs in an encoded block
+	 *
+	 * @param theData The encoded block
+	 * @param theFrom The index (within the block) of the first PID to return, inclusive
+	 * @param theTo   The index (within the block) of the last PID to return, exclusive
+	 */
+	public static List<Long> decode(byte[] theData, int theFrom, int theTo) {
+		List<Long> retVal = new ArrayList<>(Math.max(0, Math.min(theTo - theFrom, theData.length)));
+		long previous = 0;
+		int index = 0;
+		int offset = 0;
+		while (offset < theData.length && index < theTo) {
+			long zigzag = 0;
+			int shift = 0;
+			byte next;
+			do {
+				if (offset >= theData.length || shift > 63) {
+					throw new InternalErrorException(Msg.code(2462) + "Invalid search result block encoding");
+				}
+				next = theData[offset++];
+				zigzag |= (long) (next & 0x7F) << shift;
+				shift += 7;
+			} while ((next & 0x80) != 0);
+
+			long delta = (zigzag >>> 1) ^ -(zigzag & 1);
+			previous += delta;
+			if (index >= theFrom) {
+				retVal.add(previous);
+			}
+			index++;
+		}
+		return retVal;
+	}
+}
@@ -19,22 +19,96 @@
  */
 package ca.uhn.fhir.jpa.util;
 
+import ca.uhn.fhir.jpa.config.HibernatePropertiesProvider;
+import ca.uhn.fhir.jpa.search.SearchConstants;
 import ca.uhn.fhir.jpa.search.builder.SearchBuilder;
 import ca.uhn.fhir.util.TaskChunker;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.dialect.H2Dialect;
+import org.hibernate.dialect.MySQLDialect;
+import org.hibernate.dialect.PostgreSQL81Dialect;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.function.Consumer;
+import javax.annotation.Nullable;
 
 /**
  * As always, Oracle can't handle things that other databases don't mind.. In this
  * case it doesn't like more than ~1000 IDs in a single load, so we break this up
  * if it's lots of IDs. I suppose maybe we should be doing this as a join anyhow
  * but this should work too. Sigh.
+ * <p>
+ * If a dialect is supplied and the database is known to handle large bind lists
+ * (PostgreSQL, H2 and MySQL/MariaDB), the input is instead broken into chunks of
+ * {@link #MAXIMUM_INCLUDE_BATCH_SIZE}, and only the remainder is broken
+ * up using the normal page size. This means that the chunks only ever come in a small
+ * number of sizes, which keeps the Hibernate query plan cache from filling up with
+ * a plan for every possible IN clause length.
+ * </p>
  */
 public class QueryChunker<T> extends TaskChunker<T> {
 
+	/**
+	 * Maximum number of values bound into a single query (e.g. an _include/_revinclude
+	 * query) on databases that handle large bind lists well. This is a multiple of
+	 * {@link SearchBuilder#MAXIMUM_PAGE_SIZE} so that full batches need no padding.
+	 *
+	 * @since 7.0.0
+	 */
+	public static final int MAXIMUM_INCLUDE_BATCH_SIZE = 5 * SearchConstants.MAX_PAGE_SIZE;
+
+	private final HibernatePropertiesProvider myDialectProvider;
+
+	/**
+	 * Constructor
+	 */
+	public QueryChunker() {
+		this(null);
+	}
+
+	/**
+	 * Constructor
+	 *
+	 * @param theDialectProvider If not <code>null</code>, used to determine whether larger chunks can be used
+	 * @since 7.0.0
+	 */
+	public QueryChunker(@Nullable HibernatePropertiesProvider theDialectProvider) {
+		myDialectProvider = theDialectProvider;
+	}
+
 	public void chunk(Collection<T> theInput, Consumer<List<T>> theBatchConsumer) {
-		chunk(theInput, SearchBuilder.getMaximumPageSize(), theBatchConsumer);
+		int chunkSize = SearchBuilder.getMaximumPageSize();
+		Dialect dialect = myDialectProvider != null ? myDialectProvider.getDialect() : null;
+		int largeChunkSize = getMaximumInClauseSize(dialect);
+		if (largeChunkSize <= chunkSize || theInput.size() <= chunkSize) {
+			chunk(theInput, chunkSize, theBatchConsumer);
+			return;
+		}
+
+		List<T> input = theInput instanceof List ? (List<T>) theInput : new ArrayList<>(theInput);
+		int largeChunksEnd = input.size() - (input.size() % largeChunkSize);
+		chunk(input.subList(0, largeChunksEnd), largeChunkSize, theBatchConsumer);
+		chunk(input.subList(largeChunksEnd, input.size()), chunkSize, theBatchConsumer);
+	}
+
+	/**
+	 * Returns the maximum number of values that should be bound into a single
+	 * IN clause for the given dialect
+	 *
+	 * @param theDialect The dialect, or <code>null</code> if it isn't known
+	 * @since 7.0.0
+	 */
+	public static int getMaximumInClauseSize(@Nullable Dialect theDialect) {
+		if (SearchBuilder.myUseMaxPageSize50ForTest) {
+			return SearchBuilder.getMaximumPageSize();
+		}
+		if (theDialect instanceof PostgreSQL81Dialect
+				|| theDialect instanceof H2Dialect
+				|| theDialect instanceof MySQLDialect) {
+			return MAXIMUM_INCLUDE_BATCH_SIZE;
+		}
+		return SearchBuilder.getMaximumPageSize();
 	}
 }
@@ -0,0 +1,159 @@
+package ca.uhn.fhir.jpa.search.builder;
+
+import ca.uhn.fhir.jpa.api.config.JpaStorageSettings;
+import ca.uhn.fhir.jpa.dao.tx.NonTransactionalHapiTransactionService;
+import ca.uhn.fhir.rest.server.exceptions.ResourceNotFoundException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.everyItem;
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SearchIncludeLoaderSvcTest {
+
+	private JpaStorageSettings myStorageSettings;
+	private SearchIncludeLoaderSvc mySvc;
+
+	@BeforeEach
+	public void before() {
+		myStorageSettings = new JpaStorageSettings();
+		mySvc = new SearchIncludeLoaderSvc(myStorageSettings, new NonTransactionalHapiTransactionService());
+	}
+
+	@AfterEach
+	public void after() {
+		mySvc.stop();
+	}
+
+	@Test
+	public void testSerialByDefault() {
+		assertFalse(mySvc.isParallelEnabled());
+
+		String callingThread = Thread.currentThread().getName();
+		List<String> threadNames = mySvc.executeAll(createThreadNameTasks(5), null, null);
+
+		assertEquals(5, threadNames.size());
+		assertThat(threadNames, everyItem(startsWith(callingThread)));
+	}
+
+	@Test
+	public void testParallel() {
+		myStorageSettings.setIncludeLoadThreadCount(3);
+		assertTrue(mySvc.isParallelEnabled());
+
+		List<Supplier<Integer>> tasks = new ArrayList<>();
+		for (int i = 0; i < 20; i++) {
+			int value = i;
+			tasks.add(() -> value);
+		}
+		List<Integer> values = mySvc.executeAll(tasks, null, null);
+		assertThat(
+				values, contains(0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16, 17, 18, 19));
+	}
+
+	@Test
+	public void testParallelNotUsedInReadWriteTransaction() {
+		myStorageSettings.setIncludeLoadThreadCount(3);
+		String callingThread = Thread.currentThread().getName();
+
+		TransactionSynchronizationManager.setActualTransactionActive(true);
+		try {
+			TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+			assertTrue(mySvc.isParallelEnabled());
+			assertFalse(mySvc.isParallelAllowed());
+			List<String> threadNames = mySvc.executeAll(createThreadNameTasks(5), null, null);
+			assertThat(threadNames, everyItem(startsWith(callingThread)));
+
+			// A read-only transaction can't have uncommitted writes. The pool starts a new thread
+			// for each of the first 3 tasks, so none of them are run on the calling thread.
+			TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+			assertTrue(mySvc.isParallelAllowed());
+			threadNames = mySvc.executeAll(createThreadNameTasks(3), null, null);
+			assertThat(threadNames, everyItem(startsWith("include-loader-")));
+		} finally {
+			TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+			TransactionSynchronizationManager.setActualTransactionActive(false);
+		}
+	}
+
+	@Test
+	public void testParallelRunsTaskOnCallingThreadWhenPoolIsBusy() {
+		myStorageSettings.setIncludeLoadThreadCount(2);
+
+		// The first two tasks occupy both pool threads until the third one has run
+		CountDownLatch latch = new CountDownLatch(1);
+		List<Supplier<String>> tasks = new ArrayList<>();
+		for (int i = 0; i < 2; i++) {
+			tasks.add(() -> {
+				try {
+					assertTrue(latch.await(10, TimeUnit.SECONDS));
+				} catch (InterruptedException e) {
+					throw new IllegalStateException(e);
+				}
+				return Thread.currentThread().getName();
+			});
+		}
+		tasks.add(() -> {
+			latch.countDown();
+			return Thread.currentThread().getName();
+		});
+
+		String callingThread = Thread.currentThread().getName();
+		List<String> threadNames = mySvc.executeAll(tasks, null, null);
+
+		assertThat(threadNames.get(0), startsWith("include-loader-"));
+		assertThat(threadNames.get(1), startsWith("include-loader-"));
+		assertEquals(callingThread, threadNames.get(2));
+	}
+
+	@Test
+	public void testParallelSingleTaskRunsOnCallingThread() {
+		myStorageSettings.setIncludeLoadThreadCount(3);
+
+		String callingThread = Thread.currentThread().getName();
+		List<String> threadNames = mySvc.executeAll(createThreadNameTasks(1), null, null);
+
+		assertThat(threadNames, contains(callingThread));
+	}
+
+	@Test
+	public void testParallelFailurePropagates() {
+		myStorageSettings.setIncludeLoadThreadCount(2);
+
+		List<Supplier<String>> tasks = createThreadNameTasks(3);
+		tasks.add(() -> {
+			throw new ResourceNotFoundException("FAILED");
+		});
+
+		ResourceNotFoundException e =
+				assertThrows(ResourceNotFoundException.class, () -> mySvc.executeAll(tasks, null, null));
+		assertEquals("FAILED", e.getMessage());
+	}
+
+	@Test
+	public void testInvalidThreadCount() {
+		assertThrows(IllegalArgumentException.class, () -> myStorageSettings.setIncludeLoadThreadCount(0));
+	}
+
+	private static List<Supplier<String>> createThreadNameTasks(int theCount) {
+		List<Supplier<String>> retVal = new ArrayList<>();
+		for (int i = 0; i < theCount; i++) {
+			retVal.add(() -> Thread.currentThread().getName());
+		}
+		return retVal;
+	}
+}
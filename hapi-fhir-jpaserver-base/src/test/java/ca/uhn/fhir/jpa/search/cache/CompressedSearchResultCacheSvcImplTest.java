@@ -0,0 +1,167 @@
+package ca.uhn.fhir.jpa.search.cache;
+
+import ca.uhn.fhir.interceptor.model.RequestPartitionId;
+import ca.uhn.fhir.jpa.dao.data.ISearchResultBlockDao;
+import ca.uhn.fhir.jpa.dao.data.ISearchResultDao;
+import ca.uhn.fhir.jpa.dao.tx.IHapiTransactionService;
+import ca.uhn.fhir.jpa.dao.tx.NonTransactionalHapiTransactionService;
+import ca.uhn.fhir.jpa.entity.Search;
+import ca.uhn.fhir.jpa.entity.SearchResultBlock;
+import ca.uhn.fhir.jpa.model.dao.JpaPid;
+import ca.uhn.fhir.rest.server.exceptions.InternalErrorException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class CompressedSearchResultCacheSvcImplTest {
+
+	private final List<SearchResultBlock> myBlocks = new ArrayList<>();
+
+	@Mock
+	private ISearchResultBlockDao mySearchResultBlockDao;
+
+	@Mock
+	private ISearchResultDao mySearchResultDao;
+
+	@Spy
+	private IHapiTransactionService myTransactionService = new NonTransactionalHapiTransactionService();
+
+	@InjectMocks
+	private CompressedSearchResultCacheSvcImpl mySvc;
+
+	private Search mySearch;
+
+	@BeforeEach
+	public void before() {
+		mySearch = mock(Search.class);
+		when(mySearch.getId()).thenReturn(1L);
+
+		when(mySearchResultBlockDao.saveAll(any())).thenAnswer(t -> {
+			Collection<SearchResultBlock> blocks = t.getArgument(0);
+			for (SearchResultBlock next : blocks) {
+				if (myBlocks.stream().noneMatch(b -> b == next)) {
+					myBlocks.add(next);
+				}
+			}
+			return new ArrayList<>(blocks);
+		});
+		when(mySearchResultBlockDao.findOverlappingRange(anyLong(), anyInt(), anyInt()))
+				.thenAnswer(t -> {
+					int from = t.getArgument(1);
+					int to = t.getArgument(2);
+					return sortedBlocks().stream()
+							.filter(b -> b.getBlockStart() < to && b.getBlockStart() + b.getPidCount() > from)
+							.collect(Collectors.toList());
+				});
+		when(mySearchResultBlockDao.findAllForSearch(anyLong())).thenAnswer(t -> sortedBlocks());
+	}
+
+	private List<SearchResultBlock> sortedBlocks() {
+		return myBlocks.stream()
+				.sorted(Comparator.comparing(SearchResultBlock::getBlockStart))
+				.collect(Collectors.toList());
+	}
+
+	@Test
+	public void testCodecRoundTrip() {
+		List<Long> pids = Arrays.asList(
+				1L, 2L, 3L, 1000L, 999L, 5L, Long.MAX_VALUE, 0L, Long.MIN_VALUE, -1L, 123456789012L);
+		byte[] encoded = SearchResultBlockCodec.encode(pids);
+		assertEquals(pids, SearchResultBlockCodec.decode(encoded));
+		assertEquals(pids.subList(2, 5), SearchResultBlockCodec.decode(encoded, 2, 5));
+		assertEquals(pids.subList(8, pids.size()), SearchResultBlockCodec.decode(encoded, 8, 100));
+	}
+
+	@Test
+	public void testCodecIsCompact() {
+		List<Long> pids = LongStream.range(100_000L, 100_500L).boxed().collect(Collectors.toList());
+		byte[] encoded = SearchResultBlockCodec.encode(pids);
+		// The first PID needs 3 bytes, every following delta of 1 needs a single byte
+		assertEquals(3 + 499, encoded.length);
+		assertArrayEquals(encoded, SearchResultBlockCodec.encode(SearchResultBlockCodec.decode(encoded)));
+	}
+
+	@Test
+	public void testCodecRejectsTruncatedData() {
+		byte[] encoded = SearchResultBlockCodec.encode(Arrays.asList(100_000L));
+		byte[] truncated = Arrays.copyOf(encoded, encoded.length - 1);
+		assertThrows(InternalErrorException.class, () -> SearchResultBlockCodec.decode(truncated));
+	}
+
+	@Test
+	public void testStoreAndFetchAcrossBlocks() {
+		mySvc.setBlockSizeForUnitTest(10);
+		List<JpaPid> pids = pids(0, 35);
+
+		storeInChunks(pids, 7);
+
+		assertEquals(4, myBlocks.size());
+		List<Integer> counts =
+				myBlocks.stream().map(SearchResultBlock::getPidCount).collect(Collectors.toList());
+		assertEquals(Arrays.asList(10, 10, 10, 5), counts);
+
+		assertEquals(pids.subList(0, 35), fetch(0, 35));
+		assertEquals(pids.subList(8, 23), fetch(8, 23));
+		assertEquals(pids.subList(30, 35), fetch(30, 100));
+		assertEquals(pids, mySvc.fetchAllResultPids(mySearch, null, RequestPartitionId.allPartitions()));
+		assertTrue(fetch(5, 5).isEmpty());
+	}
+
+	@Test
+	public void testFallBackToRowStorageForExistingSearch() {
+		List<JpaPid> previous = pids(0, 3);
+		mySvc.storeResults(mySearch, previous, pids(3, 5), null, RequestPartitionId.allPartitions());
+
+		assertTrue(myBlocks.isEmpty());
+		verify(mySearchResultDao).saveAll(any());
+		verify(mySearchResultBlockDao, never()).saveAll(any());
+	}
+
+	private void storeInChunks(List<JpaPid> thePids, int theChunkSize) {
+		for (int i = 0; i < thePids.size(); i += theChunkSize) {
+			List<JpaPid> previous = thePids.subList(0, i);
+			List<JpaPid> next = thePids.subList(i, Math.min(thePids.size(), i + theChunkSize));
+			mySvc.storeResults(mySearch, previous, next, null, RequestPartitionId.allPartitions());
+		}
+	}
+
+	private List<JpaPid> fetch(int theFrom, int theTo) {
+		return mySvc.fetchResultPids(mySearch, theFrom, theTo, null, RequestPartitionId.allPartitions());
+	}
+
+	private static List<JpaPid> pids(int theFrom, int theTo) {
+		// Non-monotonic values so that negative deltas are exercised too
+		return LongStream.range(theFrom, theTo)
+				.map(t -> t % 3 == 0 ? 10_000L - t : 20_000L + t * 7)
+				.mapToObj(JpaPid::fromId)
+				.collect(Collectors.toList());
+	}
+}
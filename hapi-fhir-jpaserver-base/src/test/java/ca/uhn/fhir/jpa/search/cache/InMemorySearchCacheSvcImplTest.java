@@ -0,0 +1,175 @@
+package ca.uhn.fhir.jpa.search.cache;
+
+import ca.uhn.fhir.interceptor.model.RequestPartitionId;
+import ca.uhn.fhir.jpa.api.config.JpaStorageSettings;
+import ca.uhn.fhir.jpa.entity.Search;
+import ca.uhn.fhir.jpa.model.dao.JpaPid;
+import ca.uhn.fhir.jpa.model.search.SearchStatusEnum;
+import org.apache.commons.lang3.time.DateUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class InMemorySearchCacheSvcImplTest {
+
+	private static final RequestPartitionId PARTITION = RequestPartitionId.allPartitions();
+
+	private JpaStorageSettings myStorageSettings;
+	private InMemorySearchCacheSvcImpl mySvc;
+	private InMemorySearchResultCacheSvcImpl myResultSvc;
+
+	@BeforeEach
+	public void before() {
+		myStorageSettings = new JpaStorageSettings();
+		mySvc = new InMemorySearchCacheSvcImpl();
+		mySvc.setStorageSettingsForUnitTest(myStorageSettings);
+		myResultSvc = new InMemorySearchResultCacheSvcImpl(mySvc);
+	}
+
+	@Test
+	public void testSaveAndFetchReturnsCopies() {
+		Search search = newSearch("?name=smith");
+		Search saved = mySvc.save(search, PARTITION);
+		assertNotNull(saved.getId());
+		assertNotSame(search, saved);
+
+		Search fetched = mySvc.fetchByUuid(search.getUuid(), PARTITION).orElseThrow();
+		assertNotSame(saved, fetched);
+		assertEquals(saved.getId(), fetched.getId());
+		assertEquals(SearchStatusEnum.PASSCMPLET, fetched.getStatus());
+
+		// Changing a copy doesn't affect the cached search until it is saved
+		fetched.setStatus(SearchStatusEnum.FAILED);
+		assertEquals(
+				SearchStatusEnum.PASSCMPLET,
+				mySvc.fetchByUuid(search.getUuid(), PARTITION).orElseThrow().getStatus());
+
+		assertFalse(mySvc.fetchByUuid("foo", PARTITION).isPresent());
+	}
+
+	@Test
+	public void testTryToMarkSearchAsInProgress() {
+		Search search = mySvc.save(newSearch("?name=smith"), PARTITION);
+
+		Optional<Search> outcome = mySvc.tryToMarkSearchAsInProgress(search, PARTITION);
+		assertTrue(outcome.isPresent());
+		assertEquals(SearchStatusEnum.LOADING, outcome.get().getStatus());
+
+		// A second caller using the stale copy must not succeed
+		assertFalse(mySvc.tryToMarkSearchAsInProgress(search, PARTITION).isPresent());
+	}
+
+	@Test
+	public void testFindCandidatesForReuse() {
+		Search search = mySvc.save(newSearch("?name=smith"), PARTITION);
+		Instant cutoff = Instant.now().minusSeconds(60);
+		Instant future = Instant.now().plusSeconds(60);
+
+		Optional<Search> candidate = mySvc.findCandidatesForReuse("Patient", "?name=smith", cutoff, PARTITION);
+		assertEquals(search.getUuid(), candidate.orElseThrow().getUuid());
+
+		assertFalse(mySvc.findCandidatesForReuse("Patient", "?name=jones", cutoff, PARTITION).isPresent());
+		assertFalse(mySvc.findCandidatesForReuse("Observation", "?name=smith", cutoff, PARTITION).isPresent());
+		assertFalse(mySvc.findCandidatesForReuse("Patient", "?name=smith", future, PARTITION).isPresent());
+
+		search.setStatus(SearchStatusEnum.FAILED);
+		mySvc.save(search, PARTITION);
+		assertFalse(mySvc.findCandidatesForReuse("Patient", "?name=smith", cutoff, PARTITION).isPresent());
+	}
+
+	@Test
+	public void testStoreAndFetchResults() {
+		Search search = mySvc.save(newSearch("?name=smith"), PARTITION);
+		List<JpaPid> pids = pids(0, 1234);
+
+		myResultSvc.storeResults(search, List.of(), pids.subList(0, 700), null, PARTITION);
+		myResultSvc.storeResults(search, pids.subList(0, 700), pids.subList(700, 1234), null, PARTITION);
+
+		assertEquals(pids.subList(0, 10), myResultSvc.fetchResultPids(search, 0, 10, null, PARTITION));
+		assertEquals(pids.subList(495, 1005), myResultSvc.fetchResultPids(search, 495, 1005, null, PARTITION));
+		assertEquals(pids.subList(1200, 1234), myResultSvc.fetchResultPids(search, 1200, 2000, null, PARTITION));
+		assertTrue(myResultSvc.fetchResultPids(search, 2000, 2010, null, PARTITION).isEmpty());
+		assertEquals(pids, myResultSvc.fetchAllResultPids(search, null, PARTITION));
+
+		Search unknown = newSearch("?name=jones");
+		assertNull(myResultSvc.fetchResultPids(unknown, 0, 10, null, PARTITION));
+		assertNull(myResultSvc.fetchAllResultPids(unknown, null, PARTITION));
+	}
+
+	@Test
+	public void testPollForStaleSearches() {
+		myStorageSettings.setExpireSearchResultsAfterMillis(DateUtils.MILLIS_PER_HOUR);
+		myStorageSettings.setReuseCachedSearchResultsForMillis(null);
+		mySvc.setCutoffSlackForUnitTest(0);
+
+		Search search = mySvc.save(newSearch("?name=smith"), PARTITION);
+		Search withExpiry = newSearch("?name=jones");
+		withExpiry.setExpiryOrNull(new Date(System.currentTimeMillis() + 3 * DateUtils.MILLIS_PER_HOUR));
+		mySvc.save(withExpiry, PARTITION);
+
+		mySvc.pollForStaleSearchesAndDeleteThem(PARTITION);
+		assertTrue(mySvc.fetchByUuid(search.getUuid(), PARTITION).isPresent());
+
+		mySvc.setNowForUnitTest(System.currentTimeMillis() + 2 * DateUtils.MILLIS_PER_HOUR);
+		mySvc.pollForStaleSearchesAndDeleteThem(PARTITION);
+		assertFalse(mySvc.fetchByUuid(search.getUuid(), PARTITION).isPresent());
+		assertNull(myResultSvc.fetchAllResultPids(search, null, PARTITION));
+		assertTrue(mySvc.fetchByUuid(withExpiry.getUuid(), PARTITION).isPresent());
+	}
+
+	@Test
+	public void testEvictLeastRecentlyUsedWhenFull() {
+		Search first = mySvc.save(newSearch("?name=first"), PARTITION);
+		myResultSvc.storeResults(first, List.of(), pids(0, 100), null, PARTITION);
+		long sizeOfOne = mySvc.getEstimatedBytes();
+		myStorageSettings.setInMemorySearchCacheMaximumBytes(sizeOfOne * 2 + sizeOfOne / 2);
+
+		mySvc.setNowForUnitTest(1000L);
+		Search second = mySvc.save(newSearch("?name=second"), PARTITION);
+		myResultSvc.storeResults(second, List.of(), pids(0, 100), null, PARTITION);
+
+		// Touch the first search so that the second one is the least recently used
+		mySvc.setNowForUnitTest(2000L);
+		assertNotNull(myResultSvc.fetchResultPids(first, 0, 10, null, PARTITION));
+
+		mySvc.setNowForUnitTest(3000L);
+		Search third = mySvc.save(newSearch("?name=third"), PARTITION);
+		myResultSvc.storeResults(third, List.of(), pids(0, 100), null, PARTITION);
+
+		assertTrue(mySvc.fetchByUuid(first.getUuid(), PARTITION).isPresent());
+		assertFalse(mySvc.fetchByUuid(second.getUuid(), PARTITION).isPresent());
+		assertTrue(mySvc.fetchByUuid(third.getUuid(), PARTITION).isPresent());
+		assertTrue(mySvc.getEstimatedBytes() <= myStorageSettings.getInMemorySearchCacheMaximumBytes());
+	}
+
+	private static Search newSearch(String theQueryString) {
+		Search retVal = new Search();
+		retVal.setUuid(UUID.randomUUID().toString());
+		retVal.setCreated(new Date());
+		retVal.setResourceType("Patient");
+		retVal.setSearchQueryString(theQueryString, PARTITION);
+		retVal.setStatus(SearchStatusEnum.PASSCMPLET);
+		return retVal;
+	}
+
+	private static List<JpaPid> pids(int theFrom, int theTo) {
+		return LongStream.range(theFrom, theTo)
+				.map(t -> t % 2 == 0 ? 5_000L + t : 90_000L - t)
+				.mapToObj(JpaPid::fromId)
+				.collect(Collectors.toList());
+	}
+}
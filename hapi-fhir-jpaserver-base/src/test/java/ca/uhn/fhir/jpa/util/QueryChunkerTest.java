@@ -0,0 +1,86 @@
+package ca.uhn.fhir.jpa.util;
+
+import ca.uhn.fhir.jpa.config.HibernatePropertiesProvider;
+import ca.uhn.fhir.jpa.model.dialect.HapiFhirPostgres94Dialect;
+import org.hibernate.dialect.Oracle12cDialect;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class QueryChunkerTest {
+
+	@Test
+	public void testChunkWithoutDialect() {
+		List<Integer> sizes = chunkAndGetSizes(new QueryChunker<>(), 2000);
+		assertThat(sizes, contains(800, 800, 400));
+	}
+
+	@Test
+	public void testChunkWithDialectNotSupportingLargeInClauses() {
+		HibernatePropertiesProvider dialectProvider = new HibernatePropertiesProvider();
+		dialectProvider.setDialectForUnitTest(new Oracle12cDialect());
+
+		List<Integer> sizes = chunkAndGetSizes(new QueryChunker<>(dialectProvider), 2000);
+		assertThat(sizes, contains(800, 800, 400));
+	}
+
+	@Test
+	public void testChunkWithDialectSupportingLargeInClauses() {
+		HibernatePropertiesProvider dialectProvider = new HibernatePropertiesProvider();
+		dialectProvider.setDialectForUnitTest(new HapiFhirPostgres94Dialect());
+
+		// Full large chunks, and the remainder is broken up using the normal page size
+		List<Integer> sizes = chunkAndGetSizes(new QueryChunker<>(dialectProvider), 10000);
+		assertThat(sizes, contains(4000, 4000, 800, 800, 400));
+
+		sizes = chunkAndGetSizes(new QueryChunker<>(dialectProvider), 500);
+		assertThat(sizes, contains(500));
+	}
+
+	@Test
+	public void testChunkWithDialectSupportingLargeInClauses_NonListInput() {
+		HibernatePropertiesProvider dialectProvider = new HibernatePropertiesProvider();
+		dialectProvider.setDialectForUnitTest(new HapiFhirPostgres94Dialect());
+
+		Set<Long> input = new LinkedHashSet<>(createLongList(9000));
+		List<Integer> sizes = new ArrayList<>();
+		List<Long> output = new ArrayList<>();
+		new QueryChunker<Long>(dialectProvider).chunk(input, t -> {
+			sizes.add(t.size());
+			output.addAll(t);
+		});
+
+		assertThat(sizes, contains(QueryChunker.MAXIMUM_INCLUDE_BATCH_SIZE, QueryChunker.MAXIMUM_INCLUDE_BATCH_SIZE, 800, 200));
+		assertEquals(new ArrayList<>(input), output);
+	}
+
+	@Test
+	public void testChunkPreservesOrder() {
+		HibernatePropertiesProvider dialectProvider = new HibernatePropertiesProvider();
+		dialectProvider.setDialectForUnitTest(new HapiFhirPostgres94Dialect());
+
+		List<Long> input = createLongList(9000);
+		List<Long> output = new ArrayList<>();
+		new QueryChunker<Long>(dialectProvider).chunk(input, output::addAll);
+		assertEquals(input, output);
+	}
+
+	private static List<Integer> chunkAndGetSizes(QueryChunker<Long> theChunker, int theCount) {
+		List<Integer> retVal = new ArrayList<>();
+		theChunker.chunk(createLongList(theCount), t -> retVal.add(t.size()));
+		return retVal;
+	}
+
+	private static List<Long> createLongList(int theCount) {
+		return IntStream.range(0, theCount).mapToObj(t -> (long) t).collect(Collectors.toList());
+	}
+}
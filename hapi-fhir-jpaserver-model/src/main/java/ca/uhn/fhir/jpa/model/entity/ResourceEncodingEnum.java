@@ -40,6 +40,20 @@ public enum ResourceEncodingEnum {
 	 */
 	JSONC,
 
+	/**
+	 * Json Compressed using Zstandard, optionally using a dictionary trained for the resource type
+	 *
+	 * @since 7.0.0
+	 */
+	ZSTD,
+
+	/**
+	 * Json Compressed using LZ4, which is faster but typically compresses less than {@link #JSONC}
+	 *
+	 * @since 7.0.0
+	 */
+	LZ4,
+
 	/**
 	 * Resource was deleted - No contents expected
 	 */
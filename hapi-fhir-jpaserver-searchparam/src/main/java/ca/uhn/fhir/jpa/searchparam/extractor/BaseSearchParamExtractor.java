@@ -2010,22 +2010,14 @@ public abstract class BaseSearchParamExtractor implements ISearchParamExtractor
 		 * references within a Bundle
 		 */
 		if (theAppContext instanceof IBaseBundle && isNotBlank(theUrl) && !theUrl.startsWith("#")) {
-			List<BundleEntryParts> entries = BundleUtil.toListOfEntries(getContext(), (IBaseBundle) theAppContext);
-			for (BundleEntryParts next : entries) {
-				if (next.getResource() != null) {
-					if (theUrl.startsWith("urn:uuid:")) {
-						if (theUrl.equals(next.getUrl())
-								|| theUrl.equals(
-										next.getResource().getIdElement().getValue())) {
-							return (T) next.getResource();
-						}
-					} else {
-						if (theUrl.equals(next.getResource().getIdElement().getValue())) {
-							return (T) next.getResource();
-						}
-					}
-				}
-			}
+			boolean isPlaceholder = theUrl.startsWith("urn:uuid:");
+			return (T) BundleUtil.streamEntries(getContext(), (IBaseBundle) theAppContext)
+					.filter(next -> next.getResource() != null)
+					.filter(next -> (isPlaceholder && theUrl.equals(next.getUrl()))
+							|| theUrl.equals(next.getResource().getIdElement().getValue()))
+					.map(BundleEntryParts::getResource)
+					.findFirst()
+					.orElse(null);
 		}
 		return null;
 	}
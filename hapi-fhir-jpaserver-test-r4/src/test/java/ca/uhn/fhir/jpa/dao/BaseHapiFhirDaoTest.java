@@ -1,9 +1,12 @@
 package ca.uhn.fhir.jpa.dao;
 
+import ca.uhn.fhir.jpa.api.config.JpaStorageSettings;
+import ca.uhn.fhir.jpa.model.entity.ResourceEncodingEnum;
 import ca.uhn.fhir.jpa.model.entity.TagDefinition;
 import ca.uhn.fhir.jpa.model.entity.TagTypeEnum;
 import ca.uhn.fhir.jpa.util.MemoryCacheService;
 import ca.uhn.fhir.rest.api.server.storage.TransactionDetails;
+import ca.uhn.fhir.rest.server.exceptions.InternalErrorException;
 import ca.uhn.fhir.util.AsyncUtil;
 import ca.uhn.fhir.util.MetaUtil;
 import ca.uhn.fhir.util.ThreadPoolUtil;
@@ -50,7 +53,10 @@ import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.startsWith;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 import static org.mockito.ArgumentMatchers.any;
@@ -399,4 +405,25 @@ public class BaseHapiFhirDaoTest {
 		assertEquals("abc", MetaUtil.cleanProvenanceSourceUriOrEmpty("abc#def"));
 		assertEquals("abc", MetaUtil.cleanProvenanceSourceUriOrEmpty("abc#def#ghi"));
 	}
+
+	@SuppressWarnings("deprecation")
+	@Test
+	public void decodeResource_zstdDictionaryRequiresStorageSettings() {
+		List<String> samples = new ArrayList<>();
+		for (int i = 0; i < 500; i++) {
+			samples.add("{\"resourceType\":\"Patient\",\"identifier\":[{\"system\":\"http://example.com/mrn\",\"value\":\""
+				+ i + "\"}],\"active\":" + (i % 2 == 0) + ",\"name\":[{\"family\":\"Family" + i + "\",\"given\":[\"Given"
+				+ (i * 7) + "\"]}],\"gender\":\"" + (i % 3 == 0 ? "male" : "female") + "\"}");
+		}
+		JpaStorageSettings storageSettings = new JpaStorageSettings();
+		storageSettings.addZstdDictionary("Patient", ZstdUtil.trainDictionary(samples, 4096));
+		String patient = samples.get(10);
+		byte[] compressed = ZstdUtil.compress(patient, storageSettings.getZstdCompressionDictionary("Patient"));
+
+		assertEquals(patient, BaseHapiFhirDao.decodeResource(compressed, ResourceEncodingEnum.ZSTD, storageSettings));
+		assertEquals(patient, BaseHapiFhirDao.decodeResource(ZstdUtil.compress(patient, null), ResourceEncodingEnum.ZSTD));
+		InternalErrorException e = assertThrows(
+			InternalErrorException.class, () -> BaseHapiFhirDao.decodeResource(compressed, ResourceEncodingEnum.ZSTD));
+		assertThat(e.getMessage(), startsWith("HAPI-2466: "));
+	}
 }
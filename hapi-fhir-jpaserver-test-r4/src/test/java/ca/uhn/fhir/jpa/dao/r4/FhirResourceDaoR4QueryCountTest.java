@@ -25,6 +25,7 @@ import ca.uhn.fhir.jpa.model.entity.ResourceTable;
 import ca.uhn.fhir.jpa.model.util.JpaConstants;
 import ca.uhn.fhir.jpa.provider.BaseResourceProviderR4Test;
 import ca.uhn.fhir.jpa.search.PersistedJpaSearchFirstPageBundleProvider;
+import ca.uhn.fhir.jpa.search.builder.SearchBuilder;
 import ca.uhn.fhir.jpa.searchparam.SearchParameterMap;
 import ca.uhn.fhir.jpa.subscription.submit.svc.ResourceModifiedSubmitterSvc;
 import ca.uhn.fhir.jpa.subscription.triggering.ISubscriptionTriggeringSvc;
@@ -110,6 +111,7 @@ import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasItems;
 import static org.hamcrest.Matchers.not;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
@@ -1654,6 +1656,43 @@ public class FhirResourceDaoR4QueryCountTest extends BaseResourceProviderR4Test
 		assertEquals(0, myCaptureQueriesListener.getDeleteQueriesForCurrentThread().size());
 	}
 
+	/**
+	 * More include source PIDs than {@link SearchBuilder#getMaximumPageSize()} are
+	 * loaded with a single include query per include on H2, PostgreSQL and MySQL.
+	 * <p>
+	 * See the class javadoc before changing the counts in this test!
+	 */
+	@Test
+	public void testSearchWithIncludes_MoreSourcesThanPageSize_Sync() {
+		// Setup
+		int observationCount = SearchBuilder.getMaximumPageSize() + 100;
+		createPatient(withId("A"));
+		createEncounter(withId("E"));
+		for (int i = 0; i < observationCount; i++) {
+			createObservation(withSubject("Patient/A"), withEncounter("Encounter/E"));
+		}
+
+		// Test
+		myCaptureQueriesListener.clear();
+		SearchParameterMap map = new SearchParameterMap();
+		map.setLoadSynchronous(true);
+		map.addInclude(Observation.INCLUDE_ENCOUNTER);
+		map.addInclude(Observation.INCLUDE_SUBJECT);
+		List<String> ids = toUnqualifiedVersionlessIdValues(myObservationDao.search(map, mySrd));
+		assertEquals(observationCount + 2, ids.size());
+		assertThat(ids, hasItems("Patient/A", "Encounter/E"));
+
+		// Verify
+		myCaptureQueriesListener.logSelectQueriesForCurrentThread();
+		long includeQueries = myCaptureQueriesListener.getSelectQueriesForCurrentThread().stream()
+			.filter(t -> t.getSql(false, false).toUpperCase().contains("HFJ_RES_LINK"))
+			.count();
+		assertEquals(2, includeQueries);
+		assertEquals(0, myCaptureQueriesListener.getInsertQueriesForCurrentThread().size());
+		assertEquals(0, myCaptureQueriesListener.getUpdateQueriesForCurrentThread().size());
+		assertEquals(0, myCaptureQueriesListener.getDeleteQueriesForCurrentThread().size());
+	}
+
 	/**
 	 * See the class javadoc before changing the counts in this test!
 	 */
@@ -2,6 +2,7 @@ package ca.uhn.fhir.jpa.dao.r4;
 
 import ca.uhn.fhir.jpa.api.config.JpaStorageSettings;
 import ca.uhn.fhir.jpa.search.PersistedJpaSearchFirstPageBundleProvider;
+import ca.uhn.fhir.jpa.search.builder.SearchIncludeLoaderSvc;
 import ca.uhn.fhir.jpa.searchparam.SearchParameterMap;
 import ca.uhn.fhir.jpa.test.BaseJpaR4Test;
 import ca.uhn.fhir.model.api.Include;
@@ -17,8 +18,10 @@ import org.hamcrest.collection.IsIterableContainingInAnyOrder;
 import org.hl7.fhir.instance.model.api.IIdType;
 import org.hl7.fhir.r4.model.BodyStructure;
 import org.hl7.fhir.r4.model.CarePlan;
+import org.hl7.fhir.r4.model.Encounter;
 import org.hl7.fhir.r4.model.Enumerations;
 import org.hl7.fhir.r4.model.EpisodeOfCare;
+import org.hl7.fhir.r4.model.Observation;
 import org.hl7.fhir.r4.model.Organization;
 import org.hl7.fhir.r4.model.Patient;
 import org.hl7.fhir.r4.model.Procedure;
@@ -26,11 +29,13 @@ import org.hl7.fhir.r4.model.Reference;
 import org.hl7.fhir.r4.model.SearchParameter;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.transaction.support.TransactionTemplate;
 
 import java.sql.Date;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -46,9 +51,78 @@ import static org.junit.jupiter.api.Assertions.fail;
 public class FhirResourceDaoR4SearchIncludeTest extends BaseJpaR4Test {
 	private static final org.slf4j.Logger ourLog = org.slf4j.LoggerFactory.getLogger(FhirResourceDaoR4SearchIncludeTest.class);
 
+	@Autowired
+	private SearchIncludeLoaderSvc mySearchIncludeLoaderSvc;
+
 	@AfterEach
 	public void afterEach() {
 		myStorageSettings.setMaximumIncludesToLoadPerPage(JpaStorageSettings.DEFAULT_MAXIMUM_INCLUDES_TO_LOAD_PER_PAGE);
+		myStorageSettings.setIncludeLoadThreadCount(new JpaStorageSettings().getIncludeLoadThreadCount());
+		mySearchIncludeLoaderSvc.stop();
+	}
+
+	@Test
+	public void testParallelIncludeLoadingMatchesSerialLoading() {
+		List<String> expected = new ArrayList<>();
+		for (int i = 0; i < 5; i++) {
+			IIdType parentOrg = createOrganization(withName("PARENT-" + i));
+			IIdType org = createOrganization(withName("ORG-" + i), withReference("partOf", parentOrg));
+			IIdType practitioner = createPractitioner();
+			IIdType patient = createPatient(
+				withReference("managingOrganization", org), withReference("generalPractitioner", practitioner));
+			IIdType encounter = createEncounter(withSubject(patient));
+			IIdType observation = createObservation(withSubject(patient), withEncounter(encounter.getValue()));
+			IIdType careTeam = createResource("CareTeam", withSubject(patient));
+			expected.addAll(List.of(
+				parentOrg.getValue(),
+				org.getValue(),
+				practitioner.getValue(),
+				patient.getValue(),
+				encounter.getValue(),
+				observation.getValue(),
+				careTeam.getValue()));
+		}
+		// Not referenced by any of the patients
+		createOrganization(withName("UNRELATED"));
+
+		List<String> serialIds = searchPatientsWithIncludes();
+		assertThat(serialIds.toString(), serialIds, containsInAnyOrder(expected.toArray()));
+
+		myStorageSettings.setIncludeLoadThreadCount(4);
+		List<String> parallelIds = searchPatientsWithIncludes();
+		assertThat(parallelIds.toString(), parallelIds, containsInAnyOrder(serialIds.toArray()));
+	}
+
+	@Test
+	public void testParallelIncludeLoadingSeesUncommittedWritesInSameTransaction() {
+		myStorageSettings.setIncludeLoadThreadCount(4);
+
+		List<String> expected = new ArrayList<>();
+		List<String> ids = runInTransaction(() -> {
+			IIdType org = createOrganization(withName("ORG"));
+			IIdType practitioner = createPractitioner();
+			IIdType patient = createPatient(
+				withReference("managingOrganization", org), withReference("generalPractitioner", practitioner));
+			IIdType observation = createObservation(withSubject(patient));
+			expected.addAll(List.of(org.getValue(), practitioner.getValue(), patient.getValue(), observation.getValue()));
+
+			// The includes must be loaded in this transaction, which is the only one that can see these resources
+			return searchPatientsWithIncludes();
+		});
+
+		assertThat(ids.toString(), ids, containsInAnyOrder(expected.toArray()));
+	}
+
+	private List<String> searchPatientsWithIncludes() {
+		SearchParameterMap map = SearchParameterMap.newSynchronous()
+			.addInclude(Patient.INCLUDE_ORGANIZATION)
+			.addInclude(Patient.INCLUDE_GENERAL_PRACTITIONER)
+			.addInclude(Organization.INCLUDE_PARTOF.asRecursive())
+			.addRevInclude(Encounter.INCLUDE_SUBJECT)
+			.addRevInclude(Observation.INCLUDE_SUBJECT)
+			.addRevInclude(new Include("CareTeam:subject"));
+		IBundleProvider results = myPatientDao.search(map, mySrd);
+		return toUnqualifiedVersionlessIdValues(results);
 	}
 
 	@Test
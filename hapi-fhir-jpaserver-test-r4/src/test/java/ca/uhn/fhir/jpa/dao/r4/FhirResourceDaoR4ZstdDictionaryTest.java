@@ -0,0 +1,89 @@
+package ca.uhn.fhir.jpa.dao.r4;
+
+import ca.uhn.fhir.jpa.api.config.JpaStorageSettings;
+import ca.uhn.fhir.jpa.dao.ZstdUtil;
+import ca.uhn.fhir.jpa.dao.data.IZstdDictionaryDao;
+import ca.uhn.fhir.jpa.entity.ZstdDictionaryEntity;
+import ca.uhn.fhir.jpa.model.entity.ResourceEncodingEnum;
+import ca.uhn.fhir.jpa.model.entity.ResourceHistoryTable;
+import ca.uhn.fhir.jpa.test.BaseJpaR4Test;
+import com.github.luben.zstd.Zstd;
+import org.hl7.fhir.instance.model.api.IIdType;
+import org.hl7.fhir.r4.model.Patient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class FhirResourceDaoR4ZstdDictionaryTest extends BaseJpaR4Test {
+
+	@Autowired
+	private IZstdDictionaryDao myZstdDictionaryDao;
+
+	@AfterEach
+	public void afterEach() {
+		myStorageSettings.setResourceEncoding(new JpaStorageSettings().getResourceEncoding());
+		myStorageSettings.clearZstdDictionaries();
+	}
+
+	@Test
+	public void testResourceReadableAfterDictionaryUnregistered() {
+		byte[] dictionary = ZstdUtil.trainDictionary(createSamples(), 4096);
+		int dictionaryId = ZstdUtil.getDictionaryId(dictionary);
+		myStorageSettings.setResourceEncoding(ResourceEncodingEnum.ZSTD);
+		myStorageSettings.addZstdDictionary("Patient", dictionary);
+
+		Patient patient = new Patient();
+		patient.setActive(true);
+		patient.addName().setFamily("Simpson").addGiven("Homer");
+		IIdType id = myPatientDao.create(patient, mySrd).getId().toUnqualifiedVersionless();
+
+		runInTransaction(() -> {
+			ResourceHistoryTable history =
+				myResourceHistoryTableDao.findForIdAndVersionAndFetchProvenance(id.getIdPartAsLong(), 1L);
+			assertEquals(ResourceEncodingEnum.ZSTD, history.getEncoding());
+			assertEquals(dictionaryId, (int) Zstd.getDictIdFromFrame(history.getResource()));
+
+			ZstdDictionaryEntity stored = myZstdDictionaryDao.findById(dictionaryId).orElseThrow();
+			assertEquals("Patient", stored.getResourceType());
+			assertArrayEquals(dictionary, stored.getDictionary());
+		});
+
+		// Simulate a restart without the dictionary registered
+		myStorageSettings.clearZstdDictionaries();
+		assertNull(myStorageSettings.getZstdDictionary(dictionaryId));
+
+		Patient actual = myPatientDao.read(id, mySrd);
+		assertEquals("Simpson", actual.getNameFirstRep().getFamily());
+		assertEquals("Homer", actual.getNameFirstRep().getGivenAsSingleString());
+
+		// New versions are compressed without a dictionary
+		actual.setActive(false);
+		myPatientDao.update(actual, mySrd);
+		runInTransaction(() -> {
+			ResourceHistoryTable history =
+				myResourceHistoryTableDao.findForIdAndVersionAndFetchProvenance(id.getIdPartAsLong(), 2L);
+			assertEquals(0, (int) Zstd.getDictIdFromFrame(history.getResource()));
+		});
+		assertFalse(myPatientDao.read(id, mySrd).getActive());
+		assertTrue(myPatientDao.read(id.withVersion("1"), mySrd).getActive());
+	}
+
+	private static List<String> createSamples() {
+		List<String> retVal = new ArrayList<>();
+		for (int i = 0; i < 500; i++) {
+			retVal.add("{\"resourceType\":\"Patient\",\"active\":" + (i % 2 == 0) + ",\"name\":[{\"family\":\"Family"
+				+ i + "\",\"given\":[\"Given" + (i * 7) + "\"]}],\"gender\":\"" + (i % 3 == 0 ? "male" : "female")
+				+ "\",\"birthDate\":\"19" + (10 + i % 90) + "-0" + (1 + i % 9) + "-1" + (i % 10) + "\"}");
+		}
+		return retVal;
+	}
+}
@@ -15,6 +15,8 @@ import ca.uhn.fhir.jpa.model.entity.TagTypeEnum;
 import ca.uhn.fhir.jpa.provider.r4.SystemProviderR4Test;
 import ca.uhn.fhir.jpa.searchparam.SearchParameterMap;
 import ca.uhn.fhir.model.primitive.IdDt;
+import ca.uhn.fhir.parser.DeferredEntryBundle;
+import ca.uhn.fhir.parser.JsonParser;
 import ca.uhn.fhir.rest.api.Constants;
 import ca.uhn.fhir.rest.api.RestOperationTypeEnum;
 import ca.uhn.fhir.rest.api.server.IBundleProvider;
@@ -93,6 +95,7 @@ import org.springframework.transaction.support.TransactionTemplate;
 import javax.annotation.Nonnull;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.StringReader;
 import java.io.UnsupportedEncodingException;
 import java.math.BigDecimal;
 import java.nio.charset.StandardCharsets;
@@ -1094,6 +1097,30 @@ public class FhirSystemDaoR4Test extends BaseJpaR4SystemTest {
 
 	}
 
+	@Test
+	public void testTransactionWithDeferredEntryBundle() {
+		Bundle input = new Bundle();
+		input.setType(BundleType.TRANSACTION);
+		Patient patient = new Patient();
+		patient.addName().setFamily("DEFERRED");
+		input.addEntry().setFullUrl("urn:uuid:5f4b2c4e-44c1-4c51-a77a-f1d6b4aa0a12").setResource(patient).getRequest().setMethod(HTTPVerb.POST).setUrl("Patient");
+		Observation observation = new Observation();
+		observation.setStatus(ObservationStatus.FINAL);
+		observation.getSubject().setReference("urn:uuid:5f4b2c4e-44c1-4c51-a77a-f1d6b4aa0a12");
+		input.addEntry().setResource(observation).getRequest().setMethod(HTTPVerb.POST).setUrl("Observation");
+		String encoded = myFhirContext.newJsonParser().encodeResourceToString(input);
+
+		JsonParser parser = (JsonParser) myFhirContext.newJsonParser();
+		DeferredEntryBundle<Bundle> deferred = parser.parseBundleWithDeferredEntries(Bundle.class, new StringReader(encoded));
+		Bundle output = mySystemDao.transaction(mySrd, deferred.toBundle());
+
+		assertEquals(2, output.getEntry().size());
+		IdType patientId = new IdType(output.getEntry().get(0).getResponse().getLocation());
+		IdType observationId = new IdType(output.getEntry().get(1).getResponse().getLocation());
+		assertEquals("DEFERRED", myPatientDao.read(patientId, mySrd).getNameFirstRep().getFamily());
+		assertEquals(patientId.toUnqualifiedVersionless().getValue(), myObservationDao.read(observationId, mySrd).getSubject().getReference());
+	}
+
 	@Test
 	public void testTransactionCreateInlineMatchUrlWithNoMatches() {
 		String methodName = "testTransactionCreateInlineMatchUrlWithNoMatches";
@@ -7,6 +7,7 @@ import ca.uhn.fhir.jpa.model.config.PartitionSettings;
 import ca.uhn.fhir.jpa.model.entity.StorageSettings;
 import ca.uhn.fhir.jpa.search.builder.predicate.ResourceTablePredicateBuilder;
 import com.google.common.collect.Lists;
+import org.apache.commons.lang3.StringUtils;
 import org.hibernate.dialect.DerbyTenSevenDialect;
 import org.hibernate.dialect.MariaDB103Dialect;
 import org.hibernate.dialect.MySQL8Dialect;
@@ -24,6 +25,8 @@ import org.springframework.context.annotation.Scope;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Locale;
 
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -436,6 +439,27 @@ public class SearchQueryBuilderTest {
 
 	}
 	
+	@Test
+	public void testBindVariableSubstitutionPreservesOrder() {
+		HibernatePropertiesProvider dialectProvider = new HibernatePropertiesProvider();
+		dialectProvider.setDialectForUnitTest(new PostgreSQL95Dialect());
+		SearchQueryBuilder builder = new SearchQueryBuilder(myFhirContext, myStorageSettings, myPartitionSettings, myRequestPartitionId, "Patient", mySqlBuilderFactory, dialectProvider, false);
+		List<Long> ids = new ArrayList<>();
+		for (long i = 0; i < 1000; i++) {
+			ids.add(i);
+		}
+		builder.addResourceIdsPredicate(ids);
+		GeneratedSql generated = builder.generate(10, 5);
+
+		List<Object> expected = new ArrayList<>();
+		expected.add("Patient");
+		expected.addAll(ids);
+		expected.add(5);
+		expected.add(10);
+		assertEquals(expected, generated.getBindVariables());
+		assertEquals(expected.size(), StringUtils.countMatches(generated.getSql(), '?'));
+	}
+
 	@Configuration
 	public static class MyConfig {
 
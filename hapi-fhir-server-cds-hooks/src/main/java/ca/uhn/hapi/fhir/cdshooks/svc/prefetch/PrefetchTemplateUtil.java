@@ -64,7 +64,7 @@ public class PrefetchTemplateUtil {
 			try {
 				IBaseBundle bundle = (IBaseBundle) theContext.getResource(key);
 				String resourceType = matcher.group(DAVINCI_RESOURCETYPE_KEY);
-				String resourceIds = BundleUtil.toListOfResources(theFhirContext, bundle).stream()
+				String resourceIds = BundleUtil.streamResources(theFhirContext, bundle)
 						.filter(x -> x.fhirType().equals(resourceType))
 						.map(x -> x.getIdElement().getIdPart())
 						.collect(Collectors.joining(","));
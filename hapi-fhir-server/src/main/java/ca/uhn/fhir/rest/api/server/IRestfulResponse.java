@@ -62,6 +62,32 @@ public interface IRestfulResponse {
 	Writer getResponseWriter(int theStatusCode, String theContentType, String theCharset, boolean theRespondGzip)
 			throws IOException;
 
+	/**
+	 * Initiate a new textual response which the caller will write as bytes that are already encoded
+	 * using the given charset. This allows callers which are able to produce encoded bytes directly
+	 * (such as the JSON parser) to avoid converting characters to bytes a second time in the
+	 * {@link Writer} returned by {@link #getResponseWriter(int, String, String, boolean)}. The
+	 * OutputStream returned by this method must be finalized by calling {@link #commitResponse(Closeable)} later.
+	 * <p>
+	 * Implementations which do not support this style of response return {@literal null}, in which
+	 * case the caller should fall back to {@link #getResponseWriter(int, String, String, boolean)}.
+	 * </p>
+	 *
+	 * @param theStatusCode  The HTTP status code.
+	 * @param theContentType The HTTP response content type.
+	 * @param theCharset     The HTTP response charset. All bytes written to the returned stream must use this charset.
+	 *                       May be {@literal null} if the content is binary (e.g. CBOR), in which case no charset
+	 *                       is declared.
+	 * @param theRespondGzip Should the response be GZip encoded?
+	 * @return Returns an {@link OutputStream} that can accept the response body, or {@literal null}
+	 * @since 7.0.0
+	 */
+	@Nullable
+	default OutputStream getResponseTextOutputStream(
+			int theStatusCode, String theContentType, String theCharset, boolean theRespondGzip) throws IOException {
+		return null;
+	}
+
 	/**
 	 * Initiate a new binary response. The OutputStream returned by this method must be finalized by
 	 * calling {@link #commitResponse(Closeable)} later. This method should only be used for non-textual
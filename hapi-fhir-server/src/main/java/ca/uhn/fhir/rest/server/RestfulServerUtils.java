@@ -52,6 +52,7 @@ import java.io.Writer;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
 import java.util.*;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -446,7 +447,7 @@ public class RestfulServerUtils {
 		if (format != null) {
 			for (String nextFormat : format) {
 				EncodingEnum retVal = EncodingEnum.forContentType(nextFormat);
-				if (retVal != null) {
+				if (retVal != null && isEncodingSupported(theReq.getServer().getFhirContext(), retVal)) {
 					return new ResponseEncoding(theReq.getServer().getFhirContext(), retVal, nextFormat);
 				}
 			}
@@ -669,6 +670,17 @@ public class RestfulServerUtils {
 		return context;
 	}
 
+	/**
+	 * Binary encodings depend on optional libraries, so they are only negotiated if those
+	 * libraries are available
+	 */
+	private static boolean isEncodingSupported(FhirContext theFhirContext, EncodingEnum theEncoding) {
+		if (theEncoding == EncodingEnum.CBOR) {
+			return theFhirContext.isFormatCborSupported();
+		}
+		return true;
+	}
+
 	private static ResponseEncoding getEncodingForContentType(
 			FhirContext theFhirContext, boolean theStrict, String theContentType, String thePreferContentType) {
 		EncodingEnum encoding;
@@ -677,6 +689,9 @@ public class RestfulServerUtils {
 		} else {
 			encoding = EncodingEnum.forContentType(theContentType);
 		}
+		if (encoding != null && !isEncodingSupported(theFhirContext, encoding)) {
+			return null;
+		}
 		if (isNotBlank(thePreferContentType)) {
 			if (thePreferContentType.equals(theContentType)) {
 				return new ResponseEncoding(theFhirContext, encoding, theContentType);
@@ -703,6 +718,9 @@ public class RestfulServerUtils {
 			case RDF:
 				parser = context.newRDFParser();
 				break;
+			case CBOR:
+				parser = context.newCborParser();
+				break;
 			case XML:
 			default:
 				parser = context.newXmlParser();
@@ -996,6 +1014,55 @@ public class RestfulServerUtils {
 		}
 		String charset = Constants.CHARSET_NAME_UTF8;
 
+		/*
+		 * Binary encodings can only be written as bytes, so they never pass through a Writer
+		 * (and therefore are never seen by SERVER_OUTGOING_WRITER_CREATED hooks)
+		 */
+		if (theResource != null
+				&& !encodingDomainResourceAsText
+				&& responseEncoding.getEncoding().isBinary()) {
+			OutputStream outputStream =
+					response.getResponseTextOutputStream(theStatusCode, contentType, null, respondGzip);
+			GZIPOutputStream gzipOutputStream = null;
+			if (outputStream == null) {
+				// Apply the same compression decision as a Writer based response would
+				if (respondGzip) {
+					response.addHeader(Constants.HEADER_CONTENT_ENCODING, Constants.ENCODING_GZIP);
+				}
+				outputStream = response.getResponseOutputStream(theStatusCode, contentType, null);
+				if (respondGzip) {
+					gzipOutputStream = new GZIPOutputStream(outputStream);
+					outputStream = gzipOutputStream;
+				}
+			}
+			FhirVersionEnum forVersion = theResource.getStructureFhirVersionEnum();
+			IParser parser = getNewParser(theServer.getFhirContext(), forVersion, theRequestDetails);
+			parser.encodeResourceToOutputStream(theResource, outputStream);
+			if (gzipOutputStream != null) {
+				// Not every response implementation closes the stream on commit
+				gzipOutputStream.finish();
+			}
+			return response.commitResponse(outputStream);
+		}
+
+		/*
+		 * If nothing needs to see the response as characters, let the parser write UTF-8
+		 * bytes straight to the response instead of transcoding them in a Writer
+		 */
+		if (theResource != null
+				&& !encodingDomainResourceAsText
+				&& (theServer.getInterceptorService() == null
+						|| !theServer.getInterceptorService().hasHooks(Pointcut.SERVER_OUTGOING_WRITER_CREATED))) {
+			OutputStream outputStream =
+					response.getResponseTextOutputStream(theStatusCode, contentType, charset, respondGzip);
+			if (outputStream != null) {
+				FhirVersionEnum forVersion = theResource.getStructureFhirVersionEnum();
+				IParser parser = getNewParser(theServer.getFhirContext(), forVersion, theRequestDetails);
+				parser.encodeResourceToOutputStream(theResource, outputStream);
+				return response.commitResponse(outputStream);
+			}
+		}
+
 		Writer writer = response.getResponseWriter(theStatusCode, contentType, charset, respondGzip);
 
 		// Interceptor call: SERVER_OUTGOING_WRITER_CREATED
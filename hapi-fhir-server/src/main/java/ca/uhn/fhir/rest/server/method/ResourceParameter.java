@@ -41,6 +41,7 @@ import org.hl7.fhir.instance.model.api.IBaseResource;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Reader;
 import java.lang.reflect.Method;
@@ -205,7 +206,14 @@ public class ResourceParameter implements IParameter {
 		parser.setServerBaseUrl(theRequest.getFhirServerBase());
 		T retVal;
 		try {
-			if (theResourceType != null) {
+			if (encoding.isBinary()) {
+				InputStream requestStream = new ByteArrayInputStream(theRequest.loadRequestContents());
+				if (theResourceType != null) {
+					retVal = parser.parseResource(theResourceType, requestStream);
+				} else {
+					retVal = (T) parser.parseResource(requestStream);
+				}
+			} else if (theResourceType != null) {
 				retVal = parser.parseResource(theResourceType, requestReader);
 			} else {
 				retVal = (T) parser.parseResource(requestReader);
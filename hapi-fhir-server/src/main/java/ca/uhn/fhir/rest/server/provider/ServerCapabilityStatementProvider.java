@@ -234,6 +234,10 @@ public class ServerCapabilityStatementProvider implements IServerConformanceProv
 			terser.addElement(retVal, "format", Constants.CT_RDF_TURTLE);
 			terser.addElement(retVal, "format", Constants.FORMAT_TURTLE);
 		}
+		if (myContext.isFormatCborSupported()) {
+			terser.addElement(retVal, "format", Constants.CT_FHIR_CBOR);
+			terser.addElement(retVal, "format", Constants.FORMAT_CBOR);
+		}
 		terser.addElement(retVal, "status", "active");
 
 		IBase rest = terser.addElement(retVal, "rest");
@@ -28,25 +28,27 @@ import ca.uhn.fhir.batch2.api.VoidModel;
 import ca.uhn.fhir.context.FhirContext;
 import ca.uhn.fhir.i18n.Msg;
 import ca.uhn.fhir.interceptor.model.RequestPartitionId;
+import ca.uhn.fhir.jpa.api.config.JpaStorageSettings;
 import ca.uhn.fhir.jpa.api.dao.DaoRegistry;
 import ca.uhn.fhir.jpa.api.dao.IFhirResourceDao;
 import ca.uhn.fhir.jpa.api.dao.IFhirSystemDao;
 import ca.uhn.fhir.jpa.api.svc.IIdHelperService;
 import ca.uhn.fhir.jpa.dao.tx.HapiTransactionService;
 import ca.uhn.fhir.parser.DataFormatException;
-import ca.uhn.fhir.parser.IParser;
+import ca.uhn.fhir.parser.NDJsonParser;
 import ca.uhn.fhir.rest.api.server.RequestDetails;
 import ca.uhn.fhir.rest.api.server.SystemRequestDetails;
 import ca.uhn.fhir.rest.api.server.storage.IResourcePersistentId;
 import ca.uhn.fhir.rest.api.server.storage.TransactionDetails;
 import ca.uhn.fhir.rest.server.exceptions.InvalidRequestException;
 import ca.uhn.fhir.rest.server.exceptions.PreconditionFailedException;
-import org.apache.commons.io.LineIterator;
+import ca.uhn.fhir.util.ThreadPoolUtil;
 import org.hl7.fhir.instance.model.api.IBaseResource;
 import org.hl7.fhir.instance.model.api.IIdType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 import java.io.StringReader;
 import java.util.ArrayList;
@@ -54,8 +56,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import javax.annotation.Nonnull;
-
-import static org.apache.commons.lang3.StringUtils.isNotBlank;
+import javax.annotation.PreDestroy;
 
 public class ConsumeFilesStep implements ILastJobStepWorker<BulkImportJobParameters, NdJsonFileJson> {
 
@@ -76,6 +77,11 @@ public class ConsumeFilesStep implements ILastJobStepWorker<BulkImportJobParamet
 	@Autowired
 	private IFhirSystemDao<?, ?> mySystemDao;
 
+	@Autowired
+	private JpaStorageSettings myStorageSettings;
+
+	private ThreadPoolTaskExecutor myParseExecutor;
+
 	@Nonnull
 	@Override
 	public RunOutcome run(
@@ -85,20 +91,16 @@ public class ConsumeFilesStep implements ILastJobStepWorker<BulkImportJobParamet
 		String ndjson = theStepExecutionDetails.getData().getNdJsonText();
 		String sourceName = theStepExecutionDetails.getData().getSourceName();
 
-		IParser jsonParser = myCtx.newJsonParser();
-		LineIterator lineIter = new LineIterator(new StringReader(ndjson));
+		NDJsonParser ndJsonParser = (NDJsonParser) myCtx.newNDJsonParser();
+		if (myStorageSettings.getBulkImportParseThreadCount() > 1) {
+			// Each line is independent, so parse them in parallel (results are still delivered in file order)
+			ndJsonParser.setExecutor(getParseExecutor());
+		}
 		List<IBaseResource> resources = new ArrayList<>();
-		while (lineIter.hasNext()) {
-			String next = lineIter.next();
-			if (isNotBlank(next)) {
-				IBaseResource parsed;
-				try {
-					parsed = jsonParser.parseResource(next);
-				} catch (DataFormatException e) {
-					throw new JobExecutionFailedException(Msg.code(2052) + "Failed to parse resource: " + e, e);
-				}
-				resources.add(parsed);
-			}
+		try {
+			ndJsonParser.parseResources(new StringReader(ndjson), resources::add);
+		} catch (DataFormatException e) {
+			throw new JobExecutionFailedException(Msg.code(2052) + "Failed to parse resource: " + e, e);
 		}
 
 		ourLog.info("Bulk loading {} resources from source {}", resources.size(), sourceName);
@@ -108,6 +110,22 @@ public class ConsumeFilesStep implements ILastJobStepWorker<BulkImportJobParamet
 		return new RunOutcome(resources.size());
 	}
 
+	private synchronized ThreadPoolTaskExecutor getParseExecutor() {
+		if (myParseExecutor == null) {
+			int threadCount = myStorageSettings.getBulkImportParseThreadCount();
+			myParseExecutor = ThreadPoolUtil.newThreadPool(threadCount, threadCount, "bulk-import-parse-");
+		}
+		return myParseExecutor;
+	}
+
+	@PreDestroy
+	public synchronized void stop() {
+		if (myParseExecutor != null) {
+			myParseExecutor.shutdown();
+			myParseExecutor = null;
+		}
+	}
+
 	public void storeResources(List<IBaseResource> resources, RequestPartitionId thePartitionId) {
 		SystemRequestDetails requestDetails = new SystemRequestDetails();
 		if (thePartitionId == null) {
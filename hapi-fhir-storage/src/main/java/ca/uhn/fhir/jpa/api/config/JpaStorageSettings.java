@@ -22,6 +22,7 @@ package ca.uhn.fhir.jpa.api.config;
 import ca.uhn.fhir.context.support.IValidationSupport;
 import ca.uhn.fhir.jpa.api.model.HistoryCountModeEnum;
 import ca.uhn.fhir.jpa.api.model.WarmCacheEntry;
+import ca.uhn.fhir.jpa.dao.ZstdUtil;
 import ca.uhn.fhir.jpa.model.entity.ResourceEncodingEnum;
 import ca.uhn.fhir.jpa.model.entity.StorageSettings;
 import ca.uhn.fhir.rest.api.SearchTotalModeEnum;
@@ -41,8 +42,10 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
@@ -101,6 +104,18 @@ public class JpaStorageSettings extends StorageSettings {
 	 */
 	private static final Integer DEFAULT_MAXIMUM_SEARCH_RESULT_COUNT_IN_TRANSACTION = null;
 
+	/**
+	 * @since 7.0.0
+	 */
+	public static final long DEFAULT_IN_MEMORY_SEARCH_CACHE_MAXIMUM_BYTES = 256 * FileUtils.ONE_MB;
+
+	/**
+	 * The maximum number of digested Zstandard dictionaries held by {@link #getZstdDictionaryCache()}
+	 *
+	 * @since 7.0.0
+	 */
+	public static final int ZSTD_DICTIONARY_CACHE_MAXIMUM_SIZE = 100;
+
 	private static final Logger ourLog = LoggerFactory.getLogger(JpaStorageSettings.class);
 	private static final int DEFAULT_REINDEX_BATCH_SIZE = 800;
 	private static final int DEFAULT_MAXIMUM_DELETE_CONFLICT_COUNT = 60;
@@ -352,6 +367,47 @@ public class JpaStorageSettings extends StorageSettings {
 	private boolean myPreventInvalidatingConditionalMatchCriteria =
 			DEFAULT_PREVENT_INVALIDATING_CONDITIONAL_MATCH_CRITERIA;
 
+	/**
+	 * @since 7.0.0
+	 */
+	private final Map<String, Integer> myZstdDictionaryIdsByResourceType = new ConcurrentHashMap<>();
+
+	/**
+	 * @since 7.0.0
+	 */
+	private final Map<Integer, byte[]> myZstdDictionariesById = new ConcurrentHashMap<>();
+
+	/**
+	 * @since 7.0.0
+	 */
+	private final ZstdUtil.DictionaryCache myZstdDictionaryCache =
+			new ZstdUtil.DictionaryCache(ZSTD_DICTIONARY_CACHE_MAXIMUM_SIZE);
+
+	/**
+	 * @since 7.0.0
+	 */
+	private SearchResultStorageModeEnum mySearchResultStorageMode = SearchResultStorageModeEnum.ROW_PER_RESULT;
+
+	/**
+	 * @since 7.0.0
+	 */
+	private SearchCacheModeEnum mySearchCacheMode = SearchCacheModeEnum.DATABASE;
+
+	/**
+	 * @since 7.0.0
+	 */
+	private long myInMemorySearchCacheMaximumBytes = DEFAULT_IN_MEMORY_SEARCH_CACHE_MAXIMUM_BYTES;
+
+	/**
+	 * @since 7.0.0
+	 */
+	private int myIncludeLoadThreadCount = 1;
+
+	/**
+	 * @since 7.0.0
+	 */
+	private int myBulkImportParseThreadCount = 1;
+
 	/**
 	 * Constructor
 	 */
@@ -988,14 +1044,101 @@ public class JpaStorageSettings extends StorageSettings {
 		myExpungeThreadCount = Math.max(myExpungeThreadCount, 1); // Minimum of 1
 	}
 
+	/**
+	 * Returns the encoding used to store new resource versions (default is {@link ResourceEncodingEnum#JSONC}).
+	 * Existing versions are always read using the encoding they were stored with.
+	 */
 	public ResourceEncodingEnum getResourceEncoding() {
 		return myResourceEncoding;
 	}
 
+	/**
+	 * Sets the encoding used to store new resource versions (default is {@link ResourceEncodingEnum#JSONC}).
+	 * Existing versions are always read using the encoding they were stored with, and may be rewritten using
+	 * the new encoding by running a <code>$reindex</code> with storage optimization enabled.
+	 * <p>
+	 * When using {@link ResourceEncodingEnum#ZSTD}, dictionaries may be registered for individual
+	 * resource types using {@link #addZstdDictionary(String, byte[])}.
+	 * </p>
+	 */
 	public void setResourceEncoding(ResourceEncodingEnum theResourceEncoding) {
 		myResourceEncoding = theResourceEncoding;
 	}
 
+	/**
+	 * Registers a Zstandard dictionary, trained using
+	 * {@link ca.uhn.fhir.jpa.dao.ZstdUtil#trainDictionary(java.util.Collection, int)}, which will be used
+	 * to compress resources of the given type when the {@link #setResourceEncoding(ResourceEncodingEnum) resource encoding}
+	 * is {@link ResourceEncodingEnum#ZSTD}. If a dictionary was previously registered for the
+	 * type, the new one replaces it for compression.
+	 * <p>
+	 * The JPA server stores each dictionary in the database the first time it is used to compress
+	 * a resource, so resources remain readable after a dictionary is no longer registered here.
+	 * </p>
+	 *
+	 * @since 7.0.0
+	 */
+	public void addZstdDictionary(@Nonnull String theResourceType, @Nonnull byte[] theDictionary) {
+		Validate.notBlank(theResourceType, "theResourceType must not be blank");
+		Validate.notNull(theDictionary, "theDictionary must not be null");
+		int dictionaryId = ZstdUtil.getDictionaryId(theDictionary);
+		Validate.isTrue(dictionaryId != 0, "theDictionary is not a trained Zstandard dictionary");
+
+		myZstdDictionariesById.put(dictionaryId, theDictionary.clone());
+		myZstdDictionaryIdsByResourceType.put(theResourceType, dictionaryId);
+		myZstdDictionaryCache.invalidate(dictionaryId);
+	}
+
+	/**
+	 * Unregisters all Zstandard dictionaries, so that resources are compressed without a dictionary
+	 * until a new one is registered. Resources which were previously compressed using a dictionary
+	 * remain readable by the JPA server, which loads the dictionary from the database.
+	 *
+	 * @see #addZstdDictionary(String, byte[])
+	 * @since 7.0.0
+	 */
+	public void clearZstdDictionaries() {
+		myZstdDictionaryIdsByResourceType.clear();
+		myZstdDictionariesById.clear();
+		myZstdDictionaryCache.invalidateAll();
+	}
+
+	/**
+	 * Returns the Zstandard dictionary used to compress resources of the given type, or
+	 * {@literal null} if none has been registered.
+	 *
+	 * @see #addZstdDictionary(String, byte[])
+	 * @since 7.0.0
+	 */
+	@Nullable
+	public byte[] getZstdCompressionDictionary(String theResourceType) {
+		Integer dictionaryId = myZstdDictionaryIdsByResourceType.get(theResourceType);
+		return dictionaryId != null ? myZstdDictionariesById.get(dictionaryId) : null;
+	}
+
+	/**
+	 * Returns the Zstandard dictionary with the given ID, or {@literal null} if none has been registered.
+	 *
+	 * @see #addZstdDictionary(String, byte[])
+	 * @since 7.0.0
+	 */
+	@Nullable
+	public byte[] getZstdDictionary(int theDictionaryId) {
+		return myZstdDictionariesById.get(theDictionaryId);
+	}
+
+	/**
+	 * Returns the cache of digested Zstandard dictionaries used when compressing and decompressing
+	 * resources stored using these settings. The cache holds at most
+	 * {@link #ZSTD_DICTIONARY_CACHE_MAXIMUM_SIZE} dictionaries each for compression and decompression.
+	 *
+	 * @since 7.0.0
+	 */
+	@Nonnull
+	public ZstdUtil.DictionaryCache getZstdDictionaryCache() {
+		return myZstdDictionaryCache;
+	}
+
 	/**
 	 * If set, an individual resource will not be allowed to have more than the
 	 * given number of tags, profiles, and security labels (the limit is for the combined
@@ -2439,6 +2582,183 @@ public class JpaStorageSettings extends StorageSettings {
 		return myPreventInvalidatingConditionalMatchCriteria;
 	}
 
+	/**
+	 * Controls how the resource PIDs matched by a search are stored in the search result cache. The
+	 * default is {@link SearchResultStorageModeEnum#ROW_PER_RESULT}. This setting is read when the
+	 * application context is started, so changing it afterwards has no effect.
+	 * <p>
+	 * Searches which have already been stored using one mode remain readable after the mode is changed.
+	 * </p>
+	 *
+	 * @since 7.0.0
+	 */
+	@Nonnull
+	public SearchResultStorageModeEnum getSearchResultStorageMode() {
+		return mySearchResultStorageMode;
+	}
+
+	/**
+	 * Controls how the resource PIDs matched by a search are stored in the search result cache. The
+	 * default is {@link SearchResultStorageModeEnum#ROW_PER_RESULT}. This setting is read when the
+	 * application context is started, so changing it afterwards has no effect.
+	 * <p>
+	 * Searches which have already been stored using one mode remain readable after the mode is changed.
+	 * </p>
+	 *
+	 * @since 7.0.0
+	 */
+	public void setSearchResultStorageMode(@Nonnull SearchResultStorageModeEnum theSearchResultStorageMode) {
+		Validate.notNull(theSearchResultStorageMode, "theSearchResultStorageMode must not be null");
+		mySearchResultStorageMode = theSearchResultStorageMode;
+	}
+
+	/**
+	 * Controls where searches and their result PIDs are cached between pages. The default is
+	 * {@link SearchCacheModeEnum#DATABASE}. This setting is read when the application context is
+	 * started, so changing it afterwards has no effect.
+	 * <p>
+	 * {@link SearchCacheModeEnum#IN_MEMORY} should only be used on single node deployments, or on
+	 * clusters where all requests for a given search are routed to the same node (e.g. using sticky
+	 * sessions), since searches cached on one node are not visible to any other node.
+	 * </p>
+	 *
+	 * @since 7.0.0
+	 */
+	@Nonnull
+	public SearchCacheModeEnum getSearchCacheMode() {
+		return mySearchCacheMode;
+	}
+
+	/**
+	 * Controls where searches and their result PIDs are cached between pages. The default is
+	 * {@link SearchCacheModeEnum#DATABASE}. This setting is read when the application context is
+	 * started, so changing it afterwards has no effect.
+	 * <p>
+	 * {@link SearchCacheModeEnum#IN_MEMORY} should only be used on single node deployments, or on
+	 * clusters where all requests for a given search are routed to the same node (e.g. using sticky
+	 * sessions), since searches cached on one node are not visible to any other node.
+	 * </p>
+	 *
+	 * @since 7.0.0
+	 */
+	public void setSearchCacheMode(@Nonnull SearchCacheModeEnum theSearchCacheMode) {
+		Validate.notNull(theSearchCacheMode, "theSearchCacheMode must not be null");
+		mySearchCacheMode = theSearchCacheMode;
+	}
+
+	/**
+	 * When the {@link #setSearchCacheMode(SearchCacheModeEnum) search cache mode} is
+	 * {@link SearchCacheModeEnum#IN_MEMORY}, this is the approximate maximum number of bytes used to hold
+	 * cached searches and their results. When the limit is exceeded, the least recently used searches are
+	 * evicted. The default is {@link #DEFAULT_IN_MEMORY_SEARCH_CACHE_MAXIMUM_BYTES}.
+	 *
+	 * @since 7.0.0
+	 */
+	public long getInMemorySearchCacheMaximumBytes() {
+		return myInMemorySearchCacheMaximumBytes;
+	}
+
+	/**
+	 * When the {@link #setSearchCacheMode(SearchCacheModeEnum) search cache mode} is
+	 * {@link SearchCacheModeEnum#IN_MEMORY}, this is the approximate maximum number of bytes used to hold
+	 * cached searches and their results. When the limit is exceeded, the least recently used searches are
+	 * evicted. The default is {@link #DEFAULT_IN_MEMORY_SEARCH_CACHE_MAXIMUM_BYTES}.
+	 *
+	 * @since 7.0.0
+	 */
+	public void setInMemorySearchCacheMaximumBytes(long theInMemorySearchCacheMaximumBytes) {
+		Validate.isTrue(theInMemorySearchCacheMaximumBytes > 0, "theInMemorySearchCacheMaximumBytes must be positive");
+		myInMemorySearchCacheMaximumBytes = theInMemorySearchCacheMaximumBytes;
+	}
+
+	/**
+	 * This is the number of threads used to load _include and _revinclude targets. Within each
+	 * round of include loading, the query for each include (and each search parameter path of that
+	 * include) is independent of the others, so if this is set to a value greater than 1 these
+	 * queries are run concurrently on a shared pool of this size. Each query runs in its own
+	 * read-only transaction, so searches performed inside a read-write transaction (e.g. as part of
+	 * a FHIR transaction Bundle) always run their include queries on the request thread in order
+	 * to see that transaction's uncommitted changes.
+	 * <p>
+	 * The default is 1, meaning that include queries are run one after another on the request thread.
+	 * This setting is read when the pool is first used, so changes after startup have no effect.
+	 * </p>
+	 * <p>
+	 * Note that every include loader thread needs its own database connection, while the request
+	 * thread keeps holding the connection of its own transaction. A single search uses at most this
+	 * many extra connections, and because the pool is shared, so do all concurrent searches together.
+	 * The total is therefore this many connections on top of one per concurrent search, so the connection pool
+	 * must be larger than the maximum number of concurrent searches plus this value. If it is not,
+	 * searches may stall until the pool's connection timeout is reached. Include queries that can't
+	 * get a free loader thread right away are run on the request thread instead of waiting.
+	 * </p>
+	 *
+	 * @since 7.0.0
+	 */
+	public int getIncludeLoadThreadCount() {
+		return myIncludeLoadThreadCount;
+	}
+
+	/**
+	 * This is the number of threads used to load _include and _revinclude targets. Within each
+	 * round of include loading, the query for each include (and each search parameter path of that
+	 * include) is independent of the others, so if this is set to a value greater than 1 these
+	 * queries are run concurrently on a shared pool of this size. Each query runs in its own
+	 * read-only transaction, so searches performed inside a read-write transaction (e.g. as part of
+	 * a FHIR transaction Bundle) always run their include queries on the request thread in order
+	 * to see that transaction's uncommitted changes.
+	 * <p>
+	 * The default is 1, meaning that include queries are run one after another on the request thread.
+	 * This setting is read when the pool is first used, so changes after startup have no effect.
+	 * </p>
+	 * <p>
+	 * Note that every include loader thread needs its own database connection, while the request
+	 * thread keeps holding the connection of its own transaction. A single search uses at most this
+	 * many extra connections, and because the pool is shared, so do all concurrent searches together.
+	 * The total is therefore this many connections on top of one per concurrent search, so the connection pool
+	 * must be larger than the maximum number of concurrent searches plus this value. If it is not,
+	 * searches may stall until the pool's connection timeout is reached. Include queries that can't
+	 * get a free loader thread right away are run on the request thread instead of waiting.
+	 * </p>
+	 *
+	 * @since 7.0.0
+	 */
+	public void setIncludeLoadThreadCount(int theIncludeLoadThreadCount) {
+		Validate.isTrue(theIncludeLoadThreadCount >= 1, "theIncludeLoadThreadCount must be at least 1");
+		myIncludeLoadThreadCount = theIncludeLoadThreadCount;
+	}
+
+	/**
+	 * This is the number of threads used to parse the NDJSON files supplied to a bulk import job.
+	 * If this is set to a value greater than 1, the lines of each file are parsed concurrently on a
+	 * dedicated pool of this size. The resources are still stored in file order.
+	 * <p>
+	 * The default is 1, meaning that files are parsed one line at a time on the job worker thread.
+	 * This setting is read when the pool is first used, so changes after startup have no effect.
+	 * </p>
+	 *
+	 * @since 7.0.0
+	 */
+	public int getBulkImportParseThreadCount() {
+		return myBulkImportParseThreadCount;
+	}
+
+	/**
+	 * This is the number of threads used to parse the NDJSON files supplied to a bulk import job.
+	 * If this is set to a value greater than 1, the lines of each file are parsed concurrently on a
+	 * dedicated pool of this size. The resources are still stored in file order.
+	 * <p>
+	 * The default is 1, meaning that files are parsed one line at a time on the job worker thread.
+	 * This setting is read when the pool is first used, so changes after startup have no effect.
+	 * </p>
+	 *
+	 * @since 7.0.0
+	 */
+	public void setBulkImportParseThreadCount(int theBulkImportParseThreadCount) {
+		Validate.isTrue(theBulkImportParseThreadCount >= 1, "theBulkImportParseThreadCount must be at least 1");
+		myBulkImportParseThreadCount = theBulkImportParseThreadCount;
+	}
+
 	public enum StoreMetaSourceInformationEnum {
 		NONE(false, false),
 		SOURCE_URI(true, false),
@@ -2529,4 +2849,46 @@ public class JpaStorageSettings extends StorageSettings {
 		 */
 		INLINE
 	}
+
+	/**
+	 * This enum provides allowable options for {@link #setSearchResultStorageMode(SearchResultStorageModeEnum)}
+	 *
+	 * @since 7.0.0
+	 */
+	public enum SearchResultStorageModeEnum {
+
+		/**
+		 * Each search result PID is stored in its own row in the {@literal HFJ_SEARCH_RESULT} table
+		 */
+		ROW_PER_RESULT,
+
+		/**
+		 * Search result PIDs are stored in blocks of several hundred PIDs in the
+		 * {@literal HFJ_SEARCH_RESULT_BLOCK} table, with each block encoded as a compact byte array
+		 * of variable length PID deltas. This significantly reduces the number of rows written and
+		 * read for large searches.
+		 */
+		COMPRESSED_BLOCKS
+	}
+
+	/**
+	 * This enum provides allowable options for {@link #setSearchCacheMode(SearchCacheModeEnum)}
+	 *
+	 * @since 7.0.0
+	 */
+	public enum SearchCacheModeEnum {
+
+		/**
+		 * Searches are stored in the {@literal HFJ_SEARCH} table, and their results are stored according
+		 * to the {@link #setSearchResultStorageMode(SearchResultStorageModeEnum) search result storage mode}
+		 */
+		DATABASE,
+
+		/**
+		 * Searches and their results are held in memory on the node which performed the search, and are
+		 * never written to the database. Searches are evicted when they become stale, or when the
+		 * {@link #setInMemorySearchCacheMaximumBytes(long) maximum cache size} is exceeded.
+		 */
+		IN_MEMORY
+	}
 }
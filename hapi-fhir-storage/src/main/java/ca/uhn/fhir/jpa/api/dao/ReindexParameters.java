@@ -61,6 +61,11 @@ public class ReindexParameters {
 		NONE
 	}
 
+	/**
+	 * Controls which resource versions have their storage optimized. Optimizing a version
+	 * moves small resource bodies into inline storage, and rewrites other bodies using the
+	 * currently configured {@link ca.uhn.fhir.jpa.api.config.JpaStorageSettings#setResourceEncoding resource encoding}.
+	 */
 	public enum OptimizeStorageModeEnum {
 		NONE,
 		CURRENT_VERSION,
@@ -78,6 +78,7 @@ import ca.uhn.fhir.rest.server.util.ServletRequestUtil;
 import ca.uhn.fhir.util.AsyncUtil;
 import ca.uhn.fhir.util.ElementUtil;
 import ca.uhn.fhir.util.FhirTerser;
+import ca.uhn.fhir.util.ResourceIdentity;
 import ca.uhn.fhir.util.ResourceReferenceInfo;
 import ca.uhn.fhir.util.StopWatch;
 import ca.uhn.fhir.util.UrlUtil;
@@ -1513,22 +1514,16 @@ public abstract class BaseTransactionProcessor {
 			 * in this transaction, and the updated version of it has no references
 			 * to Resource/A any more.
 			 */
-			String sourceId =
-					nextDeleteConflict.getSourceId().toUnqualifiedVersionless().getValue();
-			String targetId =
-					nextDeleteConflict.getTargetId().toUnqualifiedVersionless().getValue();
+			ResourceIdentity sourceId = ResourceIdentity.fromId(nextDeleteConflict.getSourceId());
+			ResourceIdentity targetId = ResourceIdentity.fromId(nextDeleteConflict.getTargetId());
 			Optional<IBaseResource> updatedSource = theUpdatedResources.stream()
-					.filter(t -> sourceId.equals(
-							t.getIdElement().toUnqualifiedVersionless().getValue()))
+					.filter(t -> sourceId.equalsUnqualifiedVersionless(t.getIdElement()))
 					.findFirst();
 			if (updatedSource.isPresent()) {
 				List<ResourceReferenceInfo> referencesInSource =
 						myContext.newTerser().getAllResourceReferences(updatedSource.get());
 				boolean sourceStillReferencesTarget = referencesInSource.stream()
-						.anyMatch(t -> targetId.equals(t.getResourceReference()
-								.getReferenceElement()
-								.toUnqualifiedVersionless()
-								.getValue()));
+						.anyMatch(t -> targetId.equalsUnqualifiedVersionless(t.getReferenceIdentity()));
 				if (!sourceStillReferencesTarget) {
 					iter.remove();
 				}
@@ -1673,21 +1668,20 @@ public abstract class BaseTransactionProcessor {
 					continue;
 				}
 			}
-			if (newId != null || theIdSubstitutions.containsSource(nextId)) {
-				if (newId == null) {
-					newId = theIdSubstitutions.getForSource(nextId);
-				}
-				if (newId != null) {
-					ourLog.debug(" * Replacing resource ref {} with {}", nextId, newId);
+			// Local references are never substituted (see IdSubstitutionMap#containsSource)
+			if (newId == null && !nextId.isLocal()) {
+				newId = theIdSubstitutions.getForSource(nextId);
+			}
+			if (newId != null) {
+				ourLog.debug(" * Replacing resource ref {} with {}", nextId, newId);
 
-					addRollbackReferenceRestore(theTransactionDetails, resourceReference);
-					if (theReferencesToAutoVersion.contains(resourceReference)) {
-						resourceReference.setReference(newId.getValue());
-						resourceReference.setResource(null);
-					} else {
-						resourceReference.setReference(newId.toVersionless().getValue());
-						resourceReference.setResource(null);
-					}
+				addRollbackReferenceRestore(theTransactionDetails, resourceReference);
+				if (theReferencesToAutoVersion.contains(resourceReference)) {
+					resourceReference.setReference(newId.getValue());
+					resourceReference.setResource(null);
+				} else {
+					resourceReference.setReference(newId.toVersionless().getValue());
+					resourceReference.setResource(null);
 				}
 			} else if (nextId.getValue().startsWith("urn:")) {
 				throw new InvalidRequestException(
@@ -19,6 +19,7 @@
  */
 package ca.uhn.fhir.jpa.dao;
 
+import ca.uhn.fhir.util.ResourceIdentity;
 import org.hl7.fhir.instance.model.api.IBase;
 import org.hl7.fhir.instance.model.api.IIdType;
 
@@ -27,27 +28,27 @@ import java.util.IdentityHashMap;
 import java.util.Map;
 import java.util.Set;
 
-import static ca.uhn.fhir.jpa.dao.IdSubstitutionMap.toVersionlessValue;
+import static ca.uhn.fhir.jpa.dao.IdSubstitutionMap.toVersionlessIdentity;
 
 public class EntriesToProcessMap {
 
 	private final IdentityHashMap<IBase, IIdType> myEntriesToProcess = new IdentityHashMap<>();
-	private final Map<String, IIdType> myVersionlessIdToVersionedId = new HashMap<>();
-	private final Map<String, IBase> myVersionlessIdToResponseBundleEntry = new HashMap<>();
+	private final Map<ResourceIdentity, IIdType> myVersionlessIdToVersionedId = new HashMap<>();
+	private final Map<ResourceIdentity, IBase> myVersionlessIdToResponseBundleEntry = new HashMap<>();
 
 	public void put(IBase theBundleEntry, IIdType theId, IBase theResponseBundleEntry) {
 		myEntriesToProcess.put(theBundleEntry, theId);
-		String key = toVersionlessValue(theId);
+		ResourceIdentity key = toVersionlessIdentity(theId);
 		myVersionlessIdToVersionedId.put(key, theId);
 		myVersionlessIdToResponseBundleEntry.put(key, theResponseBundleEntry);
 	}
 
 	public IIdType getIdWithVersionlessComparison(IIdType theId) {
-		return myVersionlessIdToVersionedId.get(toVersionlessValue(theId));
+		return myVersionlessIdToVersionedId.get(toVersionlessIdentity(theId));
 	}
 
 	public IBase getResponseBundleEntryWithVersionlessComparison(IIdType theId) {
-		return myVersionlessIdToResponseBundleEntry.get(toVersionlessValue(theId));
+		return myVersionlessIdToResponseBundleEntry.get(toVersionlessIdentity(theId));
 	}
 
 	public Set<Map.Entry<IBase, IIdType>> entrySet() {
@@ -19,115 +19,93 @@
  */
 package ca.uhn.fhir.jpa.dao;
 
+import ca.uhn.fhir.util.ResourceIdentity;
 import com.google.common.collect.Multimap;
 import com.google.common.collect.MultimapBuilder;
+import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.tuple.Pair;
 import org.hl7.fhir.instance.model.api.IIdType;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 public class IdSubstitutionMap {
 
-	private final Map<Entry, Entry> myMap = new HashMap<>();
-	private final Multimap<Entry, Entry> myReverseMap =
+	/**
+	 * Source identity to (source ID, target ID)
+	 */
+	private final Map<ResourceIdentity, Pair<IIdType, IIdType>> myMap = new HashMap<>();
+
+	/**
+	 * Target identity to source IDs
+	 */
+	private final Multimap<ResourceIdentity, IIdType> myReverseMap =
 			MultimapBuilder.hashKeys().arrayListValues().build();
 
 	public boolean containsSource(IIdType theId) {
 		if (theId.isLocal()) {
 			return false;
 		}
-		return myMap.containsKey(new Entry(theId));
+		return myMap.containsKey(toVersionlessIdentity(theId));
 	}
 
 	public boolean containsSource(String theId) {
-		return myMap.containsKey(new Entry(theId));
+		return myMap.containsKey(ResourceIdentity.parse(theId));
 	}
 
 	public boolean containsTarget(IIdType theId) {
-		return myReverseMap.containsKey(new Entry(theId));
+		return myReverseMap.containsKey(toVersionlessIdentity(theId));
 	}
 
 	public boolean containsTarget(String theId) {
-		return myReverseMap.containsKey(new Entry(theId));
+		return myReverseMap.containsKey(ResourceIdentity.parse(theId));
 	}
 
 	public IIdType getForSource(IIdType theId) {
-		Entry target = myMap.get(new Entry(theId));
-		if (target != null) {
-			assert target.myId != null;
-			return target.myId;
-		}
-		return null;
+		return getTarget(myMap.get(toVersionlessIdentity(theId)));
 	}
 
 	public IIdType getForSource(String theId) {
-		Entry target = myMap.get(new Entry(theId));
-		if (target != null) {
-			assert target.myId != null;
-			return target.myId;
-		}
-		return null;
+		return getTarget(myMap.get(ResourceIdentity.parse(theId)));
 	}
 
 	public List<Pair<IIdType, IIdType>> entrySet() {
-		return myMap.entrySet().stream()
-				.map(t -> Pair.of(t.getKey().myId, t.getValue().myId))
-				.collect(Collectors.toList());
+		return new ArrayList<>(myMap.values());
 	}
 
 	public void put(IIdType theSource, IIdType theTarget) {
-		myMap.put(new Entry(theSource), new Entry(theTarget));
-		myReverseMap.put(new Entry(theTarget), new Entry(theSource));
+		// As with a HashMap key, the first source ID put for an identity is the one that is kept
+		myMap.merge(
+				toVersionlessIdentity(theSource),
+				Pair.of(theSource, theTarget),
+				(theExisting, theNew) -> Pair.of(theExisting.getLeft(), theNew.getRight()));
+		myReverseMap.put(toVersionlessIdentity(theTarget), theSource);
 	}
 
 	public boolean isEmpty() {
 		return myMap.isEmpty();
 	}
 
-	private static class Entry {
-
-		private final String myUnversionedId;
-		private final IIdType myId;
-
-		private Entry(String theId) {
-			myId = null;
-			myUnversionedId = theId;
-		}
-
-		private Entry(IIdType theId) {
-			String unversionedId = toVersionlessValue(theId);
-			myUnversionedId = unversionedId;
-			myId = theId;
-		}
-
-		@Override
-		public boolean equals(Object theOther) {
-			if (theOther instanceof Entry) {
-				String otherUnversionedId = ((Entry) theOther).myUnversionedId;
-				if (myUnversionedId.equals(otherUnversionedId)) {
-					return true;
-				}
-			}
-			return false;
-		}
-
-		@Override
-		public int hashCode() {
-			return myUnversionedId.hashCode();
+	private static IIdType getTarget(Pair<IIdType, IIdType> theEntry) {
+		if (theEntry != null) {
+			assert theEntry.getRight() != null;
+			return theEntry.getRight();
 		}
+		return null;
 	}
 
-	static String toVersionlessValue(IIdType theId) {
-		boolean isPlaceholder = theId.getValue().startsWith("urn:");
-		String unversionedId;
-		if (isPlaceholder || (!theId.hasBaseUrl() && !theId.hasVersionIdPart()) || !theId.hasResourceType()) {
-			unversionedId = theId.getValue();
-		} else {
-			unversionedId = theId.toUnqualifiedVersionless().getValue();
+	/**
+	 * Returns the identity used to compare IDs in this map. Placeholder IDs, local IDs and IDs with
+	 * no resource type are compared exactly. Other IDs are compared without their base URL and
+	 * version. The identity is built directly from the parts of the ID, so only one object is
+	 * created per call.
+	 */
+	static ResourceIdentity toVersionlessIdentity(IIdType theId) {
+		if (!theId.hasResourceType() || theId.isLocal() || StringUtils.startsWith(theId.getIdPart(), "urn:")) {
+			return ResourceIdentity.fromId(theId);
 		}
-		return unversionedId;
+		return ResourceIdentity.of(theId.getResourceType(), theId.getIdPart());
 	}
 }
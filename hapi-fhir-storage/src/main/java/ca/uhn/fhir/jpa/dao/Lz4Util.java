@@ -0,0 +1,55 @@
+/*
+ * #%L
+ * HAPI FHIR Storage api
+ * %%
+ * Copyright (C) 2014 - 2023 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package ca.uhn.fhir.jpa.dao;
+
+import ca.uhn.fhir.i18n.Msg;
+import ca.uhn.fhir.parser.DataFormatException;
+import net.jpountz.lz4.LZ4CompressorWithLength;
+import net.jpountz.lz4.LZ4DecompressorWithLength;
+import net.jpountz.lz4.LZ4Exception;
+import net.jpountz.lz4.LZ4Factory;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Compresses resource bodies using LZ4. The compressed bytes are an LZ4 block
+ * prefixed with the uncompressed length.
+ *
+ * @since 7.0.0
+ */
+public class Lz4Util {
+
+	private static final LZ4CompressorWithLength ourCompressor =
+			new LZ4CompressorWithLength(LZ4Factory.fastestInstance().fastCompressor());
+	private static final LZ4DecompressorWithLength ourDecompressor =
+			new LZ4DecompressorWithLength(LZ4Factory.fastestInstance().safeDecompressor());
+
+	public static String decompress(byte[] theResource) {
+		try {
+			return new String(ourDecompressor.decompress(theResource), StandardCharsets.UTF_8);
+		} catch (LZ4Exception | NegativeArraySizeException e) {
+			throw new DataFormatException(Msg.code(2450) + "Failed to decompress contents", e);
+		}
+	}
+
+	public static byte[] compress(String theEncoded) {
+		return ourCompressor.compress(theEncoded.getBytes(StandardCharsets.UTF_8));
+	}
+}
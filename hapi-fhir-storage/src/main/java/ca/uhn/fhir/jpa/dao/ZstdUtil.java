@@ -0,0 +1,240 @@
+/*
+ * #%L
+ * HAPI FHIR Storage api
+ * %%
+ * Copyright (C) 2014 - 2023 Smile CDR, Inc.
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package ca.uhn.fhir.jpa.dao;
+
+import ca.uhn.fhir.i18n.Msg;
+import ca.uhn.fhir.parser.DataFormatException;
+import com.github.luben.zstd.Zstd;
+import com.github.luben.zstd.ZstdDictCompress;
+import com.github.luben.zstd.ZstdDictDecompress;
+import com.github.luben.zstd.ZstdDictTrainer;
+import com.github.luben.zstd.ZstdException;
+import org.apache.commons.lang3.Validate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntFunction;
+import javax.annotation.Nullable;
+
+/**
+ * Compresses resource bodies using Zstandard, optionally with a dictionary trained
+ * on samples of a given resource type.
+ * <p>
+ * Dictionaries are passed around as their raw bytes. Digesting a dictionary into its native form
+ * is relatively expensive, so callers which compress or decompress repeatedly should supply a
+ * {@link DictionaryCache}. Without one, the dictionary is digested on every call.
+ * </p>
+ *
+ * @since 7.0.0
+ */
+public class ZstdUtil {
+
+	public static final int DEFAULT_COMPRESSION_LEVEL = 3;
+
+	/**
+	 * Decompresses a frame produced by {@link #compress(String, byte[])}, without caching any dictionary
+	 *
+	 * @see #decompress(byte[], IntFunction, DictionaryCache)
+	 */
+	public static String decompress(byte[] theResource, @Nullable IntFunction<byte[]> theDictionaryLookup) {
+		return decompress(theResource, theDictionaryLookup, null);
+	}
+
+	/**
+	 * Decompresses a frame produced by {@link #compress(String, byte[], DictionaryCache)}
+	 *
+	 * @param theResource         The compressed bytes
+	 * @param theDictionaryLookup Supplies the dictionary bytes for a given dictionary ID. Only invoked if the
+	 *                            frame was compressed using a dictionary which is not already in the cache.
+	 * @param theDictionaryCache  Holds digested dictionaries between calls, or <code>null</code>
+	 */
+	public static String decompress(
+			byte[] theResource,
+			@Nullable IntFunction<byte[]> theDictionaryLookup,
+			@Nullable DictionaryCache theDictionaryCache) {
+		long size = Zstd.getFrameContentSize(theResource);
+		if (size < 0 || size > Integer.MAX_VALUE) {
+			throw new DataFormatException(Msg.code(2445) + "Failed to decompress contents, content size is unknown");
+		}
+
+		int dictionaryId = (int) Zstd.getDictIdFromFrame(theResource);
+		ZstdDictDecompress dictionary = null;
+		if (dictionaryId != 0) {
+			if (theDictionaryCache != null) {
+				dictionary = theDictionaryCache.myDecompressionDictionaries.get(dictionaryId);
+			}
+			if (dictionary == null) {
+				byte[] dictionaryBytes = null;
+				if (theDictionaryLookup != null) {
+					dictionaryBytes = theDictionaryLookup.apply(dictionaryId);
+				}
+				if (dictionaryBytes == null) {
+					throw new DataFormatException(Msg.code(2446)
+							+ "Failed to decompress contents, no dictionary is available with ID: " + dictionaryId);
+				}
+				dictionary = new ZstdDictDecompress(dictionaryBytes);
+				if (theDictionaryCache != null) {
+					theDictionaryCache.myDecompressionDictionaries.put(dictionaryId, dictionary);
+				}
+			}
+		}
+
+		try {
+			byte[] retVal;
+			if (dictionary != null) {
+				retVal = Zstd.decompress(theResource, dictionary, (int) size);
+			} else {
+				retVal = Zstd.decompress(theResource, (int) size);
+			}
+			return new String(retVal, StandardCharsets.UTF_8);
+		} catch (ZstdException e) {
+			throw new DataFormatException(Msg.code(2447) + "Failed to decompress contents", e);
+		}
+	}
+
+	/**
+	 * Compresses the given text, without caching the dictionary
+	 *
+	 * @see #compress(String, byte[], DictionaryCache)
+	 */
+	public static byte[] compress(String theEncoded, @Nullable byte[] theDictionary) {
+		return compress(theEncoded, theDictionary, null);
+	}
+
+	/**
+	 * Compresses the given text
+	 *
+	 * @param theEncoded         The text to compress
+	 * @param theDictionary      The trained dictionary to compress with, or <code>null</code> to compress without one
+	 * @param theDictionaryCache Holds digested dictionaries between calls, or <code>null</code>
+	 */
+	public static byte[] compress(
+			String theEncoded, @Nullable byte[] theDictionary, @Nullable DictionaryCache theDictionaryCache) {
+		byte[] bytes = theEncoded.getBytes(StandardCharsets.UTF_8);
+		try {
+			if (theDictionary != null) {
+				ZstdDictCompress dictionary = null;
+				int dictionaryId = getDictionaryId(theDictionary);
+				if (theDictionaryCache != null) {
+					dictionary = theDictionaryCache.myCompressionDictionaries.get(dictionaryId);
+				}
+				if (dictionary == null) {
+					dictionary = new ZstdDictCompress(theDictionary, DEFAULT_COMPRESSION_LEVEL);
+					if (theDictionaryCache != null) {
+						theDictionaryCache.myCompressionDictionaries.put(dictionaryId, dictionary);
+					}
+				}
+				return Zstd.compress(bytes, dictionary);
+			}
+			return Zstd.compress(bytes, DEFAULT_COMPRESSION_LEVEL);
+		} catch (ZstdException e) {
+			throw new DataFormatException(Msg.code(2448) + "Compress contents", e);
+		}
+	}
+
+	/**
+	 * Trains a dictionary from a collection of sample resource bodies. Samples should be
+	 * representative of the resources which will be compressed with the dictionary, and
+	 * generally there should be at least a few hundred of them.
+	 *
+	 * @param theSamples        The encoded sample resources
+	 * @param theDictionarySize The maximum size of the dictionary, in bytes
+	 */
+	public static byte[] trainDictionary(Collection<String> theSamples, int theDictionarySize) {
+		List<byte[]> samples = new ArrayList<>(theSamples.size());
+		int totalSize = 0;
+		for (String next : theSamples) {
+			byte[] sample = next.getBytes(StandardCharsets.UTF_8);
+			samples.add(sample);
+			totalSize += sample.length;
+		}
+
+		ZstdDictTrainer trainer = new ZstdDictTrainer(totalSize, theDictionarySize);
+		samples.forEach(trainer::addSample);
+		try {
+			return trainer.trainSamples();
+		} catch (ZstdException e) {
+			throw new DataFormatException(Msg.code(2449) + "Failed to train dictionary: " + e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * Returns the ID of a trained dictionary, or <code>0</code> if the bytes are not a trained dictionary
+	 */
+	public static int getDictionaryId(byte[] theDictionary) {
+		return (int) Zstd.getDictIdFromDict(theDictionary);
+	}
+
+	/**
+	 * A bounded, least-recently-used cache of digested dictionaries, keyed by dictionary ID. Each
+	 * cache is independent, so a dictionary ID only has meaning within the cache it was stored in.
+	 * Callers are responsible for calling {@link #invalidate(int)} if the bytes associated
+	 * with a dictionary ID change.
+	 */
+	public static class DictionaryCache {
+
+		private final Map<Integer, ZstdDictCompress> myCompressionDictionaries;
+		private final Map<Integer, ZstdDictDecompress> myDecompressionDictionaries;
+
+		/**
+		 * Constructor
+		 *
+		 * @param theMaximumSize The maximum number of dictionaries to hold for compression, and separately
+		 *                       for decompression
+		 */
+		public DictionaryCache(int theMaximumSize) {
+			Validate.isTrue(theMaximumSize > 0, "theMaximumSize must be greater than 0");
+			myCompressionDictionaries = newLruMap(theMaximumSize);
+			myDecompressionDictionaries = newLruMap(theMaximumSize);
+		}
+
+		/**
+		 * Removes any digested dictionaries with the given ID
+		 */
+		public void invalidate(int theDictionaryId) {
+			myCompressionDictionaries.remove(theDictionaryId);
+			myDecompressionDictionaries.remove(theDictionaryId);
+		}
+
+		/**
+		 * Removes all digested dictionaries
+		 */
+		public void invalidateAll() {
+			myCompressionDictionaries.clear();
+			myDecompressionDictionaries.clear();
+		}
+
+		private static <T> Map<Integer, T> newLruMap(int theMaximumSize) {
+			return Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+				private static final long serialVersionUID = 1L;
+
+				@Override
+				protected boolean removeEldestEntry(Map.Entry<Integer, T> theEldest) {
+					return size() > theMaximumSize;
+				}
+			});
+		}
+	}
+}
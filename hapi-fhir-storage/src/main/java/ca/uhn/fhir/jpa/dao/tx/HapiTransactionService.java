@@ -70,6 +70,8 @@ public class HapiTransactionService implements IHapiTransactionService {
 			HapiTransactionService.class.getName() + "_RESOLVED_TAG_DEFINITIONS";
 	public static final String XACT_USERDATA_KEY_EXISTING_SEARCH_PARAMS =
 			HapiTransactionService.class.getName() + "_EXISTING_SEARCH_PARAMS";
+	public static final String XACT_USERDATA_KEY_PREVIOUS_RESOURCES =
+			HapiTransactionService.class.getName() + "_PREVIOUS_RESOURCES";
 	private static final Logger ourLog = LoggerFactory.getLogger(HapiTransactionService.class);
 	private static final ThreadLocal<RequestPartitionId> ourRequestPartitionThreadLocal = new ThreadLocal<>();
 
@@ -333,6 +335,8 @@ public class HapiTransactionService implements IHapiTransactionService {
 										XACT_USERDATA_KEY_RESOLVED_TAG_DEFINITIONS);
 								theExecutionBuilder.myTransactionDetails.clearUserData(
 										XACT_USERDATA_KEY_EXISTING_SEARCH_PARAMS);
+								theExecutionBuilder.myTransactionDetails.clearUserData(
+										XACT_USERDATA_KEY_PREVIOUS_RESOURCES);
 							}
 							double sleepAmount = (250.0d * i) * Math.random();
 							long sleepAmountLong = (long) sleepAmount;
@@ -0,0 +1,102 @@
+package ca.uhn.fhir.jpa.dao;
+
+import ca.uhn.fhir.jpa.api.config.JpaStorageSettings;
+import ca.uhn.fhir.parser.DataFormatException;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ResourceCompressionTest {
+
+	private static final String PATIENT = "{\"resourceType\":\"Patient\",\"active\":true,\"name\":[{\"family\":\"Simpson\",\"given\":[\"Homer\"]}]}";
+
+	@Test
+	public void testZstdRoundTrip() {
+		byte[] compressed = ZstdUtil.compress(PATIENT, null);
+		assertEquals(PATIENT, ZstdUtil.decompress(compressed, null));
+	}
+
+	@Test
+	public void testZstdRoundTripWithDictionary() {
+		byte[] dictionary = ZstdUtil.trainDictionary(createSamples(), 4096);
+		int dictionaryId = ZstdUtil.getDictionaryId(dictionary);
+		assertNotEquals(0, dictionaryId);
+
+		JpaStorageSettings settings = new JpaStorageSettings();
+		settings.addZstdDictionary("Patient", dictionary);
+		byte[] compressDictionary = settings.getZstdCompressionDictionary("Patient");
+
+		byte[] compressed = ZstdUtil.compress(PATIENT, compressDictionary);
+		assertThat(compressed.length, lessThan(ZstdUtil.compress(PATIENT, null).length));
+		assertEquals(PATIENT, ZstdUtil.decompress(compressed, settings::getZstdDictionary));
+		assertEquals(PATIENT, ZstdUtil.decompress(compressed, id -> dictionary.clone()));
+
+		DataFormatException e = assertThrows(DataFormatException.class, () -> ZstdUtil.decompress(compressed, null));
+		assertThat(e.getMessage(), containsString("no dictionary is available with ID: " + dictionaryId));
+	}
+
+	@Test
+	public void testZstdDictionaryCache() {
+		byte[] dictionary = ZstdUtil.trainDictionary(createSamples(), 4096);
+		int dictionaryId = ZstdUtil.getDictionaryId(dictionary);
+		ZstdUtil.DictionaryCache cache = new ZstdUtil.DictionaryCache(1);
+		AtomicInteger lookups = new AtomicInteger();
+		IntFunction<byte[]> lookup = id -> {
+			lookups.incrementAndGet();
+			return dictionary;
+		};
+
+		byte[] compressed = ZstdUtil.compress(PATIENT, dictionary, cache);
+		assertEquals(PATIENT, ZstdUtil.decompress(compressed, lookup, cache));
+		assertEquals(PATIENT, ZstdUtil.decompress(compressed, lookup, cache));
+		assertEquals(1, lookups.get());
+
+		// Caches are independent of each other
+		assertEquals(PATIENT, ZstdUtil.decompress(compressed, lookup, new ZstdUtil.DictionaryCache(1)));
+		assertEquals(2, lookups.get());
+
+		cache.invalidate(dictionaryId);
+		assertEquals(PATIENT, ZstdUtil.decompress(compressed, lookup, cache));
+		assertEquals(3, lookups.get());
+
+		// The cache only holds one dictionary, so digesting a second one evicts the first
+		byte[] otherDictionary = ZstdUtil.trainDictionary(createSamples().subList(100, 500), 2048);
+		assertNotEquals(dictionaryId, ZstdUtil.getDictionaryId(otherDictionary));
+		byte[] otherCompressed = ZstdUtil.compress(PATIENT, otherDictionary, cache);
+		assertEquals(PATIENT, ZstdUtil.decompress(otherCompressed, id -> otherDictionary, cache));
+		assertEquals(PATIENT, ZstdUtil.decompress(compressed, lookup, cache));
+		assertEquals(4, lookups.get());
+	}
+
+	@Test
+	public void testLz4RoundTrip() {
+		byte[] compressed = Lz4Util.compress(PATIENT);
+		assertEquals(PATIENT, Lz4Util.decompress(compressed));
+	}
+
+	@Test
+	public void testLz4InvalidContents() {
+		assertThrows(DataFormatException.class, () -> Lz4Util.decompress(new byte[] {0, 0, 0, 10, 1, 2, 3}));
+	}
+
+	private static List<String> createSamples() {
+		List<String> retVal = new ArrayList<>();
+		for (int i = 0; i < 500; i++) {
+			retVal.add("{\"resourceType\":\"Patient\",\"identifier\":[{\"system\":\"http://example.com/mrn\",\"value\":\"" + i
+					+ "\"}],\"active\":" + (i % 2 == 0) + ",\"name\":[{\"family\":\"Family" + i
+					+ "\",\"given\":[\"Given" + (i * 7) + "\"]}],\"gender\":\"" + (i % 3 == 0 ? "male" : "female")
+					+ "\",\"birthDate\":\"19" + (10 + i % 90) + "-0" + (1 + i % 9) + "-1" + (i % 10) + "\"}");
+		}
+		return retVal;
+	}
+}
@@ -4,6 +4,8 @@ import org.junit.jupiter.api.Test;
 
 import java.util.Set;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -45,4 +47,20 @@ public class FhirContextR4Test {
 
 		assertThrows(ConfigurationException.class, () -> fhirContext.getAllResourceDefinitions());
 	}
+
+	@Test
+	void warmUpScansAllResourceTypes() {
+		final FhirContext fhirContext = new FhirContext(FhirVersionEnum.R4);
+		RuntimeResourceDefinition patientDef = fhirContext.getResourceDefinition("Patient");
+
+		assertSame(fhirContext, fhirContext.warmUp());
+
+		assertEquals(fhirContext.getResourceTypes().size(), fhirContext.getAllResourceDefinitions().size());
+		assertSame(patientDef, fhirContext.getResourceDefinition("Patient"));
+		assertEquals("Observation", fhirContext.getResourceDefinition("Observation").getName());
+
+		// Calling again is a no-op
+		fhirContext.warmUp();
+		assertSame(patientDef, fhirContext.getResourceDefinition("Patient"));
+	}
 }
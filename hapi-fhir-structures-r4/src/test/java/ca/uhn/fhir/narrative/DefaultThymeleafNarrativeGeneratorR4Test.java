@@ -248,6 +248,49 @@ public class DefaultThymeleafNarrativeGeneratorR4Test {
 
 	}
 
+	@Test
+	public void testGenerateWithNarrativeCache() {
+		myGen.setNarrativeCacheSize(100);
+
+		Medication med = new Medication();
+		med.setId("Medication/1/_history/1");
+		med.getCode().setText("ciproflaxin");
+		myGen.populateResourceNarrative(myCtx, med);
+		assertThat(med.getText().getDiv().getValueAsString(), containsString("ciproflaxin"));
+
+		// Same version, so the retained narrative is used
+		Medication sameVersion = new Medication();
+		sameVersion.setId("Medication/1/_history/1");
+		sameVersion.getCode().setText("amoxicillin");
+		myGen.populateResourceNarrative(myCtx, sameVersion);
+		assertThat(sameVersion.getText().getDiv().getValueAsString(), containsString("ciproflaxin"));
+		assertThat(myGen.generateResourceNarrative(myCtx, med), containsString("ciproflaxin"));
+
+		// New version, so the narrative is generated again
+		sameVersion.setId("Medication/1/_history/2");
+		myGen.populateResourceNarrative(myCtx, sameVersion);
+		assertThat(sameVersion.getText().getDiv().getValueAsString(), containsString("amoxicillin"));
+
+		// No version, so the narrative is never retained
+		Medication noVersion = new Medication();
+		noVersion.setId("Medication/1");
+		noVersion.getCode().setText("ibuprofen");
+		myGen.populateResourceNarrative(myCtx, noVersion);
+		assertThat(noVersion.getText().getDiv().getValueAsString(), containsString("ibuprofen"));
+	}
+
+	@Test
+	public void testGenerateWithMultipleContexts() {
+		FhirContext otherCtx = FhirContext.forR4();
+
+		for (FhirContext nextCtx : new FhirContext[] {myCtx, otherCtx, myCtx}) {
+			Medication med = new Medication();
+			med.getCode().setText("ciproflaxin");
+			myGen.populateResourceNarrative(nextCtx, med);
+			assertThat(med.getText().getDiv().getValueAsString(), containsString("ciproflaxin"));
+		}
+	}
+
 	@AfterAll
 	public static void afterClassClearContext() {
 		TestUtil.randomizeLocaleAndTimezone();
@@ -0,0 +1,133 @@
+package ca.uhn.fhir.parser;
+
+import ca.uhn.fhir.context.FhirContext;
+import ca.uhn.fhir.rest.api.EncodingEnum;
+import org.hl7.fhir.r4.model.Bundle;
+import org.hl7.fhir.r4.model.DecimalType;
+import org.hl7.fhir.r4.model.Observation;
+import org.hl7.fhir.r4.model.Patient;
+import org.hl7.fhir.r4.model.Quantity;
+import org.hl7.fhir.r4.model.StringType;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.math.BigDecimal;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CborParserR4Test {
+	private static final FhirContext ourCtx = FhirContext.forR4Cached();
+
+	@Test
+	public void testEncodeAndParseBundle() throws IOException {
+		Bundle input = createBundle();
+
+		byte[] encoded = encode(input);
+		Bundle parsed = ourCtx.newCborParser().parseResource(Bundle.class, new ByteArrayInputStream(encoded));
+
+		String expected = ourCtx.newJsonParser().encodeResourceToString(input);
+		String actual = ourCtx.newJsonParser().encodeResourceToString(parsed);
+		assertEquals(expected, actual);
+		assertThat(encoded.length, lessThan(expected.length()));
+
+		Observation observation = (Observation) parsed.getEntry().get(1).getResource();
+		assertEquals("0.50", observation.getValueQuantity().getValueElement().getValueAsString());
+		assertEquals("Observation/2", observation.getIdElement().toUnqualifiedVersionless().getValue());
+	}
+
+	@Test
+	public void testParseWithoutResourceType() throws IOException {
+		Patient input = new Patient();
+		input.setId("Patient/123");
+		input.addName().setFamily("Simpson");
+
+		byte[] encoded = encode(input);
+		Patient parsed = (Patient) ourCtx.newCborParser().parseResource(new ByteArrayInputStream(encoded));
+
+		assertEquals("Simpson", parsed.getNameFirstRep().getFamily());
+		assertTrue(input.equalsDeep(parsed));
+	}
+
+	@Test
+	public void testEncodingIsBinary() {
+		IParser parser = ourCtx.newCborParser();
+		assertEquals(EncodingEnum.CBOR, parser.getEncoding());
+		assertTrue(parser.getEncoding().isBinary());
+		assertEquals(EncodingEnum.CBOR, EncodingEnum.forContentType("application/fhir+cbor"));
+		assertEquals(EncodingEnum.CBOR, EncodingEnum.forContentType("cbor"));
+		assertTrue(ourCtx.isFormatCborSupported());
+	}
+
+	@Test
+	public void testTextMethodsNotSupported() {
+		IParser parser = ourCtx.newCborParser();
+		Patient patient = new Patient();
+		patient.setActive(true);
+
+		DataFormatException e = assertThrows(DataFormatException.class, () -> parser.encodeResourceToString(patient));
+		assertThat(e.getMessage(), containsString("HAPI-2451: CBOR is a binary encoding"));
+
+		e = assertThrows(DataFormatException.class, () -> parser.encodeResourceToWriter(patient, new StringWriter()));
+		assertThat(e.getMessage(), containsString("HAPI-2451: CBOR is a binary encoding"));
+
+		e = assertThrows(DataFormatException.class, () -> parser.parseResource(Patient.class, "{}"));
+		assertThat(e.getMessage(), containsString("HAPI-2453: CBOR is a binary encoding"));
+	}
+
+	@Test
+	public void testParseInvalidContent() {
+		IParser parser = ourCtx.newCborParser();
+
+		DataFormatException e = assertThrows(
+				DataFormatException.class, () -> parser.parseResource(new ByteArrayInputStream(new byte[0])));
+		assertThat(e.getMessage(), containsString("HAPI-2455: Did not find any content to parse"));
+
+		// A CBOR text string rather than a map
+		byte[] text = new byte[] {0x63, 'a', 'b', 'c'};
+		e = assertThrows(DataFormatException.class, () -> parser.parseResource(new ByteArrayInputStream(text)));
+		assertThat(e.getMessage(), containsString("HAPI-2456"));
+
+		// A truncated map
+		byte[] truncated = new byte[] {(byte) 0xA1, 0x63, 'a'};
+		e = assertThrows(DataFormatException.class, () -> parser.parseResource(new ByteArrayInputStream(truncated)));
+		assertThat(e.getMessage(), containsString("HAPI-2454"));
+	}
+
+	private static byte[] encode(org.hl7.fhir.instance.model.api.IBaseResource theResource) throws IOException {
+		ByteArrayOutputStream retVal = new ByteArrayOutputStream();
+		ourCtx.newCborParser().setPrettyPrint(true).encodeResourceToOutputStream(theResource, retVal);
+		return retVal.toByteArray();
+	}
+
+	private static Bundle createBundle() {
+		Patient patient = new Patient();
+		patient.setId("Patient/1/_history/2");
+		patient.getMeta().addProfile("http://example.com/profile");
+		patient.addIdentifier().setSystem("http://example.com/mrn").setValue("123");
+		patient.addName().setFamily("Simpson").addGiven("Homer").addGiven("J");
+		patient.setActive(true);
+		patient.addExtension("http://example.com/ext", new StringType("value"));
+		patient.getBirthDateElement().setValueAsString("1956-05-12");
+		patient.getBirthDateElement().addExtension("http://example.com/time", new StringType("12:00"));
+
+		Observation observation = new Observation();
+		observation.setId("Observation/2");
+		observation.getSubject().setReference("Patient/1");
+		observation.setValue(new Quantity().setValueElement(new DecimalType(new BigDecimal("0.50"))).setUnit("mg"));
+
+		Bundle retVal = new Bundle();
+		retVal.setType(Bundle.BundleType.SEARCHSET);
+		retVal.setTotal(2);
+		retVal.addEntry().setFullUrl("http://example.com/Patient/1").setResource(patient);
+		retVal.addEntry().setFullUrl("http://example.com/Observation/2").setResource(observation);
+		return retVal;
+	}
+}
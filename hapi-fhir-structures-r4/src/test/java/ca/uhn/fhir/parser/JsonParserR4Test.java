@@ -8,6 +8,7 @@ import ca.uhn.fhir.model.api.annotation.DatatypeDef;
 import ca.uhn.fhir.rest.api.Constants;
 import ca.uhn.fhir.test.BaseTest;
 import ca.uhn.fhir.util.StopWatch;
+import ca.uhn.fhir.util.StringInternTable;
 import ca.uhn.fhir.util.TestUtil;
 import com.google.common.collect.Sets;
 import org.apache.commons.io.IOUtils;
@@ -51,11 +52,18 @@ import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.HashSet;
 import java.util.List;
@@ -71,12 +79,16 @@ import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.startsWith;
 import static org.hamcrest.Matchers.stringContainsInOrder;
 import static org.hamcrest.core.IsNot.not;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
@@ -100,6 +112,9 @@ public class JsonParserR4Test extends BaseTest {
 	@AfterEach
 	public void afterEach() {
 		ourCtx.getParserOptions().setAutoContainReferenceTargetsWithNoId(true);
+		ourCtx.getParserOptions().setStreamingJsonParsing(false);
+		ourCtx.getParserOptions().setCompileEncodePlans(false);
+		ourCtx.getParserOptions().setPrimitiveValueInternTable(null);
 	}
 
 	@Test
@@ -875,6 +890,293 @@ public class JsonParserR4Test extends BaseTest {
 
 	}
 
+	@ParameterizedTest
+	@ValueSource(strings = {
+		"/bundle-with-two-patient-resources.json",
+		"/multi-thread-parsing-issue-bundle.json",
+		"/bundle-circ-ref.json",
+		"/extension-on-line.txt"
+	})
+	public void testParseStreaming_MatchesTreeParser(String theResourceName) throws IOException {
+		String input = IOUtils.toString(JsonParserR4Test.class.getResourceAsStream(theResourceName), Constants.CHARSET_UTF8);
+
+		ourCtx.getParserOptions().setStreamingJsonParsing(false);
+		IBaseResource treeParsed = ourCtx.newJsonParser().parseResource(input);
+		ourCtx.getParserOptions().setStreamingJsonParsing(true);
+		IBaseResource streamParsed = ourCtx.newJsonParser().parseResource(input);
+
+		String expected = ourCtx.newJsonParser().encodeResourceToString(treeParsed);
+		String actual = ourCtx.newJsonParser().encodeResourceToString(streamParsed);
+		assertEquals(expected, actual);
+	}
+
+	@Test
+	public void testParseStreaming_OutOfOrderElements() {
+		String input = "{" +
+			"\"id\": \"A\"," +
+			"\"entry\": [ {" +
+			"  \"resource\": {" +
+			"    \"_birthDate\": { \"extension\": [ { \"valueString\": \"ext\", \"url\": \"http://foo\" } ] }," +
+			"    \"name\": [ { \"family\": \"Simpson\", \"_given\": [ null, { \"id\": \"g2\" } ], \"given\": [ \"Homer\", \"Jay\" ] } ]," +
+			"    \"birthDate\": \"1956-05-12\"," +
+			"    \"contained\": [ { \"id\": \"org\", \"resourceType\": \"Organization\", \"name\": \"Springfield Nuclear\" } ]," +
+			"    \"managingOrganization\": { \"reference\": \"#org\" }," +
+			"    \"resourceType\": \"Patient\"" +
+			"  }," +
+			"  \"fullUrl\": \"http://example.com/Patient/1\"" +
+			"} ]," +
+			"\"type\": \"collection\"," +
+			"\"resourceType\": \"Bundle\"" +
+			"}";
+
+		ourCtx.getParserOptions().setStreamingJsonParsing(true);
+		Bundle bundle = ourCtx.newJsonParser().parseResource(Bundle.class, input);
+
+		assertEquals("A", bundle.getIdElement().getIdPart());
+		assertEquals(Bundle.BundleType.COLLECTION, bundle.getType());
+		Patient patient = (Patient) bundle.getEntryFirstRep().getResource();
+		assertEquals("http://example.com/Patient/1", patient.getId());
+		assertEquals("Simpson", patient.getNameFirstRep().getFamily());
+		assertEquals("Homer", patient.getNameFirstRep().getGiven().get(0).getValue());
+		assertEquals("Jay", patient.getNameFirstRep().getGiven().get(1).getValue());
+		assertEquals("g2", patient.getNameFirstRep().getGiven().get(1).getId());
+		assertEquals("1956-05-12", patient.getBirthDateElement().getValueAsString());
+		assertEquals("ext", patient.getBirthDateElement().getExtensionString("http://foo"));
+		Organization org = (Organization) patient.getManagingOrganization().getResource();
+		assertEquals("Springfield Nuclear", org.getName());
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = {
+		"",
+		"   ",
+		"[{\"resourceType\": \"Patient\"}]",
+		"{'resourceType': 'Patient'}",
+		"{\"id\": \"A\"}",
+		"{\"resourceType\": \"\"}",
+		"{\"resourceType\": \"Bundle\", \"entry\": [{\"resource\": {\"id\": \"A\"}}]}",
+		"{\"resourceType\": \"Patient\", \"contained\": [{\"resourceType\": 1}]}"
+	})
+	public void testParseStreaming_InvalidContentReportedLikeTreeParser(String theInput) {
+		DataFormatException treeFailure = assertThrows(DataFormatException.class, () -> ourCtx.newJsonParser().parseResource(theInput));
+
+		ourCtx.getParserOptions().setStreamingJsonParsing(true);
+		DataFormatException streamingFailure = assertThrows(DataFormatException.class, () -> ourCtx.newJsonParser().parseResource(theInput));
+
+		assertEquals(treeFailure.getMessage(), streamingFailure.getMessage());
+	}
+
+	@Test
+	public void testParseStreaming_TrailingContent() {
+		String input = "{\"resourceType\": \"Patient\"} {}";
+		DataFormatException treeFailure = assertThrows(DataFormatException.class, () -> ourCtx.newJsonParser().parseResource(input));
+
+		ourCtx.getParserOptions().setStreamingJsonParsing(true);
+		DataFormatException streamingFailure = assertThrows(DataFormatException.class, () -> ourCtx.newJsonParser().parseResource(input));
+
+		// The detail comes from Jackson in the tree based parser, so only the code and prefix are shared
+		String prefix = Msg.code(1861) + "Failed to parse JSON encoded FHIR content: ";
+		assertThat(treeFailure.getMessage(), startsWith(prefix));
+		assertThat(streamingFailure.getMessage(), startsWith(prefix));
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = {
+		"/bundle-with-two-patient-resources.json",
+		"/multi-thread-parsing-issue-bundle.json",
+		"/static-capabilitystatement.json",
+		"/extension-on-line.txt"
+	})
+	public void testEncodeWithCompiledEncodePlans(String theResourceName) throws IOException {
+		String input = IOUtils.toString(JsonParserR4Test.class.getResourceAsStream(theResourceName), Constants.CHARSET_UTF8);
+		IBaseResource resource = ourCtx.newJsonParser().parseResource(input);
+
+		List<String> expected = encodeWithEachParserMode(resource);
+		ourCtx.getParserOptions().setCompileEncodePlans(true);
+		List<String> actual = encodeWithEachParserMode(resource);
+		assertEquals(expected, actual);
+	}
+
+	@Test
+	public void testEncodeWithCompiledEncodePlans_ContainedResources() {
+		Organization org = new Organization();
+		org.setId("#org");
+		org.getMeta().setVersionId("2").addSecurity().setCode("R");
+		org.getText().setStatus(Narrative.NarrativeStatus.GENERATED).setDivAsString("<div>Org</div>");
+		org.setName("Springfield Nuclear");
+		Patient patient = new Patient();
+		patient.setId("Patient/123");
+		patient.getMeta().setVersionId("1").addSecurity().setCode("N");
+		patient.getText().setStatus(Narrative.NarrativeStatus.GENERATED).setDivAsString("<div>Patient</div>");
+		patient.addExtension("http://foo", new StringType("bar"));
+		patient.addName().setFamily("Simpson").addGiven("Homer");
+		patient.getManagingOrganization().setResource(org);
+
+		List<String> expected = encodeWithEachParserMode(patient);
+		ourCtx.getParserOptions().setCompileEncodePlans(true);
+		List<String> actual = encodeWithEachParserMode(patient);
+		assertEquals(expected, actual);
+		assertThat(actual.get(0), containsString("\"contained\""));
+	}
+
+	private List<String> encodeWithEachParserMode(IBaseResource theResource) {
+		List<String> retVal = new ArrayList<>();
+		for (IParser next : Arrays.asList(ourCtx.newJsonParser(), ourCtx.newXmlParser())) {
+			retVal.add(next.encodeResourceToString(theResource));
+			retVal.add(next.setSummaryMode(true).encodeResourceToString(theResource));
+			retVal.add(next.setSummaryMode(false).setSuppressNarratives(true).encodeResourceToString(theResource));
+			next.setSuppressNarratives(false);
+			next.setEncodeElements(Sets.newHashSet("Patient.name", "Bundle.entry"));
+			retVal.add(next.encodeResourceToString(theResource));
+		}
+		return retVal;
+	}
+
+	@Test
+	public void testEncodeResourceToOutputStream() throws IOException {
+		Patient patient = new Patient();
+		patient.setId("Patient/123");
+		patient.addName().setFamily("Ménard").addGiven("Zoë");
+		patient.addAddress().setCity("東京");
+		patient.addExtension("http://foo", new DecimalType(new BigDecimal("1.50")));
+
+		for (IParser next : Arrays.asList(ourCtx.newJsonParser(), ourCtx.newJsonParser().setPrettyPrint(true), ourCtx.newXmlParser())) {
+			ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+			next.encodeResourceToOutputStream(patient, outputStream);
+			assertEquals(next.encodeResourceToString(patient), outputStream.toString(StandardCharsets.UTF_8));
+		}
+	}
+
+	@Test
+	public void testParseWithPrimitiveValueInternTable() {
+		Bundle input = new Bundle();
+		for (int i = 0; i < 2; i++) {
+			Observation obs = new Observation();
+			obs.getMeta().addProfile("http://example.com/StructureDefinition/obs");
+			obs.getCode().addCoding().setSystem("http://loinc.org").setCode("29463-7").setDisplay("Body weight");
+			obs.getSubject().setReference("Patient/123");
+			input.addEntry().setResource(obs);
+		}
+		String encoded = ourCtx.newJsonParser().encodeResourceToString(input);
+
+		ourCtx.getParserOptions().setStreamingJsonParsing(true);
+		Bundle parsed = ourCtx.newJsonParser().parseResource(Bundle.class, encoded);
+		Observation obs0 = (Observation) parsed.getEntry().get(0).getResource();
+		Observation obs1 = (Observation) parsed.getEntry().get(1).getResource();
+		assertNotSame(obs0.getCode().getCodingFirstRep().getSystem(), obs1.getCode().getCodingFirstRep().getSystem());
+
+		ourCtx.getParserOptions().setPrimitiveValueInternTable(new StringInternTable(1024));
+		parsed = ourCtx.newJsonParser().parseResource(Bundle.class, encoded);
+		obs0 = (Observation) parsed.getEntry().get(0).getResource();
+		obs1 = (Observation) parsed.getEntry().get(1).getResource();
+		assertSame(obs0.getCode().getCodingFirstRep().getSystem(), obs1.getCode().getCodingFirstRep().getSystem());
+		assertSame(obs0.getCode().getCodingFirstRep().getCode(), obs1.getCode().getCodingFirstRep().getCode());
+		assertSame(obs0.getMeta().getProfile().get(0).getValue(), obs1.getMeta().getProfile().get(0).getValue());
+		assertSame(obs0.getSubject().getReference(), obs1.getSubject().getReference());
+		// Free text is not interned
+		assertNotSame(obs0.getCode().getCodingFirstRep().getDisplay(), obs1.getCode().getCodingFirstRep().getDisplay());
+		assertEquals(encoded, ourCtx.newJsonParser().encodeResourceToString(parsed));
+	}
+
+	@Test
+	public void testParseBundleWithDeferredEntries() {
+		String encoded = ourCtx.newJsonParser().encodeResourceToString(createDeferredEntryTestBundle());
+		JsonParser parser = (JsonParser) ourCtx.newJsonParser();
+
+		DeferredEntryBundle<Bundle> parsed = parser.parseBundleWithDeferredEntries(Bundle.class, new StringReader(encoded));
+
+		assertEquals("transaction", parsed.getBundleType());
+		assertEquals(2, parsed.getEntries().size());
+		DeferredEntryBundle.Entry entry0 = parsed.getEntries().get(0);
+		assertEquals("http://example.com/Patient/123", entry0.getFullUrl());
+		assertEquals("PUT", entry0.getRequestMethod());
+		assertEquals("Patient/123", entry0.getRequestUrl());
+		assertTrue(entry0.hasResource());
+		assertThat(new String(entry0.getResourceJson(), StandardCharsets.UTF_8), containsString("\"Simpson\""));
+
+		Patient patient = (Patient) entry0.getResource();
+		assertEquals("Simpson", patient.getNameFirstRep().getFamily());
+		assertEquals("http://example.com/Patient/123", patient.getId());
+		assertSame(patient, entry0.getResource());
+
+		// Converting to a regular Bundle parses the remaining entries, and reuses the ones already parsed
+		Bundle bundle = parsed.toBundle();
+		assertSame(bundle, parsed.toBundle());
+		assertSame(patient, bundle.getEntry().get(0).getResource());
+		Observation observation = (Observation) bundle.getEntry().get(1).getResource();
+		assertNotNull(observation);
+		assertSame(observation, parsed.getEntries().get(1).getResource());
+		assertEquals("1.50", observation.getValueQuantity().getValueElement().getValueAsString());
+		assertEquals("urn:uuid:0a9a0f3e-2b5c-4c67-a3c0-6e0e1fb1c0a5", observation.getId());
+
+		Bundle copy = bundle.copy();
+		assertEquals("Simpson", ((Patient) copy.getEntry().get(0).getResource()).getNameFirstRep().getFamily());
+		assertEquals("1.50", ((Observation) copy.getEntry().get(1).getResource()).getValueQuantity().getValueElement().getValueAsString());
+
+		assertEquals(encoded, ourCtx.newJsonParser().encodeResourceToString(bundle));
+		assertEquals(encoded, ourCtx.newJsonParser().encodeResourceToString(copy));
+	}
+
+	@Test
+	public void testParseBundleWithDeferredEntries_ConcurrentGetResource() throws Exception {
+		String encoded = ourCtx.newJsonParser().encodeResourceToString(createDeferredEntryTestBundle());
+		JsonParser parser = (JsonParser) ourCtx.newJsonParser();
+		DeferredEntryBundle<Bundle> parsed = parser.parseBundleWithDeferredEntries(Bundle.class, new StringReader(encoded));
+		DeferredEntryBundle.Entry entry = parsed.getEntries().get(0);
+
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<IBaseResource>> futures = new ArrayList<>();
+			for (int i = 0; i < 10; i++) {
+				futures.add(executor.submit(entry::getResource));
+				futures.add(executor.submit(() -> parsed.toBundle().getEntry().get(0).getResource()));
+			}
+			IBaseResource first = futures.get(0).get();
+			for (Future<IBaseResource> next : futures) {
+				assertSame(first, next.get());
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void testParseBundleWithDeferredEntries_NestedBundleNotDeferred() {
+		Bundle inner = new Bundle();
+		inner.setType(Bundle.BundleType.COLLECTION);
+		inner.addEntry().setFullUrl("Patient/123").setResource(new Patient().setActive(true));
+		Bundle outer = new Bundle();
+		outer.setType(Bundle.BundleType.COLLECTION);
+		outer.addEntry().setResource(inner);
+		String encoded = ourCtx.newJsonParser().encodeResourceToString(outer);
+
+		JsonParser parser = (JsonParser) ourCtx.newJsonParser();
+		DeferredEntryBundle<Bundle> parsed = parser.parseBundleWithDeferredEntries(Bundle.class, new StringReader(encoded));
+
+		Bundle parsedInner = (Bundle) parsed.getEntries().get(0).getResource();
+		assertTrue(((Patient) parsedInner.getEntryFirstRep().getResource()).getActive());
+		assertEquals(encoded, ourCtx.newJsonParser().encodeResourceToString(parsed.toBundle()));
+	}
+
+	private static Bundle createDeferredEntryTestBundle() {
+		Bundle input = new Bundle();
+		input.setType(Bundle.BundleType.TRANSACTION);
+		Patient patient = new Patient();
+		patient.setId("Patient/123");
+		patient.addName().setFamily("Simpson");
+		Observation observation = new Observation();
+		observation.setValue(new Quantity().setValue(new BigDecimal("1.50")));
+		input.addEntry()
+			.setFullUrl("http://example.com/Patient/123")
+			.setResource(patient)
+			.getRequest().setMethod(Bundle.HTTPVerb.PUT).setUrl("Patient/123");
+		input.addEntry()
+			.setFullUrl("urn:uuid:0a9a0f3e-2b5c-4c67-a3c0-6e0e1fb1c0a5")
+			.setResource(observation)
+			.getRequest().setMethod(Bundle.HTTPVerb.POST).setUrl("Observation");
+		return input;
+	}
+
 	private Composition createComposition(String sectionText) {
 		Composition c = new Composition();
 		Narrative compositionText = new Narrative().setStatus(Narrative.NarrativeStatus.GENERATED);
@@ -1,6 +1,7 @@
 package ca.uhn.fhir.parser;
 
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
@@ -9,6 +10,8 @@ import org.hl7.fhir.instance.model.api.IBaseResource;
 import org.hl7.fhir.instance.model.api.IBaseBundle;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
 
 import ca.uhn.fhir.context.FhirContext;
 import ca.uhn.fhir.util.BundleBuilder;
@@ -16,6 +19,15 @@ import ca.uhn.fhir.util.TestUtil;
 
 import org.hl7.fhir.r4.model.Patient;
 
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+
 public class NDJsonParserTest {
 	private static FhirContext ourCtx = FhirContext.forR4();
 	private static final org.slf4j.Logger ourLog = org.slf4j.LoggerFactory.getLogger(NDJsonParserTest.class);
@@ -121,6 +133,89 @@ public class NDJsonParserTest {
 		             ()->{parser.parseResource(Patient.class, myBundleJson);});
 	}
 	
+	@ParameterizedTest
+	@ValueSource(booleans = {true, false})
+	public void testParallelEncodeDecode(boolean thePreserveOrder) throws IOException {
+		BundleBuilder myBuilder = new BundleBuilder(ourCtx);
+		for (int i = 0; i < 100; i++) {
+			Patient p = new Patient();
+			p.setId("Patient/P" + i);
+			p.addName().setFamily("FAMILY" + i);
+			myBuilder.addCollectionEntry(p);
+		}
+		IBaseResource myBundle = myBuilder.getBundle();
+		String expectedNDJson = toNDJson(myBundle);
+
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			NDJsonParser parser = (NDJsonParser) ourCtx.newNDJsonParser();
+			parser.setExecutor(executor).setMaxReadAhead(8).setPreserveOrder(thePreserveOrder);
+
+			if (thePreserveOrder) {
+				assertEquals(expectedNDJson, parser.encodeResourceToString(myBundle));
+				assertTrue(fhirResourcesEqual(myBundle, parser.parseResource(expectedNDJson)));
+			} else {
+				assertEquals(100, parser.encodeResourceToString(myBundle).split("\n").length);
+			}
+
+			List<String> ids = new ArrayList<>();
+			parser.parseResources(new StringReader(expectedNDJson + "\n\n"), t -> ids.add(t.getIdElement().getIdPart()));
+			assertEquals(100, ids.size());
+			if (thePreserveOrder) {
+				assertEquals("P0", ids.get(0));
+				assertEquals("P99", ids.get(99));
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void testParallelDecodeInvalidLine() {
+		String ndjson = "{\"resourceType\":\"Patient\"}\n{\"resourceType\":\"Patient\",\"active\":\"foo\"}\n{\"resourceType\":\"Patient\"}";
+
+		NDJsonParser parser = (NDJsonParser) ourCtx.newNDJsonParser();
+		parser.setExecutor(ForkJoinPool.commonPool()).setParserErrorHandler(new StrictErrorHandler());
+		assertThrows(DataFormatException.class, () -> parser.parseResource(ndjson));
+	}
+
+	@Test
+	public void testSerialDecodeUsesErrorHandler() {
+		String ndjson = "{\"resourceType\":\"Patient\"}\n{\"resourceType\":\"Patient\",\"active\":\"foo\"}";
+
+		IParser parser = ourCtx.newNDJsonParser().setParserErrorHandler(new StrictErrorHandler());
+		assertThrows(DataFormatException.class, () -> parser.parseResource(ndjson));
+	}
+
+	@Test
+	public void testParallelEncodeUsesContextParserOptions() throws IOException {
+		FhirContext ctx = FhirContext.forR4();
+		ctx.getParserOptions().setStripVersionsFromReferences(false);
+
+		List<Patient> patients = new ArrayList<>();
+		for (int i = 0; i < 10; i++) {
+			Patient patient = new Patient();
+			patient.setId("Patient/P" + i);
+			patient.getManagingOrganization().setReference("Organization/O" + i + "/_history/2");
+			patients.add(patient);
+		}
+
+		StringWriter serial = new StringWriter();
+		((NDJsonParser) ctx.newNDJsonParser()).encodeResources(patients, serial);
+
+		StringWriter parallel = new StringWriter();
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			NDJsonParser parser = (NDJsonParser) ctx.newNDJsonParser();
+			parser.setExecutor(executor).encodeResources(patients, parallel);
+		} finally {
+			executor.shutdown();
+		}
+
+		assertTrue(serial.toString().contains("Organization/O0/_history/2"), serial.toString());
+		assertEquals(serial.toString(), parallel.toString());
+	}
+
 	@AfterAll
 	public static void afterClassClearContext() {
 		TestUtil.randomizeLocaleAndTimezone();
@@ -23,6 +23,9 @@ import org.junit.jupiter.api.Test;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.containsString;
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -30,6 +33,7 @@ import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 public class RDFParserR4Test {
+	private static final Logger ourLog = LoggerFactory.getLogger(RDFParserR4Test.class);
 	private static final FhirContext ourCtx = FhirContext.forR4Cached();
 
 
@@ -85,4 +89,59 @@ public class RDFParserR4Test {
 			assertThrows(InternalErrorException.class, ()->ourCtx.newRDFParser().encodeToString(communication)).getMessage());
 	}
 
+	@Test
+	public void testEncodeStreaming_RoundTrip() {
+		FhirContext ctx = FhirContext.forR4();
+		ctx.getParserOptions().setStreamingRdfEncoding(true);
+
+		Patient p = new Patient();
+		p.setId("Patient/123");
+		p.setActive(true);
+		p.addName().setFamily("Simpson").addGiven("Homer").addGiven("Jay");
+		p.addIdentifier().setSystem("http://foo").setValue("123");
+		p.getBirthDateElement().setValueAsString("1970-01-01");
+		p.addExtension("http://ext", new StringType("value"));
+
+		String encoded = ctx.newRDFParser().encodeResourceToString(p);
+		ourLog.info("Encoded:\n{}", encoded);
+		assertThat(encoded, containsString("@prefix fhir:"));
+		assertThat(encoded, containsString("<http://hl7.org/fhir/Patient/123>"));
+
+		Patient parsed = ctx.newRDFParser().parseResource(Patient.class, encoded);
+		assertEquals(
+			ourCtx.newJsonParser().encodeResourceToString(p),
+			ourCtx.newJsonParser().encodeResourceToString(parsed));
+
+		// The non-streaming parser must read the same resource
+		parsed = ourCtx.newRDFParser().parseResource(Patient.class, encoded);
+		assertEquals(
+			ourCtx.newJsonParser().encodeResourceToString(p),
+			ourCtx.newJsonParser().encodeResourceToString(parsed));
+	}
+
+	@Test
+	public void testEncodeStreaming_ContainedAndOutputStream() throws Exception {
+		FhirContext ctx = FhirContext.forR4();
+		ctx.getParserOptions().setStreamingRdfEncoding(true);
+
+		Patient patient = new Patient();
+		patient.setId("#pat");
+		patient.addName().setFamily("Simpson");
+		Observation obs = new Observation();
+		obs.setId("Observation/1");
+		obs.setStatus(Observation.ObservationStatus.FINAL);
+		obs.getContained().add(patient);
+		obs.setSubject(new Reference("#pat"));
+
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		ctx.newRDFParser().encodeResourceToOutputStream(obs, outputStream);
+		String encoded = outputStream.toString(StandardCharsets.UTF_8);
+		ourLog.info("Encoded:\n{}", encoded);
+
+		Observation parsed = ctx.newRDFParser().parseResource(Observation.class, encoded);
+		assertEquals(
+			ourCtx.newJsonParser().encodeResourceToString(obs),
+			ourCtx.newJsonParser().encodeResourceToString(parsed));
+	}
+
 }
@@ -9,7 +9,9 @@ import ca.uhn.fhir.rest.annotation.Search;
 import ca.uhn.fhir.rest.api.Constants;
 import ca.uhn.fhir.rest.api.EncodingEnum;
 import ca.uhn.fhir.rest.api.MethodOutcome;
+import ca.uhn.fhir.rest.api.PreferReturnEnum;
 import ca.uhn.fhir.rest.client.MyPatientWithExtensions;
+import ca.uhn.fhir.rest.client.api.IGenericClient;
 import ca.uhn.fhir.test.utilities.JettyUtil;
 import ca.uhn.fhir.util.TestUtil;
 import org.apache.commons.io.IOUtils;
@@ -19,6 +21,7 @@ import org.apache.http.client.methods.HttpGet;
 import org.apache.http.client.methods.HttpPost;
 import org.apache.http.client.methods.HttpRequestBase;
 import org.apache.http.client.methods.HttpTrace;
+import org.apache.http.entity.ByteArrayEntity;
 import org.apache.http.entity.ContentType;
 import org.apache.http.entity.StringEntity;
 import org.apache.http.impl.client.CloseableHttpClient;
@@ -28,6 +31,7 @@ import org.eclipse.jetty.server.Server;
 import org.eclipse.jetty.servlet.ServletHandler;
 import org.eclipse.jetty.servlet.ServletHolder;
 import org.hl7.fhir.instance.model.api.IBaseResource;
+import org.hl7.fhir.r4.model.Bundle;
 import org.hl7.fhir.r4.model.CapabilityStatement;
 import org.hl7.fhir.r4.model.CodeType;
 import org.hl7.fhir.r4.model.DateType;
@@ -39,6 +43,8 @@ import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.net.URI;
 import java.nio.charset.StandardCharsets;
@@ -85,7 +91,7 @@ public class ServerMimetypeR4Test {
 			String content = IOUtils.toString(status.getEntity().getContent(), StandardCharsets.UTF_8);
 			CapabilityStatement conf = ourCtx.newXmlParser().parseResource(CapabilityStatement.class, content);
 			List<String> strings = toStrings(conf.getFormat());
-			assertThat(strings, hasItems(Constants.CT_FHIR_XML_NEW, Constants.CT_FHIR_JSON_NEW, Constants.FORMAT_XML, Constants.FORMAT_JSON));
+			assertThat(strings, hasItems(Constants.CT_FHIR_XML_NEW, Constants.CT_FHIR_JSON_NEW, Constants.CT_FHIR_CBOR, Constants.FORMAT_XML, Constants.FORMAT_JSON, Constants.FORMAT_CBOR));
 		} finally {
 			status.close();
 		}
@@ -398,6 +404,78 @@ public class ServerMimetypeR4Test {
 		assertEquals(Constants.CT_FHIR_XML_NEW, status.getFirstHeader("content-type").getValue().replaceAll(";.*", ""));
 	}
 
+	@Test
+	public void testSearchWithAcceptCbor() throws Exception {
+		HttpGet httpGet = new HttpGet("http://localhost:" + ourPort + "/Patient");
+		httpGet.addHeader(Constants.HEADER_ACCEPT, Constants.HEADER_ACCEPT_VALUE_CBOR_OR_JSON);
+		try (CloseableHttpResponse status = ourClient.execute(httpGet)) {
+			byte[] responseContent = IOUtils.toByteArray(status.getEntity().getContent());
+
+			assertEquals(200, status.getStatusLine().getStatusCode());
+			assertEquals(Constants.CT_FHIR_CBOR, status.getFirstHeader("content-type").getValue());
+
+			Bundle bundle = ourCtx.newCborParser().parseResource(Bundle.class, new ByteArrayInputStream(responseContent));
+			assertEquals(2, bundle.getEntry().size());
+			assertEquals("The Family", ((Patient) bundle.getEntry().get(1).getResource()).getNameFirstRep().getFamily());
+		}
+	}
+
+	@Test
+	public void testSearchWithFormatCbor() throws Exception {
+		HttpGet httpGet = new HttpGet("http://localhost:" + ourPort + "/Patient?_format=cbor");
+		try (CloseableHttpResponse status = ourClient.execute(httpGet)) {
+			byte[] responseContent = IOUtils.toByteArray(status.getEntity().getContent());
+
+			assertEquals(200, status.getStatusLine().getStatusCode());
+			assertEquals(Constants.CT_FHIR_CBOR, status.getFirstHeader("content-type").getValue());
+
+			Bundle bundle = ourCtx.newCborParser().parseResource(Bundle.class, new ByteArrayInputStream(responseContent));
+			assertEquals(2, bundle.getEntry().size());
+		}
+	}
+
+	@Test
+	public void testCreateWithCbor() throws Exception {
+		Patient p = new Patient();
+		p.addName().setFamily("FAMILY");
+		ByteArrayOutputStream enc = new ByteArrayOutputStream();
+		ourCtx.newCborParser().encodeResourceToOutputStream(p, enc);
+
+		HttpPost httpPost = new HttpPost("http://localhost:" + ourPort + "/Patient");
+		httpPost.setEntity(new ByteArrayEntity(enc.toByteArray(), ContentType.parse(Constants.CT_FHIR_CBOR)));
+		httpPost.addHeader(Constants.HEADER_PREFER, Constants.HEADER_PREFER_RETURN + "=" + Constants.HEADER_PREFER_RETURN_REPRESENTATION);
+		try (CloseableHttpResponse status = ourClient.execute(httpPost)) {
+			byte[] responseContent = IOUtils.toByteArray(status.getEntity().getContent());
+
+			assertEquals(201, status.getStatusLine().getStatusCode());
+			assertEquals(Constants.CT_FHIR_CBOR, status.getFirstHeader("content-type").getValue());
+
+			Patient created = ourCtx.newCborParser().parseResource(Patient.class, new ByteArrayInputStream(responseContent));
+			assertEquals("FAMILY", created.getNameFirstRep().getFamily());
+			assertEquals("1", created.getIdElement().getIdPart());
+		}
+	}
+
+	@Test
+	public void testClientWithCborEncoding() {
+		IGenericClient client = ourCtx.newRestfulGenericClient("http://localhost:" + ourPort);
+		client.setEncoding(EncodingEnum.CBOR);
+
+		Bundle bundle = client.search().forResource(Patient.class).returnBundle(Bundle.class).execute();
+		assertEquals(2, bundle.getEntry().size());
+
+		Patient patient = client.read().resource(Patient.class).withId("123").execute();
+		assertEquals("Patient/123", patient.getIdElement().toUnqualifiedVersionless().getValue());
+
+		Patient input = new Patient();
+		input.addName().setFamily("FAMILY");
+		MethodOutcome outcome = client.create()
+				.resource(input)
+				.prefer(PreferReturnEnum.REPRESENTATION)
+				.execute();
+		assertEquals("FAMILY", ((Patient) outcome.getResource()).getNameFirstRep().getFamily());
+	}
+
 	private List<String> toStrings(List<CodeType> theFormat) {
 		ArrayList<String> retVal = new ArrayList<String>();
 		for (CodeType next : theFormat) {
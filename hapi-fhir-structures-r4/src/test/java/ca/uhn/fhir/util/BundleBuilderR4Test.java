@@ -14,7 +14,10 @@ import org.junit.jupiter.api.Test;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.ByteArrayOutputStream;
+import java.io.StringWriter;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.util.Calendar;
 import java.util.Date;
 import java.util.GregorianCalendar;
@@ -256,4 +259,55 @@ public class BundleBuilderR4Test {
 		assertEquals(Bundle.HTTPVerb.POST, bundle.getEntry().get(0).getRequest().getMethod());
 	}
 
+	@Test
+	public void testStreamingBuilder() {
+		StringWriter writer = new StringWriter();
+		BundleBuilder builder = BundleBuilder.newStreamingBuilder(myFhirContext, writer);
+		builder.setType("transaction");
+
+		for (int i = 0; i < 3; i++) {
+			Patient patient = new Patient();
+			patient.addIdentifier().setSystem("http://foo").setValue("ID" + i);
+			builder.addTransactionCreateEntry(patient).conditional("Patient?identifier=http://foo|ID" + i);
+		}
+		builder.addTransactionDeleteEntry("Patient", "123");
+		builder.finish();
+
+		ourLog.debug("Bundle:\n{}", writer);
+		Bundle bundle = myFhirContext.newJsonParser().parseResource(Bundle.class, writer.toString());
+
+		assertEquals(Bundle.BundleType.TRANSACTION, bundle.getType());
+		assertEquals(4, bundle.getEntry().size());
+		for (int i = 0; i < 3; i++) {
+			Bundle.BundleEntryComponent entry = bundle.getEntry().get(i);
+			assertEquals("ID" + i, ((Patient) entry.getResource()).getIdentifierFirstRep().getValue());
+			assertEquals(Bundle.HTTPVerb.POST, entry.getRequest().getMethod());
+			assertEquals("Patient", entry.getRequest().getUrl());
+			assertEquals("Patient?identifier=http://foo|ID" + i, entry.getRequest().getIfNoneExist());
+		}
+		assertEquals(Bundle.HTTPVerb.DELETE, bundle.getEntry().get(3).getRequest().getMethod());
+		assertEquals("Patient/123", bundle.getEntry().get(3).getRequest().getUrl());
+
+		assertThrows(IllegalStateException.class, builder::finish);
+		assertThrows(IllegalStateException.class, () -> builder.addTransactionCreateEntry(new Patient()));
+	}
+
+	@Test
+	public void testStreamingBuilderNoEntries() {
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		BundleBuilder builder = BundleBuilder.newStreamingBuilder(myFhirContext, outputStream);
+		builder.setType("collection");
+		builder.finish();
+
+		Bundle bundle = myFhirContext.newJsonParser().parseResource(Bundle.class, outputStream.toString(StandardCharsets.UTF_8));
+		assertEquals(Bundle.BundleType.COLLECTION, bundle.getType());
+		assertEquals(0, bundle.getEntry().size());
+	}
+
+	@Test
+	public void testFinishNonStreamingBuilder() {
+		BundleBuilder builder = new BundleBuilder(myFhirContext);
+		assertThrows(IllegalStateException.class, builder::finish);
+	}
+
 }
@@ -1517,6 +1517,53 @@ public class FhirTerserR4Test {
 
 
 
+	@Test
+	public void testCompile() {
+		Observation obs = new Observation();
+		obs.getCode().addCoding().setSystem("http://loinc.org").setCode("8480-6");
+		obs.getCode().addCoding().setSystem("http://snomed.info/sct").setCode("271649006");
+		obs.setValue(new Quantity().setValue(120).setUnit("mmHg"));
+		obs.addExtension("http://acme.org/extension", new StringType("extValue"));
+
+		FhirTerser terser = myCtx.newTerser();
+		CompiledTerserPath systemPath = terser.compile("Observation", "Observation.code.coding.system");
+		assertEquals("Observation.code.coding.system", systemPath.getPath());
+		assertEquals("Observation", systemPath.getRootDefinition().getName());
+		assertSame(systemPath, myCtx.newTerser().compile("Observation", "Observation.code.coding.system"));
+
+		List<IPrimitiveType> systems = systemPath.getValues(obs, IPrimitiveType.class);
+		assertThat(systems.stream().map(IPrimitiveType::getValueAsString).collect(Collectors.toList()), containsInAnyOrder("http://loinc.org", "http://snomed.info/sct"));
+		assertEquals(terser.getValues(obs, "Observation.code.coding.system"), systemPath.getValues(obs));
+
+		// Choice types
+		assertEquals(1, terser.compile("Observation", "Observation.valueQuantity").getValues(obs).size());
+		assertEquals(1, terser.compile("Observation", "Observation.value[x]").getValues(obs).size());
+		assertEquals(0, terser.compile("Observation", "Observation.valueString").getValues(obs).size());
+		assertEquals("mmHg", terser.compile("Observation", "Observation.valueQuantity.unit").getSingleValue(obs, StringType.class).orElseThrow().getValue());
+
+		// Extensions
+		List<IBase> extValues = terser.compile("Observation", "Observation.extension('http://acme.org/extension').value[x]").getValues(obs);
+		assertEquals(1, extValues.size());
+		assertEquals("extValue", ((StringType) extValues.get(0)).getValue());
+
+		// Path for another resource type never matches
+		assertEquals(0, terser.compile("Observation", "Patient.name").getValues(obs).size());
+
+		// Unknown elements
+		try {
+			terser.compile("Observation", "Observation.foo");
+			fail();
+		} catch (DataFormatException e) {
+			assertThat(e.getMessage(), Matchers.containsString("Unknown child name 'foo'"));
+		}
+		try {
+			terser.compile("Observation", "Observation.code.foo").getValues(obs);
+			fail();
+		} catch (DataFormatException e) {
+			assertThat(e.getMessage(), Matchers.containsString("Unknown child name 'foo'"));
+		}
+	}
+
 	private List<String> toStrings(List<StringType> theStrings) {
 		ArrayList<String> retVal = new ArrayList<>();
 		for (StringType next : theStrings) {
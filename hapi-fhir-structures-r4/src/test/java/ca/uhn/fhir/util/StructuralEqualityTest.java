@@ -0,0 +1,125 @@
+package ca.uhn.fhir.util;
+
+import ca.uhn.fhir.context.FhirContext;
+import org.hl7.fhir.r4.model.BooleanType;
+import org.hl7.fhir.r4.model.HumanName;
+import org.hl7.fhir.r4.model.Identifier;
+import org.hl7.fhir.r4.model.Patient;
+import org.hl7.fhir.r4.model.StringType;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class StructuralEqualityTest {
+
+	private static final FhirContext ourCtx = FhirContext.forR4Cached();
+
+	@Test
+	public void testEqualResources() {
+		StructuralEquality equality = new StructuralEquality(ourCtx);
+
+		Patient p1 = createPatient();
+		Patient p2 = createPatient();
+
+		assertTrue(equality.equalsDeep(p1, p2));
+		assertEquals(equality.hashDeep(p1), equality.hashDeep(p2));
+		assertTrue(p1.equalsDeep(p2));
+	}
+
+	@Test
+	public void testDifferentResources() {
+		StructuralEquality equality = new StructuralEquality(ourCtx);
+
+		Patient p1 = createPatient();
+		Patient p2 = createPatient();
+		p2.getNameFirstRep().getGiven().get(1).setValue("Q");
+		assertFalse(equality.equalsDeep(p1, p2));
+
+		p2 = createPatient();
+		p2.addIdentifier().setSystem("http://foo").setValue("456");
+		assertFalse(equality.equalsDeep(p1, p2));
+
+		p2 = createPatient();
+		p2.getNameFirstRep().getGiven().get(0).addExtension("http://ext", new BooleanType(true));
+		assertFalse(equality.equalsDeep(p1, p2));
+
+		p2 = createPatient();
+		p2.setId("Patient/456");
+		assertFalse(equality.equalsDeep(p1, p2));
+	}
+
+	@Test
+	public void testOrderIsSignificant() {
+		StructuralEquality equality = new StructuralEquality(ourCtx);
+
+		Patient p1 = new Patient();
+		p1.addName().setFamily("A");
+		p1.addName().setFamily("B");
+		Patient p2 = new Patient();
+		p2.addName().setFamily("B");
+		p2.addName().setFamily("A");
+
+		assertFalse(equality.equalsDeep(p1, p2));
+	}
+
+	@Test
+	public void testEmptyElementsIgnored() {
+		StructuralEquality equality = new StructuralEquality(ourCtx);
+
+		Patient p1 = createPatient();
+		Patient p2 = createPatient();
+		p2.addIdentifier();
+		p2.getNameFirstRep().addGivenElement();
+
+		assertTrue(equality.equalsDeep(p1, p2));
+		assertEquals(equality.hashDeep(p1), equality.hashDeep(p2));
+	}
+
+	@Test
+	public void testIgnoredPaths() {
+		StructuralEquality equality = new StructuralEquality(
+				ourCtx, Arrays.asList("id", "meta.versionId", "meta.lastUpdated"));
+
+		Patient p1 = createPatient();
+		p1.setId("Patient/123/_history/1");
+		p1.getMeta().setVersionId("1").setLastUpdated(new Date(1000L));
+		Patient p2 = createPatient();
+		p2.setId("Patient/123/_history/2");
+		p2.getMeta().setVersionId("2").setLastUpdated(new Date(2000L));
+
+		assertTrue(equality.equalsDeep(p1, p2));
+		assertEquals(equality.hashDeep(p1), equality.hashDeep(p2));
+
+		p2.getMeta().addProfile("http://profile");
+		assertFalse(equality.equalsDeep(p1, p2));
+	}
+
+	@Test
+	public void testDatatypes() {
+		StructuralEquality equality = new StructuralEquality(ourCtx);
+
+		HumanName n1 = new HumanName().setFamily("Simpson").addGiven("Homer");
+		HumanName n2 = new HumanName().setFamily("Simpson").addGiven("Homer");
+		assertTrue(equality.equalsDeep(n1, n2));
+		assertEquals(equality.hashDeep(n1), equality.hashDeep(n2));
+
+		assertTrue(equality.equalsDeep(new StringType("A"), new StringType("A")));
+		assertFalse(equality.equalsDeep(new StringType("A"), new StringType("B")));
+		assertFalse(equality.equalsDeep(n1, new Identifier().setValue("Simpson")));
+	}
+
+	private static Patient createPatient() {
+		Patient retVal = new Patient();
+		retVal.setId("Patient/123");
+		retVal.setActive(true);
+		retVal.addIdentifier().setSystem("http://foo").setValue("123");
+		retVal.addName().setFamily("Simpson").addGiven("Homer").addGiven("J");
+		retVal.addExtension("http://ext", new StringType("value"));
+		return retVal;
+	}
+}
@@ -25,6 +25,7 @@ import org.junit.jupiter.api.Test;
 import java.util.Collections;
 import java.util.List;
 import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 import static ca.uhn.fhir.util.BundleUtil.DIFFERENT_LINK_ERROR_MSG;
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -188,6 +189,41 @@ public class BundleUtilTest {
 		assertEquals(5, list.size());
 	}
 
+	@Test
+	public void testStreamResourcesOfType() {
+		Bundle bundle = new Bundle();
+		bundle.addEntry().setResource(new Patient().setId("Patient/A"));
+		bundle.addEntry().setResource(new Observation().setId("Observation/B"));
+		bundle.addEntry().getRequest().setMethod(DELETE).setUrl("Patient/C");
+		bundle.addEntry().setResource(new Patient().setId("Patient/D"));
+
+		List<String> ids = BundleUtil.streamResourcesOfType(ourCtx, bundle, Patient.class)
+			.map(t -> t.getIdElement().getValue())
+			.collect(Collectors.toList());
+		assertEquals(List.of("Patient/A", "Patient/D"), ids);
+
+		assertEquals(3, BundleUtil.streamResources(ourCtx, bundle).count());
+	}
+
+	@Test
+	public void testStreamEntries() {
+		Bundle bundle = new Bundle();
+		bundle.addEntry().setFullUrl("urn:uuid:1").setResource(new Patient()).getRequest().setMethod(POST).setUrl("Patient").setIfNoneExist("Patient?active=true");
+		bundle.addEntry().getRequest().setMethod(DELETE).setUrl("Patient/C");
+
+		List<BundleEntryParts> expected = BundleUtil.toListOfEntries(ourCtx, bundle);
+		List<BundleEntryParts> actual = BundleUtil.streamEntries(ourCtx, bundle).collect(Collectors.toList());
+		assertEquals(expected.size(), actual.size());
+		for (int i = 0; i < expected.size(); i++) {
+			assertEquals(expected.get(i).getFullUrl(), actual.get(i).getFullUrl());
+			assertEquals(expected.get(i).getRequestType(), actual.get(i).getRequestType());
+			assertEquals(expected.get(i).getUrl(), actual.get(i).getUrl());
+			assertEquals(expected.get(i).getConditionalUrl(), actual.get(i).getConditionalUrl());
+			assertEquals(expected.get(i).getResource(), actual.get(i).getResource());
+		}
+		assertEquals("Patient?active=true", actual.get(0).getConditionalUrl());
+	}
+
 	@Test
 	public void testProcessEntriesSetRequestUrl() {
 		Bundle bundle = new Bundle();
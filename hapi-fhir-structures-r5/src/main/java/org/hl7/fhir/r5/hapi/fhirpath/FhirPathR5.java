@@ -3,6 +3,7 @@ package org.hl7.fhir.r5.hapi.fhirpath;
 import ca.uhn.fhir.context.FhirContext;
 import ca.uhn.fhir.context.support.IValidationSupport;
 import ca.uhn.fhir.fhirpath.FhirPathExecutionException;
+import ca.uhn.fhir.fhirpath.FhirPathExpressionCache;
 import ca.uhn.fhir.fhirpath.IFhirPath;
 import ca.uhn.fhir.fhirpath.IFhirPathEvaluationContext;
 import ca.uhn.fhir.i18n.Msg;
@@ -25,23 +26,24 @@ import javax.annotation.Nonnull;
 public class FhirPathR5 implements IFhirPath {
 
 	private final FHIRPathEngine myEngine;
+	private FhirPathExpressionCache myExpressionCache;
 
 	public FhirPathR5(FhirContext theCtx) {
+		myExpressionCache = theCtx.getFhirPathExpressionCache();
 		IValidationSupport validationSupport = theCtx.getValidationSupport();
 		myEngine = new FHIRPathEngine(new HapiWorkerContext(theCtx, validationSupport));
 		myEngine.setDoNotEnforceAsSingletonRule(true);
 	}
 
-	@SuppressWarnings({"unchecked", "unchecked"})
 	@Override
 	public <T extends IBase> List<T> evaluate(IBase theInput, String thePath, Class<T> theReturnType) {
-		ExpressionNode parsed;
+		IParsedExpression parsed;
 		try {
-			parsed = myEngine.parse(thePath);
+			parsed = parse(thePath);
 		} catch (FHIRException e) {
 			throw new FhirPathExecutionException(Msg.code(2411) + e);
 		}
-		return (List<T>) evaluate(theInput, parsed, theReturnType);
+		return evaluate(theInput, parsed, theReturnType);
 	}
 
 	@SuppressWarnings("unchecked")
@@ -84,11 +86,14 @@ public class FhirPathR5 implements IFhirPath {
 
 	@Override
 	public IParsedExpression parse(String theExpression) {
-		return new ParsedExpression(myEngine.parse(theExpression));
+		return myExpressionCache.get(theExpression, t -> new ParsedExpression(myEngine.parse(t)));
 	}
 
 	@Override
 	public void setEvaluationContext(@Nonnull IFhirPathEvaluationContext theEvaluationContext) {
+		// Parsing resolves custom functions through the host services, so expressions parsed by this
+		// instance can no longer be shared with (or taken from) the context wide cache
+		myExpressionCache = new FhirPathExpressionCache();
 		myEngine.setHostServices(new FHIRPathEngine.IEvaluationContext() {
 
 			@Override
@@ -8,6 +8,7 @@ import org.hl7.fhir.instance.model.api.IBase;
 import org.hl7.fhir.instance.model.api.IBaseResource;
 import org.hl7.fhir.r4.model.HumanName;
 import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.MethodSource;
 
@@ -20,6 +21,9 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.endsWith;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 public class FhirPathTest {
 
@@ -83,6 +87,58 @@ public class FhirPathTest {
 		}
 	}
 
+	@ParameterizedTest
+	@MethodSource("provideContexts")
+	public void testParsedExpressionsAreCached(FhirContext theFhirContext) throws Exception {
+		IBaseResource p = createPatientResourceWithTwoNames(theFhirContext);
+		FhirPathExpressionCache cache = theFhirContext.getFhirPathExpressionCache();
+		cache.clear();
+
+		IFhirPath fp = theFhirContext.newFhirPath();
+		IFhirPath.IParsedExpression parsed = fp.parse("Patient.name.given");
+		assertEquals(1, cache.size());
+		assertSame(parsed, theFhirContext.newFhirPath().parse("Patient.name.given"));
+
+		assertEquals(4, fp.evaluate(p, "Patient.name.given", IBase.class).size());
+		assertEquals(4, fp.evaluate(p, parsed, IBase.class).size());
+		assertEquals(1, cache.size());
+
+		// Invalid expressions are not cached
+		assertThrows(FhirPathExecutionException.class, () -> fp.evaluate(p, "Patient....nameFOO", HumanName.class));
+		assertEquals(1, cache.size());
+	}
+
+	@ParameterizedTest
+	@MethodSource("provideContexts")
+	public void testParsedExpressionsAreNotSharedWithCustomEvaluationContext(FhirContext theFhirContext) {
+		IBaseResource p = createPatientResourceWithTwoNames(theFhirContext);
+		FhirPathExpressionCache cache = theFhirContext.getFhirPathExpressionCache();
+		cache.clear();
+
+		IFhirPath.IParsedExpression shared = theFhirContext.newFhirPath().parse("Patient.name.given");
+		assertEquals(1, cache.size());
+
+		IFhirPath fp = theFhirContext.newFhirPath();
+		fp.setEvaluationContext(new IFhirPathEvaluationContext() {});
+		IFhirPath.IParsedExpression parsed = fp.parse("Patient.name.given");
+		assertNotSame(shared, parsed);
+		assertSame(parsed, fp.parse("Patient.name.given"));
+		assertEquals(4, fp.evaluate(p, "Patient.name.given", IBase.class).size());
+
+		fp.parse("Patient.name.family");
+		assertEquals(1, cache.size());
+	}
+
+	@Test
+	public void testExpressionCacheIsBounded() {
+		FhirPathExpressionCache cache = new FhirPathExpressionCache(2);
+		cache.get("Patient.name", t -> new IFhirPath.IParsedExpression() {});
+		cache.get("Patient.active", t -> new IFhirPath.IParsedExpression() {});
+		assertEquals(2, cache.size());
+		cache.get("Patient.gender", t -> new IFhirPath.IParsedExpression() {});
+		assertEquals(1, cache.size());
+	}
+
 	@Nonnull
 	private static IBaseResource createPatientResourceWithTwoNames(FhirContext theFhirContext) {
 		IBaseResource resource = theFhirContext.getResourceDefinition("Patient").newInstance();